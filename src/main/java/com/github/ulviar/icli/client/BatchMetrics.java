@@ -0,0 +1,27 @@
+package com.github.ulviar.icli.client;
+
+import java.time.Duration;
+
+/**
+ * Counters collected by one {@link CommandRunner#runAll(java.util.stream.Stream, BatchPolicy)} call.
+ *
+ * @param submitted     commands that were started
+ * @param succeeded     commands that exited with {@code 0}
+ * @param failed        commands that failed to launch, exited non-zero, or failed while running
+ * @param cancelled     commands killed because the batch stopped early or the caller was interrupted
+ * @param peakProcesses highest number of processes that were running at the same time
+ * @param elapsed       wall-clock time of the whole batch
+ */
+public record BatchMetrics(
+        long submitted, long succeeded, long failed, long cancelled, int peakProcesses, Duration elapsed) {
+
+    /**
+     * Returns finished commands per second over the whole batch.
+     *
+     * @return throughput, or {@code 0} when no time elapsed
+     */
+    public double throughputPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : (succeeded + failed + cancelled) * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.ulviar.icli.client;
+
+import java.util.stream.Stream;
+
+/**
+ * Tuning for {@link CommandRunner#runAll(Stream, BatchPolicy)}.
+ *
+ * <p>A batch keeps at most {@link #parallelism()} processes alive at once and only draws the next command from the
+ * input stream when a slot frees up, so arbitrarily long streams never fork more than {@code parallelism} children.
+ * With {@link Failure#FAIL_FAST} the first failed command stops the batch: no further commands are started and the
+ * ones still running are killed.</p>
+ *
+ * @param parallelism maximum number of processes running concurrently; must be positive
+ * @param order       order in which {@link BatchResult#results()} are reported
+ * @param failure     whether a failed command stops the batch
+ */
+public record BatchPolicy(int parallelism, Order order, Failure failure) {
+
+    public BatchPolicy {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+    }
+
+    /**
+     * Returns a policy that runs up to {@code parallelism} commands at once, reports results in submission order, and
+     * runs every command regardless of failures.
+     *
+     * @param parallelism maximum number of processes running concurrently
+     *
+     * @return collect-all policy in submission order
+     */
+    public static BatchPolicy of(int parallelism) {
+        return new BatchPolicy(parallelism, Order.SUBMISSION, Failure.COLLECT_ALL);
+    }
+
+    /**
+     * @param value order in which results are reported
+     *
+     * @return copy of this policy with the supplied order
+     */
+    public BatchPolicy withOrder(Order value) {
+        return new BatchPolicy(parallelism, value, failure);
+    }
+
+    /**
+     * @param value failure handling for the batch
+     *
+     * @return copy of this policy with the supplied failure handling
+     */
+    public BatchPolicy withFailure(Failure value) {
+        return new BatchPolicy(parallelism, order, value);
+    }
+
+    /** Order of {@link BatchResult#results()}. */
+    public enum Order {
+        /** Results line up with the order in which commands were drawn from the stream. */
+        SUBMISSION,
+        /** Results appear in the order the commands finished. */
+        COMPLETION
+    }
+
+    /** How a failed command affects the rest of the batch. */
+    public enum Failure {
+        /** Every command runs; failures are reported alongside successes. */
+        COLLECT_ALL,
+        /** The first failure stops the batch and kills running commands, which report a cancellation. */
+        FAIL_FAST
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.ulviar.icli.client;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link CommandRunner#runAll(java.util.stream.Stream, BatchPolicy)}.
+ *
+ * @param results one result per started command, ordered by {@link BatchPolicy#order()}
+ * @param metrics counters for the batch
+ */
+public record BatchResult(List<CommandResult<String>> results, BatchMetrics metrics) {
+
+    public BatchResult {
+        results = List.copyOf(results);
+    }
+}
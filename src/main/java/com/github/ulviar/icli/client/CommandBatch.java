@@ -0,0 +1,185 @@
+package com.github.ulviar.icli.client;
+
+import com.github.ulviar.icli.client.internal.runner.CommandCallFactory;
+import com.github.ulviar.icli.engine.ProcessEngine;
+import com.github.ulviar.icli.engine.ProcessResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One {@link CommandRunner#runAll(java.util.stream.Stream, BatchPolicy)} call.
+ *
+ * <p>The calling thread draws commands from the input, waiting for a {@link Semaphore} permit before each launch, and
+ * starts them with {@link ProcessEngine#runAsync}. Completion callbacks record the result and return the permit, so
+ * once the caller has re-acquired every permit the batch is over. Stopping the batch cancels the in-flight futures,
+ * which makes the engine kill the corresponding processes. Result bookkeeping is guarded by {@link #lock}.</p>
+ */
+final class CommandBatch {
+
+    private final ProcessEngine engine;
+    private final CommandCallFactory callFactory;
+    private final BatchPolicy policy;
+    private final Semaphore permits;
+    private final Map<Integer, CompletableFuture<ProcessResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<@Nullable CommandResult<String>> bySubmission = new ArrayList<>();
+    private final List<CommandResult<String>> byCompletion = new ArrayList<>();
+    private volatile boolean stopped;
+    private int running;
+    private int peakProcesses;
+    private long succeeded;
+    private long failed;
+    private long cancelled;
+
+    private CommandBatch(ProcessEngine engine, CommandCallFactory callFactory, BatchPolicy policy) {
+        this.engine = engine;
+        this.callFactory = callFactory;
+        this.policy = policy;
+        this.permits = new Semaphore(policy.parallelism());
+    }
+
+    static BatchResult run(
+            ProcessEngine engine,
+            CommandCallFactory callFactory,
+            Iterator<Consumer<CommandCallBuilder>> customizers,
+            BatchPolicy policy) {
+        return new CommandBatch(engine, callFactory, policy).execute(customizers);
+    }
+
+    private BatchResult execute(Iterator<Consumer<CommandCallBuilder>> customizers) {
+        long started = System.nanoTime();
+        try {
+            while (!stopped && customizers.hasNext()) {
+                permits.acquire();
+                if (stopped) {
+                    permits.release();
+                    break;
+                }
+                Consumer<CommandCallBuilder> customizer;
+                try {
+                    customizer = customizers.next();
+                } catch (RuntimeException ex) {
+                    permits.release();
+                    throw ex;
+                }
+                launch(customizer);
+            }
+            permits.acquire(policy.parallelism());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            stop();
+            permits.acquireUninterruptibly(policy.parallelism());
+        } catch (RuntimeException ex) {
+            // The customizer source failed; do not leave children it already started running unattended.
+            stop();
+            permits.acquireUninterruptibly(policy.parallelism());
+            throw ex;
+        }
+        return result(Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void launch(Consumer<CommandCallBuilder> customizer) {
+        int slot;
+        lock.lock();
+        try {
+            slot = bySubmission.size();
+            bySubmission.add(null);
+            running++;
+            peakProcesses = Math.max(peakProcesses, running);
+        } finally {
+            lock.unlock();
+        }
+        CommandCall call;
+        CompletableFuture<ProcessResult> future;
+        try {
+            call = callFactory.createCustomCall(customizer);
+            future = engine.runAsync(call.command(), call.options());
+        } catch (RuntimeException ex) {
+            complete(slot, CommandResult.failure(ex));
+            return;
+        }
+        inFlight.put(slot, future);
+        if (stopped) {
+            // stop() may have swept inFlight before this child was registered.
+            future.cancel(true);
+        }
+        future.whenComplete((result, failure) -> {
+            inFlight.remove(slot);
+            complete(slot, outcome(call, result, failure));
+        });
+    }
+
+    private void complete(int slot, CommandResult<String> outcome) {
+        boolean failure = false;
+        lock.lock();
+        try {
+            bySubmission.set(slot, outcome);
+            byCompletion.add(outcome);
+            running--;
+            if (outcome.success()) {
+                succeeded++;
+            } else if (outcome.error() instanceof CancellationException) {
+                cancelled++;
+            } else {
+                failed++;
+                failure = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (failure && policy.failure() == BatchPolicy.Failure.FAIL_FAST) {
+            stop();
+        }
+        permits.release();
+    }
+
+    private void stop() {
+        stopped = true;
+        inFlight.values().forEach(future -> future.cancel(true));
+    }
+
+    private BatchResult result(Duration elapsed) {
+        lock.lock();
+        try {
+            List<CommandResult<String>> results = new ArrayList<>(bySubmission.size());
+            if (policy.order() == BatchPolicy.Order.COMPLETION) {
+                results.addAll(byCompletion);
+            } else {
+                for (CommandResult<String> result : bySubmission) {
+                    results.add(Objects.requireNonNull(result));
+                }
+            }
+            BatchMetrics metrics =
+                    new BatchMetrics(bySubmission.size(), succeeded, failed, cancelled, peakProcesses, elapsed);
+            return new BatchResult(results, metrics);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static CommandResult<String> outcome(
+            CommandCall call, @Nullable ProcessResult result, @Nullable Throwable failure) {
+        if (failure == null && result != null) {
+            return CommandRunner.toCommandResult(result);
+        }
+        Throwable error = Objects.requireNonNull(failure);
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            return CommandResult.failure(cause);
+        }
+        return CommandResult.failure(new CommandRunnerException(call, cause));
+    }
+}
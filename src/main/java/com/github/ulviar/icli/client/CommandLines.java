@@ -0,0 +1,193 @@
+package com.github.ulviar.icli.client;
+
+import com.github.ulviar.icli.engine.InteractiveSession;
+import com.github.ulviar.icli.engine.OutputCapture;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Running one-shot command whose stdout is consumed as a lazy stream of lines, created by
+ * {@link CommandRunner#lines()}.
+ *
+ * <p>Stdout is decoded incrementally and read only as the {@link #stream()} is pulled: a slow consumer leaves the pipe
+ * full, which pauses the process instead of buffering its output in memory. Stderr is drained in the background and
+ * retained up to the {@link OutputCapture#maxRetainedBytes() limit} of the stderr policy, so it can never stall the
+ * process. Once the stream is exhausted, {@link #exitCode()} and {@link #stderr()} report the outcome.
+ *
+ * <p>Always close the handle, preferably with try-with-resources; closing the stream closes it too. Closing before the
+ * output was fully consumed closes stdout, so a process still writing fails with a broken pipe, and then applies the
+ * shutdown plan.
+ *
+ * <pre>{@code
+ * try (CommandLines lines = runner.lines(call -> call.args("log", "--oneline"))) {
+ *     long merges = lines.stream().filter(line -> line.contains("Merge")).count();
+ *     if (lines.exitCode() != 0) {
+ *         throw new IllegalStateException(lines.stderr());
+ *     }
+ * }
+ * }</pre>
+ */
+public final class CommandLines implements AutoCloseable {
+
+    private final InteractiveSession session;
+    private final IncrementalLineDecoder decoder;
+    private final CompletableFuture<String> stderr;
+    private final AtomicBoolean streamed = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean exhausted;
+
+    CommandLines(InteractiveSession session, Charset stdoutCharset, OutputCapture stderrPolicy) {
+        this.session = session;
+        this.decoder = new IncrementalLineDecoder(session.stdout(), stdoutCharset);
+        this.stderr = drainStderr(session.stderr(), stderrPolicy);
+    }
+
+    /**
+     * Returns the stdout lines, without terminators, in the order the process wrote them. The stream is sequential and
+     * can be obtained only once.
+     *
+     * @return lazy stream of lines; closing it closes this handle
+     *
+     * @throws IllegalStateException when the stream was already obtained
+     * @throws UncheckedIOException  from terminal operations when reading stdout fails
+     */
+    public Stream<String> stream() {
+        if (!streamed.compareAndSet(false, true)) {
+            throw new IllegalStateException("The line stream can only be obtained once");
+        }
+        Spliterator<String> lines = Spliterators.spliteratorUnknownSize(
+                new LineIterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(lines, false).onClose(this::close);
+    }
+
+    /**
+     * Waits for the process to exit and returns its exit code.
+     *
+     * @return process exit code
+     *
+     * @throws IllegalStateException when stdout was neither fully consumed nor closed, since the process may be
+     *                               blocked writing to it
+     */
+    public int exitCode() {
+        requireFinished();
+        return session.onExit().join();
+    }
+
+    /**
+     * Waits for the process to exit and returns the retained stderr, decoded with the stderr policy's charset.
+     *
+     * @return retained stderr; empty when stderr is merged into stdout or discarded
+     *
+     * @throws IllegalStateException when stdout was neither fully consumed nor closed
+     */
+    public String stderr() {
+        requireFinished();
+        session.onExit().join();
+        return stderr.join();
+    }
+
+    /**
+     * @return future completed with the exit code once the process exits
+     */
+    public CompletableFuture<Integer> onExit() {
+        return session.onExit();
+    }
+
+    /**
+     * Releases the process. Unconsumed output is abandoned by closing stdout before the session is closed according to
+     * its shutdown plan. Closing more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (!exhausted) {
+            closeQuietly(session.stdout());
+        }
+        session.close();
+    }
+
+    private void requireFinished() {
+        if (!exhausted && !closed.get()) {
+            throw new IllegalStateException("stdout must be fully consumed or the handle closed first");
+        }
+    }
+
+    private static CompletableFuture<String> drainStderr(InputStream source, OutputCapture policy) {
+        long limit = policy.maxRetainedBytes().orElse(0);
+        CompletableFuture<String> drained = new CompletableFuture<>();
+        Thread.ofVirtual().name("icli-lines-stderr").start(() -> {
+            ByteArrayOutputStream retained = new ByteArrayOutputStream();
+            byte[] buffer = new byte[IncrementalLineDecoder.BUFFER_SIZE];
+            try (source) {
+                int read;
+                while ((read = source.read(buffer)) != -1) {
+                    int keep = (int) Math.min(read, limit - retained.size());
+                    if (keep > 0) {
+                        retained.write(buffer, 0, keep);
+                    }
+                }
+            } catch (IOException ex) {
+                // The stream closes when the session does; keep what was read so far.
+            }
+            drained.complete(retained.toString(policy.charset()));
+        });
+        return drained;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+            // best effort close
+        }
+    }
+
+    private final class LineIterator implements Iterator<String> {
+
+        private @Nullable String next;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            try {
+                next = decoder.readLine();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to read command output", ex);
+            }
+            if (next == null) {
+                exhausted = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public String next() {
+            String line = hasNext() ? next : null;
+            if (line == null) {
+                throw new NoSuchElementException();
+            }
+            next = null;
+            return line;
+        }
+    }
+}
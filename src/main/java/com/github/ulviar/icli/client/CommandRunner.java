@@ -4,10 +4,13 @@ import com.github.ulviar.icli.client.internal.runner.CommandCallFactory;
 import com.github.ulviar.icli.client.internal.runner.RunnerDefaults;
 import com.github.ulviar.icli.engine.CommandDefinition;
 import com.github.ulviar.icli.engine.ExecutionOptions;
+import com.github.ulviar.icli.engine.InteractiveSession;
 import com.github.ulviar.icli.engine.ProcessEngine;
 import com.github.ulviar.icli.engine.ProcessResult;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Executes a preconfigured console command using the provided {@link ProcessEngine}.
@@ -107,12 +110,7 @@ public final class CommandRunner {
      */
     public CommandResult<String> run(CommandCall call) {
         try {
-            ProcessResult result = engine.run(call.command(), call.options());
-            if (result.exitCode() == 0) {
-                return CommandResult.success(result.stdout());
-            }
-            return CommandResult.failure(
-                    new ProcessExecutionException(result.exitCode(), result.stdout(), result.stderr()));
+            return toCommandResult(engine.run(call.command(), call.options()));
         } catch (RuntimeException ex) {
             return CommandResult.failure(new CommandRunnerException(call, ex));
         }
@@ -151,4 +149,103 @@ public final class CommandRunner {
     public CompletableFuture<CommandResult<String>> runAsync(CommandCall call) {
         return scheduler.submit(() -> run(call));
     }
+
+    /**
+     * Runs one command per customiser with at most {@code parallelism} processes alive at once, collecting every
+     * result in submission order.
+     *
+     * @param customizers one customisation per command; consumed lazily as slots free up
+     * @param parallelism maximum number of concurrently running processes
+     *
+     * @return per-command results and batch metrics
+     *
+     * @see #runAll(Stream, BatchPolicy)
+     */
+    public BatchResult runAll(Stream<Consumer<CommandCallBuilder>> customizers, int parallelism) {
+        return runAll(customizers, BatchPolicy.of(parallelism));
+    }
+
+    /**
+     * Runs one command per customiser under {@code policy}. The calling thread blocks until the batch is over; each
+     * command is launched through {@link ProcessEngine#runAsync} only when fewer than {@link BatchPolicy#parallelism()}
+     * processes are running, so the stream can be arbitrarily long.
+     *
+     * <p>When the batch stops early (fail-fast, or the calling thread is interrupted) no further commands are drawn
+     * and running commands are cancelled, which kills their processes; they report a
+     * {@link java.util.concurrent.CancellationException}. An interrupted caller gets the partial result back with its
+     * interrupt flag restored. When the stream itself fails, running commands are cancelled the same way and the
+     * stream's exception is rethrown once they have finished.</p>
+     *
+     * @param customizers one customisation per command; consumed lazily as slots free up
+     * @param policy      parallelism, result order, and failure handling
+     *
+     * @return per-command results and batch metrics
+     */
+    public BatchResult runAll(Stream<Consumer<CommandCallBuilder>> customizers, BatchPolicy policy) {
+        try (customizers) {
+            return CommandBatch.run(engine, callFactory, customizers.iterator(), policy);
+        }
+    }
+
+    /**
+     * Starts the base command and returns its stdout as a lazy stream of lines.
+     *
+     * @return handle exposing the line stream, exit code, and stderr; must be closed
+     *
+     * @see #lines(CommandCall)
+     */
+    public CommandLines lines() {
+        return lines(callFactory.createBaseCall());
+    }
+
+    /**
+     * Starts a customised command and returns its stdout as a lazy stream of lines.
+     *
+     * @param customizer consumer that configures a fresh {@link CommandCallBuilder}
+     *
+     * @return handle exposing the line stream, exit code, and stderr; must be closed
+     *
+     * @see #lines(CommandCall)
+     */
+    public CommandLines lines(Consumer<CommandCallBuilder> customizer) {
+        return lines(callFactory.createCustomCall(customizer));
+    }
+
+    /**
+     * Starts {@code call} and returns its stdout as a lazy stream of lines, for commands whose output is too large to
+     * hold as one string. Stdout is decoded with the stdout policy's charset and read only as fast as the stream is
+     * consumed; the stdout capture limit does not apply. Stdin is closed immediately and the idle timeout is disabled,
+     * since the process is not expected to receive input.
+     *
+     * @param call fully constructed command and execution options
+     *
+     * @return handle exposing the line stream, exit code, and stderr; must be closed
+     *
+     * @throws CommandRunnerException when the process cannot be started
+     */
+    public CommandLines lines(CommandCall call) {
+        ExecutionOptions options = call.options().derive().idleTimeout(Duration.ZERO).build();
+        InteractiveSession session;
+        try {
+            session = engine.startSession(call.command(), options);
+        } catch (RuntimeException ex) {
+            throw new CommandRunnerException(call, ex);
+        }
+        session.closeStdin();
+        return new CommandLines(session, options.stdoutPolicy().charset(), options.stderrPolicy());
+    }
+
+    /**
+     * Maps an engine result to the client-level outcome: zero exits succeed with stdout, anything else fails with
+     * {@link ProcessExecutionException}. The engine result is closed.
+     */
+    static CommandResult<String> toCommandResult(ProcessResult result) {
+        try (result) {
+            if (result.exitCode() == 0) {
+                return CommandResult.success(result.stdout());
+            }
+            return CommandResult.failure(
+                    new ProcessExecutionException(result.exitCode(), result.stdout(), result.stderr()));
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package com.github.ulviar.icli.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Splits a byte stream into {@code '\n'}-terminated lines while decoding it chunk by chunk.
+ *
+ * <p>Bytes are read into a fixed buffer and decoded with a {@link CharsetDecoder} into a fixed character buffer, so
+ * multi-byte sequences split across reads are carried over by the decoder rather than re-read. A line that lies
+ * entirely within the decoded chunk is copied straight out of the character buffer; only a line spanning chunk
+ * boundaries is accumulated in a builder. A {@code '\r'} directly before the terminator is dropped, and a trailing
+ * line without a terminator is still returned. Malformed input is replaced, matching
+ * {@link String#String(byte[], Charset)}.
+ *
+ * <p>Reading happens only when {@link #readLine()} needs more characters, so a consumer that stops pulling leaves the
+ * source unread. Instances are not thread-safe.
+ */
+final class IncrementalLineDecoder {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private final InputStream source;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE).flip();
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE).flip();
+    private final StringBuilder pending = new StringBuilder();
+    private boolean endOfInput;
+    private boolean flushing;
+    private boolean finished;
+
+    IncrementalLineDecoder(InputStream source, Charset charset) {
+        this.source = source;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Returns the next line without its terminator, or {@code null} once the source is exhausted.
+     *
+     * @throws IOException when reading the source fails
+     */
+    @Nullable String readLine() throws IOException {
+        while (true) {
+            char[] array = chars.array();
+            int start = chars.position();
+            int limit = chars.limit();
+            for (int i = start; i < limit; i++) {
+                if (array[i] == '\n') {
+                    chars.position(i + 1);
+                    return completeLine(array, start, i);
+                }
+            }
+            pending.append(array, start, limit - start);
+            chars.position(limit);
+            if (!decodeChunk()) {
+                if (pending.isEmpty()) {
+                    return null;
+                }
+                String last = pending.toString();
+                pending.setLength(0);
+                return last;
+            }
+        }
+    }
+
+    private String completeLine(char[] array, int start, int end) {
+        if (pending.isEmpty()) {
+            int length = end > start && array[end - 1] == '\r' ? end - start - 1 : end - start;
+            return new String(array, start, length);
+        }
+        pending.append(array, start, end - start);
+        int length = pending.charAt(pending.length() - 1) == '\r' ? pending.length() - 1 : pending.length();
+        String line = pending.substring(0, length);
+        pending.setLength(0);
+        return line;
+    }
+
+    /**
+     * Refills the character buffer, reading from the source only when the decoder has no buffered bytes left to turn
+     * into characters.
+     *
+     * @return {@code true} when at least one character became available
+     */
+    private boolean decodeChunk() throws IOException {
+        if (finished) {
+            return false;
+        }
+        chars.clear();
+        while (true) {
+            if (!endOfInput) {
+                CoderResult result = decoder.decode(bytes, chars, false);
+                if (result.isOverflow() || chars.position() > 0) {
+                    break;
+                }
+                readBytes();
+                continue;
+            }
+            if (!flushing) {
+                if (decoder.decode(bytes, chars, true).isOverflow()) {
+                    break;
+                }
+                flushing = true;
+            }
+            if (decoder.flush(chars).isUnderflow()) {
+                finished = true;
+            }
+            break;
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+
+    private void readBytes() throws IOException {
+        bytes.compact();
+        int read = source.read(bytes.array(), bytes.position(), bytes.remaining());
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            bytes.position(bytes.position() + read);
+        }
+        bytes.flip();
+    }
+}
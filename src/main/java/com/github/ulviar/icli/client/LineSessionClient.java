@@ -3,6 +3,7 @@ package com.github.ulviar.icli.client;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -58,6 +59,38 @@ public final class LineSessionClient implements AutoCloseable {
         }
     }
 
+    /**
+     * Sends {@code input} and decodes the next response, failing if the whole exchange does not complete within
+     * {@code deadline}.
+     *
+     * <p>The read stays on the calling thread; a shared timer closes the session when the deadline elapses, which
+     * unblocks the pending read. After a timeout the session is therefore closed and the client must not be reused.
+     * A non-positive deadline fails immediately without sending anything.</p>
+     *
+     * @param input line to send to the interactive session
+     * @param deadline time budget for writing the request and reading the response
+     * @return {@link CommandResult#success(Object)} with the decoded payload, a failure containing
+     * {@link LineSessionTimeoutException} when the deadline elapsed, or a failure containing
+     * {@link LineSessionException} when IO/decoding errors occur
+     */
+    public CommandResult<String> process(String input, Duration deadline) {
+        if (deadline.isNegative() || deadline.isZero()) {
+            return CommandResult.failure(new LineSessionTimeoutException(input, deadline));
+        }
+        SessionWatchdog.Watch watch = SessionWatchdog.arm(deadline, delegate::close);
+        CommandResult<String> result;
+        boolean inTime;
+        try {
+            result = process(input);
+        } finally {
+            inTime = watch.finish();
+        }
+        if (!inTime) {
+            return CommandResult.failure(new LineSessionTimeoutException(input, deadline));
+        }
+        return result;
+    }
+
     public void closeStdin() {
         delegate.closeStdin();
     }
@@ -1,10 +1,13 @@
 package com.github.ulviar.icli.client;
 
+import org.jetbrains.annotations.Nullable;
+
 /**
  * Indicates that {@link LineSessionClient} was unable to exchange a complete request/response pair.
  *
  * <p>The exception wraps IO failures encountered while writing to stdin or decoding stdout (for example end-of-stream
- * without a terminating newline). The original input line is retained for diagnostics.</p>
+ * without a terminating newline). The original input line is retained for diagnostics. Deadline expiries surface as
+ * the {@link LineSessionTimeoutException} subclass.</p>
  *
  * <h2>Recommended handling</h2>
  * <ul>
@@ -14,12 +17,16 @@ package com.github.ulviar.icli.client;
  *     <li>avoid replaying the same request automatically unless the root cause has been identified.</li>
  * </ul>
  */
-public final class LineSessionException extends RuntimeException {
+public class LineSessionException extends RuntimeException {
 
     private final String input;
 
     LineSessionException(String input, Throwable cause) {
-        super("Failed to exchange line with session for input: " + input, cause);
+        this("Failed to exchange line with session for input: " + input, input, cause);
+    }
+
+    LineSessionException(String message, String input, @Nullable Throwable cause) {
+        super(message, cause);
         this.input = input;
     }
 
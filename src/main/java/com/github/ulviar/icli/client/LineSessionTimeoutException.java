@@ -0,0 +1,37 @@
+package com.github.ulviar.icli.client;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Indicates that {@link LineSessionClient#process(String, Duration)} did not complete its request/response exchange
+ * before the deadline elapsed.
+ *
+ * <p>The session was closed to unblock the pending read, so the client must not be reused. Pooled callers retire the
+ * worker that served the request.</p>
+ */
+public final class LineSessionTimeoutException extends LineSessionException {
+
+    private final Duration deadline;
+
+    LineSessionTimeoutException(String input, Duration deadline) {
+        super(
+                String.format(
+                        Locale.ROOT,
+                        "Timed out after %d ms while exchanging line with session for input: %s",
+                        deadline.toMillis(),
+                        input),
+                input,
+                null);
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns the deadline that elapsed.
+     *
+     * @return request deadline supplied by the caller
+     */
+    public Duration deadline() {
+        return deadline;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.ulviar.icli.client;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Enforces per-request deadlines for blocking session exchanges without dedicating a thread to each call.
+ *
+ * <p>All watches share one lazily started daemon thread. When a watch expires before the caller
+ * {@linkplain Watch#finish() finishes}, the supplied expiry action runs on that thread; for line sessions the action
+ * closes the session, which unblocks the pending read with end-of-stream or an IO failure. Cancelled watches are
+ * removed from the timer queue immediately so short deadlines that complete in time do not accumulate.</p>
+ */
+final class SessionWatchdog {
+
+    private SessionWatchdog() {}
+
+    /**
+     * Arms a watch that runs {@code onExpiry} after {@code timeout} unless {@link Watch#finish()} wins the race first.
+     *
+     * @param timeout  positive delay before the watch expires
+     * @param onExpiry action that aborts the blocked exchange
+     * @return armed watch
+     */
+    static Watch arm(Duration timeout, Runnable onExpiry) {
+        Watch watch = new Watch(onExpiry);
+        watch.future = Timer.EXECUTOR.schedule(watch::expire, saturatedNanos(timeout), TimeUnit.NANOSECONDS);
+        return watch;
+    }
+
+    private static long saturatedNanos(Duration timeout) {
+        try {
+            return timeout.toNanos();
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Single armed deadline. Exactly one of {@link #finish()} and expiry takes effect.
+     */
+    static final class Watch {
+
+        private final AtomicBoolean settled = new AtomicBoolean(false);
+        private final Runnable onExpiry;
+        private volatile @Nullable ScheduledFuture<?> future;
+
+        private Watch(Runnable onExpiry) {
+            this.onExpiry = onExpiry;
+        }
+
+        /**
+         * Disarms the watch after the exchange completed.
+         *
+         * @return {@code true} when the exchange finished in time; {@code false} when the watch already expired and
+         *         its result must be discarded
+         */
+        boolean finish() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            return true;
+        }
+
+        private void expire() {
+            if (settled.compareAndSet(false, true)) {
+                onExpiry.run();
+            }
+        }
+    }
+
+    private static final class Timer {
+
+        private static final ThreadFactory THREAD_FACTORY = runnable ->
+                Thread.ofPlatform().daemon(true).name("icli-session-deadlines", 0).unstarted(runnable);
+
+        private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+        private static ScheduledThreadPoolExecutor createExecutor() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, THREAD_FACTORY);
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
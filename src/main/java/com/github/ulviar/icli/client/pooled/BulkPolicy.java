@@ -0,0 +1,52 @@
+package com.github.ulviar.icli.client.pooled;
+
+/**
+ * Tuning for {@link ServiceProcessor#processAll(Iterable, BulkPolicy)} and
+ * {@link ServiceProcessor#streamAll(java.util.Iterator, BulkPolicy)}.
+ *
+ * <p>Bulk processing leases up to {@link #maxWorkers()} workers and keeps each one across many windows, renewing the
+ * lease before the pool's request timeout would reclaim it; tasks the pool cannot lend a worker to stop early. Every
+ * worker receives windows of up to {@link #pipelineDepth()} inputs: all lines of a window are written before the
+ * responses are read back in order, so a window costs one round-trip instead of one per input. When a worker fails,
+ * it is retired and the inputs it had not answered yet are handed to another worker, up to {@link #maxAttempts()}
+ * attempts per input.</p>
+ *
+ * @param maxWorkers    number of workers leased concurrently; must be positive
+ * @param pipelineDepth number of requests written to a worker before its responses are read; must be positive
+ * @param maxAttempts   attempts per input before it is reported as failed; must be positive
+ *
+ * @apiNote A window's requests and responses must fit in the operating system's pipe buffers, otherwise the worker
+ *     blocks writing responses while the processor is still writing requests. Keep {@code pipelineDepth} small for
+ *     large payloads.
+ */
+public record BulkPolicy(int maxWorkers, int pipelineDepth, int maxAttempts) {
+
+    private static final BulkPolicy DEFAULTS = new BulkPolicy(4, 8, 2);
+
+    public BulkPolicy {
+        if (maxWorkers <= 0) {
+            throw new IllegalArgumentException("maxWorkers must be > 0");
+        }
+        if (pipelineDepth <= 0) {
+            throw new IllegalArgumentException("pipelineDepth must be > 0");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be > 0");
+        }
+    }
+
+    /**
+     * Returns the policy used by {@link ServiceProcessor#processAll(Iterable)}: four workers, windows of eight
+     * requests, and one retry per input.
+     *
+     * @return default bulk policy
+     */
+    public static BulkPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    int maxInFlight() {
+        long window = (long) maxWorkers * pipelineDepth * 4;
+        return (int) Math.min(window, Integer.MAX_VALUE);
+    }
+}
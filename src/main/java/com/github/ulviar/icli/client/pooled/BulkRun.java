@@ -0,0 +1,360 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.client.ClientScheduler;
+import com.github.ulviar.icli.client.CommandResult;
+import com.github.ulviar.icli.client.InteractiveSessionClient;
+import com.github.ulviar.icli.client.ResponseDecoder;
+import com.github.ulviar.icli.engine.pool.api.LeaseScope;
+import com.github.ulviar.icli.engine.pool.api.ServiceProcessingException;
+import com.github.ulviar.icli.engine.pool.api.WorkerLease;
+import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One bulk run started by {@link ServiceProcessor#streamAll(Iterator, BulkPolicy)}.
+ *
+ * <p>Worker tasks on the {@link ClientScheduler} lease a worker once there is work for it, then pull windows of inputs
+ * from a shared cursor, pipeline each window through their leased worker, and publish results by sequence number. A
+ * lease is renewed between windows once it has been held for {@link LeaseSource#renewAfterNanos()}. The consumer side
+ * iterates results strictly in input order. At most {@link BulkPolicy#maxInFlight()} inputs are read ahead of the
+ * consumer, which keeps memory bounded for unbounded input iterators. All state is guarded by {@link #lock}.</p>
+ */
+final class BulkRun implements Iterator<CommandResult<String>>, AutoCloseable {
+
+    private final LeaseSource leaseSource;
+    private final ResponseDecoder decoder;
+    private final ServiceProcessorListener listener;
+    private final BulkPolicy policy;
+    private final Iterator<String> inputs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final ArrayDeque<Pending> retries = new ArrayDeque<>();
+    private final Map<Long, CommandResult<String>> ready = new HashMap<>();
+    private long issued;
+    private long delivered;
+    private boolean inputsExhausted;
+    private boolean cancelled;
+    private int activeWorkers;
+    private @Nullable Throwable fatal;
+
+    private BulkRun(
+            LeaseSource leaseSource,
+            ResponseDecoder decoder,
+            ServiceProcessorListener listener,
+            BulkPolicy policy,
+            Iterator<String> inputs) {
+        this.leaseSource = leaseSource;
+        this.decoder = decoder;
+        this.listener = listener;
+        this.policy = policy;
+        this.inputs = inputs;
+    }
+
+    static BulkRun start(
+            LeaseSource leaseSource,
+            ClientScheduler scheduler,
+            ResponseDecoder decoder,
+            ServiceProcessorListener listener,
+            BulkPolicy policy,
+            Iterator<String> inputs) {
+        BulkRun run = new BulkRun(leaseSource, decoder, listener, policy, inputs);
+        run.activeWorkers = policy.maxWorkers();
+        for (int i = 0; i < policy.maxWorkers(); i++) {
+            scheduler.submit(() -> {
+                run.runWorker();
+                return null;
+            });
+        }
+        return run;
+    }
+
+    @Override
+    public boolean hasNext() {
+        lock.lock();
+        try {
+            while (true) {
+                if (ready.containsKey(delivered)) {
+                    return true;
+                }
+                rethrowFatal();
+                if (cancelled || (inputsExhausted && delivered == issued)) {
+                    return false;
+                }
+                if (activeWorkers == 0) {
+                    throw new IllegalStateException("Bulk workers stopped before producing every result");
+                }
+                changed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CommandResult<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        lock.lock();
+        try {
+            CommandResult<String> result = ready.remove(delivered);
+            delivered++;
+            changed.signalAll();
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops handing out inputs. Workers finish their current window and return their leases.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            cancelled = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWorker() {
+        WorkerLease lease = null;
+        long leasedAt = 0L;
+        boolean counted = true;
+        try {
+            while (true) {
+                if (lease != null && System.nanoTime() - leasedAt >= leaseSource.renewAfterNanos()) {
+                    // Hand the in-sync worker back before the pool's request timeout reclaims it mid-window.
+                    lease.close();
+                    lease = null;
+                }
+                if (lease == null) {
+                    if (!awaitWork()) {
+                        return;
+                    }
+                    try {
+                        lease = leaseSource.acquire();
+                    } catch (RuntimeException ex) {
+                        if (acquireFailed(ex)) {
+                            counted = false;
+                            return;
+                        }
+                        continue;
+                    }
+                    leasedAt = System.nanoTime();
+                }
+                List<Pending> window = nextWindow();
+                if (window.isEmpty()) {
+                    return;
+                }
+                lease = pipeline(lease, window);
+            }
+        } catch (Throwable ex) {
+            if (lease != null) {
+                // Replies to the current window may still be unread on stdout; never hand such a worker back.
+                lease.reset(ResetRequest.retire(lease.scope().requestId()));
+            }
+            lock.lock();
+            try {
+                if (fatal == null) {
+                    fatal = ex;
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw ex;
+        } finally {
+            if (lease != null) {
+                lease.close();
+            }
+            if (counted) {
+                lock.lock();
+                try {
+                    activeWorkers--;
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles a failed lease acquisition. While other workers remain, this one stops and leaves every input to them,
+     * so a pool with fewer workers than {@link BulkPolicy#maxWorkers()} never fails inputs. The last worker has nobody
+     * to defer to, so it charges the failure to the next window as one failed attempt per input.
+     *
+     * @return {@code true} when the worker stopped and was already removed from {@link #activeWorkers}
+     */
+    private boolean acquireFailed(RuntimeException cause) {
+        lock.lock();
+        try {
+            if (activeWorkers > 1) {
+                activeWorkers--;
+                changed.signalAll();
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        List<Pending> window = nextWindow();
+        if (!window.isEmpty()) {
+            retryOrFail(window, cause);
+        }
+        return false;
+    }
+
+    /**
+     * Writes every input of {@code window} before reading the responses back in order.
+     *
+     * @return the lease for the next window, or {@code null} when the worker failed and was retired
+     */
+    private @Nullable WorkerLease pipeline(WorkerLease lease, List<Pending> window) {
+        LeaseScope scope = lease.scope();
+        InteractiveSessionClient client = WorkerClientContext.of(lease).interactive();
+        int answered = 0;
+        try {
+            for (Pending pending : window) {
+                listener.requestStarted(scope, pending.input());
+                client.sendLine(pending.input());
+            }
+            for (Pending pending : window) {
+                CommandResult<String> result = CommandResult.success(decoder.read(client.stdout(), client.charset()));
+                answered++;
+                publish(pending.sequence(), result);
+                listener.requestCompleted(scope, result);
+            }
+            return lease;
+        } catch (IOException | RuntimeException ex) {
+            try (lease) {
+                lease.reset(ResetRequest.retire(scope.requestId()));
+                listener.requestFailed(scope, ex);
+            }
+            retryOrFail(window.subList(answered, window.size()), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Waits until a retry or a new input can be claimed, so workers lease a worker only when there is work for it.
+     *
+     * @return {@code false} once the run has nothing left to hand out
+     */
+    private boolean awaitWork() {
+        lock.lock();
+        try {
+            while (true) {
+                if (cancelled || fatal != null) {
+                    return false;
+                }
+                if (!retries.isEmpty()) {
+                    return true;
+                }
+                if (!inputsExhausted && issued - delivered < policy.maxInFlight()) {
+                    if (inputs.hasNext()) {
+                        return true;
+                    }
+                    inputsExhausted = true;
+                    changed.signalAll();
+                }
+                if (inputsExhausted) {
+                    return false;
+                }
+                changed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Pending> nextWindow() {
+        lock.lock();
+        try {
+            while (true) {
+                if (cancelled || fatal != null) {
+                    return List.of();
+                }
+                List<Pending> window = new ArrayList<>(policy.pipelineDepth());
+                while (window.size() < policy.pipelineDepth() && !retries.isEmpty()) {
+                    window.add(retries.pollFirst());
+                }
+                while (window.size() < policy.pipelineDepth()
+                        && issued - delivered < policy.maxInFlight()
+                        && !inputsExhausted) {
+                    if (inputs.hasNext()) {
+                        window.add(new Pending(issued++, inputs.next(), 1));
+                    } else {
+                        inputsExhausted = true;
+                        changed.signalAll();
+                    }
+                }
+                if (!window.isEmpty()) {
+                    return window;
+                }
+                if (inputsExhausted) {
+                    return List.of();
+                }
+                changed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void retryOrFail(List<Pending> unanswered, Exception cause) {
+        lock.lock();
+        try {
+            for (Pending pending : unanswered) {
+                if (pending.attempt() < policy.maxAttempts()) {
+                    retries.addLast(new Pending(pending.sequence(), pending.input(), pending.attempt() + 1));
+                } else {
+                    ready.put(pending.sequence(), failure(pending, cause));
+                }
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(long sequence, CommandResult<String> result) {
+        lock.lock();
+        try {
+            ready.put(sequence, result);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rethrowFatal() {
+        Throwable failure = fatal;
+        if (failure instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+    }
+
+    private static CommandResult<String> failure(Pending pending, Exception cause) {
+        return CommandResult.failure(new ServiceProcessingException(
+                "Worker failed while processing input: " + pending.input(), cause));
+    }
+
+    private record Pending(long sequence, String input, int attempt) {}
+}
@@ -0,0 +1,135 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.engine.pool.api.PreferredWorker;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bounded-load consistent-hash ring behind {@link ConsistentHashRouting}.
+ *
+ * <p>Each worker owns {@link #VIRTUAL_NODES} points on the ring. Workers join when a lease reveals them and leave when
+ * the pool retires them, so the ring follows the pool without a separate membership feed. In-flight counts are tracked
+ * per worker to enforce the load bound. All state is guarded by the router's monitor.</p>
+ */
+final class ConsistentHashRouter {
+
+    static final int VIRTUAL_NODES = 64;
+
+    private final ConsistentHashRouting policy;
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+    private final Map<Integer, Integer> inFlight = new HashMap<>();
+    private int totalInFlight;
+    private long routed;
+    private long hits;
+    private long spilled;
+    private long misses;
+
+    ConsistentHashRouter(ConsistentHashRouting policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Chooses the preferred worker for {@code input}.
+     *
+     * @param input request payload
+     * @return preferred worker, or {@link PreferredWorker#any()} while the ring is empty
+     */
+    synchronized PreferredWorker route(String input) {
+        if (ring.isEmpty()) {
+            return PreferredWorker.any();
+        }
+        routed++;
+        long point = mix(policy.keyFunction().apply(input).hashCode());
+        int workers = inFlight.size();
+        int bound = (int) Math.ceil(policy.loadFactor() * (totalInFlight + 1) / workers);
+        Integer owner = null;
+        for (Integer candidate : ring.tailMap(point, true).values()) {
+            owner = owner == null ? candidate : owner;
+            if (inFlight.get(candidate) < bound) {
+                return chosen(candidate, owner);
+            }
+        }
+        for (Integer candidate : ring.headMap(point, false).values()) {
+            owner = owner == null ? candidate : owner;
+            if (inFlight.get(candidate) < bound) {
+                return chosen(candidate, owner);
+            }
+        }
+        return PreferredWorker.specific(owner);
+    }
+
+    /**
+     * Records that a lease for {@code leasedWorkerId} started after routing to {@code preference}.
+     */
+    synchronized void started(PreferredWorker preference, int leasedWorkerId) {
+        if (!inFlight.containsKey(leasedWorkerId)) {
+            inFlight.put(leasedWorkerId, 0);
+            for (int replica = 0; replica < VIRTUAL_NODES; replica++) {
+                ring.put(nodePoint(leasedWorkerId, replica), leasedWorkerId);
+            }
+        }
+        inFlight.merge(leasedWorkerId, 1, Integer::sum);
+        totalInFlight++;
+        if (preference.hasSpecificWorker()) {
+            if (preference.workerId() == leasedWorkerId) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+    }
+
+    /**
+     * Records that the lease for {@code workerId} finished.
+     */
+    synchronized void finished(int workerId) {
+        Integer current = inFlight.get(workerId);
+        if (current != null && current > 0) {
+            inFlight.put(workerId, current - 1);
+            totalInFlight--;
+        }
+    }
+
+    /**
+     * Removes a retired worker from the ring; its keys move to the next worker clockwise.
+     */
+    synchronized void workerRetired(int workerId) {
+        Integer current = inFlight.remove(workerId);
+        if (current == null) {
+            return;
+        }
+        totalInFlight -= current;
+        for (int replica = 0; replica < VIRTUAL_NODES; replica++) {
+            ring.remove(nodePoint(workerId, replica), workerId);
+        }
+    }
+
+    synchronized ConsistentHashRoutingMetrics metrics() {
+        return new ConsistentHashRoutingMetrics(routed, hits, spilled, misses, inFlight.size());
+    }
+
+    private PreferredWorker chosen(int candidate, int owner) {
+        if (candidate != owner) {
+            spilled++;
+        }
+        return PreferredWorker.specific(candidate);
+    }
+
+    private static long nodePoint(int workerId, int replica) {
+        return mix(((long) workerId << 32) | replica);
+    }
+
+    /**
+     * MurmurHash3 finaliser; spreads nearby inputs across the whole ring.
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
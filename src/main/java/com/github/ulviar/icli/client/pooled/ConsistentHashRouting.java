@@ -0,0 +1,44 @@
+package com.github.ulviar.icli.client.pooled;
+
+import java.util.function.Function;
+
+/**
+ * Opt-in policy that routes stateless requests with the same key to the same worker, so workers that cache per-key
+ * state in memory see that key again.
+ *
+ * <p>Workers are placed on a consistent-hash ring as the pool hands them out. Each request is hashed by
+ * {@link #keyFunction()} and sent to the first worker clockwise from the key whose in-flight request count stays within
+ * {@link #loadFactor()} times the average load; keys of an overloaded worker spill to the next worker on the ring. When
+ * the chosen worker is busy the pool falls back to any idle worker. Launching or retiring a worker only remaps the keys
+ * adjacent to it on the ring.</p>
+ *
+ * <p><strong>Usage example</strong></p>
+ *
+ * <pre>{@code
+ * service.commandRunner(spec -> spec.consistentHashRouting(
+ *         ConsistentHashRouting.of(input -> input.substring(0, input.indexOf(' ')))));
+ * }</pre>
+ *
+ * @param keyFunction derives the routing key from the request input
+ * @param loadFactor  bound on a worker's in-flight requests relative to the average; must be at least {@code 1}
+ */
+public record ConsistentHashRouting(Function<String, String> keyFunction, double loadFactor) {
+
+    private static final double DEFAULT_LOAD_FACTOR = 1.25;
+
+    public ConsistentHashRouting {
+        if (!(loadFactor >= 1.0) || Double.isInfinite(loadFactor)) {
+            throw new IllegalArgumentException("loadFactor must be >= 1 and finite");
+        }
+    }
+
+    /**
+     * Returns a policy with the default load factor of {@code 1.25}.
+     *
+     * @param keyFunction derives the routing key from the request input
+     * @return routing policy
+     */
+    public static ConsistentHashRouting of(Function<String, String> keyFunction) {
+        return new ConsistentHashRouting(keyFunction, DEFAULT_LOAD_FACTOR);
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.ulviar.icli.client.pooled;
+
+/**
+ * Snapshot of how well {@link ConsistentHashRouting} kept requests on the worker that owns their key.
+ *
+ * @param routed  requests routed while at least one worker was on the ring
+ * @param hits    routed requests that leased the worker chosen on the ring
+ * @param spilled routed requests whose key owner exceeded the load bound, so the next worker on the ring was chosen
+ * @param misses  routed requests that leased a different worker because the chosen one was busy or gone
+ * @param workers workers currently on the ring
+ */
+public record ConsistentHashRoutingMetrics(long routed, long hits, long spilled, long misses, int workers) {}
@@ -0,0 +1,14 @@
+package com.github.ulviar.icli.client.pooled;
+
+/**
+ * Snapshot of how often {@link ConversationAffinity} stickiness actually routed a conversation back to its previous
+ * worker.
+ *
+ * @param hits      reservations that leased the remembered worker
+ * @param misses    affinity lookups for keys with no remembered worker
+ * @param stale     remembered workers that could not be reused because the entry expired or the worker was busy or
+ *                  gone
+ * @param evictions keys dropped to respect the registry's size bound or TTL
+ * @param entries   number of keys currently remembered
+ */
+public record ConversationAffinityMetrics(long hits, long misses, long stale, long evictions, int entries) {}
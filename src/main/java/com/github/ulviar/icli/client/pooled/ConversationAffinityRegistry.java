@@ -1,7 +1,14 @@
 package com.github.ulviar.icli.client.pooled;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.OptionalInt;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.function.LongSupplier;
 
 /**
  * Registry that remembers the most recent worker id associated with an affinity key so future requests can reuse that
@@ -10,13 +17,19 @@ import java.util.concurrent.ConcurrentHashMap;
 sealed interface ConversationAffinityRegistry
         permits ConversationAffinityRegistry.EnabledRegistry, ConversationAffinityRegistry.DisabledRegistry {
 
+    /** Default upper bound for remembered affinity keys. */
+    int DEFAULT_MAX_ENTRIES = 4_096;
+
+    /** Default time after which an unused affinity key is forgotten. */
+    Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
     /**
-     * Returns a registry backed by a thread-safe map.
+     * Returns a bounded registry using {@link #DEFAULT_MAX_ENTRIES} and {@link #DEFAULT_TTL}.
      *
      * @return enabled registry instance
      */
     static ConversationAffinityRegistry enabled() {
-        return new EnabledRegistry();
+        return new EnabledRegistry(DEFAULT_MAX_ENTRIES, DEFAULT_TTL, System::nanoTime);
     }
 
     /**
@@ -30,10 +43,19 @@ sealed interface ConversationAffinityRegistry
 
     /**
      * Removes and returns a reserved worker id for the provided affinity (if any). The removal is atomic, ensuring the
-     * worker id is consumed exactly once per reservation request.
+     * worker id is consumed exactly once per reservation request. Expired entries are discarded and reported as stale.
      */
     OptionalInt reserve(ConversationAffinity affinity);
 
+    /**
+     * Records whether a reservation returned by {@link #reserve(ConversationAffinity)} actually led to the remembered
+     * worker. A mismatch means the worker was busy or gone and counts as stale.
+     *
+     * @param reservedWorkerId worker id returned by the reservation
+     * @param leasedWorkerId   worker id of the lease the pool handed out
+     */
+    void recordReservation(int reservedWorkerId, int leasedWorkerId);
+
     /**
      * Stores the association between an affinity key and the worker that just satisfied it so that subsequent calls to
      * {@link #reserve(ConversationAffinity)} can attempt to reuse the worker.
@@ -47,41 +69,139 @@ sealed interface ConversationAffinityRegistry
     void forget(ConversationAffinity affinity);
 
     /**
-     * Enabled registry that tracks worker ids in a {@link ConcurrentHashMap}.
+     * Drops every association pointing at {@code workerId}. Invoked when the pool retires the worker for any reason.
+     *
+     * @param workerId retired worker
+     */
+    void workerRetired(int workerId);
+
+    /**
+     * Returns hit, miss, and stale counters together with the current number of remembered keys.
+     *
+     * @return metrics snapshot
      */
-    final class EnabledRegistry implements ConversationAffinityRegistry {
+    ConversationAffinityMetrics metrics();
 
-        private final ConcurrentHashMap<String, Integer> workerByKey = new ConcurrentHashMap<>();
+    /**
+     * Enabled registry that keeps at most {@code maxEntries} keys in least-recently-used order, forgets keys unused for
+     * longer than the TTL, and indexes keys by worker so retirements invalidate them eagerly. All operations
+     * synchronise on the registry; they are short and never call out.
+     */
+    final class EnabledRegistry implements ConversationAffinityRegistry {
 
-        EnabledRegistry() {}
+        private final int maxEntries;
+        private final long ttlNanos;
+        private final LongSupplier nanoClock;
+        private final LinkedHashMap<String, Entry> workerByKey = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Integer, Set<String>> keysByWorker = new HashMap<>();
+        private long hits;
+        private long misses;
+        private long stale;
+        private long evictions;
+
+        EnabledRegistry(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("maxEntries must be > 0");
+            }
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be > 0");
+            }
+            this.maxEntries = maxEntries;
+            this.ttlNanos = ttl.toNanos();
+            this.nanoClock = nanoClock;
+        }
 
         @Override
-        public OptionalInt reserve(ConversationAffinity affinity) {
+        public synchronized OptionalInt reserve(ConversationAffinity affinity) {
             if (!affinity.isPresent()) {
                 return OptionalInt.empty();
             }
-            Integer workerId = workerByKey.remove(affinity.key());
-            if (workerId == null) {
+            Entry entry = workerByKey.remove(affinity.key());
+            if (entry == null) {
+                misses++;
+                return OptionalInt.empty();
+            }
+            unindex(affinity.key(), entry.workerId());
+            if (nanoClock.getAsLong() - entry.rememberedAt() >= ttlNanos) {
+                stale++;
                 return OptionalInt.empty();
             }
-            return OptionalInt.of(workerId);
+            return OptionalInt.of(entry.workerId());
         }
 
         @Override
-        public void remember(ConversationAffinity affinity, int workerId) {
+        public synchronized void recordReservation(int reservedWorkerId, int leasedWorkerId) {
+            if (reservedWorkerId == leasedWorkerId) {
+                hits++;
+            } else {
+                stale++;
+            }
+        }
+
+        @Override
+        public synchronized void remember(ConversationAffinity affinity, int workerId) {
             if (!affinity.isPresent()) {
                 return;
             }
-            workerByKey.put(affinity.key(), workerId);
+            String key = affinity.key();
+            Entry previous = workerByKey.put(key, new Entry(workerId, nanoClock.getAsLong()));
+            if (previous != null) {
+                unindex(key, previous.workerId());
+            }
+            keysByWorker.computeIfAbsent(workerId, _ -> new HashSet<>()).add(key);
+            evictOverflow();
         }
 
         @Override
-        public void forget(ConversationAffinity affinity) {
+        public synchronized void forget(ConversationAffinity affinity) {
             if (!affinity.isPresent()) {
                 return;
             }
-            workerByKey.remove(affinity.key());
+            Entry entry = workerByKey.remove(affinity.key());
+            if (entry != null) {
+                unindex(affinity.key(), entry.workerId());
+            }
+        }
+
+        @Override
+        public synchronized void workerRetired(int workerId) {
+            Set<String> keys = keysByWorker.remove(workerId);
+            if (keys == null) {
+                return;
+            }
+            for (String key : keys) {
+                workerByKey.remove(key);
+            }
+        }
+
+        @Override
+        public synchronized ConversationAffinityMetrics metrics() {
+            return new ConversationAffinityMetrics(hits, misses, stale, evictions, workerByKey.size());
+        }
+
+        private void evictOverflow() {
+            long now = nanoClock.getAsLong();
+            Iterator<Map.Entry<String, Entry>> eldest = workerByKey.entrySet().iterator();
+            while (eldest.hasNext()) {
+                Map.Entry<String, Entry> candidate = eldest.next();
+                boolean expired = now - candidate.getValue().rememberedAt() >= ttlNanos;
+                if (!expired && workerByKey.size() <= maxEntries) {
+                    return;
+                }
+                eldest.remove();
+                unindex(candidate.getKey(), candidate.getValue().workerId());
+                evictions++;
+            }
+        }
+
+        private void unindex(String key, int workerId) {
+            Set<String> keys = keysByWorker.get(workerId);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByWorker.remove(workerId);
+            }
         }
+
+        private record Entry(int workerId, long rememberedAt) {}
     }
 
     /**
@@ -90,6 +210,7 @@ sealed interface ConversationAffinityRegistry
     final class DisabledRegistry implements ConversationAffinityRegistry {
 
         private static final DisabledRegistry INSTANCE = new DisabledRegistry();
+        private static final ConversationAffinityMetrics EMPTY = new ConversationAffinityMetrics(0, 0, 0, 0, 0);
 
         private DisabledRegistry() {}
 
@@ -98,6 +219,11 @@ sealed interface ConversationAffinityRegistry
             return OptionalInt.empty();
         }
 
+        @Override
+        public void recordReservation(int reservedWorkerId, int leasedWorkerId) {
+            // no-op
+        }
+
         @Override
         public void remember(ConversationAffinity affinity, int workerId) {
             // no-op
@@ -107,5 +233,15 @@ sealed interface ConversationAffinityRegistry
         public void forget(ConversationAffinity affinity) {
             // no-op
         }
+
+        @Override
+        public void workerRetired(int workerId) {
+            // no-op
+        }
+
+        @Override
+        public ConversationAffinityMetrics metrics() {
+            return EMPTY;
+        }
     }
 }
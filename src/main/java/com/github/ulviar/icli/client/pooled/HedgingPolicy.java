@@ -0,0 +1,55 @@
+package com.github.ulviar.icli.client.pooled;
+
+import java.time.Duration;
+
+/**
+ * Opt-in policy that hedges idempotent pooled requests against stalled workers.
+ *
+ * <p>When a request has not produced a response within the {@link #latencyPercentile()} of recently observed
+ * latencies, the {@link ServiceProcessor} leases a second worker and sends it the same input. The first successful
+ * response wins. The winner aborts the losing attempt by closing its worker's session, and the losing worker is
+ * retired, so a stalled worker is freed at once and its unread output can never leak into a later request. Hedges
+ * draw from a global budget that accrues {@link #maxExtraLoad()} hedges per request, which bounds the
+ * extra load placed on the pool (for example {@code 0.05} allows at most 5% additional requests).</p>
+ *
+ * <p>Hedging starts only after the processor has observed enough successful requests to estimate the percentile, and
+ * never fires earlier than {@link #minimumDelay()}.</p>
+ *
+ * <p><strong>Usage example</strong></p>
+ *
+ * <pre>{@code
+ * service.commandRunner(spec -> spec.maxSize(4).hedging(HedgingPolicy.of(0.95, 0.05)));
+ * }</pre>
+ *
+ * @param latencyPercentile percentile of observed latency after which a hedge is sent; must lie in {@code (0, 1)}
+ * @param maxExtraLoad      fraction of requests that may be hedged; must lie in {@code (0, 1]}
+ * @param minimumDelay      lower bound for the hedge delay; must not be negative
+ *
+ * @apiNote Only enable hedging for idempotent requests: both workers receive the input and may act on it.
+ */
+public record HedgingPolicy(double latencyPercentile, double maxExtraLoad, Duration minimumDelay) {
+
+    public HedgingPolicy {
+        if (!(latencyPercentile > 0.0 && latencyPercentile < 1.0)) {
+            throw new IllegalArgumentException("latencyPercentile must be > 0 and < 1");
+        }
+        if (!(maxExtraLoad > 0.0 && maxExtraLoad <= 1.0)) {
+            throw new IllegalArgumentException("maxExtraLoad must be > 0 and <= 1");
+        }
+        if (minimumDelay.isNegative()) {
+            throw new IllegalArgumentException("minimumDelay must be >= 0");
+        }
+    }
+
+    /**
+     * Returns a policy without a minimum hedge delay.
+     *
+     * @param latencyPercentile percentile of observed latency after which a hedge is sent
+     * @param maxExtraLoad      fraction of requests that may be hedged
+     * @return hedging policy
+     * @throws IllegalArgumentException if either fraction lies outside its documented range
+     */
+    public static HedgingPolicy of(double latencyPercentile, double maxExtraLoad) {
+        return new HedgingPolicy(latencyPercentile, maxExtraLoad, Duration.ZERO);
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.engine.pool.api.PreferredWorker;
+import com.github.ulviar.icli.engine.pool.api.ProcessPool;
+import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig;
+import com.github.ulviar.icli.engine.pool.api.WorkerLease;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Supplies worker leases to {@link ServiceProcessor}, optionally bounded by a caller-provided wait.
+ */
+@FunctionalInterface
+interface LeaseSource {
+
+    /**
+     * Acquires a lease using the pool's default lease timeout.
+     *
+     * @return borrowed worker lease
+     */
+    WorkerLease acquire();
+
+    /**
+     * Acquires a lease, waiting at most {@code timeout}. Sources without timed acquisition fall back to
+     * {@link #acquire()}.
+     *
+     * @param timeout maximum wait; {@link Duration#ZERO} performs a non-blocking attempt
+     * @return borrowed worker lease
+     */
+    default WorkerLease acquire(Duration timeout) {
+        return acquire();
+    }
+
+    /**
+     * Acquires a lease that favours {@code preference}, waiting at most {@code timeout}. Sources without worker
+     * preferences ignore it and fall back to {@link #acquire(Duration)}.
+     *
+     * @param preference worker the caller would like to reuse
+     * @param timeout maximum wait; {@link Duration#ZERO} performs a non-blocking attempt
+     * @return borrowed worker lease
+     */
+    default WorkerLease acquire(PreferredWorker preference, Duration timeout) {
+        return acquire(timeout);
+    }
+
+    /**
+     * Acquires a lease that favours {@code preference} using the pool's default lease timeout.
+     *
+     * @param preference worker the caller would like to reuse
+     * @return borrowed worker lease
+     */
+    default WorkerLease acquire(PreferredWorker preference) {
+        return acquire();
+    }
+
+    /**
+     * Hints whether other callers are currently waiting for a worker, letting holders of long-lived leases give their
+     * worker back. Sources without that knowledge report no contention.
+     *
+     * @return {@code true} when returning a worker would unblock another caller
+     */
+    default boolean contended() {
+        return false;
+    }
+
+    /**
+     * Returns how long a single lease may be held before the source reclaims the worker on its own, as the pool does
+     * once {@link ProcessPoolConfig#requestTimeout()} elapses. Sources without such a limit return an empty optional.
+     *
+     * @return lease time limit, if any
+     */
+    default Optional<Duration> leaseLimit() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns how long a caller may keep one lease across several requests before it should give the worker back and
+     * re-acquire: half of {@link #leaseLimit()}, which leaves the second half as headroom for the request in progress.
+     *
+     * @return renewal interval in nanoseconds; {@link Long#MAX_VALUE} when leases are not time-limited
+     */
+    default long renewAfterNanos() {
+        return leaseLimit()
+                .map(limit -> {
+                    try {
+                        return limit.toNanos() / 2;
+                    } catch (ArithmeticException ex) {
+                        return Long.MAX_VALUE;
+                    }
+                })
+                .orElse(Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a source backed by {@code pool}.
+     *
+     * @param pool           pool that lends workers
+     * @param requestTimeout the pool's {@link ProcessPoolConfig#requestTimeout()}; zero or negative disables the limit
+     * @return lease source delegating to {@link ProcessPool#acquire()}, {@link ProcessPool#acquire(Duration)}, and
+     *     {@link ProcessPool#hasWaiters()}
+     */
+    static LeaseSource of(ProcessPool pool, Duration requestTimeout) {
+        Optional<Duration> limit =
+                requestTimeout.compareTo(Duration.ZERO) > 0 ? Optional.of(requestTimeout) : Optional.empty();
+        return new LeaseSource() {
+            @Override
+            public WorkerLease acquire() {
+                return pool.acquire();
+            }
+
+            @Override
+            public WorkerLease acquire(Duration timeout) {
+                return pool.acquire(timeout);
+            }
+
+            @Override
+            public WorkerLease acquire(PreferredWorker preference, Duration timeout) {
+                return pool.acquireWithPreference(preference, timeout);
+            }
+
+            @Override
+            public WorkerLease acquire(PreferredWorker preference) {
+                return pool.acquireWithPreference(preference);
+            }
+
+            @Override
+            public boolean contended() {
+                return pool.hasWaiters();
+            }
+
+            @Override
+            public Optional<Duration> leaseLimit() {
+                return limit;
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.client.CommandResult;
+import com.github.ulviar.icli.client.ProcessExecutionException;
+import com.github.ulviar.icli.engine.CommandDefinition;
+import com.github.ulviar.icli.engine.ExecutionOptions;
+import com.github.ulviar.icli.engine.ProcessEngine;
+import com.github.ulviar.icli.engine.ProcessResult;
+import com.github.ulviar.icli.engine.ShutdownPlan;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs pooled requests as one-shot processes when the pool is saturated, as configured by a {@link SpilloverPolicy}.
+ *
+ * <p>A single instance is shared by every {@link ServiceProcessor} created from the same {@link ProcessPoolClient} so
+ * the {@link SpilloverPolicy#maxConcurrent()} cap applies across decoders and listener views. Stdout is returned with a
+ * single trailing line terminator removed so results line up with line-delimited pooled responses.</p>
+ */
+final class OneShotSpillover {
+
+    private final ProcessEngine engine;
+    private final CommandDefinition workerCommand;
+    private final ExecutionOptions options;
+    private final SpilloverPolicy policy;
+    private final Semaphore permits;
+
+    OneShotSpillover(
+            ProcessEngine engine, CommandDefinition workerCommand, ExecutionOptions options, SpilloverPolicy policy) {
+        this.engine = engine;
+        this.workerCommand = workerCommand;
+        this.options = options;
+        this.policy = policy;
+        this.permits = new Semaphore(policy.maxConcurrent());
+    }
+
+    /**
+     * Attempts to serve {@code input} with a one-shot process.
+     *
+     * @param input    payload that could not be dispatched to a pooled worker
+     * @param budget   caller's end-to-end budget; when bounded, its remainder caps the one-shot run's soft timeout
+     * @param listener listener notified about the spillover outcome
+     * @return the one-shot result, or {@link Optional#empty()} when the spillover concurrency cap is exhausted
+     */
+    Optional<CommandResult<String>> tryRun(String input, RequestBudget budget, ServiceProcessorListener listener) {
+        if (!permits.tryAcquire()) {
+            listener.spilloverRejected(input);
+            return Optional.empty();
+        }
+        long started = System.nanoTime();
+        CommandResult<String> result;
+        try {
+            result = run(input, optionsWithin(budget));
+        } finally {
+            permits.release();
+        }
+        listener.requestSpilledOver(input, result, Duration.ofNanos(System.nanoTime() - started));
+        return Optional.of(result);
+    }
+
+    private ExecutionOptions optionsWithin(RequestBudget budget) {
+        if (!budget.bounded()) {
+            return options;
+        }
+        ShutdownPlan plan = options.shutdownPlan();
+        Duration remaining = budget.remaining();
+        if (remaining.isZero() || remaining.compareTo(plan.softTimeout()) >= 0) {
+            return options;
+        }
+        return options.derive()
+                .shutdownPlan(new ShutdownPlan(remaining, plan.gracePeriod(), plan.signal()))
+                .build();
+    }
+
+    private CommandResult<String> run(String input, ExecutionOptions runOptions) {
+        try (ProcessResult result = engine.run(policy.commandFactory().apply(workerCommand, input), runOptions)) {
+            if (result.exitCode() == 0) {
+                return CommandResult.success(stripLineTerminator(result.stdout()));
+            }
+            return CommandResult.failure(
+                    new ProcessExecutionException(result.exitCode(), result.stdout(), result.stderr()));
+        } catch (RuntimeException ex) {
+            return CommandResult.failure(ex);
+        }
+    }
+
+    private static String stripLineTerminator(String stdout) {
+        int end = stdout.length();
+        if (end > 0 && stdout.charAt(end - 1) == '\n') {
+            end--;
+            if (end > 0 && stdout.charAt(end - 1) == '\r') {
+                end--;
+            }
+        }
+        return stdout.substring(0, end);
+    }
+}
@@ -22,10 +22,24 @@ public final class PooledClientSpec {
 
     private final ProcessPoolConfig poolConfig;
     private final ServiceProcessorListener listener;
+    private final @Nullable SpilloverPolicy spillover;
+    private final @Nullable HedgingPolicy hedging;
+    private final @Nullable ResponseCachePolicy responseCache;
+    private final @Nullable ConsistentHashRouting routing;
 
-    private PooledClientSpec(ProcessPoolConfig poolConfig, ServiceProcessorListener listener) {
+    private PooledClientSpec(
+            ProcessPoolConfig poolConfig,
+            ServiceProcessorListener listener,
+            @Nullable SpilloverPolicy spillover,
+            @Nullable HedgingPolicy hedging,
+            @Nullable ResponseCachePolicy responseCache,
+            @Nullable ConsistentHashRouting routing) {
         this.poolConfig = poolConfig;
         this.listener = listener;
+        this.spillover = spillover;
+        this.hedging = hedging;
+        this.responseCache = responseCache;
+        this.routing = routing;
     }
 
     /**
@@ -59,6 +73,46 @@ public final class PooledClientSpec {
         return listener;
     }
 
+    /**
+     * Returns the spillover policy associated with this spec.
+     *
+     * @return spillover policy, or {@code null} when spillover is disabled
+     */
+    @Nullable
+    SpilloverPolicy spillover() {
+        return spillover;
+    }
+
+    /**
+     * Returns the hedging policy associated with this spec.
+     *
+     * @return hedging policy, or {@code null} when hedging is disabled
+     */
+    @Nullable
+    HedgingPolicy hedging() {
+        return hedging;
+    }
+
+    /**
+     * Returns the response cache policy associated with this spec.
+     *
+     * @return response cache policy, or {@code null} when caching is disabled
+     */
+    @Nullable
+    ResponseCachePolicy responseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Returns the consistent-hash routing policy associated with this spec.
+     *
+     * @return routing policy, or {@code null} when requests may go to any worker
+     */
+    @Nullable
+    ConsistentHashRouting consistentHashRouting() {
+        return routing;
+    }
+
     /**
      * Returns a configurator that keeps all defaults untouched.
      *
@@ -94,6 +148,10 @@ public final class PooledClientSpec {
     public static final class Builder {
         private final ProcessPoolConfig.Builder poolBuilder;
         private ServiceProcessorListener listener = ServiceProcessorListener.noOp();
+        private @Nullable SpilloverPolicy spillover;
+        private @Nullable HedgingPolicy hedging;
+        private @Nullable ResponseCachePolicy responseCache;
+        private @Nullable ConsistentHashRouting routing;
 
         private Builder(ProcessPoolConfig.Builder poolBuilder) {
             this.poolBuilder = poolBuilder;
@@ -121,6 +179,51 @@ public final class PooledClientSpec {
             return this;
         }
 
+        /**
+         * Enables one-shot spillover for requests the pool cannot serve. Spillover is disabled by default.
+         *
+         * @param policy spillover policy applied by {@link ServiceProcessor}
+         * @return this builder
+         */
+        public Builder spillover(SpilloverPolicy policy) {
+            this.spillover = policy;
+            return this;
+        }
+
+        /**
+         * Enables request hedging for idempotent requests. Hedging is disabled by default.
+         *
+         * @param policy hedging policy applied by {@link ServiceProcessor}
+         * @return this builder
+         */
+        public Builder hedging(HedgingPolicy policy) {
+            this.hedging = policy;
+            return this;
+        }
+
+        /**
+         * Enables response caching with single-flight request coalescing. Caching is disabled by default.
+         *
+         * @param policy cache bounds applied by {@link ServiceProcessor}
+         * @return this builder
+         */
+        public Builder responseCache(ResponseCachePolicy policy) {
+            this.responseCache = policy;
+            return this;
+        }
+
+        /**
+         * Routes stateless requests with the same key to the same worker when it is available. Routing is disabled by
+         * default.
+         *
+         * @param policy key function and load bound applied by {@link ServiceProcessor}
+         * @return this builder
+         */
+        public Builder consistentHashRouting(ConsistentHashRouting policy) {
+            this.routing = policy;
+            return this;
+        }
+
         public Builder workerOptions(ExecutionOptions options) {
             poolBuilder.workerOptions(options);
             return this;
@@ -156,6 +259,26 @@ public final class PooledClientSpec {
             return this;
         }
 
+        public Builder replacementThreshold(double value) {
+            poolBuilder.replacementThreshold(value);
+            return this;
+        }
+
+        public Builder retirementJitter(double value) {
+            poolBuilder.retirementJitter(value);
+            return this;
+        }
+
+        public Builder launchFailureThreshold(int value) {
+            poolBuilder.launchFailureThreshold(value);
+            return this;
+        }
+
+        public Builder launchProbeBackoff(Duration initial, Duration max) {
+            poolBuilder.launchProbeBackoff(initial, max);
+            return this;
+        }
+
         public Builder leaseTimeout(Duration value) {
             poolBuilder.leaseTimeout(value);
             return this;
@@ -203,7 +326,7 @@ public final class PooledClientSpec {
 
         private PooledClientSpec build() {
             ProcessPoolConfig config = poolBuilder.build();
-            return new PooledClientSpec(config, listener);
+            return new PooledClientSpec(config, listener, spillover, hedging, responseCache, routing);
         }
     }
 }
@@ -2,8 +2,12 @@ package com.github.ulviar.icli.client.pooled;
 
 import com.github.ulviar.icli.client.CommandResult;
 import com.github.ulviar.icli.client.ResponseDecoder;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 /**
  * Helper that delegates pooled request/response workflows to a shared {@link ServiceProcessor}.
@@ -43,6 +47,18 @@ public final class PooledCommandRunner implements AutoCloseable {
         return processor.process(input);
     }
 
+    /**
+     * Processes the supplied input using a pooled worker, giving up once {@code deadline} has elapsed.
+     *
+     * @param input payload forwarded to the worker
+     * @param deadline end-to-end budget covering lease acquisition, the write, and the read
+     * @return command result describing success or failure
+     * @see ServiceProcessor#process(String, Duration)
+     */
+    public CommandResult<String> process(String input, Duration deadline) {
+        return processor.process(input, deadline);
+    }
+
     /**
      * Asynchronously processes the supplied input using the shared scheduler.
      *
@@ -53,6 +69,64 @@ public final class PooledCommandRunner implements AutoCloseable {
         return processor.processAsync(input);
     }
 
+    /**
+     * Asynchronously processes the supplied input within {@code deadline} using the shared scheduler.
+     *
+     * @param input payload forwarded to the worker
+     * @param deadline end-to-end budget, measured from this call
+     * @return future completed with the command result
+     */
+    public CompletableFuture<CommandResult<String>> processAsync(String input, Duration deadline) {
+        return processor.processAsync(input, deadline);
+    }
+
+    /**
+     * Processes every input across several pooled workers and returns the results in input order.
+     *
+     * @param inputs payloads forwarded to the workers
+     * @return one result per input
+     * @see ServiceProcessor#processAll(Iterable)
+     */
+    public List<CommandResult<String>> processAll(Iterable<String> inputs) {
+        return processor.processAll(inputs);
+    }
+
+    /**
+     * Processes every input across several pooled workers using {@code policy} and returns the results in input
+     * order.
+     *
+     * @param inputs payloads forwarded to the workers
+     * @param policy worker count, pipeline depth, and retry budget
+     * @return one result per input
+     * @see ServiceProcessor#processAll(Iterable, BulkPolicy)
+     */
+    public List<CommandResult<String>> processAll(Iterable<String> inputs, BulkPolicy policy) {
+        return processor.processAll(inputs, policy);
+    }
+
+    /**
+     * Streams results for lazily consumed inputs in input order.
+     *
+     * @param inputs payloads forwarded to the workers
+     * @param policy worker count, pipeline depth, and retry budget
+     * @return ordered result stream that must be closed when not fully consumed
+     * @see ServiceProcessor#streamAll(Iterator, BulkPolicy)
+     */
+    public Stream<CommandResult<String>> streamAll(Iterator<String> inputs, BulkPolicy policy) {
+        return processor.streamAll(inputs, policy);
+    }
+
+    /**
+     * Returns a processor that holds one worker across consecutive requests from the same caller.
+     *
+     * @param policy burst length and idle gap bounding how long the worker stays leased
+     * @return sticky processor bound to this runner's decoder; close it when the batch ends
+     * @see ServiceProcessor#sticky(StickyLeasePolicy)
+     */
+    public StickyProcessor sticky(StickyLeasePolicy policy) {
+        return processor.sticky(policy);
+    }
+
     /**
      * Returns a runner that decodes responses using the provided {@link ResponseDecoder} while sharing the same pool.
      * If the decoder matches the current runner, {@code this} is returned.
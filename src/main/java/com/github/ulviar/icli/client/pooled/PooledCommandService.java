@@ -9,7 +9,6 @@ import com.github.ulviar.icli.client.internal.runner.RunnerDefaults;
 import com.github.ulviar.icli.engine.CommandDefinition;
 import com.github.ulviar.icli.engine.ExecutionOptions;
 import com.github.ulviar.icli.engine.ProcessEngine;
-import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig;
 import java.util.function.Consumer;
 
 /**
@@ -122,9 +121,7 @@ public final class PooledCommandService {
     }
 
     private ProcessPoolClient createClient(PooledClientSpec spec) {
-        ProcessPoolConfig config = spec.poolConfig();
-        ServiceProcessorListener listener = spec.listener();
-        return ProcessPoolClient.create(engine, config, scheduler, defaultDecoder, listener);
+        return ProcessPoolClient.create(engine, spec, scheduler, defaultDecoder);
     }
 
     private CommandCallFactory createCallFactory() {
@@ -0,0 +1,290 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.client.ClientScheduler;
+import com.github.ulviar.icli.client.CommandResult;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reactive {@link Flow.Processor} that sends each upstream input to a pooled worker and publishes the resulting
+ * {@link CommandResult} downstream.
+ *
+ * <p>Upstream elements are requested only while the number of inputs in flight or awaiting delivery stays below the
+ * configured limit and below the outstanding downstream demand, so a slow subscriber or a saturated pool pushes back
+ * on ingestion instead of queueing work. Each input runs as a {@link ServiceProcessor} request on the client's
+ * {@link ClientScheduler}. In ordered mode results are emitted in input order; otherwise each result is emitted as
+ * soon as it is ready.</p>
+ *
+ * <p>Request failures are delivered as failed results; a request that throws (for example because no worker could be
+ * leased) surfaces as a failed result carrying the exception. An upstream error is forwarded after the results of
+ * inputs already accepted have been delivered. Cancelling the downstream subscription cancels the upstream
+ * subscription and aborts in-flight requests: their worker sessions are closed and the workers retired.</p>
+ *
+ * <p>The processor supports a single downstream subscriber and a single upstream subscription. Obtain instances via
+ * {@link ProcessPoolClient#flowProcessor(boolean)} or {@link ServiceProcessor#flowProcessor(int, boolean)}.</p>
+ */
+public final class PooledFlowProcessor implements Flow.Processor<String, CommandResult<String>> {
+
+    private final ServiceProcessor processor;
+    private final ClientScheduler scheduler;
+    private final int maxInFlight;
+    private final boolean ordered;
+
+    private final ArrayDeque<Slot> slots = new ArrayDeque<>();
+    private final Set<RequestBudget> running = new HashSet<>();
+    private Flow.@Nullable Subscription upstream;
+    private Flow.@Nullable Subscriber<? super CommandResult<String>> downstream;
+    private long demand;
+    private int outstanding;
+    private boolean upstreamDone;
+    private @Nullable Throwable upstreamError;
+    private boolean cancelled;
+    private boolean terminated;
+    private boolean emitting;
+    private boolean missed;
+
+    PooledFlowProcessor(ServiceProcessor processor, ClientScheduler scheduler, int maxInFlight, boolean ordered) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be > 0");
+        }
+        this.processor = processor;
+        this.scheduler = scheduler;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super CommandResult<String>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        boolean accepted;
+        synchronized (this) {
+            accepted = downstream == null;
+            if (accepted) {
+                downstream = subscriber;
+            }
+        }
+        if (accepted) {
+            subscriber.onSubscribe(new DownstreamSubscription());
+            return;
+        }
+        subscriber.onSubscribe(new NoopSubscription());
+        subscriber.onError(new IllegalStateException("Pooled flow processor already has a subscriber"));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription");
+        synchronized (this) {
+            if (upstream == null && !cancelled) {
+                upstream = subscription;
+            } else {
+                subscription.cancel();
+                return;
+            }
+        }
+        requestUpstream();
+    }
+
+    @Override
+    public void onNext(String input) {
+        Objects.requireNonNull(input, "input");
+        RequestBudget budget = RequestBudget.cancellable();
+        Slot slot = new Slot();
+        synchronized (this) {
+            if (cancelled || terminated) {
+                return;
+            }
+            outstanding = Math.max(0, outstanding - 1);
+            running.add(budget);
+            if (ordered) {
+                slots.addLast(slot);
+            }
+        }
+        scheduler.submit(() -> processor.process(input, budget)).whenComplete((result, error) -> {
+            CommandResult<String> outcome = error == null ? result : CommandResult.failure(unwrap(error));
+            synchronized (this) {
+                running.remove(budget);
+                slot.result = outcome;
+                if (!ordered && !cancelled) {
+                    slots.addLast(slot);
+                }
+            }
+            drain();
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "throwable");
+        synchronized (this) {
+            if (upstreamDone) {
+                return;
+            }
+            upstreamDone = true;
+            upstreamError = throwable;
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            upstreamDone = true;
+        }
+        drain();
+    }
+
+    private void requestUpstream() {
+        Flow.Subscription subscription;
+        long amount;
+        synchronized (this) {
+            subscription = upstream;
+            if (subscription == null || cancelled || upstreamDone) {
+                return;
+            }
+            long occupied = (long) occupied() + outstanding;
+            amount = Math.min(maxInFlight - occupied, demand - occupied);
+            if (amount <= 0) {
+                return;
+            }
+            outstanding += (int) amount;
+        }
+        subscription.request(amount);
+    }
+
+    private int occupied() {
+        return ordered ? slots.size() : running.size() + slots.size();
+    }
+
+    /**
+     * Emits ready results and the terminal signal. Only one thread emits at a time; concurrent callers set
+     * {@link #missed} so the active emitter loops once more.
+     */
+    private void drain() {
+        synchronized (this) {
+            if (emitting) {
+                missed = true;
+                return;
+            }
+            emitting = true;
+        }
+        while (true) {
+            Flow.Subscriber<? super CommandResult<String>> subscriber;
+            CommandResult<String> next = null;
+            boolean terminate = false;
+            Throwable failure = null;
+            synchronized (this) {
+                subscriber = downstream;
+                Slot head = slots.peekFirst();
+                if (subscriber == null || cancelled || terminated) {
+                    emitting = false;
+                    return;
+                }
+                if (head != null && head.result != null && demand > 0) {
+                    slots.pollFirst();
+                    if (demand != Long.MAX_VALUE) {
+                        demand--;
+                    }
+                    next = head.result;
+                } else if (upstreamDone && slots.isEmpty() && running.isEmpty()) {
+                    terminated = true;
+                    terminate = true;
+                    failure = upstreamError;
+                } else if (missed) {
+                    missed = false;
+                    continue;
+                } else {
+                    emitting = false;
+                    break;
+                }
+            }
+            if (terminate) {
+                if (failure == null) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onError(failure);
+                }
+                synchronized (this) {
+                    emitting = false;
+                }
+                return;
+            }
+            subscriber.onNext(next);
+        }
+        requestUpstream();
+    }
+
+    private void cancelAll() {
+        Flow.@Nullable Subscription subscription;
+        RequestBudget[] inFlight;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            subscription = upstream;
+            inFlight = running.toArray(RequestBudget[]::new);
+            slots.clear();
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        for (RequestBudget budget : inFlight) {
+            budget.cancel();
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    private static final class Slot {
+        private @Nullable CommandResult<String> result;
+    }
+
+    private final class DownstreamSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelAll();
+                Flow.Subscriber<? super CommandResult<String>> subscriber;
+                synchronized (PooledFlowProcessor.this) {
+                    subscriber = downstream;
+                    terminated = true;
+                }
+                if (subscriber != null) {
+                    subscriber.onError(new IllegalArgumentException("Demand must be positive"));
+                }
+                return;
+            }
+            synchronized (PooledFlowProcessor.this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            drain();
+            requestUpstream();
+        }
+
+        @Override
+        public void cancel() {
+            cancelAll();
+        }
+    }
+
+    private static final class NoopSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+    }
+}
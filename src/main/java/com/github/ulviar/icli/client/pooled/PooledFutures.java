@@ -0,0 +1,67 @@
+package com.github.ulviar.icli.client.pooled;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Future helpers shared by the pooled request paths.
+ */
+final class PooledFutures {
+
+    private PooledFutures() {}
+
+    /**
+     * Waits for {@code future} and rethrows an unchecked failure unwrapped from its {@link CompletionException}, so
+     * callers observe the same exception they would have seen when running the work directly.
+     *
+     * @param future future to wait for
+     * @param <T> result type
+     * @return the completed value
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex.getCause(), ex);
+        }
+    }
+
+    /**
+     * Waits at most {@code timeout} for {@code future}, unwrapping failures like {@link #join(CompletableFuture)}. An
+     * interrupt restores the thread's interrupt flag and surfaces as a {@link CancellationException}.
+     *
+     * @param future future to wait for
+     * @param timeout longest time to wait
+     * @param <T> result type
+     * @return the completed value
+     * @throws TimeoutException when {@code future} did not complete in time
+     */
+    static <T> T join(CompletableFuture<T> future, Duration timeout) throws TimeoutException {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause(), new CompletionException(ex.getCause()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            CancellationException cancelled =
+                    new CancellationException("Interrupted while waiting for a pooled result");
+            cancelled.initCause(ex);
+            throw cancelled;
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause, RuntimeException fallback) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return fallback;
+    }
+}
@@ -8,6 +8,7 @@ import com.github.ulviar.icli.engine.pool.api.ProcessPool;
 import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig;
 import java.time.Duration;
 import java.util.OptionalInt;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Essential API facade over {@link ProcessPool}. The client owns the underlying pool lifecycle and exposes helpers for
@@ -21,7 +22,10 @@ import java.util.OptionalInt;
  * <p>Every helper mirrors the behaviour of the lower-level pool:</p>
  * <ul>
  *     <li>{@link #serviceProcessor()} borrows a worker per request and always returns it afterwards, invoking the
- *     supplied {@link ServiceProcessorListener} around each attempt.</li>
+ *     supplied {@link ServiceProcessorListener} around each attempt. With a {@link SpilloverPolicy} configured,
+ *     requests the pool cannot serve run as one-shot processes instead; with a {@link HedgingPolicy}, slow requests
+ *     are raced against a second worker; with a {@link ResponseCachePolicy}, repeated requests are answered from a
+ *     shared cache; with a {@link ConsistentHashRouting} policy, requests sharing a key favour the same worker.</li>
  *     <li>{@link #openConversation()} acquires and pins a worker until the caller closes or retires the returned
  *     {@link ServiceConversation}; listener callbacks fire in the documented order.</li>
  *     <li>{@link #close()} shuts the pool down and waits up to the configured drain timeout for active work to finish
@@ -33,25 +37,31 @@ public final class ProcessPoolClient implements AutoCloseable {
     private static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(30);
 
     private final ProcessPool pool;
+    private final LeaseSource leaseSource;
     private final ClientScheduler scheduler;
     private final ResponseDecoder responseDecoder;
     private final ServiceProcessorListener listener;
     private final Duration drainTimeout;
     private final ConversationAffinityRegistry affinityRegistry;
+    private final ServiceProcessorPolicies policies;
 
     private ProcessPoolClient(
             ProcessPool pool,
+            LeaseSource leaseSource,
             ClientScheduler scheduler,
             ResponseDecoder responseDecoder,
             ServiceProcessorListener listener,
             Duration drainTimeout,
-            ConversationAffinityRegistry affinityRegistry) {
+            ConversationAffinityRegistry affinityRegistry,
+            ServiceProcessorPolicies policies) {
         this.pool = pool;
+        this.leaseSource = leaseSource;
         this.scheduler = scheduler;
         this.responseDecoder = responseDecoder;
         this.listener = listener;
         this.drainTimeout = drainTimeout;
         this.affinityRegistry = affinityRegistry;
+        this.policies = policies;
     }
 
     /**
@@ -72,10 +82,90 @@ public final class ProcessPoolClient implements AutoCloseable {
             ClientScheduler scheduler,
             ResponseDecoder responseDecoder,
             ServiceProcessorListener listener) {
+        return createClient(engine, config, scheduler, responseDecoder, listener, null, null, null, null);
+    }
+
+    /**
+     * Creates a new client whose {@link ServiceProcessor}s spill over to one-shot execution when the pool cannot
+     * supply a worker. Callers remain responsible for closing the returned instance to release worker resources.
+     *
+     * @param engine process engine used to launch pooled workers and one-shot spillover processes
+     * @param config configuration applied to the underlying pool; its command and worker options seed spillover runs
+     * @param scheduler scheduler used for asynchronous helpers
+     * @param responseDecoder decoder applied by {@link ServiceProcessor} when handling line-oriented requests
+     * @param listener service-level diagnostics listener; invoked synchronously and expected not to throw
+     * @param spilloverPolicy policy describing how saturated requests run as one-shot processes
+     *
+     * @return a new client wrapping a freshly created pool
+     */
+    public static ProcessPoolClient create(
+            ProcessEngine engine,
+            ProcessPoolConfig config,
+            ClientScheduler scheduler,
+            ResponseDecoder responseDecoder,
+            ServiceProcessorListener listener,
+            SpilloverPolicy spilloverPolicy) {
+        return createClient(
+                engine, config, scheduler, responseDecoder, listener, spilloverPolicy, null, null, null);
+    }
+
+    /**
+     * Creates a client from a {@link PooledClientSpec}, honouring its optional spillover, hedging, response cache, and
+     * routing policies.
+     *
+     * @param engine process engine used to launch pooled workers
+     * @param spec pooled configuration, listener, and optional policies
+     * @param scheduler scheduler used for asynchronous helpers
+     * @param responseDecoder decoder applied by {@link ServiceProcessor} when handling line-oriented requests
+     *
+     * @return a new client wrapping a freshly created pool
+     */
+    static ProcessPoolClient create(
+            ProcessEngine engine, PooledClientSpec spec, ClientScheduler scheduler, ResponseDecoder responseDecoder) {
+        return createClient(
+                engine,
+                spec.poolConfig(),
+                scheduler,
+                responseDecoder,
+                spec.listener(),
+                spec.spillover(),
+                spec.hedging(),
+                spec.responseCache(),
+                spec.consistentHashRouting());
+    }
+
+    private static ProcessPoolClient createClient(
+            ProcessEngine engine,
+            ProcessPoolConfig config,
+            ClientScheduler scheduler,
+            ResponseDecoder responseDecoder,
+            ServiceProcessorListener listener,
+            @Nullable SpilloverPolicy spilloverPolicy,
+            @Nullable HedgingPolicy hedgingPolicy,
+            @Nullable ResponseCachePolicy cachePolicy,
+            @Nullable ConsistentHashRouting routing) {
         ProcessPool pool = ProcessPool.create(engine, config);
         Duration drainTimeout = normalisedDrainTimeout(config.requestTimeout());
+        OneShotSpillover spillover = spilloverPolicy == null
+                ? null
+                : new OneShotSpillover(engine, config.workerCommand(), config.workerOptions(), spilloverPolicy);
+        RequestHedger hedger = hedgingPolicy == null ? null : new RequestHedger(hedgingPolicy);
+        ResponseCache cache = cachePolicy == null ? null : new ResponseCache(cachePolicy);
+        ConversationAffinityRegistry affinityRegistry = ConversationAffinityRegistry.enabled();
+        pool.addRetirementListener(affinityRegistry::workerRetired);
+        ConsistentHashRouter router = routing == null ? null : new ConsistentHashRouter(routing);
+        if (router != null) {
+            pool.addRetirementListener(router::workerRetired);
+        }
         return new ProcessPoolClient(
-                pool, scheduler, responseDecoder, listener, drainTimeout, ConversationAffinityRegistry.enabled());
+                pool,
+                LeaseSource.of(pool, config.requestTimeout()),
+                scheduler,
+                responseDecoder,
+                listener,
+                drainTimeout,
+                affinityRegistry,
+                new ServiceProcessorPolicies(cache, hedger, spillover, router));
     }
 
     private static Duration normalisedDrainTimeout(Duration timeout) {
@@ -92,7 +182,19 @@ public final class ProcessPoolClient implements AutoCloseable {
      * @return new service processor configured with this client’s scheduler, decoder, and listener
      */
     public ServiceProcessor serviceProcessor() {
-        return new ServiceProcessor(pool::acquire, scheduler, responseDecoder, listener);
+        return new ServiceProcessor(leaseSource, scheduler, responseDecoder, listener, policies);
+    }
+
+    /**
+     * Returns a reactive processor whose in-flight requests are bounded by the pool's maximum size, so upstream
+     * elements are requested only as worker capacity frees up.
+     *
+     * @param ordered {@code true} to emit results in input order, {@code false} to emit them as they complete
+     * @return new single-subscriber flow processor using this client's decoder
+     * @see ServiceProcessor#flowProcessor(int, boolean)
+     */
+    public PooledFlowProcessor flowProcessor(boolean ordered) {
+        return serviceProcessor().flowProcessor(pool.snapshot().maxSize(), ordered);
     }
 
     /**
@@ -102,7 +204,7 @@ public final class ProcessPoolClient implements AutoCloseable {
      * @return service processor bound to the decoder
      */
     public ServiceProcessor serviceProcessor(ResponseDecoder decoder) {
-        return new ServiceProcessor(pool::acquire, scheduler, decoder, listener);
+        return new ServiceProcessor(leaseSource, scheduler, decoder, listener, policies);
     }
 
     /**
@@ -127,9 +229,34 @@ public final class ProcessPoolClient implements AutoCloseable {
         PreferredWorker preference =
                 preferred.isPresent() ? PreferredWorker.specific(preferred.getAsInt()) : PreferredWorker.any();
         var lease = pool.acquireWithPreference(preference);
+        if (preferred.isPresent()) {
+            affinityRegistry.recordReservation(preferred.getAsInt(), lease.scope().workerId());
+        }
         return new ServiceConversation(lease, responseDecoder, scheduler, listener, affinity, affinityRegistry);
     }
 
+    /**
+     * Reports how effective conversation affinity has been: how many affinity lookups found their previous worker,
+     * found nothing, or found a worker that could no longer be used. Remembered keys are bounded in number and age and
+     * are dropped as soon as the pool retires their worker.
+     *
+     * @return affinity counters shared by every view of this client
+     */
+    public ConversationAffinityMetrics affinityMetrics() {
+        return affinityRegistry.metrics();
+    }
+
+    /**
+     * Reports how well consistent-hash routing kept requests on their key's worker. All counters are zero when the
+     * client was created without a {@link ConsistentHashRouting} policy.
+     *
+     * @return routing counters shared by every view of this client
+     */
+    public ConsistentHashRoutingMetrics routingMetrics() {
+        ConsistentHashRouter router = policies.router();
+        return router == null ? new ConsistentHashRoutingMetrics(0, 0, 0, 0, 0) : router.metrics();
+    }
+
     /**
      * Exposes the underlying {@link ProcessPool} for advanced scenarios. The returned reference remains owned by this
      * client; callers must not close it directly.
@@ -151,7 +278,8 @@ public final class ProcessPoolClient implements AutoCloseable {
         if (this.listener == listener) {
             return this;
         }
-        return new ProcessPoolClient(pool, scheduler, responseDecoder, listener, drainTimeout, affinityRegistry);
+        return new ProcessPoolClient(
+                pool, leaseSource, scheduler, responseDecoder, listener, drainTimeout, affinityRegistry, policies);
     }
 
     /**
@@ -0,0 +1,154 @@
+package com.github.ulviar.icli.client.pooled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * End-to-end budget for one {@link ServiceProcessor} request, covering lease acquisition, the write, and the read.
+ * {@link #UNBOUNDED} keeps the pool defaults for callers that did not supply a deadline.
+ *
+ * <p>Budgets created by {@link #cancellable()} can additionally be revoked from another thread. While a worker
+ * exchange is in progress the processor {@linkplain #arm(Runnable) arms} an abort action that closes the worker's
+ * session, so cancellation unblocks the pending read and the worker is retired. Hedged attempts share one budget, so
+ * each attempt arms its own action and cancellation aborts all of them.</p>
+ */
+final class RequestBudget {
+
+    static final RequestBudget UNBOUNDED = new RequestBudget(false, 0L, false);
+
+    private final boolean bounded;
+    private final long deadlineNanos;
+    private final boolean cancellable;
+    private final Set<Armed> armed = new LinkedHashSet<>();
+    private boolean cancelled;
+
+    private RequestBudget(boolean bounded, long deadlineNanos, boolean cancellable) {
+        this.bounded = bounded;
+        this.deadlineNanos = deadlineNanos;
+        this.cancellable = cancellable;
+    }
+
+    /**
+     * Starts a budget that expires {@code deadline} from now.
+     *
+     * @param deadline total time budget; must not be negative
+     * @return bounded budget
+     * @throws IllegalArgumentException when {@code deadline} is negative
+     */
+    static RequestBudget of(Duration deadline) {
+        if (deadline.isNegative()) {
+            throw new IllegalArgumentException("deadline must be >= 0");
+        }
+        long now = System.nanoTime();
+        long nanos = saturatedNanos(deadline);
+        long absolute = now + nanos;
+        return new RequestBudget(true, absolute < now ? Long.MAX_VALUE : absolute, false);
+    }
+
+    /**
+     * Returns an unbounded budget that can be revoked with {@link #cancel()}.
+     */
+    static RequestBudget cancellable() {
+        return new RequestBudget(false, 0L, true);
+    }
+
+    boolean bounded() {
+        return bounded;
+    }
+
+    /**
+     * Returns the time left in this budget, clamped to {@link Duration#ZERO} once it has elapsed.
+     */
+    Duration remaining() {
+        long remaining = deadlineNanos - System.nanoTime();
+        return remaining <= 0 ? Duration.ZERO : Duration.ofNanos(remaining);
+    }
+
+    /**
+     * Reports whether this budget is bounded and has fully elapsed.
+     */
+    boolean expired() {
+        return bounded && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Revokes the budget and runs every armed abort action. Repeated calls are ignored.
+     */
+    void cancel() {
+        List<Armed> actions;
+        synchronized (this) {
+            if (!cancellable || cancelled) {
+                return;
+            }
+            cancelled = true;
+            actions = new ArrayList<>(armed);
+            armed.clear();
+        }
+        for (Armed entry : actions) {
+            entry.action.run();
+        }
+    }
+
+    synchronized boolean cancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Installs the action that aborts one exchange now in progress, alongside any actions armed by concurrent attempts.
+     *
+     * @return token to pass to {@link #disarm(Armed)}, or {@code null} when the budget was already cancelled and the
+     *         exchange must not start
+     */
+    @Nullable Armed arm(Runnable action) {
+        Armed entry = new Armed(action);
+        if (!cancellable) {
+            return entry;
+        }
+        synchronized (this) {
+            if (cancelled) {
+                return null;
+            }
+            armed.add(entry);
+            return entry;
+        }
+    }
+
+    /**
+     * Removes the abort action installed by {@link #arm(Runnable)} once its exchange finished.
+     *
+     * @return {@code true} when the budget was cancelled while the action was armed
+     */
+    boolean disarm(Armed entry) {
+        if (!cancellable) {
+            return false;
+        }
+        synchronized (this) {
+            armed.remove(entry);
+            return cancelled;
+        }
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Abort action armed for a single exchange; compared by identity so attempts never displace one another.
+     */
+    static final class Armed {
+
+        private final Runnable action;
+
+        private Armed(Runnable action) {
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.ulviar.icli.client.pooled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Shared state behind {@link HedgingPolicy}: a sliding window of successful request latencies and the global hedge
+ * budget.
+ *
+ * <p>One instance is shared by every {@link ServiceProcessor} created from the same {@link ProcessPoolClient}, so the
+ * budget bounds the extra load on the pool as a whole. The percentile is recomputed from a sorted copy of the window
+ * every {@link #RECOMPUTE_INTERVAL} samples rather than on every request.</p>
+ */
+final class RequestHedger {
+
+    static final int WINDOW_SIZE = 256;
+    static final int MIN_SAMPLES = 20;
+    static final int RECOMPUTE_INTERVAL = 16;
+    private static final double BUDGET_BURST = 10.0;
+
+    private final HedgingPolicy policy;
+    private final long[] latencies = new long[WINDOW_SIZE];
+    private final long[] sorted = new long[WINDOW_SIZE];
+    private int samples;
+    private int next;
+    private int samplesSinceRecompute;
+    private long percentileNanos = -1L;
+    private double budget;
+
+    RequestHedger(HedgingPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Admits a new request: credits the hedge budget and returns the delay after which the request should be hedged.
+     *
+     * @return hedge delay, or {@link Optional#empty()} while too few latencies have been observed
+     */
+    synchronized Optional<Duration> admit() {
+        budget = Math.min(BUDGET_BURST, budget + policy.maxExtraLoad());
+        if (percentileNanos < 0) {
+            return Optional.empty();
+        }
+        Duration delay = Duration.ofNanos(percentileNanos);
+        return Optional.of(delay.compareTo(policy.minimumDelay()) < 0 ? policy.minimumDelay() : delay);
+    }
+
+    /**
+     * Spends one unit of the hedge budget.
+     *
+     * @return {@code true} when a hedge may be sent
+     */
+    synchronized boolean tryAcquireHedge() {
+        if (budget < 1.0) {
+            return false;
+        }
+        budget -= 1.0;
+        return true;
+    }
+
+    /**
+     * Records the latency of a successful request.
+     *
+     * @param nanos observed latency in nanoseconds
+     */
+    synchronized void recordLatency(long nanos) {
+        latencies[next] = nanos;
+        next = (next + 1) % WINDOW_SIZE;
+        samples = Math.min(WINDOW_SIZE, samples + 1);
+        samplesSinceRecompute++;
+        if (samples >= MIN_SAMPLES && (percentileNanos < 0 || samplesSinceRecompute >= RECOMPUTE_INTERVAL)) {
+            System.arraycopy(latencies, 0, sorted, 0, samples);
+            Arrays.sort(sorted, 0, samples);
+            int index = (int) Math.ceil(policy.latencyPercentile() * samples) - 1;
+            percentileNanos = sorted[Math.max(0, Math.min(samples - 1, index))];
+            samplesSinceRecompute = 0;
+        }
+    }
+
+    /**
+     * Tracks the attempts of one hedged request. The first attempt to produce a successful response claims the race
+     * and aborts every other attempt still talking to a worker, so a stalled worker is freed at once instead of holding
+     * its lease until the late reply arrives. Losing attempts retire their worker before returning the lease.
+     */
+    static final class Race {
+
+        private final Set<Attempt> running = new LinkedHashSet<>();
+        private boolean claimed;
+
+        /**
+         * Registers an attempt that is about to talk to a worker.
+         *
+         * @param abort action that aborts the attempt's exchange, typically closing the worker's session
+         * @return handle identifying the attempt, or {@code null} when another attempt already won and this one must
+         *     not dispatch
+         */
+        synchronized @Nullable Attempt enter(Runnable abort) {
+            if (claimed) {
+                return null;
+            }
+            Attempt attempt = new Attempt(abort);
+            running.add(attempt);
+            return attempt;
+        }
+
+        /**
+         * Unregisters an attempt whose exchange finished, so a later claim no longer aborts it.
+         */
+        synchronized void leave(Attempt attempt) {
+            running.remove(attempt);
+        }
+
+        /**
+         * Claims the race for a successful attempt and aborts every other attempt still running.
+         *
+         * @return {@code true} when the caller's response wins
+         */
+        boolean claim(Attempt winner) {
+            List<Attempt> losers;
+            synchronized (this) {
+                if (claimed) {
+                    return false;
+                }
+                claimed = true;
+                losers = new ArrayList<>(running);
+                losers.remove(winner);
+                running.clear();
+            }
+            for (Attempt loser : losers) {
+                loser.abort.run();
+            }
+            return true;
+        }
+
+        /**
+         * Reports whether an attempt already won.
+         */
+        synchronized boolean decided() {
+            return claimed;
+        }
+
+        /**
+         * One attempt of a race; compared by identity.
+         */
+        static final class Attempt {
+
+            private final Runnable abort;
+
+            private Attempt(Runnable abort) {
+                this.abort = abort;
+            }
+        }
+    }
+}
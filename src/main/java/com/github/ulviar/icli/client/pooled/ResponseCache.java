@@ -0,0 +1,144 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.client.CommandResult;
+import com.github.ulviar.icli.client.ResponseDecoder;
+import com.github.ulviar.icli.engine.pool.api.ServiceUnavailableException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Size-bounded LRU cache with single-flight loading backing {@link ResponseCachePolicy}.
+ *
+ * <p>One instance is shared by every {@link ServiceProcessor} created from the same {@link ProcessPoolClient}. Entries
+ * live in an access-ordered {@link LinkedHashMap} guarded by the cache monitor; in-flight loads are tracked separately
+ * in a {@link ConcurrentHashMap} so waiting callers never hold the monitor. Entry sizes are estimated from the UTF-16
+ * length of the input and response plus a fixed per-entry overhead.</p>
+ */
+final class ResponseCache {
+
+    static final long ENTRY_OVERHEAD_BYTES = 64;
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<Key, CompletableFuture<CommandResult<String>>> inFlight =
+            new ConcurrentHashMap<>();
+    private long bytes;
+
+    ResponseCache(ResponseCachePolicy policy) {
+        this(policy, System::nanoTime);
+    }
+
+    ResponseCache(ResponseCachePolicy policy, LongSupplier nanoClock) {
+        this.maxBytes = policy.maxBytes();
+        this.ttlNanos = policy.ttl().toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the cached response for {@code input}, joins an identical in-flight request, or runs {@code loader} as
+     * the single leader for this key. Successful results produced by the leader are cached; failures are shared with
+     * waiting callers but never cached. A caller joining an in-flight request waits at most for its own remaining
+     * budget, independently of the leader's deadline.
+     *
+     * @param decoder  decoder that interprets the response, part of the cache key
+     * @param input    request payload, part of the cache key
+     * @param budget   caller's end-to-end budget, bounding the wait on an in-flight request
+     * @param listener listener notified about hits, misses, and coalesced requests
+     * @param loader   performs the pooled round-trip on a miss
+     * @return cached, shared, or freshly loaded result
+     * @throws ServiceUnavailableException when {@code budget} elapses while waiting on an in-flight request
+     */
+    CommandResult<String> get(
+            ResponseDecoder decoder,
+            String input,
+            RequestBudget budget,
+            ServiceProcessorListener listener,
+            Supplier<CommandResult<String>> loader) {
+        Key key = new Key(decoder, input);
+        CommandResult<String> cached = lookup(key);
+        if (cached != null) {
+            listener.cacheHit(input);
+            return cached;
+        }
+        CompletableFuture<CommandResult<String>> flight = new CompletableFuture<>();
+        CompletableFuture<CommandResult<String>> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            listener.requestCoalesced(input);
+            return joinWithin(leader, budget);
+        }
+        listener.cacheMiss(input);
+        try {
+            CommandResult<String> result = loader.get();
+            if (result.success()) {
+                store(key, result);
+            }
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static CommandResult<String> joinWithin(
+            CompletableFuture<CommandResult<String>> leader, RequestBudget budget) {
+        if (!budget.bounded()) {
+            return PooledFutures.join(leader);
+        }
+        try {
+            return PooledFutures.join(leader, budget.remaining());
+        } catch (TimeoutException ex) {
+            throw new ServiceUnavailableException(
+                    "Request deadline elapsed while waiting for an identical in-flight request", ex);
+        }
+    }
+
+    private synchronized @Nullable CommandResult<String> lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.storedAt() >= ttlNanos) {
+            entries.remove(key);
+            bytes -= entry.bytes();
+            return null;
+        }
+        return entry.result();
+    }
+
+    private synchronized void store(Key key, CommandResult<String> result) {
+        long size = ENTRY_OVERHEAD_BYTES + 2L * (key.input().length() + String.valueOf(result.value()).length());
+        if (size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(result, size, nanoClock.getAsLong()));
+        if (previous != null) {
+            bytes -= previous.bytes();
+        }
+        bytes += size;
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+        }
+    }
+
+    synchronized long sizeBytes() {
+        return bytes;
+    }
+
+    private record Key(ResponseDecoder decoder, String input) {}
+
+    private record Entry(CommandResult<String> result, long bytes, long storedAt) {}
+}
@@ -0,0 +1,35 @@
+package com.github.ulviar.icli.client.pooled;
+
+import java.time.Duration;
+
+/**
+ * Opt-in policy that caches successful pooled responses and coalesces concurrent identical requests.
+ *
+ * <p>Responses are keyed by the request input and the {@link com.github.ulviar.icli.client.ResponseDecoder} that
+ * produced them, so processors with different decoders never share entries. Only successful results are cached; they
+ * expire after {@link #ttl()} and are evicted least-recently-used first once the estimated footprint of all entries
+ * exceeds {@link #maxBytes()}. While a request is in flight, identical requests wait for its outcome instead of
+ * leasing their own worker.</p>
+ *
+ * <p><strong>Usage example</strong></p>
+ *
+ * <pre>{@code
+ * service.commandRunner(spec -> spec.responseCache(new ResponseCachePolicy(8L << 20, Duration.ofMinutes(5))));
+ * }</pre>
+ *
+ * @param maxBytes upper bound for the estimated size of cached inputs and responses; must be positive
+ * @param ttl      time after which a cached response is discarded; must be positive
+ *
+ * @apiNote Only enable caching for deterministic requests whose responses do not depend on worker state.
+ */
+public record ResponseCachePolicy(long maxBytes, Duration ttl) {
+
+    public ResponseCachePolicy {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be > 0");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be > 0");
+        }
+    }
+}
@@ -46,8 +46,9 @@ public final class ServiceConversation implements AutoCloseable {
             ConversationAffinityRegistry affinityRegistry) {
         this.lease = lease;
         this.scope = lease.scope();
-        this.interactiveClient = InteractiveSessionClient.wrap(lease.session());
-        this.lineClient = LineSessionClient.create(interactiveClient, decoder, scheduler);
+        WorkerClientContext context = WorkerClientContext.of(lease);
+        this.interactiveClient = context.interactive();
+        this.lineClient = context.line(decoder, scheduler);
         this.listener = listener;
         this.affinity = affinity;
         this.affinityRegistry = affinityRegistry;
@@ -2,39 +2,77 @@ package com.github.ulviar.icli.client.pooled;
 
 import com.github.ulviar.icli.client.ClientScheduler;
 import com.github.ulviar.icli.client.CommandResult;
-import com.github.ulviar.icli.client.InteractiveSessionClient;
 import com.github.ulviar.icli.client.LineSessionClient;
+import com.github.ulviar.icli.client.LineSessionTimeoutException;
 import com.github.ulviar.icli.client.ResponseDecoder;
 import com.github.ulviar.icli.engine.pool.api.LeaseScope;
+import com.github.ulviar.icli.engine.pool.api.PreferredWorker;
+import com.github.ulviar.icli.engine.pool.api.ServiceUnavailableException;
 import com.github.ulviar.icli.engine.pool.api.WorkerLease;
 import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Supplier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Stateless helper that borrows a pooled worker for a single line-oriented request.
  *
  * <p>Instances are thread-safe and reusable. Each invocation acquires a fresh {@link WorkerLease}, issues the request
- * via {@link LineSessionClient}, and always returns the worker to the pool once the listener and reset hooks complete.
- * Callers supply a {@link ServiceProcessorListener} to observe success and failure events; listener implementations are
- * expected to avoid throwing, but if they do the exception is propagated after the worker has been reset.</p>
+ * via a {@link LineSessionClient} that stays attached to the worker across leases, and always returns the worker to the
+ * pool once the listener and reset hooks complete. Callers supply a {@link ServiceProcessorListener} to observe success
+ * and failure events; listener implementations are expected to avoid throwing, but if they do the exception is
+ * propagated after the worker has been reset.</p>
+ *
+ * <p>When the owning client was configured with a {@link SpilloverPolicy}, requests that cannot obtain a worker are
+ * served by a one-shot process instead of failing with {@link ServiceUnavailableException}. A {@link HedgingPolicy}
+ * additionally sends slow requests to a second worker within a global hedge budget, and a {@link ResponseCachePolicy}
+ * serves repeated deterministic requests without leasing a worker.</p>
  */
 public final class ServiceProcessor {
 
-    private final Supplier<WorkerLease> leaseSupplier;
+    private final LeaseSource leaseSource;
     private final ClientScheduler scheduler;
     private final ResponseDecoder decoder;
     private final ServiceProcessorListener listener;
+    private final @Nullable ResponseCache cache;
+    private final @Nullable RequestHedger hedger;
+    private final @Nullable OneShotSpillover spillover;
+    private final @Nullable ConsistentHashRouter router;
 
     ServiceProcessor(
-            Supplier<WorkerLease> leaseSupplier,
+            LeaseSource leaseSource,
             ClientScheduler scheduler,
             ResponseDecoder decoder,
             ServiceProcessorListener listener) {
-        this.leaseSupplier = leaseSupplier;
+        this(leaseSource, scheduler, decoder, listener, ServiceProcessorPolicies.NONE);
+    }
+
+    ServiceProcessor(
+            LeaseSource leaseSource,
+            ClientScheduler scheduler,
+            ResponseDecoder decoder,
+            ServiceProcessorListener listener,
+            ServiceProcessorPolicies policies) {
+        this.leaseSource = leaseSource;
         this.scheduler = scheduler;
         this.decoder = decoder;
         this.listener = listener;
+        this.cache = policies.cache();
+        this.hedger = policies.hedger();
+        this.spillover = policies.spillover();
+        this.router = policies.router();
     }
 
     /**
@@ -45,21 +83,171 @@ public final class ServiceProcessor {
      * processor performs a manual reset, notifies the {@link ServiceProcessorListener}, and then rethrows the original
      * error so callers observe the same failure they would see when working with the underlying session directly.</p>
      *
+     * <p>If no worker can be acquired and spillover is enabled, the request runs as a one-shot process instead; the
+     * {@link ServiceUnavailableException} is rethrown only when the spillover concurrency cap is exhausted too.</p>
+     *
+     * <p>With a {@link HedgingPolicy} configured, a request that outlives the policy's latency percentile is sent to a
+     * second worker as well. Each attempt reports its own lease-scoped listener callbacks; the first successful
+     * response is returned and the losing worker is retired when its attempt finishes.</p>
+     *
+     * <p>With a {@link ResponseCachePolicy} configured, successful responses are served from the cache until they
+     * expire, and concurrent identical requests share a single worker round-trip.</p>
+     *
      * @param input payload forwarded to the pooled worker
      * @return command result describing success or failure
      */
     public CommandResult<String> process(String input) {
-        WorkerLease lease = leaseSupplier.get();
+        return process(input, RequestBudget.UNBOUNDED);
+    }
+
+    /**
+     * Processes a single request that must finish within {@code deadline}.
+     *
+     * <p>The deadline covers the whole round-trip: waiting for a worker, writing {@code input}, and reading the
+     * response. Lease acquisition waits at most the remaining budget and fails with
+     * {@link ServiceUnavailableException} once it is spent; a response that does not arrive in time yields a failed
+     * {@link CommandResult} carrying a {@link LineSessionTimeoutException}, and the worker is retired rather than
+     * reused because its session may still emit the late reply. A lease obtained just as the budget runs out is
+     * returned unused and the request fails with {@link ServiceUnavailableException}. Hedged attempts share the same
+     * budget. Cached responses are served regardless of the deadline, and a request coalesced onto an in-flight
+     * identical request waits at most for its own remaining budget before failing with
+     * {@link ServiceUnavailableException}. A spilled-over one-shot run is given the remaining budget as its soft
+     * timeout and is skipped once the budget is spent.</p>
+     *
+     * @param input payload forwarded to the pooled worker
+     * @param deadline end-to-end time budget; must not be negative
+     * @return command result describing success or failure
+     * @throws IllegalArgumentException when {@code deadline} is negative
+     */
+    public CommandResult<String> process(String input, Duration deadline) {
+        return process(input, RequestBudget.of(deadline));
+    }
+
+    CommandResult<String> process(String input, RequestBudget budget) {
+        if (cache == null) {
+            return processUncached(input, budget);
+        }
+        return cache.get(decoder, input, budget, listener, () -> processUncached(input, budget));
+    }
+
+    private CommandResult<String> processUncached(String input, RequestBudget budget) {
+        if (hedger == null) {
+            return processOnce(input, null, true, budget);
+        }
+        return processHedged(input, hedger, budget);
+    }
+
+    private CommandResult<String> processHedged(String input, RequestHedger hedger, RequestBudget budget) {
+        Optional<Duration> hedgeDelay = hedger.admit();
+        if (hedgeDelay.isPresent()
+                && budget.bounded()
+                && hedgeDelay.get().compareTo(budget.remaining()) >= 0) {
+            // The hedge could never start before the deadline, so it would only waste a worker.
+            hedgeDelay = Optional.empty();
+        }
+        long started = System.nanoTime();
+        CommandResult<String> result;
+        if (hedgeDelay.isEmpty()) {
+            result = processOnce(input, null, true, budget);
+        } else {
+            RequestHedger.Race race = new RequestHedger.Race();
+            CompletableFuture<CommandResult<String>> primary =
+                    scheduler.submit(() -> processOnce(input, race, true, budget));
+            CompletableFuture<CommandResult<String>> outcome = primary;
+            if (!completesWithin(primary, hedgeDelay.get()) && hedger.tryAcquireHedge()) {
+                listener.requestHedged(input, hedgeDelay.get());
+                CompletableFuture<CommandResult<String>> hedge =
+                        scheduler.submit(() -> processOnce(input, race, false, budget));
+                outcome = firstSuccessful(primary, hedge);
+            }
+            result = PooledFutures.join(outcome);
+        }
+        if (result.success()) {
+            hedger.recordLatency(System.nanoTime() - started);
+        }
+        return result;
+    }
+
+    private CommandResult<String> processOnce(
+            String input, RequestHedger.@Nullable Race race, boolean spill, RequestBudget budget) {
+        if (budget.cancelled()) {
+            throw new CancellationException("Request cancelled before it reached a worker");
+        }
+        WorkerLease lease;
+        try {
+            lease = acquire(input, budget);
+        } catch (ServiceUnavailableException ex) {
+            Optional<CommandResult<String>> spilled = spillover == null || !spill || budget.expired()
+                    ? Optional.empty()
+                    : spillover.tryRun(input, budget, listener);
+            return spilled.orElseThrow(() -> ex);
+        }
         LeaseScope scope = lease.scope();
+        try {
+            return processLeased(input, race, budget, lease, scope);
+        } finally {
+            if (router != null) {
+                router.finished(scope.workerId());
+            }
+        }
+    }
+
+    private CommandResult<String> processLeased(
+            String input,
+            RequestHedger.@Nullable Race race,
+            RequestBudget budget,
+            WorkerLease lease,
+            LeaseScope scope) {
+        if (budget.expired()) {
+            // The deadline ran out while leasing; the worker never saw the input, so it goes back to the pool healthy.
+            lease.close();
+            throw new ServiceUnavailableException("Request deadline elapsed before the request reached a worker");
+        }
+        RequestHedger.Race.@Nullable Attempt attempt = null;
+        if (race != null) {
+            // Winning the race closes this session, so a stalled attempt gives its worker up at once.
+            attempt = race.enter(lease.session()::close);
+            if (attempt == null) {
+                lease.close();
+                throw new CancellationException("Hedged request already completed by another worker");
+            }
+        }
+        RequestBudget.Armed armed = budget.arm(lease.session()::close);
+        if (armed == null) {
+            if (race != null && attempt != null) {
+                race.leave(attempt);
+            }
+            lease.close();
+            throw new CancellationException("Request cancelled before it reached a worker");
+        }
         try (lease) {
             listener.requestStarted(scope, input);
-            InteractiveSessionClient sessionClient = InteractiveSessionClient.wrap(lease.session());
-            LineSessionClient client = LineSessionClient.create(sessionClient, decoder, scheduler);
-            CommandResult<String> result = client.process(input);
+            LineSessionClient client = WorkerClientContext.of(lease).line(decoder, scheduler);
+            CommandResult<String> result;
+            boolean aborted;
+            try {
+                result = budget.bounded() ? client.process(input, budget.remaining()) : client.process(input);
+            } finally {
+                aborted = budget.disarm(armed);
+                if (race != null && attempt != null) {
+                    race.leave(attempt);
+                }
+            }
+            boolean lost = false;
+            if (aborted) {
+                result = CommandResult.failure(new CancellationException("Request cancelled while in flight"));
+            } else if (race != null && attempt != null && (result.success() ? !race.claim(attempt) : race.decided())) {
+                lost = true;
+                result = CommandResult.failure(
+                        new CancellationException("Hedged request already completed by another worker"));
+            }
             if (result.success()) {
                 listener.requestCompleted(scope, result);
             } else {
-                lease.reset(ResetRequest.manual(scope.requestId()));
+                lease.reset(
+                        aborted || lost || result.error() instanceof LineSessionTimeoutException
+                                ? ResetRequest.retire(scope.requestId())
+                                : ResetRequest.manual(scope.requestId()));
                 listener.requestFailed(scope, result.error());
             }
             return result;
@@ -70,6 +258,18 @@ public final class ServiceProcessor {
         }
     }
 
+    private WorkerLease acquire(String input, RequestBudget budget) {
+        if (router == null) {
+            return budget.bounded() ? leaseSource.acquire(budget.remaining()) : leaseSource.acquire();
+        }
+        PreferredWorker preference = router.route(input);
+        WorkerLease lease = budget.bounded()
+                ? leaseSource.acquire(preference, budget.remaining())
+                : leaseSource.acquire(preference);
+        router.started(preference, lease.scope().workerId());
+        return lease;
+    }
+
     /**
      * Asynchronously invokes {@link #process(String)} on the configured {@link ClientScheduler}.
      *
@@ -83,4 +283,140 @@ public final class ServiceProcessor {
     public CompletableFuture<CommandResult<String>> processAsync(String input) {
         return scheduler.submit(() -> process(input));
     }
+
+    /**
+     * Asynchronously invokes {@link #process(String, Duration)} on the configured {@link ClientScheduler}.
+     *
+     * <p>The budget starts when this method is called, so time spent queued on the scheduler counts against it.</p>
+     *
+     * @param input payload forwarded to the pooled worker
+     * @param deadline end-to-end time budget; must not be negative
+     *
+     * @return future completed with the result of {@link #process(String, Duration)}
+     * @throws IllegalArgumentException when {@code deadline} is negative
+     */
+    public CompletableFuture<CommandResult<String>> processAsync(String input, Duration deadline) {
+        RequestBudget budget = RequestBudget.of(deadline);
+        return scheduler.submit(() -> process(input, budget));
+    }
+
+    /**
+     * Processes every input with {@link BulkPolicy#defaults()} and returns the results in input order.
+     *
+     * @param inputs payloads forwarded to pooled workers
+     * @return one result per input, in the order of {@code inputs}
+     * @see #processAll(Iterable, BulkPolicy)
+     */
+    public List<CommandResult<String>> processAll(Iterable<String> inputs) {
+        return processAll(inputs, BulkPolicy.defaults());
+    }
+
+    /**
+     * Processes every input across several leased workers, pipelining requests to each worker, and returns the
+     * results in input order.
+     *
+     * <p>Workers are leased across many windows instead of per input, and given back and re-acquired well before the
+     * pool's request timeout would reclaim them. Inputs that a failed worker had not answered are retried on another
+     * worker up to {@link BulkPolicy#maxAttempts()} times and otherwise reported as failed results. When the pool
+     * cannot lend as many workers as the policy asks for, the surplus tasks stop and leave their inputs to the others;
+     * only when no worker can be leased at all are inputs charged a failed attempt. Response caching, hedging,
+     * spillover, and deadlines do not apply to bulk requests.</p>
+     *
+     * @param inputs payloads forwarded to pooled workers
+     * @param policy worker count, pipeline depth, and retry budget
+     * @return one result per input, in the order of {@code inputs}
+     */
+    public List<CommandResult<String>> processAll(Iterable<String> inputs, BulkPolicy policy) {
+        try (Stream<CommandResult<String>> results = streamAll(inputs.iterator(), policy)) {
+            return results.toList();
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #processAll(Iterable, BulkPolicy)} for large or unbounded inputs.
+     *
+     * <p>Inputs are pulled lazily and read only a bounded distance ahead of the consumer, and results are emitted in
+     * input order as soon as they are available. Close the stream (for example with try-with-resources) when
+     * abandoning it early so the leased workers are returned to the pool.</p>
+     *
+     * @param inputs payloads forwarded to pooled workers; consumed from the processor's worker tasks
+     * @param policy worker count, pipeline depth, and retry budget
+     * @return ordered stream of results that must be closed when not fully consumed
+     */
+    public Stream<CommandResult<String>> streamAll(Iterator<String> inputs, BulkPolicy policy) {
+        BulkRun run = BulkRun.start(leaseSource, scheduler, decoder, listener, policy, inputs);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(run, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(run::close);
+    }
+
+    /**
+     * Returns a reactive processor that feeds upstream inputs through this processor with demand-driven concurrency.
+     *
+     * <p>Requests issued by the flow processor go through the same cache, hedging, and spillover policies as
+     * {@link #process(String)}.</p>
+     *
+     * @param maxInFlight maximum number of inputs requested from upstream but not yet delivered downstream; must be
+     *     positive
+     * @param ordered {@code true} to emit results in input order, {@code false} to emit them as they complete
+     * @return new single-subscriber flow processor
+     * @throws IllegalArgumentException when {@code maxInFlight} is not positive
+     */
+    public PooledFlowProcessor flowProcessor(int maxInFlight, boolean ordered) {
+        return new PooledFlowProcessor(this, scheduler, maxInFlight, ordered);
+    }
+
+    /**
+     * Returns a processor that keeps one worker leased across consecutive requests, bypassing the pool for every
+     * request of a burst. Response caching, hedging, spillover, and deadlines do not apply to sticky requests.
+     *
+     * @param policy burst length and idle gap bounding how long the worker stays leased
+     * @return sticky processor sharing this processor's pool, decoder, scheduler, and listener; close it when done
+     */
+    public StickyProcessor sticky(StickyLeasePolicy policy) {
+        return new StickyProcessor(leaseSource, scheduler, decoder, listener, policy);
+    }
+
+    private static boolean completesWithin(CompletableFuture<?> future, Duration timeout) {
+        try {
+            future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException ex) {
+            return false;
+        } catch (ExecutionException ex) {
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    /**
+     * Completes with the first successful attempt, or with the primary attempt's outcome once both attempts failed.
+     */
+    private static CompletableFuture<CommandResult<String>> firstSuccessful(
+            CompletableFuture<CommandResult<String>> primary, CompletableFuture<CommandResult<String>> hedge) {
+        CompletableFuture<CommandResult<String>> winner = new CompletableFuture<>();
+        BiConsumer<CommandResult<String>, @Nullable Throwable> settle = (result, error) -> {
+            if (error == null && result.success()) {
+                winner.complete(result);
+            } else if (primary.isDone() && hedge.isDone()) {
+                CompletableFuture<CommandResult<String>> fallback = succeeded(hedge) ? hedge : primary;
+                fallback.whenComplete((value, failure) -> {
+                    if (failure == null) {
+                        winner.complete(value);
+                    } else {
+                        winner.completeExceptionally(failure);
+                    }
+                });
+            }
+        };
+        primary.whenComplete(settle);
+        hedge.whenComplete(settle);
+        return winner;
+    }
+
+    private static boolean succeeded(CompletableFuture<CommandResult<String>> attempt) {
+        return !attempt.isCompletedExceptionally() && attempt.join().success();
+    }
 }
@@ -2,6 +2,7 @@ package com.github.ulviar.icli.client.pooled;
 
 import com.github.ulviar.icli.client.CommandResult;
 import com.github.ulviar.icli.engine.pool.api.LeaseScope;
+import java.time.Duration;
 
 /**
  * Observer for high-level pooled request events. Implementations are invoked synchronously on the calling thread and
@@ -43,6 +44,60 @@ public interface ServiceProcessorListener {
      */
     default void requestFailed(LeaseScope scope, Throwable error) {}
 
+    /**
+     * Fired when a request could not obtain a pooled worker and was served by a one-shot process instead. No
+     * lease-scoped callbacks fire for spilled-over requests.
+     *
+     * @param input payload supplied to {@code process()}
+     * @param result outcome of the one-shot execution
+     * @param latency wall-clock time spent running the one-shot process
+     * @see SpilloverPolicy
+     */
+    default void requestSpilledOver(String input, CommandResult<String> result, Duration latency) {}
+
+    /**
+     * Fired when a request could not obtain a pooled worker and the spillover concurrency cap was already exhausted.
+     * The original {@code ServiceUnavailableException} is rethrown to the caller afterwards.
+     *
+     * @param input payload supplied to {@code process()}
+     * @see SpilloverPolicy#maxConcurrent()
+     */
+    default void spilloverRejected(String input) {}
+
+    /**
+     * Fired when a request outlived its hedge delay and the same input was sent to a second worker. Both attempts then
+     * report their own lease-scoped callbacks.
+     *
+     * @param input payload supplied to {@code process()}
+     * @param delay hedge delay derived from observed latencies
+     * @see HedgingPolicy
+     */
+    default void requestHedged(String input, Duration delay) {}
+
+    /**
+     * Fired when a request is answered from the response cache without leasing a worker.
+     *
+     * @param input payload supplied to {@code process()}
+     * @see ResponseCachePolicy
+     */
+    default void cacheHit(String input) {}
+
+    /**
+     * Fired when a cacheable request is not cached and no identical request is in flight, so it leases a worker.
+     *
+     * @param input payload supplied to {@code process()}
+     * @see ResponseCachePolicy
+     */
+    default void cacheMiss(String input) {}
+
+    /**
+     * Fired when a request joins an identical in-flight request and shares its outcome instead of leasing a worker.
+     *
+     * @param input payload supplied to {@code process()}
+     * @see ResponseCachePolicy
+     */
+    default void requestCoalesced(String input) {}
+
     /**
      * Fired when a conversation-scope handle is created.
      *
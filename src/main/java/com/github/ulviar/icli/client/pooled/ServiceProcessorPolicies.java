@@ -0,0 +1,21 @@
+package com.github.ulviar.icli.client.pooled;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Optional request-path behaviours shared by every {@link ServiceProcessor} created from one
+ * {@link ProcessPoolClient}. Each component is {@code null} when the corresponding policy is disabled.
+ *
+ * @param cache     response cache with single-flight loading, see {@link ResponseCachePolicy}
+ * @param hedger    hedge delay and budget tracker, see {@link HedgingPolicy}
+ * @param spillover one-shot fallback for saturated pools, see {@link SpilloverPolicy}
+ * @param router    consistent-hash worker selection, see {@link ConsistentHashRouting}
+ */
+record ServiceProcessorPolicies(
+        @Nullable ResponseCache cache,
+        @Nullable RequestHedger hedger,
+        @Nullable OneShotSpillover spillover,
+        @Nullable ConsistentHashRouter router) {
+
+    static final ServiceProcessorPolicies NONE = new ServiceProcessorPolicies(null, null, null, null);
+}
@@ -0,0 +1,58 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.engine.CommandDefinition;
+import com.github.ulviar.icli.engine.ProcessEngine;
+import com.github.ulviar.icli.engine.pool.api.ServiceUnavailableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Opt-in policy that lets pooled request processing spill over to one-shot execution when the pool cannot supply a
+ * worker.
+ *
+ * <p>When acquiring a worker fails with {@link ServiceUnavailableException} (queue saturation, acquire timeout, or an
+ * open launch circuit) the {@link ServiceProcessor} derives a per-call {@link CommandDefinition} from the worker
+ * command and runs it through {@link ProcessEngine#run}. Spillover executions are capped by {@link #maxConcurrent()}
+ * independently of the pool size; once the cap is reached the original {@code ServiceUnavailableException} is
+ * rethrown. Spillover outcomes are reported through {@link ServiceProcessorListener#requestSpilledOver} rather than the
+ * regular lease-scoped callbacks so their counts and latencies can be tracked separately.</p>
+ *
+ * <p><strong>Usage example</strong></p>
+ *
+ * <pre>{@code
+ * service.commandRunner(spec -> spec.maxSize(4).spillover(SpilloverPolicy.appendingInput(8)));
+ * }</pre>
+ *
+ * @param maxConcurrent  maximum number of one-shot executions in flight at any time; must be positive
+ * @param commandFactory derives the one-shot command from the worker command and the request payload
+ *
+ * @apiNote Only enable spillover for commands that produce the same response in one-shot mode as they do when serving
+ * requests interactively.
+ */
+public record SpilloverPolicy(
+        int maxConcurrent, BiFunction<CommandDefinition, String, CommandDefinition> commandFactory) {
+
+    public SpilloverPolicy {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be > 0");
+        }
+    }
+
+    /**
+     * Returns a policy that runs the worker command with the request payload appended as the final argument.
+     *
+     * @param maxConcurrent maximum number of one-shot executions in flight at any time
+     * @return spillover policy appending the payload to the worker argv
+     * @throws IllegalArgumentException if {@code maxConcurrent} is not positive
+     */
+    public static SpilloverPolicy appendingInput(int maxConcurrent) {
+        return new SpilloverPolicy(maxConcurrent, SpilloverPolicy::appendInput);
+    }
+
+    private static CommandDefinition appendInput(CommandDefinition workerCommand, String input) {
+        List<String> argv = new ArrayList<>(workerCommand.command());
+        argv.add(input);
+        return workerCommand.derive().command(argv).build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig;
+import java.time.Duration;
+
+/**
+ * Policy for {@link StickyProcessor}, which keeps one pooled worker leased across consecutive requests from the same
+ * caller.
+ *
+ * <p>A sticky lease serves at most {@link #maxBurst()} requests before it goes back to the pool, and is released
+ * early once the caller has been idle for {@link #idleGap()} or another caller is queued for a worker.</p>
+ *
+ * <p>The pool measures {@link ProcessPoolConfig#requestTimeout()} per lease, not per request, and retires a worker
+ * whose lease outlives it. A burst therefore also ends once the lease has been held for half of that timeout, whatever
+ * {@code maxBurst} and {@code idleGap} allow, and the next request re-acquires a worker with a fresh timeout.</p>
+ *
+ * <p><strong>Usage example</strong></p>
+ *
+ * <pre>{@code
+ * try (StickyProcessor sticky = runner.sticky(new StickyLeasePolicy(256, Duration.ofMillis(50)))) {
+ *     for (String line : batch) {
+ *         sticky.process(line);
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param maxBurst maximum number of requests served by one lease before it is returned; must be positive
+ * @param idleGap  idle time after which the held worker is returned to the pool; must be positive
+ *
+ * @apiNote Reset hooks run only when the sticky lease is released, not between the requests of a burst, so only use
+ *     sticky leases for protocols whose requests do not depend on a freshly reset worker.
+ */
+public record StickyLeasePolicy(int maxBurst, Duration idleGap) {
+
+    public StickyLeasePolicy {
+        if (maxBurst <= 0) {
+            throw new IllegalArgumentException("maxBurst must be > 0");
+        }
+        if (idleGap.isNegative() || idleGap.isZero()) {
+            throw new IllegalArgumentException("idleGap must be > 0");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.client.ClientScheduler;
+import com.github.ulviar.icli.client.CommandResult;
+import com.github.ulviar.icli.client.LineSessionClient;
+import com.github.ulviar.icli.client.ResponseDecoder;
+import com.github.ulviar.icli.engine.pool.api.LeaseScope;
+import com.github.ulviar.icli.engine.pool.api.WorkerLease;
+import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Request processor that keeps a pooled worker leased across consecutive requests, so a tight sequential loop pays
+ * for acquisition, reset hooks, and release once per burst instead of once per request.
+ *
+ * <p>The held lease is returned to the pool when the burst reaches {@link StickyLeasePolicy#maxBurst()}, when the
+ * caller stays idle for {@link StickyLeasePolicy#idleGap()}, when another caller is queued for a worker, when the
+ * lease has been held for {@link LeaseSource#renewAfterNanos() half} of the pool's request timeout, after a failed
+ * request, and on {@link #close()}. Idle and age release run on a shared background timer, so a caller that simply
+ * stops issuing requests does not pin the worker. Listener callbacks mirror {@link ServiceProcessor}: every request
+ * reports {@code requestStarted} followed by {@code requestCompleted} or {@code requestFailed}, with consecutive
+ * requests of a burst sharing the same {@link LeaseScope}.</p>
+ *
+ * <p>The processor is meant to be driven by one caller at a time; concurrent calls are serialised. Obtain instances
+ * via {@link ServiceProcessor#sticky(StickyLeasePolicy)} or {@link PooledCommandRunner#sticky(StickyLeasePolicy)} and
+ * close them when the batch ends.</p>
+ */
+public final class StickyProcessor implements AutoCloseable {
+
+    private final LeaseSource leaseSource;
+    private final ClientScheduler scheduler;
+    private final ResponseDecoder decoder;
+    private final ServiceProcessorListener listener;
+    private final int maxBurst;
+    private final long idleGapNanos;
+    private final long renewAfterNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private @Nullable WorkerLease lease;
+    private int burst;
+    private long leasedAtNanos;
+    private long lastUsedNanos;
+    private boolean idleCheckArmed;
+    private boolean closed;
+
+    StickyProcessor(
+            LeaseSource leaseSource,
+            ClientScheduler scheduler,
+            ResponseDecoder decoder,
+            ServiceProcessorListener listener,
+            StickyLeasePolicy policy) {
+        this.leaseSource = leaseSource;
+        this.scheduler = scheduler;
+        this.decoder = decoder;
+        this.listener = listener;
+        this.maxBurst = policy.maxBurst();
+        this.idleGapNanos = policy.idleGap().toNanos();
+        this.renewAfterNanos = leaseSource.renewAfterNanos();
+    }
+
+    /**
+     * Processes a single request, reusing the held worker when the sticky policy allows it.
+     *
+     * @param input payload forwarded to the pooled worker
+     * @return command result describing success or failure
+     * @throws IllegalStateException when the processor has been closed
+     */
+    public CommandResult<String> process(String input) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Sticky processor is closed");
+            }
+            WorkerLease current = heldLease();
+            LeaseScope scope = current.scope();
+            listener.requestStarted(scope, input);
+            CommandResult<String> result;
+            try {
+                LineSessionClient client = WorkerClientContext.of(current).line(decoder, scheduler);
+                result = client.process(input);
+            } catch (Throwable ex) {
+                failAndRelease(current, scope, ex);
+                throw ex;
+            }
+            if (!result.success()) {
+                failAndRelease(current, scope, result.error());
+                return result;
+            }
+            listener.requestCompleted(scope, result);
+            burst++;
+            lastUsedNanos = System.nanoTime();
+            long untilRelease = untilReleaseNanos(lastUsedNanos);
+            if (burst >= maxBurst || untilRelease <= 0 || leaseSource.contended()) {
+                release();
+            } else {
+                armIdleCheck(untilRelease);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the held worker to the pool. Further calls to {@link #process(String)} fail; repeated closes are
+     * ignored.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private WorkerLease heldLease() {
+        WorkerLease current = lease;
+        if (current != null && (untilReleaseNanos(System.nanoTime()) <= 0 || leaseSource.contended())) {
+            release();
+            current = null;
+        }
+        if (current == null) {
+            current = leaseSource.acquire();
+            lease = current;
+            burst = 0;
+            leasedAtNanos = System.nanoTime();
+        }
+        return current;
+    }
+
+    /**
+     * Returns the time left before the held lease must go back to the pool, either because the caller went idle or
+     * because the lease is old enough that the pool's request timeout would otherwise reclaim the worker mid-burst.
+     */
+    private long untilReleaseNanos(long now) {
+        return Math.min(idleGapNanos - (now - lastUsedNanos), renewAfterNanos - (now - leasedAtNanos));
+    }
+
+    private void failAndRelease(WorkerLease current, LeaseScope scope, @Nullable Throwable error) {
+        lease = null;
+        try (current) {
+            current.reset(ResetRequest.manual(scope.requestId()));
+            listener.requestFailed(scope, error);
+        }
+    }
+
+    private void release() {
+        WorkerLease current = lease;
+        lease = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void armIdleCheck(long delayNanos) {
+        if (idleCheckArmed) {
+            return;
+        }
+        idleCheckArmed = true;
+        CompletableFuture.runAsync(
+                this::idleCheck, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS));
+    }
+
+    private void idleCheck() {
+        if (!lock.tryLock()) {
+            // A request is in flight; look again one idle gap (or renewal interval, if shorter) from now.
+            long retryNanos = Math.min(idleGapNanos, renewAfterNanos);
+            CompletableFuture.runAsync(
+                    this::idleCheck, CompletableFuture.delayedExecutor(retryNanos, TimeUnit.NANOSECONDS));
+            return;
+        }
+        try {
+            idleCheckArmed = false;
+            if (lease == null) {
+                return;
+            }
+            long untilRelease = untilReleaseNanos(System.nanoTime());
+            if (untilRelease <= 0) {
+                release();
+            } else {
+                armIdleCheck(untilRelease);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
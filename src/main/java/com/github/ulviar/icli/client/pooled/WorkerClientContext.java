@@ -0,0 +1,54 @@
+package com.github.ulviar.icli.client.pooled;
+
+import com.github.ulviar.icli.client.ClientScheduler;
+import com.github.ulviar.icli.client.InteractiveSessionClient;
+import com.github.ulviar.icli.client.LineSessionClient;
+import com.github.ulviar.icli.client.ResponseDecoder;
+import com.github.ulviar.icli.engine.InteractiveSession;
+import com.github.ulviar.icli.engine.pool.api.WorkerLease;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Client objects attached to a pooled worker for its whole lifetime, so consecutive leases of the same worker reuse
+ * them instead of wrapping the session again for every request.
+ *
+ * <p>The context remembers the most recently used decoder/scheduler pair; a lease that asks for a different pair
+ * rebuilds only the {@link LineSessionClient}. Access is confined to the current lease holder.</p>
+ */
+final class WorkerClientContext {
+
+    private final InteractiveSessionClient interactive;
+    private @Nullable LineSessionClient line;
+    private @Nullable ResponseDecoder lineDecoder;
+    private @Nullable ClientScheduler lineScheduler;
+
+    private WorkerClientContext(InteractiveSession session) {
+        this.interactive = InteractiveSessionClient.wrap(session);
+    }
+
+    /**
+     * Returns the context attached to {@code lease}'s worker, creating it on first use.
+     *
+     * @param lease active lease
+     * @return worker-scoped client context
+     */
+    static WorkerClientContext of(WorkerLease lease) {
+        return lease.attachment(WorkerClientContext.class, WorkerClientContext::new);
+    }
+
+    InteractiveSessionClient interactive() {
+        return interactive;
+    }
+
+    LineSessionClient line(ResponseDecoder decoder, ClientScheduler scheduler) {
+        LineSessionClient current = line;
+        if (current != null && lineDecoder == decoder && lineScheduler == scheduler) {
+            return current;
+        }
+        LineSessionClient created = LineSessionClient.create(interactive, decoder, scheduler);
+        line = created;
+        lineDecoder = decoder;
+        lineScheduler = scheduler;
+        return created;
+    }
+}
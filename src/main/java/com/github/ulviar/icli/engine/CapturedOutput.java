@@ -0,0 +1,110 @@
+package com.github.ulviar.icli.engine;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Captured bytes of one output stream, either held in memory or spilled to a temporary file by
+ * {@link OutputCapture#spilling(long, Path)}. Views are produced on demand, so a multi-gigabyte capture can be streamed
+ * without ever materialising a {@link String}.
+ *
+ * <p>Closing the output releases its backing storage; spilled outputs delete their temporary file. Views obtained
+ * before closing must not be used afterwards.
+ */
+public interface CapturedOutput extends AutoCloseable {
+
+    /**
+     * @return number of captured bytes
+     */
+    long size();
+
+    /**
+     * @return charset used to decode the captured bytes
+     */
+    Charset charset();
+
+    /**
+     * @return temporary file holding the bytes, or empty when the output stayed in memory
+     */
+    Optional<Path> file();
+
+    /**
+     * Opens a fresh stream over the captured bytes. The caller closes the stream.
+     *
+     * @return stream positioned at the first captured byte
+     *
+     * @throws UncheckedIOException when the spill file cannot be opened
+     */
+    InputStream openStream();
+
+    /**
+     * Returns a read-only buffer over the captured bytes. Spilled outputs are memory-mapped rather than read.
+     *
+     * @return read-only buffer positioned at the first captured byte
+     *
+     * @throws IllegalStateException when the output exceeds {@link Integer#MAX_VALUE} bytes; use
+     *                               {@link #openStream()} instead
+     * @throws UncheckedIOException  when the spill file cannot be mapped
+     */
+    ByteBuffer asByteBuffer();
+
+    /**
+     * Copies the captured bytes into a new array.
+     *
+     * @return exact-sized copy of the captured bytes
+     *
+     * @throws IllegalStateException when the output exceeds {@link Integer#MAX_VALUE} bytes
+     * @throws UncheckedIOException  when the spill file cannot be mapped
+     */
+    default byte[] toByteArray() {
+        ByteBuffer buffer = asByteBuffer();
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.get(copy);
+        return copy;
+    }
+
+    /**
+     * Decodes the captured bytes with {@link #charset()} on demand.
+     *
+     * @return decoded text view
+     *
+     * @throws IllegalStateException when the output exceeds {@link Integer#MAX_VALUE} bytes
+     */
+    default CharSequence text() {
+        return charset().decode(asByteBuffer());
+    }
+
+    /**
+     * Releases the backing storage. Closing more than once has no effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * Wraps already-decoded text, for example the summary produced by an in-memory capture policy.
+     *
+     * @param text    captured text
+     * @param charset charset used to encode {@code text} for byte-level views
+     *
+     * @return in-memory captured output
+     */
+    static CapturedOutput of(String text, Charset charset) {
+        return new InMemoryCapturedOutput(null, text, charset);
+    }
+
+    /**
+     * Wraps captured bytes without copying them. Text is decoded on first use and cached.
+     *
+     * @param bytes   captured bytes; ownership passes to the returned output, so the caller must not modify the array
+     * @param charset charset used to decode {@code bytes}
+     *
+     * @return in-memory captured output
+     */
+    static CapturedOutput wrap(byte[] bytes, Charset charset) {
+        return new InMemoryCapturedOutput(bytes, null, charset);
+    }
+}
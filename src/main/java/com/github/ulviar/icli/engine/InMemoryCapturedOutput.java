@@ -0,0 +1,106 @@
+package com.github.ulviar.icli.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link CapturedOutput} held in memory as an exact-sized byte array, decoded text, or both. Whichever representation
+ * is missing is derived on first use and cached, so capture policies can hand over raw bytes without paying for a
+ * decode that callers inspecting only the exit code or the bytes never need.
+ *
+ * <p>Decoding goes through {@link String#String(byte[], Charset)} rather than {@link Charset#decode(ByteBuffer)}: the
+ * constructor copies Latin-1 and pure-ASCII input straight into a compact string, whereas the charset decoder always
+ * materialises an intermediate UTF-16 buffer.
+ */
+final class InMemoryCapturedOutput implements CapturedOutput {
+
+    private final Charset charset;
+    private volatile byte @Nullable [] bytes;
+    private volatile @Nullable String text;
+
+    InMemoryCapturedOutput(byte @Nullable [] bytes, @Nullable String text, Charset charset) {
+        if (bytes == null && text == null) {
+            throw new IllegalArgumentException("bytes or text must be provided");
+        }
+        this.bytes = bytes;
+        this.text = text;
+        this.charset = charset;
+    }
+
+    @Override
+    public long size() {
+        return bytes().length;
+    }
+
+    @Override
+    public Charset charset() {
+        return charset;
+    }
+
+    @Override
+    public Optional<Path> file() {
+        return Optional.empty();
+    }
+
+    @Override
+    public InputStream openStream() {
+        return new ByteArrayInputStream(bytes());
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes()).asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return bytes().clone();
+    }
+
+    @Override
+    public String text() {
+        String decoded = text;
+        if (decoded == null) {
+            decoded = new String(bytes(), charset);
+            text = decoded;
+        }
+        return decoded;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof InMemoryCapturedOutput that
+                && charset.equals(that.charset)
+                && Arrays.equals(bytes(), that.bytes());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * charset.hashCode() + Arrays.hashCode(bytes());
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+
+    private byte[] bytes() {
+        byte[] encoded = bytes;
+        if (encoded == null) {
+            encoded = String.valueOf(text).getBytes(charset);
+            bytes = encoded;
+        }
+        return encoded;
+    }
+}
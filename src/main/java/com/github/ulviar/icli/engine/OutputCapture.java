@@ -2,6 +2,7 @@ package com.github.ulviar.icli.engine;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.OptionalLong;
 
 /**
@@ -9,7 +10,14 @@ import java.util.OptionalLong;
  *
  * <p>Policies may retain bounded in-memory buffers, stream to consumers, or discard output entirely.
  */
-public sealed interface OutputCapture permits OutputCapture.Bounded, OutputCapture.Streaming, OutputCapture.Discard {
+public sealed interface OutputCapture
+        permits OutputCapture.Bounded,
+                OutputCapture.Tail,
+                OutputCapture.HeadAndTail,
+                OutputCapture.Spilling,
+                OutputCapture.Streaming,
+                OutputCapture.Discard,
+                OutputCapture.Redirected {
 
     /** Maximum bytes retained in memory, if applicable. */
     OptionalLong maxRetainedBytes();
@@ -44,13 +52,108 @@ public sealed interface OutputCapture permits OutputCapture.Bounded, OutputCaptu
         }
     }
 
+    /**
+     * Bounded in-memory capture retaining the last {@link #maxBytes()} bytes, which is usually where a failing command
+     * reports its error. Dropped output is summarised by a single
+     * {@link com.github.ulviar.icli.engine.diagnostics.DiagnosticsEvent.OutputTruncated} event once the stream ends.
+     */
+    record Tail(long maxBytes, Charset charset) implements OutputCapture {
+        public Tail {
+            if (maxBytes <= 0 || maxBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("maxBytes must be between 1 and " + Integer.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public OptionalLong maxRetainedBytes() {
+            return OptionalLong.of(maxBytes);
+        }
+
+        @Override
+        public Charset charset() {
+            return charset;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
+    /**
+     * Bounded in-memory capture retaining the first {@link #headBytes()} and the last {@link #tailBytes()} bytes. When
+     * output between the two is dropped, the captured text joins them with a {@code "... [N bytes truncated] ..."}
+     * marker line and a single {@link com.github.ulviar.icli.engine.diagnostics.DiagnosticsEvent.OutputTruncated}
+     * summary is emitted once the stream ends.
+     */
+    record HeadAndTail(long headBytes, long tailBytes, Charset charset) implements OutputCapture {
+        public HeadAndTail {
+            if (headBytes < 0 || tailBytes < 0) {
+                throw new IllegalArgumentException("headBytes and tailBytes must be non-negative");
+            }
+            if (headBytes + tailBytes <= 0 || headBytes + tailBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("headBytes + tailBytes must be between 1 and " + Integer.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public OptionalLong maxRetainedBytes() {
+            return OptionalLong.of(headBytes + tailBytes);
+        }
+
+        @Override
+        public Charset charset() {
+            return charset;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
+    /**
+     * Capture that keeps up to {@link #memoryThreshold()} bytes in memory and streams everything beyond that to a
+     * temporary file in {@link #directory()}. There is no upper bound on the captured size.
+     *
+     * <p>Once output spills, the {@link ProcessResult} text accessors are empty and the bytes are reachable through
+     * {@link ProcessResult#stdoutOutput()} / {@link ProcessResult#stderrOutput()}. Closing the result deletes the
+     * temporary file.
+     */
+    record Spilling(long memoryThreshold, Path directory, Charset charset) implements OutputCapture {
+        public Spilling {
+            if (memoryThreshold < 0 || memoryThreshold > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("memoryThreshold must be between 0 and " + Integer.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public OptionalLong maxRetainedBytes() {
+            return OptionalLong.of(memoryThreshold);
+        }
+
+        @Override
+        public Charset charset() {
+            return charset;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
     /**
      * Streaming capture that passes data to subscribers without retaining it.
      *
      * <p>The runtime delivers chunks to {@link com.github.ulviar.icli.engine.diagnostics.DiagnosticsListener}
      * callbacks synchronously on the stdout/stderr draining threads. Callers must keep listeners lightweight to avoid
-     * stalling output processing. Because no data is retained, {@link com.github.ulviar.icli.engine.ProcessResult}
-     * surfaces empty {@code stdout}/{@code stderr} fields when this policy is used without an external accumulator.
+     * stalling output processing. Listeners overriding
+     * {@link com.github.ulviar.icli.engine.diagnostics.DiagnosticsListener#onOutput} receive each chunk as a read-only
+     * view of the read buffer without copying; other listeners receive copied
+     * {@link com.github.ulviar.icli.engine.diagnostics.DiagnosticsEvent.OutputChunk} events. Because no data is
+     * retained, {@link com.github.ulviar.icli.engine.ProcessResult} surfaces empty {@code stdout}/{@code stderr} fields
+     * when this policy is used without an external accumulator.
      */
     record Streaming(Charset charset) implements OutputCapture {
         @Override
@@ -87,10 +190,54 @@ public sealed interface OutputCapture permits OutputCapture.Bounded, OutputCaptu
         }
     }
 
+    /**
+     * Output wired by the operating system to {@link #target()}: the child writes straight to the file, the null
+     * device, or the parent's own stream, so the runtime starts no pump thread and copies nothing. Captured text is
+     * always empty.
+     *
+     * <p>PTY-backed commands have a single terminal stream and cannot be redirected; for them only
+     * {@link ProcessBuilder.Redirect#DISCARD} is accepted and is emulated by draining and dropping the output.
+     */
+    record Redirected(ProcessBuilder.Redirect target) implements OutputCapture {
+        public Redirected {
+            ProcessBuilder.Redirect.Type type = target.type();
+            if (type == ProcessBuilder.Redirect.Type.PIPE || type == ProcessBuilder.Redirect.Type.READ) {
+                throw new IllegalArgumentException("target must write to a file or inherit the parent stream");
+            }
+        }
+
+        @Override
+        public OptionalLong maxRetainedBytes() {
+            return OptionalLong.of(0);
+        }
+
+        @Override
+        public Charset charset() {
+            return StandardCharsets.UTF_8;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
     static OutputCapture bounded(long maxBytes) {
         return new Bounded(maxBytes, StandardCharsets.UTF_8);
     }
 
+    static OutputCapture tail(long maxBytes) {
+        return new Tail(maxBytes, StandardCharsets.UTF_8);
+    }
+
+    static OutputCapture headAndTail(long headBytes, long tailBytes) {
+        return new HeadAndTail(headBytes, tailBytes, StandardCharsets.UTF_8);
+    }
+
+    static OutputCapture spilling(long memoryThreshold, Path directory) {
+        return new Spilling(memoryThreshold, directory, StandardCharsets.UTF_8);
+    }
+
     static OutputCapture streaming() {
         return new Streaming(StandardCharsets.UTF_8);
     }
@@ -98,4 +245,20 @@ public sealed interface OutputCapture permits OutputCapture.Bounded, OutputCaptu
     static OutputCapture discard() {
         return new Discard();
     }
+
+    static OutputCapture redirectToNull() {
+        return new Redirected(ProcessBuilder.Redirect.DISCARD);
+    }
+
+    static OutputCapture redirectTo(Path file) {
+        return new Redirected(ProcessBuilder.Redirect.to(file.toFile()));
+    }
+
+    static OutputCapture appendTo(Path file) {
+        return new Redirected(ProcessBuilder.Redirect.appendTo(file.toFile()));
+    }
+
+    static OutputCapture inherit() {
+        return new Redirected(ProcessBuilder.Redirect.INHERIT);
+    }
 }
@@ -0,0 +1,87 @@
+package com.github.ulviar.icli.engine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result of {@link ProcessEngine#runPipeline(List, ExecutionOptions)}. Only the last stage's stdout is captured; every
+ * stage contributes its exit code and its stderr.
+ *
+ * <p>As with {@link ProcessResult}, output is held as captured bytes and decoded only when the text accessors are
+ * called.
+ *
+ * @param exitCodes     exit codes in stage order
+ * @param stdoutOutput  byte-level view of the last stage's stdout
+ * @param stderrOutputs byte-level views of each stage's stderr in stage order
+ * @param duration      wall-clock execution time of the whole pipeline, when measured
+ */
+public record PipelineResult(
+        List<Integer> exitCodes,
+        CapturedOutput stdoutOutput,
+        List<CapturedOutput> stderrOutputs,
+        Optional<Duration> duration)
+        implements AutoCloseable {
+
+    public PipelineResult {
+        exitCodes = List.copyOf(exitCodes);
+        stderrOutputs = List.copyOf(stderrOutputs);
+        if (exitCodes.isEmpty()) {
+            throw new IllegalArgumentException("exitCodes must not be empty");
+        }
+        if (stderrOutputs.size() != exitCodes.size()) {
+            throw new IllegalArgumentException("stderrOutputs must have one entry per stage");
+        }
+    }
+
+    /**
+     * @return decoded stdout of the last stage, empty when it was spilled to disk or redirected
+     */
+    public String stdout() {
+        return stdoutOutput.file().isPresent() ? "" : stdoutOutput.text().toString();
+    }
+
+    /**
+     * @return decoded stderr of each stage in stage order (all empty when stderr is merged into stdout)
+     */
+    public List<String> stderr() {
+        return stderrOutputs.stream()
+                .map(output -> output.file().isPresent() ? "" : output.text().toString())
+                .toList();
+    }
+
+    /**
+     * Returns the exit code of the last stage, matching what a shell reports for {@code cmd1 | cmd2}.
+     *
+     * @return last stage's exit code
+     */
+    public int exitCode() {
+        return exitCodes.getLast();
+    }
+
+    /**
+     * Reports whether every stage exited with {@code 0}, matching a shell's {@code pipefail} semantics.
+     *
+     * @return {@code true} when no stage failed
+     */
+    public boolean succeeded() {
+        for (int code : exitCodes) {
+            if (code != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Releases spilled output files. Results held entirely in memory need not be closed.
+     */
+    @Override
+    public void close() {
+        try {
+            stdoutOutput.close();
+        } finally {
+            stderrOutputs.forEach(CapturedOutput::close);
+        }
+    }
+}
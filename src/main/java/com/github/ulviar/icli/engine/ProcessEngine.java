@@ -1,5 +1,8 @@
 package com.github.ulviar.icli.engine;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Pluggable gateway encapsulating the core execution engine.
  *
@@ -87,4 +90,47 @@ public interface ProcessEngine {
      * shutdowns surface as {@link com.github.ulviar.icli.engine.runtime.ProcessShutdownException}.</p>
      */
     InteractiveSession startSession(CommandDefinition spec, ExecutionOptions options);
+
+    /**
+     * Execute a single command asynchronously with the same contract as
+     * {@link #run(CommandDefinition, ExecutionOptions)}.
+     *
+     * <p>Failures that would be thrown by {@code run} complete the returned future exceptionally instead. The default
+     * implementation runs {@code run} on a fresh virtual thread and cannot stop the process when the future is
+     * cancelled; implementations should override it to supervise the process without blocking any thread and to
+     * terminate the process on cancellation.
+     *
+     * @param spec    command to execute
+     * @param options capture, merge and shutdown options
+     *
+     * @return future completed with the result once the process exited and its output was drained
+     */
+    default CompletableFuture<ProcessResult> runAsync(CommandDefinition spec, ExecutionOptions options) {
+        return CompletableFuture.supplyAsync(
+                () -> run(spec, options), task -> Thread.ofVirtual().name("icli-run-async").start(task));
+    }
+
+    /**
+     * Execute {@code stages} as a pipeline ({@code stage1 | stage2 | ...}) whose intermediate data flows from one
+     * process to the next through operating-system pipes without passing through the JVM.
+     *
+     * <p>{@link ExecutionOptions#stdoutPolicy()} applies to the last stage's stdout and
+     * {@link ExecutionOptions#stderrPolicy()} to every stage's stderr. When
+     * {@link ExecutionOptions#mergeErrorIntoOutput()} is {@code true}, each stage's stderr joins its stdout, so
+     * intermediate diagnostics flow into the next stage just like {@code 2>&1 |}. The shutdown plan covers the pipeline
+     * as a whole: once the soft timeout elapses every surviving stage is terminated.
+     *
+     * <p>Stages must not require a terminal; such requests raise {@link UnsupportedOperationException}. Errors are
+     * otherwise reported as for {@link #run(CommandDefinition, ExecutionOptions)}.
+     *
+     * @param stages  commands in pipeline order; must not be empty
+     * @param options capture, merge and shutdown options applied to the pipeline
+     *
+     * @return per-stage exit codes and captured output
+     *
+     * @throws UnsupportedOperationException when the engine does not support pipelines
+     */
+    default PipelineResult runPipeline(List<CommandDefinition> stages, ExecutionOptions options) {
+        throw new UnsupportedOperationException("Pipelines are not supported by " + getClass().getName());
+    }
 }
@@ -1,5 +1,7 @@
 package com.github.ulviar.icli.engine;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Optional;
 
@@ -8,5 +10,95 @@ import java.util.Optional;
  *
  * <p>Fields represent the minimum surface needed by the client API. The runtime implementation will enrich this
  * record with additional diagnostics as the project evolves.
+ *
+ * <p>Output is held as captured bytes. {@link #stdout()} and {@link #stderr()} decode on first use and cache the text,
+ * so callers that only check {@link #exitCode()} or parse {@link #stdoutBuffer()} themselves never pay for decoding.
+ * When an {@link OutputCapture.Spilling} policy moved output to a temporary file, the text accessors return an empty
+ * string and the bytes live in the file until the result is closed.
+ *
+ * @param exitCode     process exit code
+ * @param stdoutOutput byte-level view of stdout
+ * @param stderrOutput byte-level view of stderr
+ * @param duration     wall-clock execution time, when measured
  */
-public record ProcessResult(int exitCode, String stdout, String stderr, Optional<Duration> duration) {}
+public record ProcessResult(
+        int exitCode, CapturedOutput stdoutOutput, CapturedOutput stderrOutput, Optional<Duration> duration)
+        implements AutoCloseable {
+
+    /**
+     * Creates a result from already-decoded UTF-8 text held entirely in memory.
+     */
+    public ProcessResult(int exitCode, String stdout, String stderr, Optional<Duration> duration) {
+        this(
+                exitCode,
+                CapturedOutput.of(stdout, StandardCharsets.UTF_8),
+                CapturedOutput.of(stderr, StandardCharsets.UTF_8),
+                duration);
+    }
+
+    /**
+     * @return decoded stdout, empty when it was spilled to disk
+     */
+    public String stdout() {
+        return textOf(stdoutOutput);
+    }
+
+    /**
+     * @return decoded stderr, empty when it was spilled to disk
+     */
+    public String stderr() {
+        return textOf(stderrOutput);
+    }
+
+    /**
+     * @return exact-sized copy of the captured stdout bytes
+     *
+     * @throws IllegalStateException when spilled stdout exceeds {@link Integer#MAX_VALUE} bytes
+     */
+    public byte[] stdoutBytes() {
+        return stdoutOutput.toByteArray();
+    }
+
+    /**
+     * @return exact-sized copy of the captured stderr bytes
+     *
+     * @throws IllegalStateException when spilled stderr exceeds {@link Integer#MAX_VALUE} bytes
+     */
+    public byte[] stderrBytes() {
+        return stderrOutput.toByteArray();
+    }
+
+    /**
+     * @return read-only buffer over the captured stdout bytes, shared rather than copied
+     *
+     * @throws IllegalStateException when spilled stdout exceeds {@link Integer#MAX_VALUE} bytes
+     */
+    public ByteBuffer stdoutBuffer() {
+        return stdoutOutput.asByteBuffer();
+    }
+
+    /**
+     * @return read-only buffer over the captured stderr bytes, shared rather than copied
+     *
+     * @throws IllegalStateException when spilled stderr exceeds {@link Integer#MAX_VALUE} bytes
+     */
+    public ByteBuffer stderrBuffer() {
+        return stderrOutput.asByteBuffer();
+    }
+
+    /**
+     * Releases spilled output files. Results held entirely in memory need not be closed.
+     */
+    @Override
+    public void close() {
+        try {
+            stdoutOutput.close();
+        } finally {
+            stderrOutput.close();
+        }
+    }
+
+    private static String textOf(CapturedOutput output) {
+        return output.file().isPresent() ? "" : output.text().toString();
+    }
+}
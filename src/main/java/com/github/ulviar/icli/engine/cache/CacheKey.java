@@ -0,0 +1,103 @@
+package com.github.ulviar.icli.engine.cache;
+
+import com.github.ulviar.icli.engine.CommandDefinition;
+import com.github.ulviar.icli.engine.ExecutionOptions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Derives the cache key of a run: a SHA-256 digest over a canonical form of the command, its working directory and
+ * environment, the options that shape the captured output, and the content of the declared input files.
+ *
+ * <p>Every field is written with a length prefix so distinct argument vectors can never produce the same byte stream.
+ * Environment overrides are sorted, and the working directory is resolved to an absolute, normalised path (the JVM's
+ * working directory when unset). Missing input files contribute a marker instead of failing, so creating the file
+ * later changes the key.</p>
+ */
+final class CacheKey {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private CacheKey() {}
+
+    static String of(CommandDefinition spec, ExecutionOptions options, Collection<Path> inputFiles) {
+        MessageDigest digest = sha256();
+        putStrings(digest, spec.command());
+        Path configured = spec.workingDirectory();
+        Path workingDirectory = configured == null ? Path.of("") : configured;
+        put(digest, workingDirectory.toAbsolutePath().normalize().toString());
+        Map<String, String> environment = new TreeMap<>(spec.environment());
+        putInt(digest, environment.size());
+        environment.forEach((name, value) -> {
+            put(digest, name);
+            put(digest, value);
+        });
+        put(digest, spec.terminalPreference().name());
+        putStrings(digest, spec.shell().command());
+        put(digest, spec.shell().style().name());
+        put(digest, options.stdoutPolicy().toString());
+        put(digest, options.stderrPolicy().toString());
+        put(digest, Boolean.toString(options.mergeErrorIntoOutput()));
+        putInt(digest, inputFiles.size());
+        for (Path file : inputFiles) {
+            put(digest, file.toAbsolutePath().normalize().toString());
+            put(digest, contentHash(file));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String contentHash(Path file) {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (NoSuchFileException ex) {
+            return "<missing>";
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to hash cache input " + file, ex);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void putStrings(MessageDigest digest, Collection<String> values) {
+        putInt(digest, values.size());
+        for (String value : values) {
+            put(digest, value);
+        }
+    }
+
+    private static void put(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void putInt(MessageDigest digest, int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
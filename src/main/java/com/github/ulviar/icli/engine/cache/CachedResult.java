@@ -0,0 +1,61 @@
+package com.github.ulviar.icli.engine.cache;
+
+import com.github.ulviar.icli.engine.CapturedOutput;
+import com.github.ulviar.icli.engine.ProcessResult;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Stored form of a completed run. Both streams keep their raw captured bytes and charset, so a hit rebuilds the
+ * original {@link CapturedOutput} without a decode and re-encode round trip.
+ *
+ * @param exitCode      process exit code
+ * @param stdout        captured stdout bytes; never modified once stored
+ * @param stdoutCharset charset used to decode {@code stdout}
+ * @param stderr        captured stderr bytes; never modified once stored
+ * @param stderrCharset charset used to decode {@code stderr}
+ * @param duration      wall-clock time of the original run, when measured
+ * @param storedAt      wall-clock time in epoch milliseconds at which the result was stored
+ */
+record CachedResult(
+        int exitCode,
+        byte[] stdout,
+        Charset stdoutCharset,
+        byte[] stderr,
+        Charset stderrCharset,
+        Optional<Duration> duration,
+        long storedAt) {
+
+    static CachedResult of(ProcessResult result, long storedAt) {
+        CapturedOutput stdout = result.stdoutOutput();
+        CapturedOutput stderr = result.stderrOutput();
+        return new CachedResult(
+                result.exitCode(),
+                stdout.toByteArray(),
+                stdout.charset(),
+                stderr.toByteArray(),
+                stderr.charset(),
+                result.duration(),
+                storedAt);
+    }
+
+    /**
+     * Rebuilds a result over the stored bytes. Every hit shares the same arrays, which the returned outputs only
+     * expose through read-only views or copies.
+     */
+    ProcessResult toProcessResult() {
+        return new ProcessResult(
+                exitCode,
+                CapturedOutput.wrap(stdout, stdoutCharset),
+                CapturedOutput.wrap(stderr, stderrCharset),
+                duration);
+    }
+
+    /**
+     * Estimates the heap footprint from the byte length of both streams.
+     */
+    long estimatedBytes() {
+        return (long) stdout.length + stderr.length;
+    }
+}
@@ -0,0 +1,249 @@
+package com.github.ulviar.icli.engine.cache;
+
+import com.github.ulviar.icli.engine.CommandDefinition;
+import com.github.ulviar.icli.engine.ExecutionOptions;
+import com.github.ulviar.icli.engine.InteractiveSession;
+import com.github.ulviar.icli.engine.OutputCapture;
+import com.github.ulviar.icli.engine.PipelineResult;
+import com.github.ulviar.icli.engine.ProcessEngine;
+import com.github.ulviar.icli.engine.ProcessResult;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Opt-in {@link ProcessEngine} decorator that reuses the results of idempotent one-shot commands.
+ *
+ * <p>A run is identified by its command line, working directory, environment overrides, terminal preference, shell,
+ * capture and merge options, and the content of any declared input files. A hit returns the stored result without
+ * forking a process; a miss runs the command through the delegate and stores the result in a byte-bounded in-memory LRU
+ * and, when {@link ResultCachePolicy#diskDirectory()} is set, in a persistent directory shared across restarts. Both
+ * tiers honour {@link ResultCachePolicy#ttl()}; disk hits are promoted into memory.</p>
+ *
+ * <p>Only runs whose stdout and stderr policies keep output in memory ({@link OutputCapture.Bounded},
+ * {@link OutputCapture.Tail}, {@link OutputCapture.HeadAndTail}, {@link OutputCapture.Discard}) are cached. Streaming,
+ * spilling, and redirected output is passed straight to the delegate, as are sessions and pipelines. Hits report the
+ * duration of the original run and emit no diagnostics events.</p>
+ *
+ * <p><strong>Usage example</strong></p>
+ *
+ * <pre>{@code
+ * CachingProcessEngine engine = new CachingProcessEngine(
+ *         new StandardProcessEngine(),
+ *         ResultCachePolicy.inMemory(16 * 1024 * 1024, Duration.ofMinutes(10)).withDiskDirectory(cacheDir));
+ * ProcessResult result = engine.run(CommandDefinition.of(List.of("ruff", "check", "app.py")), options,
+ *         List.of(Path.of("app.py"), Path.of("pyproject.toml")));
+ * }</pre>
+ *
+ * @apiNote The cache cannot tell whether a command is idempotent. Only route commands whose output is fully determined
+ * by the key inputs through this engine, declare every file the command reads, and call {@link #invalidate} or
+ * {@link #invalidateAll()} when outside state changes.
+ */
+public final class CachingProcessEngine implements ProcessEngine {
+
+    private final ProcessEngine delegate;
+    private final boolean cacheFailures;
+    private final LongSupplier clock;
+    private final MemoryTier memory;
+    private final @Nullable DiskTier disk;
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * Creates a caching decorator.
+     *
+     * @param delegate engine that executes cache misses and uncacheable requests
+     * @param policy   sizing, expiry, and persistence settings
+     */
+    public CachingProcessEngine(ProcessEngine delegate, ResultCachePolicy policy) {
+        this(delegate, policy, System::currentTimeMillis);
+    }
+
+    CachingProcessEngine(ProcessEngine delegate, ResultCachePolicy policy, LongSupplier clock) {
+        this.delegate = delegate;
+        this.cacheFailures = policy.cacheFailures();
+        this.clock = clock;
+        long ttlMillis = policy.ttl().toMillis();
+        this.memory = new MemoryTier(policy.maxMemoryBytes(), ttlMillis);
+        this.disk = policy.diskDirectory()
+                .map(directory -> new DiskTier(directory, ttlMillis))
+                .orElse(null);
+    }
+
+    @Override
+    public ProcessResult run(CommandDefinition spec, ExecutionOptions options) {
+        return run(spec, options, List.of());
+    }
+
+    /**
+     * Runs {@code spec}, reusing a stored result when neither the request nor the content of {@code inputFiles} changed
+     * since it was stored.
+     *
+     * @param spec       command to execute
+     * @param options    capture, merge and shutdown options
+     * @param inputFiles files whose content the command's output depends on; missing files are allowed
+     * @return stored or freshly produced result
+     * @throws java.io.UncheckedIOException when an input file exists but cannot be read
+     */
+    public ProcessResult run(CommandDefinition spec, ExecutionOptions options, Collection<Path> inputFiles) {
+        if (!cacheable(options)) {
+            bypassed.increment();
+            return delegate.run(spec, options);
+        }
+        String key = CacheKey.of(spec, options, inputFiles);
+        @Nullable CachedResult cached = lookup(key);
+        if (cached != null) {
+            return cached.toProcessResult();
+        }
+        misses.increment();
+        ProcessResult result = delegate.run(spec, options);
+        store(key, result);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<ProcessResult> runAsync(CommandDefinition spec, ExecutionOptions options) {
+        return runAsync(spec, options, List.of());
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #run(CommandDefinition, ExecutionOptions, Collection)}. Hits complete
+     * immediately; on a miss, cancelling the returned future cancels the delegate's execution as well.
+     *
+     * @param spec       command to execute
+     * @param options    capture, merge and shutdown options
+     * @param inputFiles files whose content the command's output depends on; missing files are allowed
+     * @return future completed with the stored or freshly produced result
+     */
+    public CompletableFuture<ProcessResult> runAsync(
+            CommandDefinition spec, ExecutionOptions options, Collection<Path> inputFiles) {
+        if (!cacheable(options)) {
+            bypassed.increment();
+            return delegate.runAsync(spec, options);
+        }
+        String key;
+        @Nullable CachedResult cached;
+        try {
+            key = CacheKey.of(spec, options, inputFiles);
+            cached = lookup(key);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.toProcessResult());
+        }
+        misses.increment();
+        CompletableFuture<ProcessResult> execution = delegate.runAsync(spec, options);
+        CompletableFuture<ProcessResult> stored = execution.thenApply(result -> {
+            store(key, result);
+            return result;
+        });
+        stored.whenComplete((_, _) -> {
+            if (stored.isCancelled()) {
+                execution.cancel(true);
+            }
+        });
+        return stored;
+    }
+
+    @Override
+    public InteractiveSession startSession(CommandDefinition spec, ExecutionOptions options) {
+        return delegate.startSession(spec, options);
+    }
+
+    @Override
+    public PipelineResult runPipeline(List<CommandDefinition> stages, ExecutionOptions options) {
+        return delegate.runPipeline(stages, options);
+    }
+
+    /**
+     * Drops the stored result for a request without input files from both tiers.
+     *
+     * @param spec    command whose result should be forgotten
+     * @param options options the result was produced with
+     */
+    public void invalidate(CommandDefinition spec, ExecutionOptions options) {
+        invalidate(spec, options, List.of());
+    }
+
+    /**
+     * Drops the stored result for a request from both tiers. The input files are hashed in their current state, so
+     * this only matches an entry stored while they had the same content.
+     *
+     * @param spec       command whose result should be forgotten
+     * @param options    options the result was produced with
+     * @param inputFiles input files the result was produced with
+     */
+    public void invalidate(CommandDefinition spec, ExecutionOptions options, Collection<Path> inputFiles) {
+        String key = CacheKey.of(spec, options, inputFiles);
+        memory.remove(key);
+        if (disk != null) {
+            disk.remove(key);
+        }
+    }
+
+    /**
+     * Drops every stored result from both tiers.
+     */
+    public void invalidateAll() {
+        memory.clear();
+        if (disk != null) {
+            disk.clear();
+        }
+    }
+
+    /**
+     * Returns a snapshot of hit, miss, and occupancy counters.
+     */
+    public ResultCacheMetrics metrics() {
+        return new ResultCacheMetrics(
+                memoryHits.sum(), diskHits.sum(), misses.sum(), bypassed.sum(), memory.size(), memory.sizeBytes());
+    }
+
+    private @Nullable CachedResult lookup(String key) {
+        long now = clock.getAsLong();
+        @Nullable CachedResult cached = memory.get(key, now);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+        if (disk == null) {
+            return null;
+        }
+        cached = disk.get(key, now);
+        if (cached != null) {
+            diskHits.increment();
+            memory.put(key, cached);
+        }
+        return cached;
+    }
+
+    private void store(String key, ProcessResult result) {
+        if (result.exitCode() != 0 && !cacheFailures) {
+            return;
+        }
+        CachedResult cached = CachedResult.of(result, clock.getAsLong());
+        memory.put(key, cached);
+        if (disk != null) {
+            disk.put(key, cached);
+        }
+    }
+
+    private static boolean cacheable(ExecutionOptions options) {
+        return keepsOutputInMemory(options.stdoutPolicy()) && keepsOutputInMemory(options.stderrPolicy());
+    }
+
+    private static boolean keepsOutputInMemory(OutputCapture policy) {
+        return switch (policy) {
+            case OutputCapture.Bounded _, OutputCapture.Tail _, OutputCapture.HeadAndTail _, OutputCapture.Discard _ ->
+                true;
+            case OutputCapture.Spilling _, OutputCapture.Streaming _, OutputCapture.Redirected _ -> false;
+        };
+    }
+}
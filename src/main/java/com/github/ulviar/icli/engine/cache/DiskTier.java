@@ -0,0 +1,149 @@
+package com.github.ulviar.icli.engine.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Persistent tier storing one file per cache key under a shared directory.
+ *
+ * <p>The directory itself is the index: an entry lives in {@code <key>.entry}, so a lookup is a single open of a
+ * well-known path followed by a read-only memory mapping of the file. Each stream is stored as its charset name and
+ * raw captured bytes, so entries round-trip exactly. Entries are written to a temporary file and atomically renamed
+ * into place, so concurrent readers (including other JVMs sharing the directory) observe either the previous entry or
+ * the complete new one. Expired, truncated, or foreign files are deleted when encountered.</p>
+ *
+ * <p>Failing to persist an entry never fails the run that produced it; the result simply stays memory-only.</p>
+ */
+final class DiskTier {
+
+    private static final int MAGIC = 0x69434332;
+    private static final String SUFFIX = ".entry";
+
+    private final Path directory;
+    private final long ttlMillis;
+
+    DiskTier(Path directory, long ttlMillis) {
+        this.directory = directory;
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Nullable CachedResult get(String key, long now) {
+        Path file = entryFile(key);
+        @Nullable CachedResult result;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            result = decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+            delete(file);
+            return null;
+        }
+        if (result == null || now - result.storedAt() >= ttlMillis) {
+            delete(file);
+            return null;
+        }
+        return result;
+    }
+
+    void put(String key, CachedResult result) {
+        @Nullable Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeLong(result.storedAt());
+                out.writeInt(result.exitCode());
+                out.writeLong(result.duration().map(Duration::toNanos).orElse(-1L));
+                writeStream(out, result.stdout(), result.stdoutCharset());
+                writeStream(out, result.stderr(), result.stderrCharset());
+            }
+            Files.move(temp, entryFile(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            if (temp != null) {
+                delete(temp);
+            }
+        }
+    }
+
+    void remove(String key) {
+        delete(entryFile(key));
+    }
+
+    void clear() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path entry : entries) {
+                delete(entry);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to clear result cache " + directory, ex);
+        }
+    }
+
+    private Path entryFile(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static @Nullable CachedResult decode(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            return null;
+        }
+        long storedAt = buffer.getLong();
+        int exitCode = buffer.getInt();
+        long durationNanos = buffer.getLong();
+        Charset stdoutCharset = Charset.forName(new String(readBytes(buffer), StandardCharsets.US_ASCII));
+        byte[] stdout = readBytes(buffer);
+        Charset stderrCharset = Charset.forName(new String(readBytes(buffer), StandardCharsets.US_ASCII));
+        byte[] stderr = readBytes(buffer);
+        Optional<Duration> duration =
+                durationNanos < 0 ? Optional.empty() : Optional.of(Duration.ofNanos(durationNanos));
+        return new CachedResult(exitCode, stdout, stdoutCharset, stderr, stderrCharset, duration, storedAt);
+    }
+
+    private static void writeStream(DataOutputStream out, byte[] bytes, Charset charset) throws IOException {
+        writeBytes(out, charset.name().getBytes(StandardCharsets.US_ASCII));
+        writeBytes(out, bytes);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Another process may hold the file; the entry is re-validated on the next lookup.
+        }
+    }
+}
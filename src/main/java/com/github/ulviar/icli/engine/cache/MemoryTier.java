@@ -0,0 +1,79 @@
+package com.github.ulviar.icli.engine.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Size-bounded LRU of cached results keyed by {@link CacheKey} digests.
+ *
+ * <p>Entries live in an access-ordered {@link LinkedHashMap} guarded by the tier monitor. Sizes are estimated from the
+ * byte length of the captured streams plus a fixed per-entry overhead; results larger than the whole budget are never
+ * kept.</p>
+ */
+final class MemoryTier {
+
+    static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    MemoryTier(long maxBytes, long ttlMillis) {
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+    }
+
+    synchronized @Nullable CachedResult get(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.result().storedAt() >= ttlMillis) {
+            remove(key);
+            return null;
+        }
+        return entry.result();
+    }
+
+    synchronized void put(String key, CachedResult result) {
+        long size = ENTRY_OVERHEAD_BYTES + result.estimatedBytes();
+        if (size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(result, size));
+        if (previous != null) {
+            bytes -= previous.bytes();
+        }
+        bytes += size;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+        }
+    }
+
+    synchronized void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.bytes();
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long sizeBytes() {
+        return bytes;
+    }
+
+    private record Entry(CachedResult result, long bytes) {}
+}
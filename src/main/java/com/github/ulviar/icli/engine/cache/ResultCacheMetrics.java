@@ -0,0 +1,24 @@
+package com.github.ulviar.icli.engine.cache;
+
+/**
+ * Snapshot of {@link CachingProcessEngine} activity.
+ *
+ * @param memoryHits    runs answered from the memory tier
+ * @param diskHits      runs answered from the disk tier
+ * @param misses        cacheable runs that executed the command
+ * @param bypassed      runs whose options made them uncacheable and were passed straight to the delegate
+ * @param memoryEntries results currently held in memory
+ * @param memoryBytes   estimated size of the results held in memory
+ */
+public record ResultCacheMetrics(
+        long memoryHits, long diskHits, long misses, long bypassed, int memoryEntries, long memoryBytes) {
+
+    /**
+     * Returns the fraction of cacheable runs that skipped the fork, or {@code 0} before the first cacheable run.
+     */
+    public double hitRatio() {
+        long hits = memoryHits + diskHits;
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.ulviar.icli.engine.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Sizing, expiry, and persistence settings for {@link CachingProcessEngine}.
+ *
+ * <p>The memory tier is always present and holds at most {@code maxMemoryBytes} of estimated result size. When a
+ * {@code diskDirectory} is configured, every stored result is also written there so it survives restarts and is shared
+ * by every engine pointed at the same directory. Entries older than {@code ttl} are ignored by both tiers.
+ *
+ * @param maxMemoryBytes upper bound for the estimated size of results kept in memory; must be positive
+ * @param ttl            how long a stored result may be reused; must be positive
+ * @param diskDirectory  directory of the persistent tier, or empty to cache in memory only
+ * @param cacheFailures  whether results with a non-zero exit code are cached as well
+ */
+public record ResultCachePolicy(
+        long maxMemoryBytes, Duration ttl, Optional<Path> diskDirectory, boolean cacheFailures) {
+
+    public ResultCachePolicy {
+        if (maxMemoryBytes <= 0) {
+            throw new IllegalArgumentException("maxMemoryBytes must be > 0");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be > 0");
+        }
+    }
+
+    /**
+     * Creates a memory-only policy that caches successful results.
+     *
+     * @param maxMemoryBytes upper bound for the estimated size of cached results
+     * @param ttl            how long a stored result may be reused
+     * @return new policy
+     */
+    public static ResultCachePolicy inMemory(long maxMemoryBytes, Duration ttl) {
+        return new ResultCachePolicy(maxMemoryBytes, ttl, Optional.empty(), false);
+    }
+
+    /**
+     * Returns a copy that also persists results under {@code directory}.
+     *
+     * @param directory directory of the persistent tier; created on first use
+     * @return updated policy
+     */
+    public ResultCachePolicy withDiskDirectory(Path directory) {
+        return new ResultCachePolicy(maxMemoryBytes, ttl, Optional.of(directory), cacheFailures);
+    }
+
+    /**
+     * Returns a copy that caches results regardless of their exit code.
+     *
+     * @return updated policy
+     */
+    public ResultCachePolicy withCachedFailures() {
+        return new ResultCachePolicy(maxMemoryBytes, ttl, diskDirectory, true);
+    }
+}
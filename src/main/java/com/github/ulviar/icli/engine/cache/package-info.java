@@ -0,0 +1,4 @@
+@NotNullByDefault
+package com.github.ulviar.icli.engine.cache;
+
+import org.jetbrains.annotations.NotNullByDefault;
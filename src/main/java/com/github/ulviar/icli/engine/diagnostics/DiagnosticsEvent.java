@@ -1,6 +1,7 @@
 package com.github.ulviar.icli.engine.diagnostics;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 
@@ -27,11 +28,36 @@ public sealed interface DiagnosticsEvent permits DiagnosticsEvent.OutputChunk, D
                     "Payload arrays are freshly copied by sinks before event construction; accessors return defensive copies.")
     record OutputChunk(StreamType stream, byte[] payload, Charset charset) implements DiagnosticsEvent {
 
+        /**
+         * Creates an event holding a copy of the remaining bytes of {@code chunk}. The position of {@code chunk} is
+         * left unchanged.
+         *
+         * @param stream  the stream that produced the data
+         * @param chunk   bytes to copy, between its position and limit
+         * @param charset charset used to decode the payload
+         *
+         * @return event owning its own copy of the bytes
+         */
+        public static OutputChunk copyOf(StreamType stream, ByteBuffer chunk, Charset charset) {
+            byte[] copy = new byte[chunk.remaining()];
+            chunk.get(chunk.position(), copy);
+            return new OutputChunk(stream, copy, charset);
+        }
+
         @Override
         public byte[] payload() {
             return Arrays.copyOf(payload, payload.length);
         }
 
+        /**
+         * Returns a read-only view of the payload without copying it.
+         *
+         * @return read-only buffer positioned at the first payload byte
+         */
+        public ByteBuffer payloadView() {
+            return ByteBuffer.wrap(payload).asReadOnlyBuffer();
+        }
+
         /**
          * Decodes the payload using the provided charset.
          *
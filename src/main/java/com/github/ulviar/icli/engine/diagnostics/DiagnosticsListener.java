@@ -1,10 +1,18 @@
 package com.github.ulviar.icli.engine.diagnostics;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
 /**
  * Listener notified of diagnostics events emitted while a process is running.
  *
  * <p>Implementations should avoid long blocking operations because events are dispatched from the stream draining
  * threads.
+ *
+ * <p>Streaming output reaches listeners through {@link #onOutput(StreamType, ByteBuffer, Charset)}. The default
+ * implementation copies the chunk into a {@link DiagnosticsEvent.OutputChunk} and forwards it to
+ * {@link #onEvent(DiagnosticsEvent)}, so listeners written against events keep working unchanged. High-volume
+ * consumers override {@code onOutput} to read the runtime's buffer directly without any copy.
  */
 @FunctionalInterface
 public interface DiagnosticsListener {
@@ -18,6 +26,22 @@ public interface DiagnosticsListener {
      */
     void onEvent(DiagnosticsEvent event);
 
+    /**
+     * Receives a chunk of streamed output as a read-only view over the runtime's read buffer.
+     *
+     * <p>The view is leased for the duration of the call only: once this method returns, the runtime reuses the
+     * underlying buffer for the next read, so implementations must consume or copy the remaining bytes before
+     * returning and must not retain {@code chunk}. Changing the view's position or limit does not affect other
+     * listeners.
+     *
+     * @param stream  the stream that produced the data
+     * @param chunk   read-only view of the bytes between its position and limit, valid until this method returns
+     * @param charset charset used to decode the bytes for human-readable diagnostics
+     */
+    default void onOutput(StreamType stream, ByteBuffer chunk, Charset charset) {
+        onEvent(DiagnosticsEvent.OutputChunk.copyOf(stream, chunk, charset));
+    }
+
     /**
      * @return listener that ignores every event.
      */
@@ -32,9 +56,19 @@ public interface DiagnosticsListener {
      * @return composed listener
      */
     default DiagnosticsListener andThen(DiagnosticsListener next) {
-        return event -> {
-            onEvent(event);
-            next.onEvent(event);
+        DiagnosticsListener first = this;
+        return new DiagnosticsListener() {
+            @Override
+            public void onEvent(DiagnosticsEvent event) {
+                first.onEvent(event);
+                next.onEvent(event);
+            }
+
+            @Override
+            public void onOutput(StreamType stream, ByteBuffer chunk, Charset charset) {
+                first.onOutput(stream, chunk.duplicate(), charset);
+                next.onOutput(stream, chunk, charset);
+            }
         };
     }
 }
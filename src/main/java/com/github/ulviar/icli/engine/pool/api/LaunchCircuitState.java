@@ -0,0 +1,27 @@
+package com.github.ulviar.icli.engine.pool.api;
+
+/**
+ * State of the circuit breaker that guards worker launches. Repeated launch failures open the circuit so callers fail
+ * fast instead of repeatedly forking a broken worker binary; the pool then probes in the background and closes the
+ * circuit once a launch succeeds. Reported through {@link PoolMetrics#launchCircuitState()} and
+ * {@link PoolDiagnosticsListener#launchCircuitStateChanged(LaunchCircuitState, LaunchCircuitState)}.
+ */
+public enum LaunchCircuitState {
+    /**
+     * Launches proceed normally.
+     */
+    CLOSED,
+
+    /**
+     * Launches are suspended after {@link ProcessPoolConfig#launchFailureThreshold()} consecutive failures.
+     * Acquisitions that would need a new worker fail fast with {@link ServiceUnavailableException}, while callers can
+     * still lease idle workers or wait for busy ones.
+     */
+    OPEN,
+
+    /**
+     * A single background probe launch is in flight. Success closes the circuit; failure re-opens it with a longer
+     * backoff.
+     */
+    HALF_OPEN
+}
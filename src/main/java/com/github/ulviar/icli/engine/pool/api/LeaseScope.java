@@ -18,6 +18,18 @@ public interface LeaseScope {
      */
     UUID requestId();
 
+    /**
+     * Monotonic request number assigned when the worker was leased. Pool-issued scopes generate the number without
+     * touching {@link java.security.SecureRandom} and derive {@link #requestId()} from it lazily, so hot paths that
+     * only need to correlate requests should prefer this accessor. The default implementation falls back to the low
+     * bits of {@link #requestId()}.
+     *
+     * @return request number, unique among leases issued by the pools of the current JVM
+     */
+    default long requestNumber() {
+        return requestId().getLeastSignificantBits();
+    }
+
     /**
      * Stable numeric identifier for the worker process. Worker identifiers increment monotonically as the pool creates
      * new processes.
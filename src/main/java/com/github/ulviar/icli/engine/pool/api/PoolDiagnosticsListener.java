@@ -10,13 +10,19 @@ import java.util.UUID;
  */
 public interface PoolDiagnosticsListener {
 
+    /**
+     * Shared listener that ignores every event. The pool skips building metrics snapshots entirely when configured
+     * with this instance.
+     */
+    PoolDiagnosticsListener NO_OP = new PoolDiagnosticsListener() {};
+
     /**
      * Returns a listener that ignores every event. Useful as a default value when no diagnostics are required.
      *
-     * @return no-op listener
+     * @return shared no-op listener ({@link #NO_OP})
      */
     static PoolDiagnosticsListener noOp() {
-        return new PoolDiagnosticsListener() {};
+        return NO_OP;
     }
 
     /**
@@ -35,6 +41,15 @@ public interface PoolDiagnosticsListener {
      */
     default void workerRetired(int workerId, WorkerRetirementReason reason) {}
 
+    /**
+     * Reports that a worker crossed the configured {@linkplain ProcessPoolConfig#replacementThreshold() replacement
+     * threshold} and the pool started launching its successor in the background.
+     *
+     * @param workerId identifier of the worker approaching retirement
+     * @param replacementWorkerId identifier reserved for the replacement worker
+     */
+    default void workerReplacementScheduled(int workerId, int replacementWorkerId) {}
+
     /**
      * Signals that a worker failed to launch or was discarded during warm-up.
      *
@@ -43,6 +58,15 @@ public interface PoolDiagnosticsListener {
      */
     default void workerFailed(int workerId, Throwable failure) {}
 
+    /**
+     * Reports a transition of the worker launch circuit breaker. Transitions that race with each other may be
+     * coalesced, so listeners should treat {@code current} as authoritative.
+     *
+     * @param previous state last reported by the pool
+     * @param current new circuit state
+     */
+    default void launchCircuitStateChanged(LaunchCircuitState previous, LaunchCircuitState current) {}
+
     /**
      * Emits when a caller acquires a worker. The worker remains in use until {@link #leaseReleased(int)} is invoked.
      *
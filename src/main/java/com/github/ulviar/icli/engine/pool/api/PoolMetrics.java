@@ -16,6 +16,7 @@ package com.github.ulviar.icli.engine.pool.api;
  * @param failedLaunchAttempts workers that failed to launch or warm up
  * @param totalReplenishments number of workers created after pool initialisation
  * @param totalRetirements number of workers retired (voluntary or due to failure)
+ * @param launchCircuitState current state of the worker launch circuit breaker
  */
 public record PoolMetrics(
         int totalWorkers,
@@ -28,4 +29,5 @@ public record PoolMetrics(
         long totalLeasesServed,
         long failedLaunchAttempts,
         long totalReplenishments,
-        long totalRetirements) {}
+        long totalRetirements,
+        LaunchCircuitState launchCircuitState) {}
@@ -13,6 +13,7 @@ import com.github.ulviar.icli.engine.pool.internal.lease.ActiveLeaseRegistry;
 import com.github.ulviar.icli.engine.pool.internal.lease.DefaultLeaseScope;
 import com.github.ulviar.icli.engine.pool.internal.lease.DefaultWorkerLease;
 import com.github.ulviar.icli.engine.pool.internal.lease.LeaseCallbacks;
+import com.github.ulviar.icli.engine.pool.internal.runtime.GenerationLatencyTracker;
 import com.github.ulviar.icli.engine.pool.internal.runtime.ResetHookRunner;
 import com.github.ulviar.icli.engine.pool.internal.runtime.RetireDecision;
 import com.github.ulviar.icli.engine.pool.internal.state.AcquireResult;
@@ -27,13 +28,22 @@ import com.github.ulviar.icli.engine.pool.internal.state.WorkerRetirementPolicy;
 import com.github.ulviar.icli.engine.pool.internal.worker.PoolWorker;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -44,7 +54,16 @@ import org.jetbrains.annotations.Nullable;
  * <p>The pool is optimised for concurrent callers: acquisition attempts may block, queue, or fail fast depending on
  * the configured limits and timeouts. Internally the pool preserves FIFO ordering for waiters, enforces request
  * deadlines, and retires workers whose reuse count, lifetime, or idle time crosses the thresholds specified in {@link
- * ProcessPoolConfig}. All public methods are thread-safe.
+ * ProcessPoolConfig}. In steady state the acquire/release cycle avoids per-lease garbage beyond the lease and its
+ * scope: request identifiers are monotonic numbers with a lazily derived UUID view, and metrics snapshots are skipped
+ * when no diagnostics listener is configured. Launch failures never block callers: after repeated failures a
+ * {@linkplain LaunchCircuitState launch circuit} opens, acquisitions that would need a new worker fail fast, and the
+ * pool probes in the background with exponential backoff. When a {@linkplain ProcessPoolConfig#replacementThreshold()
+ * replacement threshold} is configured, workers nearing those limits have their successors launched in the background
+ * so retirement does not stall callers. Pools configured with several {@linkplain WorkerTemplate worker templates}
+ * serve {@linkplain #acquireTagged(Set, Duration) tagged acquisitions} from one shared capacity budget, and
+ * {@link #rollTo(CommandDefinition, ExecutionOptions)} swaps the default worker command without draining the pool.
+ * All public methods are thread-safe.
  *
  * <p>Instances are created through {@link #create(ProcessEngine, ProcessPoolConfig)}. Pool shutdown is a two-step
  * process: invoke {@link #close()} to signal that no new leases should be granted and then call {@link
@@ -53,21 +72,20 @@ import org.jetbrains.annotations.Nullable;
  */
 public final class ProcessPool implements AutoCloseable {
 
-    private static final Duration BASE_PREWARM_BACKOFF = Duration.ofMillis(50);
-    private static final Duration MAX_PREWARM_BACKOFF = Duration.ofMillis(500);
-
     @FunctionalInterface
-    interface PrewarmSleeper {
+    interface LaunchProbeScheduler {
 
-        void sleep(Duration duration) throws InterruptedException;
+        void schedule(Duration delay, Runnable probe);
     }
 
-    private static final PrewarmSleeper DEFAULT_PREWARM_SLEEPER = ProcessPool::sleepFor;
-    private static final AtomicReference<PrewarmSleeper> PREWARM_SLEEPER =
-            new AtomicReference<>(DEFAULT_PREWARM_SLEEPER);
+    private static final LaunchProbeScheduler DEFAULT_LAUNCH_PROBE_SCHEDULER = ProcessPool::probeOnVirtualThread;
+    private static final AtomicReference<LaunchProbeScheduler> LAUNCH_PROBE_SCHEDULER =
+            new AtomicReference<>(DEFAULT_LAUNCH_PROBE_SCHEDULER);
+
+    private static final Duration ROLLOUT_POLL_INTERVAL = Duration.ofMillis(100);
 
     private static final PoolMetrics UNINITIALISED_METRICS =
-            new PoolMetrics(-1, -1, -1, -1, -1, -1, -1, -1L, -1L, -1L, -1L);
+            new PoolMetrics(-1, -1, -1, -1, -1, -1, -1, -1L, -1L, -1L, -1L, LaunchCircuitState.CLOSED);
 
     private final ProcessEngine engine;
     private final ProcessPoolConfig config;
@@ -88,13 +106,19 @@ public final class ProcessPool implements AutoCloseable {
         }
 
         @Override
-        public void releaseLease(PoolWorker worker, DefaultLeaseScope scope, UUID requestId) {
-            ProcessPool.this.releaseLease(worker, scope, requestId);
+        public void releaseLease(PoolWorker worker, DefaultLeaseScope scope) {
+            ProcessPool.this.releaseLease(worker, scope);
         }
     };
-    private final Object prewarmBackoffLock = new Object();
+    private final List<IntConsumer> retirementListeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<Integer, PoolWorker> liveWorkers = new ConcurrentHashMap<>();
+    private final GenerationLatencyTracker leaseLatency = new GenerationLatencyTracker();
+    private final Object rolloutLock = new Object();
+    private volatile Generation generation;
+    private @Nullable CompletableFuture<RolloutMetrics> rollout;
     private final Object metricsLock = new Object();
-    private int consecutivePrewarmFailures;
+    private final AtomicReference<LaunchCircuitState> lastPublishedCircuitState =
+            new AtomicReference<>(LaunchCircuitState.CLOSED);
     private volatile PoolMetrics lastPublishedMetrics = UNINITIALISED_METRICS;
 
     private ProcessPool(ProcessEngine engine, ProcessPoolConfig config) {
@@ -105,6 +129,7 @@ public final class ProcessPool implements AutoCloseable {
         WorkerRetirementPolicy retirementPolicy = new WorkerRetirementPolicy(config);
         this.requestTimeouts = config.requestTimeoutSchedulerFactory().create();
         this.state = new PoolState(config, retirementPolicy);
+        this.generation = new Generation(0, config.workerTemplates().getFirst());
 
         ensureMinimumSize();
         publishMetrics();
@@ -173,15 +198,55 @@ public final class ProcessPool implements AutoCloseable {
      * @return worker lease honouring the preference when possible
      */
     public WorkerLease acquireWithPreference(PreferredWorker preference, Duration timeout) {
+        return acquire(Objects.requireNonNull(preference, "preference must not be null"), Set.of(), timeout);
+    }
+
+    /**
+     * Acquires a worker launched from a {@linkplain ProcessPoolConfig#workerTemplates() template} that offers every
+     * tag in {@code requiredTags}, using the default {@linkplain ProcessPoolConfig#leaseTimeout() lease timeout}.
+     *
+     * @param requiredTags tags the leased worker must offer
+     * @return a {@link WorkerLease} bound to a matching worker
+     * @throws IllegalArgumentException    when no configured template provides {@code requiredTags}
+     * @throws ServiceUnavailableException when the wait times out, the pool is closing or terminated, or worker launch
+     *                                     fails
+     */
+    public WorkerLease acquireTagged(Set<String> requiredTags) {
+        return acquireTagged(requiredTags, config.leaseTimeout());
+    }
+
+    /**
+     * Acquires a worker that offers every tag in {@code requiredTags}, waiting up to {@code timeout}. Idle matching
+     * workers are reused first; otherwise the pool launches the first template providing the tags. When the pool is
+     * already at {@link ProcessPoolConfig#maxSize()}, an idle worker of another template is retired with
+     * {@link WorkerRetirementReason#TEMPLATE_EVICTED} to make room, so templates share capacity instead of each
+     * reserving its own.
+     *
+     * @param requiredTags tags the leased worker must offer; an empty set accepts any worker
+     * @param timeout      maximum time to wait; {@code Duration.ZERO} performs a non-blocking probe
+     * @return a {@link WorkerLease} bound to a matching worker
+     * @throws IllegalArgumentException    when {@code timeout} is negative or no configured template provides
+     *                                     {@code requiredTags}
+     * @throws ServiceUnavailableException when the wait times out, the pool is closing or terminated, or worker launch
+     *                                     fails
+     */
+    public WorkerLease acquireTagged(Set<String> requiredTags, Duration timeout) {
+        Set<String> tags = Set.copyOf(requiredTags);
+        if (config.workerTemplates().stream().noneMatch(template -> template.provides(tags))) {
+            throw new IllegalArgumentException("No worker template provides tags " + tags);
+        }
+        return acquire(PreferredWorker.any(), tags, timeout);
+    }
+
+    private WorkerLease acquire(PreferredWorker preference, Set<String> requiredTags, Duration timeout) {
         if (timeout.isNegative()) {
             throw new IllegalArgumentException("timeout must not be negative");
         }
-        PreferredWorker resolvedPreference = Objects.requireNonNull(preference, "preference must not be null");
         long deadlineNanos = timeout.isZero() ? 0 : Deadline.toAbsoluteTimeout(timeout);
         boolean waitAllowed = !timeout.isZero();
 
         while (true) {
-            AcquireResult result = state.acquire(deadlineNanos, waitAllowed, resolvedPreference);
+            AcquireResult result = state.acquire(deadlineNanos, waitAllowed, preference, requiredTags);
             publishMetrics();
 
             retireWorkers(result.retired());
@@ -198,23 +263,18 @@ public final class ProcessPool implements AutoCloseable {
                 }
                 case AcquireResult.LaunchReserved reserved -> {
                     int workerId = reserved.workerId();
-                    PoolWorker worker;
-                    try {
-                        worker = launchWorker(workerId);
-                    } catch (ServiceUnavailableException ex) {
-                        handlePrewarmFailure();
-                        throw ex;
-                    }
+                    PoolWorker worker = launchWorker(workerId, reserved.templateIndex());
 
                     LaunchResult launchResult = state.onLaunchSuccess(worker);
                     publishMetrics();
+                    publishCircuitState();
                     if (launchResult instanceof LaunchResult.Discarded discarded) {
                         retireWorker(worker, retirementCauseFor(discarded.reason()));
                         ensureMinimumSize();
                         throw new ServiceUnavailableException(messageForDiscard(discarded.reason()));
                     }
 
-                    diagnostics.workerCreated(workerId);
+                    workerLaunched(worker);
                     publishMetrics();
                 }
                 case AcquireResult.QueueRejected rejected -> {
@@ -254,6 +314,177 @@ public final class ProcessPool implements AutoCloseable {
         return scheduler.submit(() -> acquire(timeout));
     }
 
+    /**
+     * Gradually replaces every worker of the default template with workers running {@code command} under
+     * {@code options}, without draining the pool. The call returns immediately; a background task launches
+     * new-generation workers, using up to {@link ProcessPoolConfig#rolloutSurge()} slots above
+     * {@link ProcessPoolConfig#maxSize()}. Each new worker supersedes one old worker: an idle old worker retires at
+     * once, a leased one retires when its lease completes. New acquisitions, minimum-size pre-warming, and replacements
+     * launch the new command from the moment this method returns. Workers of tagged {@link WorkerTemplate templates}
+     * are not affected. Without surge capacity the rollout supersedes one old worker at a time and launches its
+     * successor into the freed slot before moving on, so the pool is at most one worker short.
+     *
+     * <p>Progress and per-generation lease times are visible through {@link #rolloutMetrics()} while the rollout runs.
+     *
+     * @param command command for new-generation workers
+     * @param options execution options for new-generation workers; {@link ProcessPoolConfig#destroyProcessTree()} is
+     *                applied as for the original options
+     * @return stage completing with the final metrics once no old-generation worker remains, or exceptionally when the
+     * pool closes, a new-generation worker fails to launch, or the launch circuit suspends launches; old-generation
+     * workers that were not yet superseded keep serving in that case
+     * @throws IllegalStateException       when a previous rollout is still in progress
+     * @throws ServiceUnavailableException when the pool is closing or terminated
+     */
+    public CompletionStage<RolloutMetrics> rollTo(CommandDefinition command, ExecutionOptions options) {
+        Objects.requireNonNull(command, "command");
+        ExecutionOptions normalised = options.destroyProcessTree() == config.destroyProcessTree()
+                ? options
+                : options.derive().destroyProcessTree(config.destroyProcessTree()).build();
+        CompletableFuture<RolloutMetrics> completion = new CompletableFuture<>();
+        int target;
+        synchronized (rolloutLock) {
+            if (rollout != null && !rollout.isDone()) {
+                throw new IllegalStateException("A rolling restart is already in progress");
+            }
+            if (state.isClosing()) {
+                throw new ServiceUnavailableException("Process pool is shutting down");
+            }
+            target = generation.number() + 1;
+            leaseLatency.advance(target);
+            generation = new Generation(target, new WorkerTemplate(Set.of(), command, normalised));
+            rollout = completion;
+        }
+        Thread.ofVirtual().name("icli-pool-rollout-" + target).start(() -> runRollout(target, completion));
+        return completion;
+    }
+
+    /**
+     * Returns the progress of the latest rolling restart together with mean lease hold times for the current and the
+     * previous worker generations.
+     *
+     * @return rollout snapshot; before any rollout every default-template worker belongs to generation {@code 0}
+     */
+    public RolloutMetrics rolloutMetrics() {
+        boolean inProgress;
+        synchronized (rolloutLock) {
+            inProgress = rollout != null && !rollout.isDone();
+        }
+        return rolloutMetrics(inProgress);
+    }
+
+    private RolloutMetrics rolloutMetrics(boolean inProgress) {
+        int target = generation.number();
+        int current = 0;
+        int previous = 0;
+        for (PoolWorker worker : liveWorkers.values()) {
+            if (worker.templateIndex() != 0) {
+                continue;
+            }
+            if (worker.generation() == target) {
+                current++;
+            } else {
+                previous++;
+            }
+        }
+        return new RolloutMetrics(
+                target,
+                inProgress,
+                current,
+                previous,
+                leaseLatency.currentLeases(),
+                leaseLatency.currentMean(),
+                leaseLatency.previousLeases(),
+                leaseLatency.previousMean());
+    }
+
+    private void runRollout(int target, CompletableFuture<RolloutMetrics> completion) {
+        try {
+            // Set after superseding a worker without a surge slot: its successor must launch into the freed slot
+            // before the next worker is superseded, so the pool is never more than one worker short.
+            boolean successorOwed = false;
+            while (!state.isClosing()) {
+                PoolWorker stale = null;
+                boolean retiring = false;
+                for (PoolWorker worker : liveWorkers.values()) {
+                    if (!isStale(worker, target)) {
+                        continue;
+                    }
+                    if (worker.retireRequested()) {
+                        retiring = true;
+                    } else if (stale == null) {
+                        stale = worker;
+                    }
+                }
+                if (stale == null && !retiring && !successorOwed) {
+                    completion.complete(rolloutMetrics(false));
+                    return;
+                }
+                if (stale != null || successorOwed) {
+                    OptionalInt slot = state.reserveRolloutLaunch();
+                    publishMetrics();
+                    if (slot.isPresent()) {
+                        if (prewarmOne(slot.getAsInt(), 0) == PrewarmOutcome.FAILED) {
+                            completion.completeExceptionally(new ServiceUnavailableException(
+                                    "Rolling restart stopped because a new-generation worker failed to launch"));
+                            return;
+                        }
+                        if (successorOwed) {
+                            successorOwed = false;
+                        } else {
+                            supersede(stale);
+                        }
+                        continue;
+                    }
+                    if (state.launchCircuitState() != LaunchCircuitState.CLOSED) {
+                        // Retiring healthy workers while no successor can launch would leave the pool cold.
+                        completion.completeExceptionally(new ServiceUnavailableException(
+                                "Rolling restart stopped because worker launches are suspended"));
+                        return;
+                    }
+                    if (!successorOwed && !retiring) {
+                        // No surge capacity: free a slot first, accepting one worker less until the successor starts.
+                        supersede(stale);
+                        successorOwed = true;
+                        continue;
+                    }
+                    if (successorOwed && !retiring && state.snapshot().totalWorkers() >= config.maxSize()) {
+                        // Another launch already filled the freed slot with a new-generation worker.
+                        successorOwed = false;
+                        continue;
+                    }
+                }
+                state.awaitRetirement(ROLLOUT_POLL_INTERVAL);
+            }
+            completion.completeExceptionally(new ServiceUnavailableException("Process pool is shutting down"));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            completion.completeExceptionally(ex);
+        } catch (RuntimeException ex) {
+            completion.completeExceptionally(ex);
+        }
+    }
+
+    private static boolean isStale(PoolWorker worker, int target) {
+        return worker.templateIndex() == 0 && worker.generation() < target;
+    }
+
+    private void supersede(PoolWorker worker) {
+        Optional<RetiredWorker> retired = state.supersede(worker);
+        if (retired.isPresent()) {
+            retireWorker(worker, retired.get().reason());
+            ensureMinimumSize();
+        }
+    }
+
+    private void workerLaunched(PoolWorker worker) {
+        diagnostics.workerCreated(worker.id());
+        liveWorkers.put(worker.id(), worker);
+        if (isStale(worker, generation.number())) {
+            // Launched from the previous command while a rollout started; replace it like any other old worker.
+            supersede(worker);
+        }
+    }
+
     private void resetLease(PoolWorker worker, DefaultLeaseScope scope, ResetRequest request) {
         RetireDecision decision = resetHookRunner.run(worker, scope, request);
         if (decision instanceof RetireDecision.Retire retire) {
@@ -261,10 +492,10 @@ public final class ProcessPool implements AutoCloseable {
         }
     }
 
-    private void releaseLease(PoolWorker worker, DefaultLeaseScope scope, UUID requestId) {
+    private void releaseLease(PoolWorker worker, DefaultLeaseScope scope) {
         cancelRequestDeadline(worker);
         removeActiveLease(worker.id());
-        releaseWorker(worker, scope, ResetRequest.leaseCompleted(requestId));
+        releaseWorker(worker, scope, ResetRequest.Reason.LEASE_COMPLETED);
     }
 
     /**
@@ -277,6 +508,28 @@ public final class ProcessPool implements AutoCloseable {
         return state.snapshot();
     }
 
+    /**
+     * Registers a callback that receives the id of every worker the pool retires, whatever the reason. Unlike the
+     * {@link PoolDiagnosticsListener} fixed in {@link ProcessPoolConfig}, callbacks can be attached after the pool was
+     * created, which lets client layers invalidate per-worker caches. Callbacks run on the retiring thread and must be
+     * quick and non-throwing.
+     *
+     * @param listener callback receiving retired worker ids
+     */
+    public void addRetirementListener(IntConsumer listener) {
+        retirementListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Reports whether any caller is currently queued waiting for a worker. The check does not take the pool lock, so
+     * it is cheap enough to call per request; the answer is a hint that may already be stale when it is returned.
+     *
+     * @return {@code true} when at least one acquisition is waiting for capacity
+     */
+    public boolean hasWaiters() {
+        return state.hasQueuedWaiters();
+    }
+
     /**
      * Initiates pool shutdown. New acquisition attempts fail immediately, but active leases remain valid until callers
      * close them or they exceed the configured request timeout. The method is idempotent.
@@ -322,18 +575,21 @@ public final class ProcessPool implements AutoCloseable {
         return status.completed();
     }
 
-    private void releaseWorker(PoolWorker worker, DefaultLeaseScope scope, ResetRequest request) {
+    private void releaseWorker(PoolWorker worker, DefaultLeaseScope scope, ResetRequest.Reason reason) {
         Instant now = config.clock().instant();
         ReleasePlan initialPlan = state.beginRelease(worker, now);
         publishMetrics();
         if (initialPlan instanceof ReleasePlan.Ignore) {
             return;
         }
+        if (worker.templateIndex() == 0) {
+            leaseLatency.record(worker.generation(), ChronoUnit.NANOS.between(scope.leaseStart(), now));
+        }
 
         ReleasePlan effectivePlan = initialPlan;
 
         if (initialPlan instanceof ReleasePlan.Keep) {
-            RetireDecision decision = resetHookRunner.run(worker, scope, request);
+            RetireDecision decision = resetHookRunner.run(worker, scope, reason);
             if (decision instanceof RetireDecision.Retire retire) {
                 worker.requestRetire(retire.reason());
                 effectivePlan = ReleasePlan.retire(retire.reason());
@@ -348,19 +604,38 @@ public final class ProcessPool implements AutoCloseable {
             RetiredWorker retiredWorker = retired.retired();
             retireWorker(retiredWorker.worker(), retiredWorker.reason());
             ensureMinimumSize();
+            return;
         }
+
+        prepareReplacement(worker, now);
     }
 
-    private PoolWorker launchWorker(int workerId) {
-        CommandDefinition command = config.workerCommand();
-        ExecutionOptions options = config.workerOptions();
+    private void prepareReplacement(PoolWorker worker, Instant now) {
+        OptionalInt reservation = state.reserveReplacement(worker, now);
+        if (reservation.isEmpty()) {
+            return;
+        }
+        int replacementId = reservation.getAsInt();
+        publishMetrics();
+        diagnostics.workerReplacementScheduled(worker.id(), replacementId);
+        int templateIndex = worker.templateIndex();
+        Thread.ofVirtual()
+                .name("icli-pool-replacement-" + replacementId)
+                .start(() -> prewarmOne(replacementId, templateIndex));
+    }
+
+    private PoolWorker launchWorker(int workerId, int templateIndex) {
+        Generation current = generation;
+        WorkerTemplate template =
+                templateIndex == 0 ? current.template() : config.workerTemplates().get(templateIndex);
+        int workerGeneration = templateIndex == 0 ? current.number() : 0;
+        CommandDefinition command = template.command();
+        ExecutionOptions options = template.options();
         InteractiveSession session;
         try {
             session = engine.startSession(command, options);
         } catch (RuntimeException ex) {
-            state.onLaunchFailure(true);
-            publishMetrics();
-            diagnostics.workerFailed(workerId, ex);
+            recordLaunchFailure(workerId, ex);
             throw new ServiceUnavailableException("Failed to launch pooled worker", ex);
         }
 
@@ -370,14 +645,60 @@ public final class ProcessPool implements AutoCloseable {
                 warmup.perform(session);
             } catch (Exception ex) {
                 closeQuietly(session);
-                state.onLaunchFailure(true);
-                publishMetrics();
-                diagnostics.workerFailed(workerId, ex);
+                recordLaunchFailure(workerId, ex);
                 throw new ServiceUnavailableException("Worker warmup failed", ex);
             }
         }
 
-        return new PoolWorker(workerId, session, options, config.clock().instant());
+        return new PoolWorker(
+                workerId,
+                session,
+                options,
+                config.clock().instant(),
+                nextLimitScale(),
+                templateIndex,
+                template.tags(),
+                workerGeneration);
+    }
+
+    private void recordLaunchFailure(int workerId, Exception failure) {
+        Optional<Duration> probeDelay = state.onLaunchFailure(true);
+        publishMetrics();
+        publishCircuitState();
+        diagnostics.workerFailed(workerId, failure);
+        probeDelay.ifPresent(delay -> LAUNCH_PROBE_SCHEDULER.get().schedule(delay, this::probeLaunch));
+    }
+
+    /**
+     * Background probe run while the launch circuit is open. A successful probe closes the circuit and restores the
+     * minimum pool size; a failed probe re-opens the circuit and schedules the next attempt through
+     * {@link #recordLaunchFailure(int, Exception)}.
+     */
+    private void probeLaunch() {
+        OptionalInt reservation = state.beginLaunchProbe();
+        publishCircuitState();
+        if (reservation.isEmpty()) {
+            return;
+        }
+        if (prewarmOne(reservation.getAsInt(), 0) == PrewarmOutcome.CREATED) {
+            ensureMinimumSize();
+        }
+    }
+
+    private void publishCircuitState() {
+        LaunchCircuitState current = state.launchCircuitState();
+        LaunchCircuitState previous = lastPublishedCircuitState.getAndSet(current);
+        if (previous != current) {
+            diagnostics.launchCircuitStateChanged(previous, current);
+        }
+    }
+
+    private double nextLimitScale() {
+        double jitter = config.retirementJitter();
+        if (jitter <= 0.0) {
+            return 1.0;
+        }
+        return 1.0 - jitter * ThreadLocalRandom.current().nextDouble();
     }
 
     private void retireWorkers(List<RetiredWorker> retired) {
@@ -390,7 +711,11 @@ public final class ProcessPool implements AutoCloseable {
     }
 
     private void retireWorker(PoolWorker worker, WorkerRetirementReason reason) {
+        liveWorkers.remove(worker.id(), worker);
         diagnostics.workerRetired(worker.id(), reason);
+        for (IntConsumer listener : retirementListeners) {
+            listener.accept(worker.id());
+        }
         state.recordRetirement();
         closeQuietly(worker.session());
         publishMetrics();
@@ -413,36 +738,34 @@ public final class ProcessPool implements AutoCloseable {
         for (OptionalInt id = state.reserveNextForMinimum(); id.isPresent(); id = state.reserveNextForMinimum()) {
 
             publishMetrics();
-            switch (prewarmOne(id.getAsInt())) {
-                case CREATED -> resetPrewarmBackoff();
-                case DISCARDED -> {
-                    return;
-                }
-                case FAILED -> {
-                    handlePrewarmFailure();
-                    return;
-                }
+            if (prewarmOne(id.getAsInt(), 0) != PrewarmOutcome.CREATED) {
+                return;
             }
         }
-        resetPrewarmBackoff();
     }
 
-    private PrewarmOutcome prewarmOne(int workerId) {
+    private PrewarmOutcome prewarmOne(int workerId, int templateIndex) {
         try {
-            PoolWorker worker = launchWorker(workerId);
+            PoolWorker worker = launchWorker(workerId, templateIndex);
             LaunchResult launchResult = state.onLaunchSuccess(worker);
             publishMetrics();
+            publishCircuitState();
             if (launchResult instanceof LaunchResult.Discarded discarded) {
                 retireWorker(worker, retirementCauseFor(discarded.reason()));
                 return PrewarmOutcome.DISCARDED;
             }
-            diagnostics.workerCreated(workerId);
+            workerLaunched(worker);
             return PrewarmOutcome.CREATED;
         } catch (ServiceUnavailableException ex) {
             return PrewarmOutcome.FAILED;
         }
     }
 
+    /**
+     * Launch recipe and number of the default template's current generation.
+     */
+    private record Generation(int number, WorkerTemplate template) {}
+
     private enum PrewarmOutcome {
         CREATED,
         DISCARDED,
@@ -454,63 +777,33 @@ public final class ProcessPool implements AutoCloseable {
         if (timeout.compareTo(Duration.ZERO) <= 0) {
             return;
         }
-        requestTimeouts.schedule(
-                worker.id(), scope.requestId(), timeout, () -> onLeaseTimeout(worker, scope.requestId()));
+        requestTimeouts.schedule(worker.id(), scope, timeout, () -> onLeaseTimeout(worker, scope));
     }
 
     private void cancelRequestDeadline(PoolWorker worker) {
         requestTimeouts.cancel(worker.id());
     }
 
-    private void onLeaseTimeout(PoolWorker worker, UUID requestId) {
-        if (!requestTimeouts.complete(worker.id(), requestId)) {
+    private void onLeaseTimeout(PoolWorker worker, DefaultLeaseScope timedOutScope) {
+        if (!requestTimeouts.complete(worker.id(), timedOutScope)) {
             return;
         }
         DefaultLeaseScope scope = removeActiveLease(worker.id());
         if (scope == null) {
             return;
         }
+        UUID requestId = timedOutScope.requestId();
         diagnostics.leaseTimedOut(worker.id(), requestId);
         diagnostics.workerFailed(
                 worker.id(), new ServiceProcessingException("Lease " + requestId + " exceeded request timeout"));
         worker.requestRetire(WorkerRetirementReason.REQUEST_TIMEOUT);
-        releaseWorker(worker, scope, ResetRequest.timedOut(requestId));
-    }
-
-    private void handlePrewarmFailure() {
-        Duration delay;
-        synchronized (prewarmBackoffLock) {
-            consecutivePrewarmFailures = Math.min(consecutivePrewarmFailures + 1, 10);
-            delay = computePrewarmDelay(consecutivePrewarmFailures);
-        }
-        sleepQuietly(delay);
+        releaseWorker(worker, scope, ResetRequest.Reason.TIMEOUT);
     }
 
-    private void resetPrewarmBackoff() {
-        synchronized (prewarmBackoffLock) {
-            consecutivePrewarmFailures = 0;
-        }
-    }
-
-    private static Duration computePrewarmDelay(int failureCount) {
-        long multiplier = Math.max(1, failureCount);
-        long baseMillis = BASE_PREWARM_BACKOFF.toMillis();
-        long millis = Math.min(MAX_PREWARM_BACKOFF.toMillis(), baseMillis * multiplier);
-        return Duration.ofMillis(millis);
-    }
-
-    private void sleepQuietly(Duration delay) {
-        if (delay.isZero() || delay.isNegative()) {
+    private void publishMetrics() {
+        if (diagnostics == PoolDiagnosticsListener.NO_OP) {
             return;
         }
-        try {
-            PREWARM_SLEEPER.get().sleep(delay);
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
-    private void publishMetrics() {
         PoolMetrics metrics = state.snapshot();
         boolean emit;
         synchronized (metricsLock) {
@@ -526,18 +819,26 @@ public final class ProcessPool implements AutoCloseable {
         }
     }
 
-    private static void sleepFor(Duration duration) throws InterruptedException {
-        long millis = duration.toMillis();
-        int nanos = (int) duration.minusMillis(millis).toNanos();
-        Thread.sleep(millis, nanos);
+    private static void probeOnVirtualThread(Duration delay, Runnable probe) {
+        Thread.ofVirtual().name("icli-pool-launch-probe").start(() -> {
+            try {
+                long millis = delay.toMillis();
+                int nanos = (int) delay.minusMillis(millis).toNanos();
+                Thread.sleep(millis, nanos);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            probe.run();
+        });
     }
 
-    static void setPrewarmSleeperForTests(PrewarmSleeper sleeper) {
-        PREWARM_SLEEPER.set(sleeper);
+    static void setLaunchProbeSchedulerForTests(LaunchProbeScheduler scheduler) {
+        LAUNCH_PROBE_SCHEDULER.set(scheduler);
     }
 
-    static void resetPrewarmSleeperForTests() {
-        PREWARM_SLEEPER.set(DEFAULT_PREWARM_SLEEPER);
+    static void resetLaunchProbeSchedulerForTests() {
+        LAUNCH_PROBE_SCHEDULER.set(DEFAULT_LAUNCH_PROBE_SCHEDULER);
     }
 
     private static void closeQuietly(AutoCloseable closeable) {
@@ -10,6 +10,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -24,6 +25,9 @@ import org.jetbrains.annotations.Nullable;
  *     <li>{@linkplain Builder#leaseTimeout(Duration) Lease waits} default to 30 seconds, while {@linkplain
  *         Builder#requestTimeout(Duration) request execution} defaults to five minutes.</li>
  *     <li>Workers are recycled after 30 minutes of lifetime, 5 minutes of idleness, or 1&nbsp;000 requests.</li>
+ *     <li>Proactive replacement and per-worker retirement jitter are disabled.</li>
+ *     <li>Three consecutive launch failures open the {@linkplain LaunchCircuitState launch circuit}; background probes
+ *         start after 100&nbsp;ms and back off exponentially up to 10 seconds.</li>
  * </ul>
  *
  * <p>All duration-based thresholds accept {@code Duration.ZERO} to disable the corresponding policy.
@@ -32,12 +36,19 @@ public final class ProcessPoolConfig {
 
     private final CommandDefinition workerCommand;
     private final ExecutionOptions workerOptions;
+    private final List<WorkerTemplate> workerTemplates;
     private final int minSize;
     private final int maxSize;
     private final int maxQueueDepth;
+    private final int rolloutSurge;
     private final int maxRequestsPerWorker;
     private final Duration maxWorkerLifetime;
     private final Duration maxIdleTime;
+    private final double replacementThreshold;
+    private final double retirementJitter;
+    private final int launchFailureThreshold;
+    private final Duration launchProbeInitialBackoff;
+    private final Duration launchProbeMaxBackoff;
     private final Duration leaseTimeout;
     private final Duration requestTimeout;
     private final boolean destroyProcessTree;
@@ -51,12 +62,19 @@ public final class ProcessPoolConfig {
     private ProcessPoolConfig(Builder builder) {
         this.workerCommand = builder.workerCommand;
         this.workerOptions = builder.normalisedWorkerOptions();
+        this.workerTemplates = builder.normalisedWorkerTemplates(workerCommand, workerOptions);
         this.minSize = builder.minSize;
         this.maxSize = builder.maxSize;
         this.maxQueueDepth = builder.maxQueueDepth;
+        this.rolloutSurge = builder.rolloutSurge;
         this.maxRequestsPerWorker = builder.maxRequestsPerWorker;
         this.maxWorkerLifetime = builder.maxWorkerLifetime;
         this.maxIdleTime = builder.maxIdleTime;
+        this.replacementThreshold = builder.replacementThreshold;
+        this.retirementJitter = builder.retirementJitter;
+        this.launchFailureThreshold = builder.launchFailureThreshold;
+        this.launchProbeInitialBackoff = builder.launchProbeInitialBackoff;
+        this.launchProbeMaxBackoff = builder.launchProbeMaxBackoff;
         this.leaseTimeout = builder.leaseTimeout;
         this.requestTimeout = builder.requestTimeout;
         this.destroyProcessTree = builder.destroyProcessTree;
@@ -101,6 +119,18 @@ public final class ProcessPoolConfig {
         return workerOptions;
     }
 
+    /**
+     * Launch templates available to the pool. The first entry is always the untagged default template built from
+     * {@link #workerCommand()} and {@link #workerOptions()}; further entries follow registration order. Acquisitions
+     * that require tags launch the first template providing them, and minimum-size pre-warming uses the default
+     * template.
+     *
+     * @return immutable list of templates, never empty
+     */
+    public List<WorkerTemplate> workerTemplates() {
+        return workerTemplates;
+    }
+
     /**
      * Minimum number of workers the pool maintains while it remains open. A value of zero disables pre-warming.
      *
@@ -129,6 +159,17 @@ public final class ProcessPoolConfig {
         return maxQueueDepth;
     }
 
+    /**
+     * Extra workers a {@linkplain ProcessPool#rollTo(CommandDefinition, ExecutionOptions) rolling restart} may launch
+     * above {@link #maxSize()} so new-generation workers can warm up before old-generation ones retire. Ordinary
+     * acquisitions never use the surge allowance.
+     *
+     * @return non-negative surge capacity
+     */
+    public int rolloutSurge() {
+        return rolloutSurge;
+    }
+
     /**
      * Maximum number of requests served by a worker before it is retired. Large values keep workers alive longer,
      * smaller values bias toward freshness.
@@ -157,6 +198,57 @@ public final class ProcessPoolConfig {
         return maxIdleTime;
     }
 
+    /**
+     * Fraction of a worker's reuse or lifetime limit after which the pool launches a replacement in the background.
+     * The replacement joins the idle queue while the ageing worker keeps serving requests, so retiring the worker later
+     * does not force a caller to wait for a cold start. A value of zero disables proactive replacement.
+     *
+     * @return threshold in the range {@code [0, 1)}
+     */
+    public double replacementThreshold() {
+        return replacementThreshold;
+    }
+
+    /**
+     * Maximum fraction by which each worker's reuse and lifetime limits are randomly shortened. Jitter spreads the
+     * retirements of workers launched together so they do not all reach their limits at the same moment. A value of
+     * zero applies {@link #maxRequestsPerWorker()} and {@link #maxWorkerLifetime()} exactly.
+     *
+     * @return jitter fraction in the range {@code [0, 1)}
+     */
+    public double retirementJitter() {
+        return retirementJitter;
+    }
+
+    /**
+     * Number of consecutive launch or warm-up failures that opens the launch circuit. While the circuit is open the
+     * pool stops forking workers on caller threads and probes in the background instead.
+     *
+     * @return positive failure threshold
+     */
+    public int launchFailureThreshold() {
+        return launchFailureThreshold;
+    }
+
+    /**
+     * Delay before the first background probe after the launch circuit opens. Each failed probe doubles the delay up to
+     * {@link #launchProbeMaxBackoff()}.
+     *
+     * @return positive initial probe delay
+     */
+    public Duration launchProbeInitialBackoff() {
+        return launchProbeInitialBackoff;
+    }
+
+    /**
+     * Upper bound for the exponential delay between background launch probes.
+     *
+     * @return positive maximum probe delay
+     */
+    public Duration launchProbeMaxBackoff() {
+        return launchProbeMaxBackoff;
+    }
+
     /**
      * Maximum time a caller waits when acquiring a worker from the pool. The timeout applies to queueing before a lease
      * is granted; once a caller obtains a worker, {@link #requestTimeout()} governs how long the request may run.
@@ -238,6 +330,8 @@ public final class ProcessPoolConfig {
         private static final Duration DEFAULT_MAX_IDLE_TIME = Duration.ofMinutes(5);
         private static final Duration DEFAULT_LEASE_TIMEOUT = Duration.ofSeconds(30);
         private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofMinutes(5);
+        private static final Duration DEFAULT_LAUNCH_PROBE_INITIAL_BACKOFF = Duration.ofMillis(100);
+        private static final Duration DEFAULT_LAUNCH_PROBE_MAX_BACKOFF = Duration.ofSeconds(10);
 
         private final CommandDefinition workerCommand;
         private ExecutionOptions workerOptions =
@@ -245,14 +339,21 @@ public final class ProcessPoolConfig {
         private int minSize;
         private int maxSize = defaultMaxSize();
         private int maxQueueDepth = Integer.MAX_VALUE;
+        private int rolloutSurge = 1;
         private int maxRequestsPerWorker = 1_000;
         private Duration maxWorkerLifetime = DEFAULT_MAX_WORKER_LIFETIME;
         private Duration maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+        private double replacementThreshold;
+        private double retirementJitter;
+        private int launchFailureThreshold = 3;
+        private Duration launchProbeInitialBackoff = DEFAULT_LAUNCH_PROBE_INITIAL_BACKOFF;
+        private Duration launchProbeMaxBackoff = DEFAULT_LAUNCH_PROBE_MAX_BACKOFF;
         private Duration leaseTimeout = DEFAULT_LEASE_TIMEOUT;
         private Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
         private boolean destroyProcessTree = workerOptions.destroyProcessTree();
         private @Nullable WarmupAction warmupAction;
         private final List<ResetHook> resetHooks = new ArrayList<>();
+        private final List<WorkerTemplate> workerTemplates = new ArrayList<>();
         private PoolDiagnosticsListener diagnosticsListener = PoolDiagnosticsListener.noOp();
         private Clock clock = Clock.systemUTC();
         private RequestTimeoutSchedulerFactory requestTimeoutSchedulerFactory =
@@ -284,6 +385,25 @@ public final class ProcessPoolConfig {
             return this;
         }
 
+        /**
+         * Registers an additional worker template whose workers compete for the same {@link #maxSize(int)} budget as
+         * the default template. When a tagged acquisition finds the pool full, idle workers that lack the requested
+         * tags are retired to make room for the demanded template.
+         *
+         * @param template tagged launch template; must carry at least one tag
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException when {@code template} has no tags
+         */
+        public Builder addWorkerTemplate(WorkerTemplate template) {
+            if (template.tags().isEmpty()) {
+                throw new IllegalArgumentException("worker template tags must not be empty");
+            }
+            this.workerTemplates.add(template);
+            return this;
+        }
+
         /**
          * Sets the minimum number of workers kept alive while the pool is open. Values below zero are rejected.
          *
@@ -335,6 +455,24 @@ public final class ProcessPoolConfig {
             return this;
         }
 
+        /**
+         * Sets how many workers a rolling restart may launch above {@link #maxSize(int)}. Zero makes the rollout retire
+         * an old worker before launching its successor. Defaults to one.
+         *
+         * @param value surge capacity
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException when {@code value} is negative
+         */
+        public Builder rolloutSurge(int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("rolloutSurge must be >= 0");
+            }
+            this.rolloutSurge = value;
+            return this;
+        }
+
         /**
          * Limits how many requests an individual worker may serve before it is retired and replaced. Values must be
          * strictly positive.
@@ -378,6 +516,83 @@ public final class ProcessPoolConfig {
             return this;
         }
 
+        /**
+         * Enables proactive replacement once a worker has consumed {@code value} of its reuse or lifetime limit. The
+         * pool then launches one extra worker in the background (capacity permitting) so the eventual retirement does
+         * not stall callers. Use {@code 0} to disable the behaviour.
+         *
+         * @param value fraction of the retirement limits, in the range {@code [0, 1)}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException when {@code value} lies outside {@code [0, 1)}
+         */
+        public Builder replacementThreshold(double value) {
+            if (!(value >= 0.0 && value < 1.0)) {
+                throw new IllegalArgumentException("replacementThreshold must be >= 0 and < 1");
+            }
+            this.replacementThreshold = value;
+            return this;
+        }
+
+        /**
+         * Randomly shortens each worker's reuse and lifetime limits by up to {@code value} of their configured size so
+         * workers launched together retire at different times. Use {@code 0} to disable jitter.
+         *
+         * @param value maximum jitter fraction, in the range {@code [0, 1)}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException when {@code value} lies outside {@code [0, 1)}
+         */
+        public Builder retirementJitter(double value) {
+            if (!(value >= 0.0 && value < 1.0)) {
+                throw new IllegalArgumentException("retirementJitter must be >= 0 and < 1");
+            }
+            this.retirementJitter = value;
+            return this;
+        }
+
+        /**
+         * Sets how many consecutive launch failures open the launch circuit. Use {@code 1} to open the circuit on the
+         * first failure.
+         *
+         * @param value positive failure threshold
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException when {@code value} is not positive
+         */
+        public Builder launchFailureThreshold(int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("launchFailureThreshold must be > 0");
+            }
+            this.launchFailureThreshold = value;
+            return this;
+        }
+
+        /**
+         * Configures the exponential backoff between background launch probes while the launch circuit is open.
+         *
+         * @param initial delay before the first probe; must be positive
+         * @param max     upper bound for the delay; must be at least {@code initial}
+         *
+         * @return this builder
+         *
+         * @throws IllegalArgumentException when either delay is not positive or {@code initial} exceeds {@code max}
+         */
+        public Builder launchProbeBackoff(Duration initial, Duration max) {
+            if (initial.isNegative() || initial.isZero()) {
+                throw new IllegalArgumentException("launchProbeBackoff initial delay must be > 0");
+            }
+            if (max.compareTo(initial) < 0) {
+                throw new IllegalArgumentException("launchProbeBackoff max delay must be >= initial delay");
+            }
+            this.launchProbeInitialBackoff = initial;
+            this.launchProbeMaxBackoff = max;
+            return this;
+        }
+
         /**
          * Sets the maximum time callers wait while acquiring a worker. {@code value} must be non-null and
          * non-negative; use {@link Duration#ZERO} to request a non-blocking acquisition.
@@ -512,6 +727,22 @@ public final class ProcessPoolConfig {
             return new ProcessPoolConfig(this);
         }
 
+        private List<WorkerTemplate> normalisedWorkerTemplates(CommandDefinition command, ExecutionOptions options) {
+            List<WorkerTemplate> templates = new ArrayList<>(workerTemplates.size() + 1);
+            templates.add(new WorkerTemplate(Set.of(), command, options));
+            for (WorkerTemplate template : workerTemplates) {
+                ExecutionOptions templateOptions = template.options();
+                if (templateOptions.destroyProcessTree() != destroyProcessTree) {
+                    templateOptions = templateOptions
+                            .derive()
+                            .destroyProcessTree(destroyProcessTree)
+                            .build();
+                }
+                templates.add(new WorkerTemplate(template.tags(), template.command(), templateOptions));
+            }
+            return List.copyOf(templates);
+        }
+
         private ExecutionOptions normalisedWorkerOptions() {
             ExecutionOptions options = workerOptions;
             if (options.destroyProcessTree() != destroyProcessTree) {
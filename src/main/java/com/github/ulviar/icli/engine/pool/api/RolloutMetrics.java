@@ -0,0 +1,28 @@
+package com.github.ulviar.icli.engine.pool.api;
+
+import java.time.Duration;
+
+/**
+ * Progress of the most recent {@linkplain ProcessPool#rollTo(com.github.ulviar.icli.engine.CommandDefinition,
+ * com.github.ulviar.icli.engine.ExecutionOptions) rolling restart}, including lease hold times for the new generation
+ * and for the generations it replaces. Before any rollout the current generation is {@code 0} and every worker counts
+ * towards it.
+ *
+ * @param generation                  generation new default-template workers are launched with
+ * @param inProgress                  whether old-generation workers are still being replaced
+ * @param currentGenerationWorkers    live default-template workers of {@code generation}
+ * @param previousGenerationWorkers   live default-template workers of older generations
+ * @param currentGenerationLeases     leases completed by current-generation workers
+ * @param currentGenerationMeanLease  mean lease hold time of current-generation workers
+ * @param previousGenerationLeases    leases completed by older-generation workers
+ * @param previousGenerationMeanLease mean lease hold time of older-generation workers
+ */
+public record RolloutMetrics(
+        int generation,
+        boolean inProgress,
+        int currentGenerationWorkers,
+        int previousGenerationWorkers,
+        long currentGenerationLeases,
+        Duration currentGenerationMeanLease,
+        long previousGenerationLeases,
+        Duration previousGenerationMeanLease) {}
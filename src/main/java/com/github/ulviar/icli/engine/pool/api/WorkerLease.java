@@ -3,6 +3,7 @@ package com.github.ulviar.icli.engine.pool.api;
 import com.github.ulviar.icli.engine.ExecutionOptions;
 import com.github.ulviar.icli.engine.InteractiveSession;
 import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest;
+import java.util.function.Function;
 
 /**
  * Exclusive handle to a pooled worker. A lease grants temporary ownership of an {@link InteractiveSession} together
@@ -48,6 +49,24 @@ public interface WorkerLease extends AutoCloseable {
      */
     void reset(ResetRequest request);
 
+    /**
+     * Returns the object attached to the leased worker, creating it with {@code factory} when the worker has no
+     * attachment of {@code type} yet. Pooled workers keep their attachment across leases until they retire, which lets
+     * callers reuse per-process client state (wrappers, buffers, decoder state) instead of rebuilding it for every
+     * request. Each worker holds a single attachment; requesting a different {@code type} replaces it.
+     *
+     * <p>The attachment is confined to the current lease holder, matching the lease's own threading contract. The
+     * default implementation does not retain anything and simply invokes {@code factory}.</p>
+     *
+     * @param type attachment type used to recognise an existing attachment
+     * @param factory creates the attachment from the worker's session on first use
+     * @param <T> attachment type
+     * @return attachment bound to the leased worker
+     */
+    default <T> T attachment(Class<T> type, Function<? super InteractiveSession, ? extends T> factory) {
+        return factory.apply(session());
+    }
+
     @Override
     void close();
 }
@@ -59,6 +59,19 @@ public enum WorkerRetirementReason {
      */
     DRAIN,
 
+    /**
+     * The pool was full and the idle worker lacked the tags of a pending acquisition, so it was retired to make room
+     * for a worker launched from a matching {@link WorkerTemplate}.
+     */
+    TEMPLATE_EVICTED,
+
+    /**
+     * A {@linkplain ProcessPool#rollTo(com.github.ulviar.icli.engine.CommandDefinition,
+     * com.github.ulviar.icli.engine.ExecutionOptions) rolling restart} replaced the worker with one launched from the
+     * new command or options.
+     */
+    SUPERSEDED,
+
     /**
      * Sentinel reason used when a retirement notification is emitted even though the worker remains available.
      * Primarily surfaced for consistency with metrics that never record the event as a retirement.
@@ -0,0 +1,52 @@
+package com.github.ulviar.icli.engine.pool.api;
+
+import com.github.ulviar.icli.engine.CommandDefinition;
+import com.github.ulviar.icli.engine.ExecutionOptions;
+import java.util.Set;
+
+/**
+ * Launch recipe for a family of pooled workers that advertise the same capability tags. A pool always owns an untagged
+ * default template built from {@link ProcessPoolConfig#workerCommand()} and {@link ProcessPoolConfig#workerOptions()};
+ * additional templates registered through {@link ProcessPoolConfig.Builder#addWorkerTemplate(WorkerTemplate)} share
+ * the same {@link ProcessPoolConfig#maxSize()} budget.
+ *
+ * <p><strong>Usage example</strong></p>
+ *
+ * <pre>{@code
+ * ProcessPoolConfig config = ProcessPoolConfig.builder(CommandDefinition.of(List.of("worker", "--profile=fast")))
+ *         .addWorkerTemplate(new WorkerTemplate(
+ *                 Set.of("full"), CommandDefinition.of(List.of("worker", "--profile=full")), options))
+ *         .build();
+ * try (WorkerLease lease = pool.acquireTagged(Set.of("full"), Duration.ofSeconds(5))) {
+ *     // lease is backed by a "--profile=full" worker
+ * }
+ * }</pre>
+ *
+ * @param tags    capabilities offered by workers launched from this template; copied defensively
+ * @param command command executed for each worker
+ * @param options execution options used to launch each worker
+ *
+ * @apiNote A worker satisfies an acquisition when its tags contain every required tag, so untagged acquisitions accept
+ * workers from any template.
+ */
+public record WorkerTemplate(Set<String> tags, CommandDefinition command, ExecutionOptions options) {
+
+    public WorkerTemplate {
+        tags = Set.copyOf(tags);
+        for (String tag : tags) {
+            if (tag.isBlank()) {
+                throw new IllegalArgumentException("tags must not contain blank values");
+            }
+        }
+    }
+
+    /**
+     * Reports whether workers launched from this template satisfy {@code requiredTags}.
+     *
+     * @param requiredTags tags requested by the caller
+     * @return {@code true} when every required tag is offered by this template
+     */
+    public boolean provides(Set<String> requiredTags) {
+        return tags.containsAll(requiredTags);
+    }
+}
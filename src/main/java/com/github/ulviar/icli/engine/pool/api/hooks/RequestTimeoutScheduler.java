@@ -1,5 +1,6 @@
 package com.github.ulviar.icli.engine.pool.api.hooks;
 
+import com.github.ulviar.icli.engine.pool.api.LeaseScope;
 import java.time.Duration;
 import java.util.UUID;
 
@@ -23,6 +24,20 @@ public interface RequestTimeoutScheduler extends AutoCloseable {
      */
     void schedule(int workerId, UUID requestId, Duration timeout, Runnable onTimeout);
 
+    /**
+     * Schedules a timeout for the lease described by {@code scope}. The pool calls this overload so implementations
+     * can key timeouts by {@link LeaseScope#requestNumber()} without materialising a UUID per lease. The default
+     * implementation delegates to {@link #schedule(int, UUID, Duration, Runnable)} with {@link LeaseScope#requestId()}.
+     *
+     * @param workerId identifier of the worker whose lease is being supervised
+     * @param scope scope of the supervised lease
+     * @param timeout duration before {@code onTimeout} is invoked
+     * @param onTimeout callback to run when the timeout expires
+     */
+    default void schedule(int workerId, LeaseScope scope, Duration timeout, Runnable onTimeout) {
+        schedule(workerId, scope.requestId(), timeout, onTimeout);
+    }
+
     /**
      * Cancels the outstanding timeout for {@code workerId}. Invoked when a lease completes before its deadline fires.
      *
@@ -39,6 +54,18 @@ public interface RequestTimeoutScheduler extends AutoCloseable {
      */
     boolean complete(int workerId, UUID requestId);
 
+    /**
+     * Counterpart of {@link #schedule(int, LeaseScope, Duration, Runnable)} that clears the timeout when it still
+     * belongs to {@code scope}. The default implementation delegates to {@link #complete(int, UUID)}.
+     *
+     * @param workerId identifier whose timeout should be cleared
+     * @param scope scope of the lease that completed or timed out
+     * @return {@code true} when the timeout was active and has been cancelled successfully
+     */
+    default boolean complete(int workerId, LeaseScope scope) {
+        return complete(workerId, scope.requestId());
+    }
+
     @Override
     default void close() {
         // no-op
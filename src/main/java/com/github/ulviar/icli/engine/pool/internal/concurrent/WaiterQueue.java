@@ -4,6 +4,8 @@ import com.github.ulviar.icli.engine.pool.internal.concurrent.util.Awaiter;
 import com.github.ulviar.icli.engine.pool.internal.concurrent.util.Deadline;
 import com.github.ulviar.icli.engine.pool.internal.worker.PoolWorker;
 import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import org.jetbrains.annotations.Nullable;
@@ -13,6 +15,8 @@ import org.jetbrains.annotations.Nullable;
  * {@link ReentrantLock}.
  * <p>
  * Each waiter receives a dedicated {@link Condition} so assignments wake exactly one waiter and avoid thundering herds.
+ * Waiters may require worker tags; a worker is handed to the oldest waiter it satisfies, so untagged queues keep strict
+ * FIFO order.
  * The queue never relinquishes its lock; instead, callers decide when to park or resume threads, enabling deterministic
  * ordering in the surrounding pool state machine.
  */
@@ -20,6 +24,7 @@ public final class WaiterQueue {
 
     private final ReentrantLock lock;
     private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private volatile int published;
 
     /**
      * Creates a queue backed by the provided {@link ReentrantLock}. The lock must be shared with the rest of the pool
@@ -37,25 +42,59 @@ public final class WaiterQueue {
      * @return the newly enqueued waiter
      */
     public Waiter enqueue() {
+        return enqueue(Set.of());
+    }
+
+    /**
+     * Registers a new waiter that only accepts workers offering every tag in {@code requiredTags}. The lock must be
+     * held.
+     *
+     * @param requiredTags tags the assigned worker must provide; empty to accept any worker
+     * @return the newly enqueued waiter
+     */
+    public Waiter enqueue(Set<String> requiredTags) {
         requireLocked();
-        Waiter waiter = new Waiter(lock.newCondition());
+        Waiter waiter = new Waiter(lock.newCondition(), requiredTags);
         waiters.addLast(waiter);
+        publishSize();
         return waiter;
     }
 
     /**
-     * Assigns the provided worker to the head waiter, if any. The caller remains responsible for waking the waiter by
-     * calling {@link Waiter#awaitAssignment(long)}.
+     * Assigns the provided worker to the oldest waiter it satisfies, if any. The caller remains responsible for waking
+     * the waiter by calling {@link Waiter#awaitAssignment(long)}.
      *
-     * @return {@code true} if a waiter received the worker, {@code false} when the queue is empty
+     * @return {@code true} if a waiter received the worker, {@code false} when no queued waiter accepts it
      */
     public boolean assignToNext(PoolWorker worker) {
+        requireLocked();
+        Iterator<Waiter> iterator = waiters.iterator();
+        while (iterator.hasNext()) {
+            Waiter waiter = iterator.next();
+            if (worker.provides(waiter.requiredTags)) {
+                iterator.remove();
+                publishSize();
+                waiter.assign(worker);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wakes the head waiter without an assignment so it re-runs acquisition, for example after the only released
+     * worker lacked its tags. The waiter observes {@link AwaitOutcome.Cancelled} and leaves the queue.
+     *
+     * @return {@code true} if a waiter was woken
+     */
+    public boolean retryNext() {
         requireLocked();
         Waiter waiter = waiters.pollFirst();
         if (waiter == null) {
             return false;
         }
-        waiter.assign(worker);
+        publishSize();
+        waiter.cancel();
         return true;
     }
 
@@ -66,6 +105,7 @@ public final class WaiterQueue {
         requireLocked();
         if (waiter.cancel()) {
             waiters.remove(waiter);
+            publishSize();
         }
     }
 
@@ -78,6 +118,7 @@ public final class WaiterQueue {
             waiter.cancel();
         }
         waiters.clear();
+        publishSize();
     }
 
     /**
@@ -87,6 +128,7 @@ public final class WaiterQueue {
     public void remove(Waiter waiter) {
         requireLocked();
         waiters.remove(waiter);
+        publishSize();
     }
 
     /**
@@ -105,6 +147,18 @@ public final class WaiterQueue {
         return waiters.size();
     }
 
+    /**
+     * Returns {@code true} when at least one waiter was queued at the last mutation. Unlike {@link #isEmpty()} the
+     * method does not require the lock, so callers outside the pool can use it as a cheap contention hint.
+     */
+    public boolean hasQueuedWaiters() {
+        return published > 0;
+    }
+
+    private void publishSize() {
+        published = waiters.size();
+    }
+
     private void requireLocked() {
         if (!lock.isHeldByCurrentThread()) {
             throw new IllegalStateException("WaiterQueue operations require the owning lock");
@@ -147,14 +201,16 @@ public final class WaiterQueue {
     public final class Waiter {
 
         private final Condition condition;
+        private final Set<String> requiredTags;
 
         @Nullable
         private PoolWorker assignedWorker;
 
         private boolean cancelled;
 
-        Waiter(Condition condition) {
+        Waiter(Condition condition, Set<String> requiredTags) {
             this.condition = condition;
+            this.requiredTags = requiredTags;
         }
 
         /**
@@ -176,14 +232,14 @@ public final class WaiterQueue {
             Deadline deadline = Deadline.fromAbsoluteNanos(deadlineNanos);
             Awaiter.Result result = Awaiter.await(lock, condition, deadline, () -> !isAssigned() && !cancelled);
             if (result == Awaiter.Result.TIMED_OUT && assignedWorker == null && !cancelled) {
-                waiters.remove(this);
+                remove(this);
                 return AwaitOutcome.timedOut();
             }
             if (isAssigned()) {
                 PoolWorker worker = assignedWorker;
                 return AwaitOutcome.assigned(worker);
             }
-            waiters.remove(this);
+            remove(this);
             return AwaitOutcome.cancelled();
         }
 
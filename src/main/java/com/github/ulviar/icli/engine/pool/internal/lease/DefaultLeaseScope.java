@@ -4,21 +4,32 @@ import com.github.ulviar.icli.engine.pool.api.LeaseScope;
 import com.github.ulviar.icli.engine.pool.internal.worker.PoolWorker;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Immutable snapshot of lease metadata exposed to callers through {@link LeaseScope}. Each scope captures the worker
- * identifier, lifecycle timestamps, reuse count, and a fresh request id so diagnostics and timeout enforcement can
+ * identifier, lifecycle timestamps, reuse count, and a fresh request number so diagnostics and timeout enforcement can
  * safely reference them outside the pool lock.
  *
- * <p>Instances are thread-safe and never mutate after construction.
+ * <p>Request numbers come from a process-wide monotonic counter, which keeps the lease path free of
+ * {@link UUID#randomUUID()} and its {@link java.security.SecureRandom} contention. The {@link #requestId()} view is
+ * only materialised on demand by combining a per-process random prefix with the request number.
+ *
+ * <p>Instances are thread-safe. The lazily cached UUID is derived deterministically, so threads racing to initialise it
+ * observe equal values.
  */
 public final class DefaultLeaseScope implements LeaseScope {
 
-    private final UUID requestId;
+    private static final long REQUEST_ID_PREFIX = UUID.randomUUID().getMostSignificantBits();
+    private static final AtomicLong REQUEST_SEQUENCE = new AtomicLong();
+
+    private final long requestNumber;
     private final int workerId;
     private final Instant leaseStart;
     private final Instant workerCreatedAt;
     private final long reuseCount;
+    private @Nullable UUID requestId;
 
     /**
      * Takes an instantaneous snapshot of {@code worker} state when the lease begins.
@@ -27,7 +38,7 @@ public final class DefaultLeaseScope implements LeaseScope {
      * @param leaseStart timestamp recorded by the pool clock when the lease started
      */
     public DefaultLeaseScope(PoolWorker worker, Instant leaseStart) {
-        this.requestId = UUID.randomUUID();
+        this.requestNumber = REQUEST_SEQUENCE.incrementAndGet();
         this.workerId = worker.id();
         this.leaseStart = leaseStart;
         this.workerCreatedAt = worker.createdAt();
@@ -36,7 +47,17 @@ public final class DefaultLeaseScope implements LeaseScope {
 
     @Override
     public UUID requestId() {
-        return requestId;
+        UUID id = requestId;
+        if (id == null) {
+            id = new UUID(REQUEST_ID_PREFIX, requestNumber);
+            requestId = id;
+        }
+        return id;
+    }
+
+    @Override
+    public long requestNumber() {
+        return requestNumber;
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.github.ulviar.icli.engine.pool.internal.lease;
 
+import com.github.ulviar.icli.engine.pool.api.LeaseScope;
 import com.github.ulviar.icli.engine.pool.api.hooks.RequestTimeoutScheduler;
 import java.time.Duration;
 import java.util.UUID;
@@ -10,6 +11,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Default {@link RequestTimeoutScheduler} used to enforce per-request deadlines. The scheduler runs callbacks on a
@@ -22,6 +24,10 @@ import java.util.concurrent.TimeUnit;
  *     <li>Timeouts fire on a daemon thread with millisecond precision (minimum delay one millisecond).</li>
  *     <li>{@link #close()} cancels all outstanding tasks and shuts the scheduler down.</li>
  * </ul>
+ *
+ * <p>Timeouts registered through the {@link LeaseScope} overloads are matched by
+ * {@link LeaseScope#requestNumber()}, so the pool never has to materialise a request UUID for a lease that completes
+ * in time.
  */
 public final class DefaultRequestTimeoutScheduler implements RequestTimeoutScheduler {
 
@@ -45,13 +51,31 @@ public final class DefaultRequestTimeoutScheduler implements RequestTimeoutSched
      */
     @Override
     public void schedule(int workerId, UUID requestId, Duration timeout, Runnable onTimeout) {
+        register(workerId, 0L, requestId, timeout, onTimeout);
+    }
+
+    /**
+     * Schedules {@code onTimeout} for the lease described by {@code scope}, keyed by its request number.
+     *
+     * @param workerId  identifier of the worker being supervised
+     * @param scope     scope of the supervised lease
+     * @param timeout   delay before {@code onTimeout} executes
+     * @param onTimeout callback invoked when the timeout expires
+     */
+    @Override
+    public void schedule(int workerId, LeaseScope scope, Duration timeout, Runnable onTimeout) {
+        register(workerId, scope.requestNumber(), null, timeout, onTimeout);
+    }
+
+    private void register(
+            int workerId, long requestNumber, @Nullable UUID requestId, Duration timeout, Runnable onTimeout) {
         long delayNanos = toDelayNanos(timeout);
         timeouts.compute(workerId, (id, prev) -> {
             if (prev != null) {
                 prev.future().cancel(false);
             }
             ScheduledFuture<?> f = executor.schedule(onTimeout, delayNanos, TimeUnit.NANOSECONDS);
-            return new Timeout(requestId, f);
+            return new Timeout(requestNumber, requestId, f);
         });
     }
 
@@ -80,9 +104,30 @@ public final class DefaultRequestTimeoutScheduler implements RequestTimeoutSched
     @Override
     public boolean complete(int workerId, UUID requestId) {
         Timeout timeout = timeouts.get(workerId);
-        if (timeout == null || !timeout.requestId().equals(requestId)) {
+        if (timeout == null || !requestId.equals(timeout.requestId())) {
             return false;
         }
+        return completeMatched(workerId, timeout);
+    }
+
+    /**
+     * Cancels the outstanding timeout if it was registered for the request number carried by {@code scope}.
+     *
+     * @param workerId identifier of the worker whose timeout should be cleared
+     * @param scope    scope of the lease completing successfully
+     *
+     * @return {@code true} when the timeout was removed
+     */
+    @Override
+    public boolean complete(int workerId, LeaseScope scope) {
+        Timeout timeout = timeouts.get(workerId);
+        if (timeout == null || timeout.requestId() != null || timeout.requestNumber() != scope.requestNumber()) {
+            return false;
+        }
+        return completeMatched(workerId, timeout);
+    }
+
+    private boolean completeMatched(int workerId, Timeout timeout) {
         if (timeouts.remove(workerId, timeout)) {
             timeout.future().cancel(false);
             return true;
@@ -120,5 +165,9 @@ public final class DefaultRequestTimeoutScheduler implements RequestTimeoutSched
         }
     }
 
-    private record Timeout(UUID requestId, ScheduledFuture<?> future) {}
+    /**
+     * Registered timeout. Entries scheduled through the UUID overload carry {@code requestId}; entries scheduled
+     * through the scope overload leave it {@code null} and match on {@code requestNumber}.
+     */
+    private record Timeout(long requestNumber, @Nullable UUID requestId, ScheduledFuture<?> future) {}
 }
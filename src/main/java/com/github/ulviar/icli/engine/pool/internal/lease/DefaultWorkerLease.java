@@ -6,8 +6,8 @@ import com.github.ulviar.icli.engine.pool.api.LeaseScope;
 import com.github.ulviar.icli.engine.pool.api.WorkerLease;
 import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest;
 import com.github.ulviar.icli.engine.pool.internal.worker.PoolWorker;
-import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * Default {@link WorkerLease} implementation used by the pool runtime. The lease owns the relationship between the
@@ -23,7 +23,6 @@ public final class DefaultWorkerLease implements WorkerLease {
     private final LeaseCallbacks callbacks;
     private final PoolWorker worker;
     private final DefaultLeaseScope scope;
-    private final UUID requestId;
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
     /**
@@ -39,7 +38,6 @@ public final class DefaultWorkerLease implements WorkerLease {
         this.callbacks = callbacks;
         this.worker = worker;
         this.scope = scope;
-        this.requestId = scope.requestId();
         this.callbacks.registerActiveLease(worker.id(), scope);
     }
 
@@ -58,6 +56,11 @@ public final class DefaultWorkerLease implements WorkerLease {
         return scope;
     }
 
+    @Override
+    public <T> T attachment(Class<T> type, Function<? super InteractiveSession, ? extends T> factory) {
+        return worker.attachment(type, factory);
+    }
+
     /**
      * Requests a worker reset while the lease is still active. Invocations after {@link #close()} complete immediately
      * without reaching the callbacks. Reset hooks may retire the worker; callers should be prepared for subsequent
@@ -83,6 +86,6 @@ public final class DefaultWorkerLease implements WorkerLease {
         if (!closed.compareAndSet(false, true)) {
             return;
         }
-        callbacks.releaseLease(worker, scope, requestId);
+        callbacks.releaseLease(worker, scope);
     }
 }
@@ -2,7 +2,6 @@ package com.github.ulviar.icli.engine.pool.internal.lease;
 
 import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest;
 import com.github.ulviar.icli.engine.pool.internal.worker.PoolWorker;
-import java.util.UUID;
 
 /**
  * Callbacks supplied to {@link DefaultWorkerLease} so the outer pool can observe lifecycle events without exposing its
@@ -34,8 +33,7 @@ public interface LeaseCallbacks {
      * Releases the worker back to the pool once the lease has closed.
      *
      * @param worker worker being released
-     * @param scope immutable scope captured at lease start
-     * @param requestId request identifier used for diagnostics
+     * @param scope immutable scope captured at lease start; also identifies the request for diagnostics
      */
-    void releaseLease(PoolWorker worker, DefaultLeaseScope scope, UUID requestId);
+    void releaseLease(PoolWorker worker, DefaultLeaseScope scope);
 }
@@ -0,0 +1,85 @@
+package com.github.ulviar.icli.engine.pool.internal.runtime;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates lease hold times for the current worker generation and for everything older, so a rolling restart can
+ * compare the new generation against the one it replaces. Recording is lock-free and allocation-free; advancing the
+ * generation keeps the outgoing generation's totals as the baseline.
+ */
+public final class GenerationLatencyTracker {
+
+    private volatile Bucket current = new Bucket(0);
+    private volatile Bucket previous = new Bucket(-1);
+
+    /**
+     * Records a completed lease.
+     *
+     * @param generation generation of the worker that served the lease
+     * @param nanos      lease hold time in nanoseconds
+     */
+    public void record(int generation, long nanos) {
+        Bucket bucket = current;
+        (bucket.generation == generation ? bucket : previous).add(nanos);
+    }
+
+    /**
+     * Starts tracking {@code generation} as the current one. The outgoing current bucket becomes the previous bucket.
+     *
+     * @param generation new current generation
+     */
+    public synchronized void advance(int generation) {
+        previous = current;
+        current = new Bucket(generation);
+    }
+
+    /**
+     * Returns the number of leases recorded for the current generation.
+     */
+    public long currentLeases() {
+        return current.count.sum();
+    }
+
+    /**
+     * Returns the mean lease hold time of the current generation, or {@link Duration#ZERO} when none were recorded.
+     */
+    public Duration currentMean() {
+        return current.mean();
+    }
+
+    /**
+     * Returns the number of leases recorded for older generations.
+     */
+    public long previousLeases() {
+        return previous.count.sum();
+    }
+
+    /**
+     * Returns the mean lease hold time of older generations, or {@link Duration#ZERO} when none were recorded.
+     */
+    public Duration previousMean() {
+        return previous.mean();
+    }
+
+    private static final class Bucket {
+
+        private final int generation;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        Bucket(int generation) {
+            this.generation = generation;
+        }
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+        }
+
+        Duration mean() {
+            long leases = count.sum();
+            return leases == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / leases);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.github.ulviar.icli.engine.pool.api.hooks.ResetOutcome;
 import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest;
 import com.github.ulviar.icli.engine.pool.internal.worker.PoolWorker;
 import java.util.List;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Executes the configured {@link ResetHook reset hooks} after a request finishes and determines whether the associated
@@ -76,18 +77,41 @@ public final class ResetHookRunner {
      * @see com.github.ulviar.icli.engine.pool.api.WorkerRetirementReason
      */
     public RetireDecision run(PoolWorker worker, LeaseScope scope, ResetRequest request) {
+        return evaluate(worker, scope, request.reason(), request);
+    }
+
+    /**
+     * Variant of {@link #run(PoolWorker, LeaseScope, ResetRequest)} used on the pool's release path. The
+     * {@link ResetRequest} handed to hooks is only materialised when at least one hook is configured, so releasing a
+     * worker from a pool without hooks allocates nothing and never resolves the scope's {@link LeaseScope#requestId()}.
+     *
+     * @param worker worker whose session is being reset
+     * @param scope  immutable snapshot of the lease scope used during the request
+     * @param reason reason reported to hooks
+     *
+     * @return retirement decision following the same rules as {@link #run(PoolWorker, LeaseScope, ResetRequest)}
+     */
+    public RetireDecision run(PoolWorker worker, LeaseScope scope, ResetRequest.Reason reason) {
+        return evaluate(worker, scope, reason, null);
+    }
+
+    private RetireDecision evaluate(
+            PoolWorker worker, LeaseScope scope, ResetRequest.Reason reason, @Nullable ResetRequest request) {
         boolean retire = worker.retireRequested();
         WorkerRetirementReason retireReason = worker.retirementCause();
-        boolean forcedRetire = request.reason() == ResetRequest.Reason.CLIENT_RETIRE;
+        boolean forcedRetire = reason == ResetRequest.Reason.CLIENT_RETIRE;
         if (forcedRetire && retireReason == WorkerRetirementReason.NOT_RETIRED) {
             retireReason = WorkerRetirementReason.RETIRE_REQUESTED;
         }
         retire = retire || forcedRetire;
-        boolean allowHooks = !retire || request.reason() == ResetRequest.Reason.TIMEOUT || forcedRetire;
+        boolean allowHooks = !retire || reason == ResetRequest.Reason.TIMEOUT || forcedRetire;
         if (!allowHooks) {
             return RetireDecision.retire(retireReason);
         }
         for (ResetHook hook : hooks) {
+            if (request == null) {
+                request = new ResetRequest.Default(reason, scope.requestId());
+            }
             try {
                 ResetOutcome outcome = hook.reset(worker.session(), scope, request);
                 if (outcome == ResetOutcome.RETIRE) {
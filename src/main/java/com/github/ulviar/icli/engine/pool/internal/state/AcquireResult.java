@@ -29,7 +29,11 @@ public sealed interface AcquireResult
     }
 
     static AcquireResult launchReserved(int workerId, List<RetiredWorker> retired) {
-        return new LaunchReserved(workerId, retired);
+        return launchReserved(workerId, 0, retired);
+    }
+
+    static AcquireResult launchReserved(int workerId, int templateIndex, List<RetiredWorker> retired) {
+        return new LaunchReserved(workerId, templateIndex, retired);
     }
 
     static AcquireResult failed(ServiceUnavailableException error, List<RetiredWorker> retired) {
@@ -52,10 +56,10 @@ public sealed interface AcquireResult
     }
 
     /**
-     * Acquisition path that reserved a worker identifier for launch. The caller must attempt to launch the worker and
-     * report the outcome.
+     * Acquisition path that reserved a worker identifier for launch. The caller must attempt to launch the worker from
+     * the template at {@code templateIndex} and report the outcome.
      */
-    record LaunchReserved(int workerId, List<RetiredWorker> retired) implements AcquireResult {
+    record LaunchReserved(int workerId, int templateIndex, List<RetiredWorker> retired) implements AcquireResult {
 
         public LaunchReserved {
             retired = List.copyOf(retired);
@@ -1,16 +1,20 @@
 package com.github.ulviar.icli.engine.pool.internal.state;
 
+import com.github.ulviar.icli.engine.pool.api.LaunchCircuitState;
 import com.github.ulviar.icli.engine.pool.api.PoolMetrics;
 import com.github.ulviar.icli.engine.pool.api.PreferredWorker;
 import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig;
 import com.github.ulviar.icli.engine.pool.api.WorkerRetirementReason;
+import com.github.ulviar.icli.engine.pool.api.WorkerTemplate;
 import com.github.ulviar.icli.engine.pool.internal.lease.DefaultLeaseScope;
 import com.github.ulviar.icli.engine.pool.internal.worker.PoolWorker;
 import java.time.Instant;
 import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.function.BooleanSupplier;
 
 /**
@@ -22,7 +26,8 @@ import java.util.function.BooleanSupplier;
  * <p>Core invariants enforced by the ledger:
  * <ul>
  *     <li>{@code allocatedWorkers >= activeWorkers + idleWorkers} — no worker can be simultaneously active and idle.
- *     <li>{@code allocatedWorkers + launchingWorkers <= config.maxSize()} — prevents runaway launches.
+ *     <li>{@code allocatedWorkers + launchingWorkers <= config.maxSize() + config.rolloutSurge()} — prevents runaway
+ *     launches; only rolling restarts may use the surge allowance.
  *     <li>All counters remain non-negative while the lock is held.
  * </ul>
  *
@@ -32,6 +37,8 @@ import java.util.function.BooleanSupplier;
  */
 final class CapacityLedger {
 
+    private static final int ANY_WORKER = -1;
+
     private final ProcessPoolConfig config;
     private final WorkerRetirementPolicy retirementPolicy;
     private final ArrayDeque<PoolWorker> idleWorkers = new ArrayDeque<>();
@@ -56,16 +63,29 @@ final class CapacityLedger {
      * supplied {@code retired} list so callers can dispose them after leaving the critical section.
      */
     Optional<PoolWorker> pollIdle(PreferredWorker preferredWorker, List<RetiredWorker> retired, Instant now) {
+        return pollIdle(preferredWorker, Set.of(), retired, now);
+    }
+
+    /**
+     * Variant of {@link #pollIdle(PreferredWorker, List, Instant)} that only returns workers offering every tag in
+     * {@code requiredTags}. Idle workers lacking the tags stay queued in their original order.
+     */
+    Optional<PoolWorker> pollIdle(
+            PreferredWorker preferredWorker, Set<String> requiredTags, List<RetiredWorker> retired, Instant now) {
         if (preferredWorker.hasSpecificWorker()) {
-            Optional<PoolWorker> preferred = pollPreferredIdle(preferredWorker.workerId(), retired, now);
+            Optional<PoolWorker> preferred = pollMatchingIdle(preferredWorker.workerId(), requiredTags, retired, now);
             if (preferred.isPresent()) {
                 return preferred;
             }
         }
-        return pollAnyIdle(retired, now);
+        if (requiredTags.isEmpty()) {
+            return pollAnyIdle(retired, now);
+        }
+        return pollMatchingIdle(ANY_WORKER, requiredTags, retired, now);
     }
 
-    private Optional<PoolWorker> pollPreferredIdle(int workerId, List<RetiredWorker> retired, Instant now) {
+    private Optional<PoolWorker> pollMatchingIdle(
+            int workerId, Set<String> requiredTags, List<RetiredWorker> retired, Instant now) {
         ArrayDeque<PoolWorker> scanned = new ArrayDeque<>();
         while (!idleWorkers.isEmpty()) {
             PoolWorker candidate = idleWorkers.removeFirst();
@@ -78,7 +98,7 @@ final class CapacityLedger {
                 retireIdleWorker(retired, candidate, reason.get());
                 continue;
             }
-            if (candidate.id() == workerId) {
+            if ((workerId == ANY_WORKER || candidate.id() == workerId) && candidate.provides(requiredTags)) {
                 while (!scanned.isEmpty()) {
                     idleWorkers.addFirst(scanned.removeLast());
                 }
@@ -109,13 +129,49 @@ final class CapacityLedger {
         return Optional.empty();
     }
 
+    /**
+     * Retires the longest-idle worker that lacks {@code requiredTags}, freeing a slot for a worker launched from a
+     * matching template. Used only when the pool is at {@link ProcessPoolConfig#maxSize()}.
+     *
+     * @return {@code true} when a worker was evicted into {@code retired}
+     */
+    boolean evictIdleWithout(Set<String> requiredTags, List<RetiredWorker> retired) {
+        if (requiredTags.isEmpty()) {
+            return false;
+        }
+        Iterator<PoolWorker> iterator = idleWorkers.iterator();
+        while (iterator.hasNext()) {
+            PoolWorker candidate = iterator.next();
+            if (!candidate.provides(requiredTags)) {
+                iterator.remove();
+                retireIdleWorker(retired, candidate, WorkerRetirementReason.TEMPLATE_EVICTED);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index of the first {@linkplain ProcessPoolConfig#workerTemplates() worker template} that provides
+     * {@code requiredTags}, or {@code -1} when none does.
+     */
+    int templateFor(Set<String> requiredTags) {
+        List<WorkerTemplate> templates = config.workerTemplates();
+        for (int index = 0; index < templates.size(); index++) {
+            if (templates.get(index).provides(requiredTags)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Transitions a worker into the active state and assigns it a new {@link DefaultLeaseScope}. {@link PoolState}
      * remains responsible for wiring callbacks to the scope; the ledger only updates counters.
      */
     DefaultLeaseScope beginLease(PoolWorker worker, Instant leaseStart) {
         DefaultLeaseScope scope = new DefaultLeaseScope(worker, leaseStart);
-        worker.markLeased(scope.requestId());
+        worker.markLeased(scope.requestNumber());
         activeWorkers++;
         totalLeasesServed++;
         return scope;
@@ -144,6 +200,13 @@ final class CapacityLedger {
         return retirementPolicy.shouldRetire(worker, now);
     }
 
+    /**
+     * Reports whether the worker is close enough to its retirement thresholds that a replacement should be launched.
+     */
+    boolean replacementDue(PoolWorker worker, Instant now) {
+        return retirementPolicy.shouldPrepareReplacement(worker, now);
+    }
+
     /**
      * Removes a worker that was already returned from an active lease and is being permanently retired.
      */
@@ -174,6 +237,33 @@ final class CapacityLedger {
         return nextWorkerId++;
     }
 
+    /**
+     * Reserves a worker identifier for a rolling-restart launch, which may exceed {@link ProcessPoolConfig#maxSize()}
+     * by at most {@link ProcessPoolConfig#rolloutSurge()}.
+     *
+     * @return a positive identifier when the reservation succeeds or {@code -1} when the surge allowance is used up
+     */
+    int reserveSurgeLaunchWorkerId() {
+        if (allocatedWorkers + launchingWorkers >= config.maxSize() + config.rolloutSurge()) {
+            return -1;
+        }
+        launchingWorkers++;
+        return nextWorkerId++;
+    }
+
+    /**
+     * Removes {@code worker} from the idle queue and retires it with {@code reason}.
+     *
+     * @return {@code true} when the worker was idle and has been moved into {@code retired}
+     */
+    boolean retireIdle(PoolWorker worker, WorkerRetirementReason reason, List<RetiredWorker> retired) {
+        if (!idleWorkers.remove(worker)) {
+            return false;
+        }
+        retireIdleWorker(retired, worker, reason);
+        return true;
+    }
+
     /**
      * Releases a launch reservation, optionally counting it as a failed launch for diagnostics.
      */
@@ -227,7 +317,7 @@ final class CapacityLedger {
     /**
      * Returns the current {@link PoolMetrics} snapshot including pool-level counters and queue depth.
      */
-    PoolMetrics snapshot(int pendingWaiters) {
+    PoolMetrics snapshot(int pendingWaiters, LaunchCircuitState launchCircuitState) {
         return new PoolMetrics(
                 allocatedWorkers,
                 idleWorkers.size(),
@@ -239,7 +329,8 @@ final class CapacityLedger {
                 totalLeasesServed,
                 failedLaunches,
                 totalReplenishments,
-                totalRetirements);
+                totalRetirements,
+                launchCircuitState);
     }
 
     /**
@@ -274,12 +365,16 @@ final class CapacityLedger {
      */
     record LeaseReturn(boolean processed, boolean drainSignalNeeded) {
 
+        private static final LeaseReturn IGNORED = new LeaseReturn(false, false);
+        private static final LeaseReturn PROCESSED = new LeaseReturn(true, false);
+        private static final LeaseReturn PROCESSED_DRAIN_SIGNAL = new LeaseReturn(true, true);
+
         static LeaseReturn ignored() {
-            return new LeaseReturn(false, false);
+            return IGNORED;
         }
 
         static LeaseReturn processed(boolean drainSignalNeeded) {
-            return new LeaseReturn(true, drainSignalNeeded);
+            return drainSignalNeeded ? PROCESSED_DRAIN_SIGNAL : PROCESSED;
         }
     }
 
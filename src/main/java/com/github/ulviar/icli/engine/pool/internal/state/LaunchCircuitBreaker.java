@@ -0,0 +1,106 @@
+package com.github.ulviar.icli.engine.pool.internal.state;
+
+import com.github.ulviar.icli.engine.pool.api.LaunchCircuitState;
+import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Closed/open/half-open state machine guarding worker launches. Like {@link CapacityLedger}, the breaker never locks
+ * on its own; {@link PoolState} invokes it while holding the shared pool lock so launch reservations and breaker
+ * transitions are observed atomically.
+ *
+ * <p>Transitions:
+ * <ul>
+ *     <li>{@code CLOSED → OPEN} after {@link ProcessPoolConfig#launchFailureThreshold()} consecutive failures.</li>
+ *     <li>{@code OPEN → HALF_OPEN} when the pool starts a background probe launch.</li>
+ *     <li>{@code HALF_OPEN → OPEN} when the probe fails; the next probe delay doubles up to
+ *         {@link ProcessPoolConfig#launchProbeMaxBackoff()}.</li>
+ *     <li>{@code any → CLOSED} on any successful launch.</li>
+ * </ul>
+ */
+final class LaunchCircuitBreaker {
+
+    private final int failureThreshold;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private LaunchCircuitState state = LaunchCircuitState.CLOSED;
+    private int consecutiveFailures;
+    private int consecutiveOpenings;
+
+    LaunchCircuitBreaker(ProcessPoolConfig config) {
+        this.failureThreshold = config.launchFailureThreshold();
+        this.initialBackoff = config.launchProbeInitialBackoff();
+        this.maxBackoff = config.launchProbeMaxBackoff();
+    }
+
+    /**
+     * Returns {@code true} while the circuit is closed and regular launches may proceed.
+     */
+    boolean allowsLaunch() {
+        return state == LaunchCircuitState.CLOSED;
+    }
+
+    LaunchCircuitState state() {
+        return state;
+    }
+
+    /**
+     * Records a failed launch. Returns the delay before the next background probe when this failure opened (or
+     * re-opened) the circuit, or {@link Optional#empty()} when no probe needs scheduling.
+     */
+    Optional<Duration> recordFailure() {
+        consecutiveFailures = saturatingIncrement(consecutiveFailures);
+        boolean open = state == LaunchCircuitState.HALF_OPEN
+                || (state == LaunchCircuitState.CLOSED && consecutiveFailures >= failureThreshold);
+        if (!open) {
+            return Optional.empty();
+        }
+        state = LaunchCircuitState.OPEN;
+        consecutiveOpenings = saturatingIncrement(consecutiveOpenings);
+        return Optional.of(probeDelay(consecutiveOpenings));
+    }
+
+    /**
+     * Records a successful launch, closing the circuit and resetting the failure streak.
+     */
+    void recordSuccess() {
+        state = LaunchCircuitState.CLOSED;
+        consecutiveFailures = 0;
+        consecutiveOpenings = 0;
+    }
+
+    /**
+     * Moves an open circuit to half-open so a single probe launch may proceed.
+     *
+     * @return {@code true} when the caller owns the probe
+     */
+    boolean beginProbe() {
+        if (state != LaunchCircuitState.OPEN) {
+            return false;
+        }
+        state = LaunchCircuitState.HALF_OPEN;
+        return true;
+    }
+
+    private Duration probeDelay(int openings) {
+        int shift = Math.min(openings - 1, 30);
+        long initialNanos = saturatingNanos(initialBackoff);
+        long delayNanos = initialNanos > (Long.MAX_VALUE >> shift) ? Long.MAX_VALUE : initialNanos << shift;
+        Duration delay = Duration.ofNanos(delayNanos);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static long saturatingNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static int saturatingIncrement(int value) {
+        return value == Integer.MAX_VALUE ? value : value + 1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.ulviar.icli.engine.pool.internal.state;
 
+import com.github.ulviar.icli.engine.pool.api.LaunchCircuitState;
 import com.github.ulviar.icli.engine.pool.api.PoolMetrics;
 import com.github.ulviar.icli.engine.pool.api.PreferredWorker;
 import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig;
@@ -9,11 +10,15 @@ import com.github.ulviar.icli.engine.pool.internal.concurrent.LifecycleGate;
 import com.github.ulviar.icli.engine.pool.internal.concurrent.WaiterQueue;
 import com.github.ulviar.icli.engine.pool.internal.lease.DefaultLeaseScope;
 import com.github.ulviar.icli.engine.pool.internal.worker.PoolWorker;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import org.jetbrains.annotations.Nullable;
 
@@ -27,8 +32,12 @@ import org.jetbrains.annotations.Nullable;
  * <ul>
  *     <li>Keep {@link CapacityLedger} invariants valid while workers move between launching, active, idle, and retired.
  *     <li>Coordinate waiters via {@link WaiterQueue} so lease requests honour FIFO order and cancellation semantics.
+ *     <li>Match tagged acquisitions to workers launched from the {@linkplain ProcessPoolConfig#workerTemplates()
+ *         template} that provides their tags, evicting idle workers of other templates when the pool is full.
  *     <li>Track the closing → terminated lifecycle through {@link LifecycleGate}, waking blocked threads as
  *         transitions occur.
+ *     <li>Gate launch reservations through {@link LaunchCircuitBreaker} so repeated launch failures suspend forking
+ *         until a background probe succeeds.
  * </ul>
  */
 public final class PoolState {
@@ -39,12 +48,17 @@ public final class PoolState {
     private static final String MESSAGE_QUEUE_FULL_TEMPLATE = "Worker queue is full (pending=%d, capacity=%d)";
     private static final String MESSAGE_TIMEOUT = "Timed out waiting for a pooled worker";
     private static final String MESSAGE_INTERRUPTED = "Interrupted while waiting for a worker";
+    private static final String MESSAGE_LAUNCH_CIRCUIT_OPEN =
+            "Worker launches are suspended after repeated failures (launch circuit %s)";
 
     private final ProcessPoolConfig config;
     private final CapacityLedger ledger;
+    private final LaunchCircuitBreaker launchCircuit;
     private final LifecycleGate lifecycle;
     private final WaiterQueue waiters;
     private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition retirements = lock.newCondition();
+    private final ArrayList<RetiredWorker> retiredScratch = new ArrayList<>();
     private final boolean invariantChecksEnabled;
 
     /**
@@ -55,6 +69,7 @@ public final class PoolState {
     public PoolState(ProcessPoolConfig config, WorkerRetirementPolicy retirementPolicy) {
         this.config = config;
         this.ledger = new CapacityLedger(config, retirementPolicy);
+        this.launchCircuit = new LaunchCircuitBreaker(config);
         this.lifecycle = new LifecycleGate(lock);
         this.waiters = new WaiterQueue(lock);
         this.invariantChecksEnabled = config.invariantChecksEnabled();
@@ -64,7 +79,8 @@ public final class PoolState {
      * Attempts to lease a worker before the supplied absolute {@code deadlineNanos}. When an idle worker is available
      * the method grants a lease immediately; otherwise it either queues the caller or fails fast depending on
      * {@code waitAllowed}. Any workers retired while scanning the idle queue are returned to the caller so they can be
-     * disposed without holding the lock.
+     * disposed without holding the lock. Retirements are staged in a lock-guarded scratch list, so an acquisition that
+     * retires nothing allocates neither a list nor a copy.
      *
      * @param deadlineNanos absolute {@link System#nanoTime()} deadline ({@code 0} means wait indefinitely)
      * @param waitAllowed   whether the caller is willing to join the waiter queue if no idle worker is immediately
@@ -75,17 +91,35 @@ public final class PoolState {
      * failed
      */
     public AcquireResult acquire(long deadlineNanos, boolean waitAllowed, PreferredWorker preferredWorker) {
-        List<RetiredWorker> retired = new ArrayList<>();
+        return acquire(deadlineNanos, waitAllowed, preferredWorker, Set.of());
+    }
+
+    /**
+     * Variant of {@link #acquire(long, boolean, PreferredWorker)} that only leases workers offering every tag in
+     * {@code requiredTags}. Launch reservations name the first {@linkplain ProcessPoolConfig#workerTemplates()
+     * template} providing the tags; when the pool is full, an idle worker lacking the tags is retired to make room.
+     *
+     * @param deadlineNanos   absolute {@link System#nanoTime()} deadline ({@code 0} means wait indefinitely)
+     * @param waitAllowed     whether the caller may join the waiter queue
+     * @param preferredWorker worker preference descriptor supplied by the caller
+     * @param requiredTags    tags the leased worker must offer; at least one template must provide them
+     *
+     * @return an {@link AcquireResult} describing whether a lease was granted, a launch was reserved, or the request
+     * failed
+     */
+    public AcquireResult acquire(
+            long deadlineNanos, boolean waitAllowed, PreferredWorker preferredWorker, Set<String> requiredTags) {
+        List<RetiredWorker> retired = List.of();
         WaiterQueue.Waiter waiter = null;
         lock.lock();
         try {
             while (true) {
                 AcquireResult lifecycleFailure = failIfClosedOrTerminated(retired);
-                if (!lifecycleFailure.equals(AcquireResult.none())) {
+                if (lifecycleFailure != AcquireResult.none()) {
                     return done(lifecycleFailure);
                 }
 
-                IdleLeaseOutcome idleOutcome = tryLeaseFromIdleOrServeWaiter(preferredWorker, retired);
+                IdleLeaseOutcome idleOutcome = tryLeaseFromIdleOrServeWaiter(preferredWorker, requiredTags, retired);
                 if (idleOutcome.hasResult()) {
                     return done(idleOutcome.result());
                 }
@@ -94,21 +128,24 @@ public final class PoolState {
                 }
 
                 AcquireResult noWaitFailure = rejectIfNoWait(waitAllowed, retired);
-                if (!noWaitFailure.equals(AcquireResult.none())) {
+                if (noWaitFailure != AcquireResult.none()) {
                     return done(noWaitFailure);
                 }
 
-                AcquireResult launchReservation = tryReserveLaunch(retired);
-                if (!launchReservation.equals(AcquireResult.none())) {
+                AcquireResult launchReservation = tryReserveLaunch(requiredTags, retired);
+                if (launchReservation != AcquireResult.none()) {
                     return done(launchReservation);
                 }
 
                 AcquireResult queueRejection = rejectIfQueueFull(retired);
-                if (!queueRejection.equals(AcquireResult.none())) {
+                if (queueRejection != AcquireResult.none()) {
                     return done(queueRejection);
                 }
 
-                waiter = waiters.enqueue();
+                // Awaiting releases the lock, so hand pending retirements over to this call before other threads
+                // reuse the scratch list.
+                retired = collectRetired(retired);
+                waiter = waiters.enqueue(requiredTags);
                 WaiterQueue.AwaitOutcome awaitOutcome = waiter.awaitAssignment(deadlineNanos);
                 waiter = null;
 
@@ -135,30 +172,28 @@ public final class PoolState {
     }
 
     private IdleLeaseOutcome tryLeaseFromIdleOrServeWaiter(
-            PreferredWorker preferredWorker, List<RetiredWorker> retired) {
+            PreferredWorker preferredWorker, Set<String> requiredTags, List<RetiredWorker> retired) {
         Instant now = config.clock().instant();
-        var idle = ledger.pollIdle(preferredWorker, retired, now);
+        var idle = ledger.pollIdle(preferredWorker, requiredTags, retiredScratch, now);
         if (idle.isEmpty()) {
             return IdleLeaseOutcome.none();
         }
 
         PoolWorker worker = idle.orElseThrow();
-        if (!waiters.isEmpty()) {
-            if (!waiters.assignToNext(worker)) {
-                ledger.enqueueReturnedIdle(worker);
-            }
+        if (!waiters.isEmpty() && waiters.assignToNext(worker)) {
             return IdleLeaseOutcome.continueLoop();
         }
+        // Either nobody is queued or no queued waiter accepts this worker's tags, so the caller may take it.
 
         return IdleLeaseOutcome.leased(beginLease(worker, now, retired));
     }
 
     private AcquireResult failIfClosedOrTerminated(List<RetiredWorker> retired) {
         if (lifecycle.isTerminated()) {
-            return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_TERMINATED), immutable(retired));
+            return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_TERMINATED), collectRetired(retired));
         }
         if (lifecycle.isClosing()) {
-            return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_CLOSING), immutable(retired));
+            return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_CLOSING), collectRetired(retired));
         }
         return AcquireResult.none();
     }
@@ -167,15 +202,26 @@ public final class PoolState {
         if (waitAllowed) {
             return AcquireResult.none();
         }
-        return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_NO_WORKERS), immutable(retired));
+        return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_NO_WORKERS), collectRetired(retired));
     }
 
-    private AcquireResult tryReserveLaunch(List<RetiredWorker> retired) {
+    private AcquireResult tryReserveLaunch(Set<String> requiredTags, List<RetiredWorker> retired) {
+        if (!launchCircuit.allowsLaunch()) {
+            if (ledger.allocatedWorkers() + ledger.launchingWorkers() > 0) {
+                // Existing workers may still free up, so let the caller queue for them.
+                return AcquireResult.none();
+            }
+            String message = String.format(Locale.ROOT, MESSAGE_LAUNCH_CIRCUIT_OPEN, launchCircuit.state());
+            return AcquireResult.failed(new ServiceUnavailableException(message), collectRetired(retired));
+        }
         int workerId = ledger.reserveLaunchWorkerId();
+        if (workerId == -1 && ledger.evictIdleWithout(requiredTags, retiredScratch)) {
+            workerId = ledger.reserveLaunchWorkerId();
+        }
         if (workerId == -1) {
             return AcquireResult.none();
         }
-        return AcquireResult.launchReserved(workerId, immutable(retired));
+        return AcquireResult.launchReserved(workerId, ledger.templateFor(requiredTags), collectRetired(retired));
     }
 
     private AcquireResult rejectIfQueueFull(List<RetiredWorker> retired) {
@@ -190,7 +236,7 @@ public final class PoolState {
         QueueRejectionDetails details = new QueueRejectionDetails(pending, capacity);
         ServiceUnavailableException exception = new ServiceUnavailableException(
                 String.format(Locale.ROOT, MESSAGE_QUEUE_FULL_TEMPLATE, pending, capacity));
-        return AcquireResult.queueRejected(exception, immutable(retired), details);
+        return AcquireResult.queueRejected(exception, collectRetired(retired), details);
     }
 
     private AcquireResult onWaiterAssigned(PoolWorker worker, List<RetiredWorker> retired) {
@@ -199,7 +245,7 @@ public final class PoolState {
     }
 
     private AcquireResult onWaiterTimedOut(List<RetiredWorker> retired) {
-        return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_TIMEOUT), immutable(retired));
+        return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_TIMEOUT), collectRetired(retired));
     }
 
     private AcquireResult onAwaitInterrupted(
@@ -215,12 +261,33 @@ public final class PoolState {
             }
         }
         Thread.currentThread().interrupt();
-        return AcquireResult.failed(new ServiceUnavailableException(MESSAGE_INTERRUPTED, ex), immutable(retired));
+        return AcquireResult.failed(
+                new ServiceUnavailableException(MESSAGE_INTERRUPTED, ex), collectRetired(retired));
     }
 
     private AcquireResult beginLease(PoolWorker worker, Instant leaseStart, List<RetiredWorker> retired) {
         DefaultLeaseScope scope = ledger.beginLease(worker, leaseStart);
-        return AcquireResult.leased(worker, scope, immutable(retired));
+        return AcquireResult.leased(worker, scope, collectRetired(retired));
+    }
+
+    /**
+     * Combines retirements already handed to the current acquisition with those collected in {@link #retiredScratch}
+     * since, clearing the scratch list. Returns the shared empty list in the common case where nothing was retired.
+     */
+    private List<RetiredWorker> collectRetired(List<RetiredWorker> carried) {
+        if (retiredScratch.isEmpty()) {
+            return carried;
+        }
+        List<RetiredWorker> combined;
+        if (carried.isEmpty()) {
+            combined = List.copyOf(retiredScratch);
+        } else {
+            List<RetiredWorker> merged = new ArrayList<>(carried);
+            merged.addAll(retiredScratch);
+            combined = List.copyOf(merged);
+        }
+        retiredScratch.clear();
+        return combined;
     }
 
     private record IdleLeaseOutcome(boolean shouldContinue, AcquireResult result) {
@@ -253,6 +320,7 @@ public final class PoolState {
     public LaunchResult onLaunchSuccess(PoolWorker worker) {
         lock.lock();
         try {
+            launchCircuit.recordSuccess();
             if (lifecycle.isTerminated()) {
                 ledger.discardLaunchReservation(false);
                 LaunchResult result = LaunchResult.discarded(LaunchDiscardReason.POOL_TERMINATED);
@@ -280,6 +348,7 @@ public final class PoolState {
                 return result;
             }
 
+            // No queued waiter accepts this worker; it stays idle for the caller that reserved the launch.
             ledger.enqueueReturnedIdle(worker);
             LaunchResult result = LaunchResult.queued();
             assertInvariants();
@@ -290,15 +359,60 @@ public final class PoolState {
     }
 
     /**
-     * Releases a reserved launch slot after an external launch attempt failed.
+     * Releases a reserved launch slot after an external launch attempt failed. Counted failures feed the launch circuit
+     * breaker; when this failure opens the circuit the returned delay tells the caller when to probe.
+     *
+     * @param countFailure whether diagnostics and the launch circuit should record the failure
      *
-     * @param countFailure whether diagnostics should increment the failed-launch counter
+     * @return delay before the next background launch probe, or {@link Optional#empty()} when none is required
      */
-    public void onLaunchFailure(boolean countFailure) {
+    public Optional<Duration> onLaunchFailure(boolean countFailure) {
         lock.lock();
         try {
             ledger.discardLaunchReservation(countFailure);
+            Optional<Duration> probeDelay = countFailure ? launchCircuit.recordFailure() : Optional.empty();
+            assertInvariants();
+            return probeDelay;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a background probe while the launch circuit is open. The circuit moves to
+     * {@link LaunchCircuitState#HALF_OPEN} and a launch slot is reserved for the probe; the caller must resolve it via
+     * {@link #onLaunchSuccess(PoolWorker)} or {@link #onLaunchFailure(boolean)}. When the pool already runs at
+     * {@link ProcessPoolConfig#maxSize()} the circuit is closed without probing, since every slot holds a live worker.
+     *
+     * @return identifier reserved for the probe launch, or {@link OptionalInt#empty()} when no probe should run
+     */
+    public OptionalInt beginLaunchProbe() {
+        lock.lock();
+        try {
+            if (lifecycle.isClosing() || lifecycle.isTerminated() || !launchCircuit.beginProbe()) {
+                assertInvariants();
+                return OptionalInt.empty();
+            }
+            int workerId = ledger.reserveLaunchWorkerId();
+            if (workerId == -1) {
+                launchCircuit.recordSuccess();
+                assertInvariants();
+                return OptionalInt.empty();
+            }
             assertInvariants();
+            return OptionalInt.of(workerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current launch circuit state.
+     */
+    public LaunchCircuitState launchCircuitState() {
+        lock.lock();
+        try {
+            return launchCircuit.state();
         } finally {
             lock.unlock();
         }
@@ -374,7 +488,9 @@ public final class PoolState {
                 return result;
             }
 
+            // Every queued waiter needs tags this worker lacks; wake one so it can evict an idle worker and launch.
             ledger.enqueueReturnedIdle(worker);
+            waiters.retryNext();
             ReleaseResult result = ReleaseResult.returnedToIdle();
             assertInvariants();
             return result;
@@ -392,7 +508,8 @@ public final class PoolState {
      *     <li>immediately increments the {@code launching} counter and assigns a unique worker identifier that stays
      *         reserved until {@link #onLaunchSuccess(PoolWorker)} or {@link #onLaunchFailure(boolean)} runs;</li>
      *     <li>yields {@link OptionalInt#empty()} once the minimum size is satisfied,
-     *     {@link ProcessPoolConfig#maxSize()} would be exceeded, or the lifecycle has begun closing/terminating;</li>
+     *     {@link ProcessPoolConfig#maxSize()} would be exceeded, the launch circuit is not closed, or the lifecycle has
+     *     begun closing/terminating;</li>
      *     <li>guarantees monotonically increasing identifiers so tests can assert deterministic worker numbering.</li>
      * </ul>
      *
@@ -402,7 +519,7 @@ public final class PoolState {
     public OptionalInt reserveNextForMinimum() {
         lock.lock();
         try {
-            if (lifecycle.isClosing() || lifecycle.isTerminated()) {
+            if (lifecycle.isClosing() || lifecycle.isTerminated() || !launchCircuit.allowsLaunch()) {
                 assertInvariants();
                 return OptionalInt.empty();
             }
@@ -414,13 +531,136 @@ public final class PoolState {
         }
     }
 
+    /**
+     * Reserves a launch slot for a replacement of {@code worker} when it has crossed the configured
+     * {@linkplain ProcessPoolConfig#replacementThreshold() replacement threshold}. At most one replacement is reserved
+     * per worker, and none is reserved when the worker is already scheduled for retirement, the pool is closing, or
+     * {@link ProcessPoolConfig#maxSize()} leaves no spare capacity.
+     *
+     * <p>Like {@link #reserveNextForMinimum()}, a successful reservation must be resolved through
+     * {@link #onLaunchSuccess(PoolWorker)} or {@link #onLaunchFailure(boolean)}.
+     *
+     * @param worker worker that just completed a lease
+     * @param now    current time according to the pool clock
+     *
+     * @return identifier reserved for the replacement or {@link OptionalInt#empty()} when no launch is needed
+     */
+    public OptionalInt reserveReplacement(PoolWorker worker, Instant now) {
+        lock.lock();
+        try {
+            if (lifecycle.isClosing()
+                    || lifecycle.isTerminated()
+                    || !launchCircuit.allowsLaunch()
+                    || worker.replacementReserved()
+                    || worker.retireRequested()
+                    || !ledger.replacementDue(worker, now)) {
+                assertInvariants();
+                return OptionalInt.empty();
+            }
+            int workerId = ledger.reserveLaunchWorkerId();
+            if (workerId == -1) {
+                assertInvariants();
+                return OptionalInt.empty();
+            }
+            worker.markReplacementReserved();
+            assertInvariants();
+            return OptionalInt.of(workerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves a launch slot for a rolling restart. Unlike ordinary reservations the slot may exceed
+     * {@link ProcessPoolConfig#maxSize()} by up to {@link ProcessPoolConfig#rolloutSurge()}; like them, it must be
+     * resolved through {@link #onLaunchSuccess(PoolWorker)} or {@link #onLaunchFailure(boolean)}.
+     *
+     * @return identifier reserved for the new-generation worker, or {@link OptionalInt#empty()} when the surge
+     * allowance is used up, the launch circuit is not closed, or the pool is closing
+     */
+    public OptionalInt reserveRolloutLaunch() {
+        lock.lock();
+        try {
+            if (lifecycle.isClosing() || lifecycle.isTerminated() || !launchCircuit.allowsLaunch()) {
+                assertInvariants();
+                return OptionalInt.empty();
+            }
+            int workerId = ledger.reserveSurgeLaunchWorkerId();
+            assertInvariants();
+            return workerId == -1 ? OptionalInt.empty() : OptionalInt.of(workerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retires an old-generation worker on behalf of a rolling restart. An idle worker leaves the pool at once and is
+     * returned so the caller can dispose it; a leased worker is flagged and retires when its lease completes.
+     *
+     * @param worker old-generation worker to replace
+     * @return the worker to dispose now, or {@link Optional#empty()} when retirement was deferred to lease completion
+     */
+    public Optional<RetiredWorker> supersede(PoolWorker worker) {
+        lock.lock();
+        try {
+            List<RetiredWorker> retired = new ArrayList<>(1);
+            if (ledger.retireIdle(worker, WorkerRetirementReason.SUPERSEDED, retired)) {
+                assertInvariants();
+                return Optional.of(retired.getFirst());
+            }
+            worker.requestRetire(WorkerRetirementReason.SUPERSEDED);
+            assertInvariants();
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until a worker retirement is recorded, the pool starts closing, or {@code timeout} elapses. Rolling
+     * restarts use it to wait for leased old-generation workers to free their slots.
+     *
+     * @param timeout maximum time to wait
+     * @throws InterruptedException when the waiting thread is interrupted
+     */
+    public void awaitRetirement(Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            if (!lifecycle.isClosing()) {
+                retirements.awaitNanos(timeout.toNanos());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reports whether {@link #markClosing()} has run.
+     */
+    public boolean isClosing() {
+        lock.lock();
+        try {
+            return lifecycle.isClosing();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lock-free hint reporting whether acquisitions are queued for a worker. The answer may be stale by the time the
+     * caller acts on it.
+     */
+    public boolean hasQueuedWaiters() {
+        return waiters.hasQueuedWaiters();
+    }
+
     /**
      * Produces a {@link PoolMetrics} snapshot for diagnostics while holding the coordination lock.
      */
     public PoolMetrics snapshot() {
         lock.lock();
         try {
-            PoolMetrics metrics = ledger.snapshot(waiters.size());
+            PoolMetrics metrics = ledger.snapshot(waiters.size(), launchCircuit.state());
             assertInvariants();
             return metrics;
         } finally {
@@ -439,6 +679,7 @@ public final class PoolState {
                 return false;
             }
             waiters.cancelAll();
+            retirements.signalAll();
             assertInvariants();
             return true;
         } finally {
@@ -491,6 +732,7 @@ public final class PoolState {
         lock.lock();
         try {
             ledger.recordRetirement();
+            retirements.signalAll();
             assertInvariants();
         } finally {
             lock.unlock();
@@ -505,7 +747,7 @@ public final class PoolState {
         int active = ledger.activeWorkers();
         int idle = ledger.idleWorkers();
         int launching = ledger.launchingWorkers();
-        int maxSize = config.maxSize();
+        int maxSize = config.maxSize() + config.rolloutSurge();
         int waiterCount = waiters.size();
         boolean closing = lifecycle.isClosing();
         boolean terminated = lifecycle.isTerminated();
@@ -538,10 +780,6 @@ public final class PoolState {
         }
     }
 
-    private static <T> List<T> immutable(List<T> values) {
-        return values.isEmpty() ? List.of() : List.copyOf(values);
-    }
-
     /**
      * Exposes internal counters for unit tests that must validate invariants even when JVM assertions are disabled.
      */
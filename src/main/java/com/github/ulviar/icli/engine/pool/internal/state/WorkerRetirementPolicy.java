@@ -13,6 +13,10 @@ import java.util.Optional;
  * retirement without duplicating threshold logic. Duration-based heuristics treat zero or negative values as disabled
  * so callers can explicitly opt out by configuring non-positive thresholds.
  *
+ * <p>Reuse and lifetime limits are scaled by {@link PoolWorker#limitScale()} so retirement jitter staggers workers that
+ * were launched together. The same per-worker limits drive {@link #shouldPrepareReplacement(PoolWorker, Instant)},
+ * which reports when a worker has consumed {@link ProcessPoolConfig#replacementThreshold()} of either limit.
+ *
  * <p>The policy is stateless aside from the captured configuration and therefore safe to share between pools.
  */
 public final class WorkerRetirementPolicy {
@@ -32,19 +36,37 @@ public final class WorkerRetirementPolicy {
      * @return retirement reason or {@link Optional#empty()} when the worker should be kept
      */
     Optional<WorkerRetirementReason> shouldRetire(PoolWorker worker, Instant now) {
-        if (config.maxRequestsPerWorker() > 0 && worker.reuseCount() >= config.maxRequestsPerWorker()) {
+        if (config.maxRequestsPerWorker() > 0 && worker.reuseCount() >= reuseLimit(worker, 1.0)) {
             return Optional.of(WorkerRetirementReason.REUSE_LIMIT_REACHED);
         }
-        Duration lifetimeLimit = config.maxWorkerLifetime();
-        if (isPositive(lifetimeLimit)) {
-            Duration lifetime = Duration.between(worker.createdAt(), now);
-            if (!lifetime.isNegative() && lifetime.compareTo(lifetimeLimit) >= 0) {
-                return Optional.of(WorkerRetirementReason.LIFETIME_EXCEEDED);
-            }
+        Duration lifetimeLimit = lifetimeLimit(worker, 1.0);
+        if (isPositive(lifetimeLimit) && hasLived(worker, now, lifetimeLimit)) {
+            return Optional.of(WorkerRetirementReason.LIFETIME_EXCEEDED);
         }
         return Optional.empty();
     }
 
+    /**
+     * Reports whether the supplied worker has consumed {@link ProcessPoolConfig#replacementThreshold()} of its reuse or
+     * lifetime limit, meaning the pool should launch its replacement ahead of the actual retirement. Always returns
+     * {@code false} when proactive replacement is disabled.
+     *
+     * @param worker worker being evaluated
+     * @param now current time according to the pool clock
+     * @return {@code true} when a replacement should be prepared
+     */
+    boolean shouldPrepareReplacement(PoolWorker worker, Instant now) {
+        double threshold = config.replacementThreshold();
+        if (threshold <= 0.0) {
+            return false;
+        }
+        if (config.maxRequestsPerWorker() > 0 && worker.reuseCount() >= reuseLimit(worker, threshold)) {
+            return true;
+        }
+        Duration lifetimeLimit = lifetimeLimit(worker, threshold);
+        return isPositive(lifetimeLimit) && hasLived(worker, now, lifetimeLimit);
+    }
+
     /**
      * Evaluates the configured idle timeout for the supplied worker and reports whether it should be retired because it
      * remained unused for longer than {@link ProcessPoolConfig#maxIdleTime()}.
@@ -65,6 +87,27 @@ public final class WorkerRetirementPolicy {
         return Optional.empty();
     }
 
+    private long reuseLimit(PoolWorker worker, double fraction) {
+        double scaled = config.maxRequestsPerWorker() * worker.limitScale() * fraction;
+        return Math.max(1L, (long) Math.ceil(scaled));
+    }
+
+    private Duration lifetimeLimit(PoolWorker worker, double fraction) {
+        Duration limit = config.maxWorkerLifetime();
+        double factor = worker.limitScale() * fraction;
+        if (!isPositive(limit) || factor >= 1.0) {
+            return limit;
+        }
+        long seconds = limit.getSeconds();
+        long nanos = Math.round((seconds * 1_000_000_000.0 + limit.getNano()) * factor);
+        return Duration.ofNanos(Math.max(1L, nanos));
+    }
+
+    private static boolean hasLived(PoolWorker worker, Instant now, Duration limit) {
+        Duration lifetime = Duration.between(worker.createdAt(), now);
+        return !lifetime.isNegative() && lifetime.compareTo(limit) >= 0;
+    }
+
     private static boolean isPositive(Duration duration) {
         return duration.compareTo(Duration.ZERO) > 0;
     }
@@ -5,8 +5,9 @@ import com.github.ulviar.icli.engine.InteractiveSession;
 import com.github.ulviar.icli.engine.pool.api.WorkerRetirementReason;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.time.Instant;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -16,9 +17,12 @@ import org.jetbrains.annotations.Nullable;
  *
  * <p>Each worker maintains:
  * <ul>
- *     <li>Identity and launch metadata ({@link #id()}, {@link #createdAt()}, {@link #options()}).</li>
- *     <li>Lease state, including the active request id, reuse counter, and last-used timestamp.</li>
+ *     <li>Identity and launch metadata ({@link #id()}, {@link #createdAt()}, {@link #options()}, and the
+ *     {@linkplain #templateIndex() template} with its {@linkplain #tags() tags}).</li>
+ *     <li>Lease state, including the active request number, reuse counter, and last-used timestamp.</li>
  *     <li>A lazily populated retirement cause that guards against duplicate retire requests.</li>
+ *     <li>A per-worker limit scale (retirement jitter) and a flag recording whether a replacement was launched.</li>
+ *     <li>An optional attachment holding client state that outlives individual leases.</li>
  * </ul>
  *
  * <p>The class deliberately avoids synchronisation beyond the {@link AtomicReference} used for retirement cause. All
@@ -32,15 +36,23 @@ import org.jetbrains.annotations.Nullable;
         justification = "PoolWorker state mutates only while holding the PoolState lock; retirementCause is atomic")
 public final class PoolWorker {
 
+    private static final long IDLE = 0L;
+
     private final int id;
     private final InteractiveSession session;
     private final ExecutionOptions options;
     private final Instant createdAt;
+    private final double limitScale;
+    private final int templateIndex;
+    private final Set<String> tags;
+    private final int generation;
     private long reuseCount;
+    private boolean replacementReserved;
     private final AtomicReference<WorkerRetirementReason> retirementCause =
             new AtomicReference<>(WorkerRetirementReason.NOT_RETIRED);
-    private @Nullable UUID activeRequestId;
+    private long activeRequestNumber = IDLE;
     private Instant lastUsed;
+    private @Nullable Object attachment;
 
     /**
      * Constructs a worker representation for the given process.
@@ -51,10 +63,54 @@ public final class PoolWorker {
      * @param createdAt timestamp recorded by the pool clock when the worker was created
      */
     public PoolWorker(int id, InteractiveSession session, ExecutionOptions options, Instant createdAt) {
+        this(id, session, options, createdAt, 1.0);
+    }
+
+    /**
+     * Constructs a worker representation whose retirement limits are scaled by {@code limitScale}.
+     *
+     * @param id         stable identifier assigned by the pool
+     * @param session    interactive session backing the worker
+     * @param options    execution options used to launch the session
+     * @param createdAt  timestamp recorded by the pool clock when the worker was created
+     * @param limitScale factor in {@code (0, 1]} applied to the pool-wide reuse and lifetime limits
+     */
+    public PoolWorker(
+            int id, InteractiveSession session, ExecutionOptions options, Instant createdAt, double limitScale) {
+        this(id, session, options, createdAt, limitScale, 0, Set.of(), 0);
+    }
+
+    /**
+     * Constructs a worker launched from one of the pool's
+     * {@linkplain com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig#workerTemplates() worker templates}.
+     *
+     * @param id            stable identifier assigned by the pool
+     * @param session       interactive session backing the worker
+     * @param options       execution options used to launch the session
+     * @param createdAt     timestamp recorded by the pool clock when the worker was created
+     * @param limitScale    factor in {@code (0, 1]} applied to the pool-wide reuse and lifetime limits
+     * @param templateIndex index of the launch template within the pool configuration's template list
+     * @param tags          capability tags of the launch template
+     * @param generation    rollout generation of the template, advanced by each
+     *                      {@link com.github.ulviar.icli.engine.pool.api.ProcessPool#rollTo rolling restart}
+     */
+    public PoolWorker(
+            int id,
+            InteractiveSession session,
+            ExecutionOptions options,
+            Instant createdAt,
+            double limitScale,
+            int templateIndex,
+            Set<String> tags,
+            int generation) {
         this.id = id;
         this.session = session;
         this.options = options;
         this.createdAt = createdAt;
+        this.limitScale = limitScale;
+        this.templateIndex = templateIndex;
+        this.tags = Set.copyOf(tags);
+        this.generation = generation;
         this.lastUsed = createdAt;
     }
 
@@ -85,6 +141,44 @@ public final class PoolWorker {
         return options;
     }
 
+    /**
+     * Index of the template this worker was launched from; {@code 0} denotes the pool's default template.
+     *
+     * @return template index
+     */
+    public int templateIndex() {
+        return templateIndex;
+    }
+
+    /**
+     * Rollout generation of the template this worker was launched from. Workers of the default template whose
+     * generation is older than the pool's current one are retired by a rolling restart.
+     *
+     * @return generation number, starting at {@code 0}
+     */
+    public int generation() {
+        return generation;
+    }
+
+    /**
+     * Capability tags inherited from the launch template.
+     *
+     * @return immutable tag set, empty for the default template
+     */
+    public Set<String> tags() {
+        return tags;
+    }
+
+    /**
+     * Reports whether this worker offers every tag in {@code requiredTags}.
+     *
+     * @param requiredTags tags requested by an acquisition
+     * @return {@code true} when the worker satisfies the requirement
+     */
+    public boolean provides(Set<String> requiredTags) {
+        return requiredTags.isEmpty() || tags.containsAll(requiredTags);
+    }
+
     /**
      * Number of completed requests served by this worker.
      *
@@ -103,19 +197,49 @@ public final class PoolWorker {
         return createdAt;
     }
 
+    /**
+     * Factor applied to the pool-wide reuse and lifetime limits for this worker. Values below {@code 1} come from the
+     * configured retirement jitter and make the worker retire earlier than its peers.
+     *
+     * @return limit scale in {@code (0, 1]}
+     */
+    public double limitScale() {
+        return limitScale;
+    }
+
+    /**
+     * Indicates whether a background replacement has already been launched for this worker.
+     *
+     * <p>Must be invoked while holding the shared pool lock.
+     *
+     * @return {@code true} once {@link #markReplacementReserved()} has been called
+     */
+    public boolean replacementReserved() {
+        return replacementReserved;
+    }
+
+    /**
+     * Records that the pool reserved a replacement for this worker so subsequent releases do not launch another one.
+     *
+     * <p>Must be invoked while holding the shared pool lock.
+     */
+    public void markReplacementReserved() {
+        replacementReserved = true;
+    }
+
     /**
      * Records that the worker has been leased to a caller.
      *
      * <p>Must be invoked while holding the shared pool lock.
      *
-     * @param requestId unique identifier for the lease, generated by
-     *                  {@link com.github.ulviar.icli.engine.pool.internal.lease.DefaultLeaseScope}
+     * @param requestNumber positive request number for the lease, generated by
+     *                      {@link com.github.ulviar.icli.engine.pool.internal.lease.DefaultLeaseScope}
      */
-    public void markLeased(UUID requestId) {
-        if (activeRequestId != null) {
-            throw new IllegalStateException("Worker " + id + " is already leased to " + activeRequestId);
+    public void markLeased(long requestNumber) {
+        if (activeRequestNumber != IDLE) {
+            throw new IllegalStateException("Worker " + id + " is already leased to request " + activeRequestNumber);
         }
-        activeRequestId = requestId;
+        activeRequestNumber = requestNumber;
     }
 
     /**
@@ -130,13 +254,12 @@ public final class PoolWorker {
      * idle
      */
     public boolean markReturned(Instant now) {
-        UUID currentRequest = activeRequestId;
-        if (currentRequest == null) {
+        if (activeRequestNumber == IDLE) {
             return false;
         }
         reuseCount++;
         lastUsed = now;
-        activeRequestId = null;
+        activeRequestNumber = IDLE;
         return true;
     }
 
@@ -171,13 +294,12 @@ public final class PoolWorker {
     }
 
     /**
-     * Returns the request identifier associated with the current lease, or {@code null} when idle.
+     * Returns the request number associated with the current lease, or {@code 0} when idle.
      *
-     * @return active request id or {@code null}
+     * @return active request number or {@code 0}
      */
-    @Nullable
-    public UUID activeRequestId() {
-        return activeRequestId;
+    public long activeRequestNumber() {
+        return activeRequestNumber;
     }
 
     /**
@@ -191,13 +313,35 @@ public final class PoolWorker {
         return retirementCause.get();
     }
 
+    /**
+     * Returns the worker's attachment when it is an instance of {@code type}, otherwise creates one with
+     * {@code factory} and stores it in place of any previous attachment.
+     *
+     * <p>Only the current lease holder may call this method. Leases are handed over under the pool lock, which
+     * publishes the attachment to the next holder without further synchronisation.
+     *
+     * @param type    attachment type
+     * @param factory creates the attachment from this worker's session
+     * @param <T>     attachment type
+     * @return attachment bound to this worker
+     */
+    public <T> T attachment(Class<T> type, Function<? super InteractiveSession, ? extends T> factory) {
+        Object current = attachment;
+        if (type.isInstance(current)) {
+            return type.cast(current);
+        }
+        T created = factory.apply(session);
+        attachment = created;
+        return created;
+    }
+
     @Override
     public String toString() {
         return "PoolWorker{"
                 + "id=" + id
                 + ", reuseCount=" + reuseCount
                 + ", lastUsed=" + lastUsed
-                + ", activeRequestId=" + activeRequestId
+                + ", activeRequestNumber=" + activeRequestNumber
                 + ", retirementCause=" + retirementCause.get()
                 + '}';
     }
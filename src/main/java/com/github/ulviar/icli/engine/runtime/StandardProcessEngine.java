@@ -1,28 +1,39 @@
 package com.github.ulviar.icli.engine.runtime;
 
+import com.github.ulviar.icli.engine.CapturedOutput;
 import com.github.ulviar.icli.engine.CommandDefinition;
 import com.github.ulviar.icli.engine.ExecutionOptions;
 import com.github.ulviar.icli.engine.InteractiveSession;
+import com.github.ulviar.icli.engine.OutputCapture;
+import com.github.ulviar.icli.engine.PipelineResult;
 import com.github.ulviar.icli.engine.ProcessEngine;
 import com.github.ulviar.icli.engine.ProcessResult;
 import com.github.ulviar.icli.engine.diagnostics.StreamType;
 import com.github.ulviar.icli.engine.runtime.internal.ProcessInteractiveSession;
+import com.github.ulviar.icli.engine.runtime.internal.io.DiscardOutputSink;
 import com.github.ulviar.icli.engine.runtime.internal.io.OutputSink;
 import com.github.ulviar.icli.engine.runtime.internal.io.OutputSinkFactory;
 import com.github.ulviar.icli.engine.runtime.internal.io.StreamDrainer;
 import com.github.ulviar.icli.engine.runtime.internal.io.VirtualThreadStreamDrainer;
 import com.github.ulviar.icli.engine.runtime.internal.launch.CommandLauncher;
+import com.github.ulviar.icli.engine.runtime.internal.launch.OutputRedirects;
 import com.github.ulviar.icli.engine.runtime.internal.launch.PipeCommandLauncher;
+import com.github.ulviar.icli.engine.runtime.internal.launch.PipelineLauncher;
 import com.github.ulviar.icli.engine.runtime.internal.launch.ProcessBuilderStarter;
 import com.github.ulviar.icli.engine.runtime.internal.launch.PtyCommandLauncher;
 import com.github.ulviar.icli.engine.runtime.internal.launch.TerminalAwareCommandLauncher;
 import com.github.ulviar.icli.engine.runtime.internal.shutdown.ShutdownExecutor;
 import com.github.ulviar.icli.engine.runtime.internal.shutdown.TreeAwareProcessTerminator;
+import java.lang.ProcessBuilder.Redirect;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Standard {@link ProcessEngine} implementation that launches commands using pipes or PTY transport based on the
@@ -58,6 +69,7 @@ public final class StandardProcessEngine implements ProcessEngine {
     private final StreamDrainer streamDrainer;
     private final ShutdownExecutor shutdownExecutor;
     private final Clock clock;
+    private final PipelineLauncher pipelineLauncher = new PipelineLauncher();
 
     public StandardProcessEngine() {
         this(
@@ -87,35 +99,165 @@ public final class StandardProcessEngine implements ProcessEngine {
      */
     @Override
     public ProcessResult run(CommandDefinition spec, ExecutionOptions options) {
+        RunningCommand running = start(spec, options);
+        int exitCode;
+        try {
+            shutdownExecutor.awaitCompletion(running.process(), options.shutdownPlan(), options.destroyProcessTree());
+            exitCode = waitForExit(running.process());
+            waitForPump(running.stdoutPump());
+            waitForPump(running.stderrPump());
+        } catch (RuntimeException ex) {
+            running.discardSpills();
+            throw ex;
+        }
+        return running.result(exitCode, Duration.between(running.started(), clock.instant()), options);
+    }
+
+    /**
+     * Execute {@code spec} without blocking any thread on the child: {@link Process#onExit()} is composed with the
+     * output drains, and the shutdown plan is enforced by a shared timer that only sends signals. Cancelling the
+     * returned future force-kills the process (and its tree when {@link ExecutionOptions#destroyProcessTree()} is set).
+     */
+    @Override
+    public CompletableFuture<ProcessResult> runAsync(CommandDefinition spec, ExecutionOptions options) {
+        RunningCommand running;
+        try {
+            running = start(spec, options);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        Process process = running.process();
+        CompletableFuture<Integer> completion = shutdownExecutor
+                .supervise(process, options.shutdownPlan(), options.destroyProcessTree())
+                .thenCombine(
+                        CompletableFuture.allOf(running.stdoutPump(), running.stderrPump()),
+                        (exited, _) -> exited.exitValue());
+        CompletableFuture<ProcessResult> result = completion.handle((exitCode, failure) -> {
+            if (failure != null) {
+                running.discardSpills();
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause()
+                        : failure;
+                throw new ProcessEngineExecutionException("Failed to drain process output", cause);
+            }
+            return running.result(exitCode, Duration.between(running.started(), clock.instant()), options);
+        });
+        result.whenComplete((_, failure) -> {
+            if (failure instanceof CancellationException) {
+                shutdownExecutor.kill(process, options.destroyProcessTree());
+                completion.whenComplete((_, _) -> running.discardSpills());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Launches {@code spec} and starts draining whatever output the operating system did not redirect.
+     */
+    private RunningCommand start(CommandDefinition spec, ExecutionOptions options) {
         boolean redirectErrorStream = options.mergeErrorIntoOutput();
-        CommandLauncher.LaunchedProcess launched = launcher.launch(spec, redirectErrorStream);
+        OutputRedirects requested = new OutputRedirects(
+                redirectOf(options.stdoutPolicy()),
+                redirectErrorStream ? Redirect.PIPE : redirectOf(options.stderrPolicy()));
+        CommandLauncher.LaunchedProcess launched = launcher.launch(spec, redirectErrorStream, requested);
         Process process = launched.process();
         closeQuietly(process.getOutputStream());
+        OutputRedirects applied = launched.redirects();
+        boolean drainStdout = applied.stdoutPiped();
+        boolean drainStderr = !redirectErrorStream && applied.stderrPiped();
 
         StreamType stdoutStream = redirectErrorStream ? StreamType.MERGED : StreamType.STDOUT;
-        OutputSink stdoutSink = sinkFactory.create(options.stdoutPolicy(), stdoutStream, options.diagnosticsListener());
+        OutputSink stdoutSink = sinkFor(drainStdout, options.stdoutPolicy(), stdoutStream, options);
         OutputSink stderrSink = redirectErrorStream
                 ? stdoutSink
-                : sinkFactory.create(options.stderrPolicy(), StreamType.STDERR, options.diagnosticsListener());
+                : sinkFor(drainStderr, options.stderrPolicy(), StreamType.STDERR, options);
+
+        CompletableFuture<Void> stdoutPump = drainStdout
+                ? streamDrainer.drain(process.getInputStream(), stdoutSink)
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> stderrPump = drainStderr
+                ? streamDrainer.drain(process.getErrorStream(), stderrSink)
+                : CompletableFuture.completedFuture(null);
+        return new RunningCommand(
+                process, redirectErrorStream, stdoutSink, stderrSink, stdoutPump, stderrPump, clock.instant());
+    }
 
-        CompletableFuture<Void> stdoutPump = streamDrainer.drain(process.getInputStream(), stdoutSink);
-        CompletableFuture<Void> stderrPump = redirectErrorStream
-                ? CompletableFuture.completedFuture(null)
-                : streamDrainer.drain(process.getErrorStream(), stderrSink);
+    /**
+     * Execute {@code stages} as a native pipeline. Intermediate data never enters the JVM: only the last stage's stdout
+     * and each stage's stderr are drained, and the shutdown plan supervises every stage together.
+     */
+    @Override
+    public PipelineResult runPipeline(List<CommandDefinition> stages, ExecutionOptions options) {
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("stages must not be empty");
+        }
+        boolean redirectErrorStream = options.mergeErrorIntoOutput();
+        OutputRedirects redirects = new OutputRedirects(
+                redirectOf(options.stdoutPolicy()),
+                redirectErrorStream ? Redirect.PIPE : redirectOf(options.stderrPolicy()));
+        List<Process> processes = pipelineLauncher.launch(stages, redirectErrorStream, redirects);
+        closeQuietly(processes.getFirst().getOutputStream());
+        boolean drainStderr = !redirectErrorStream && redirects.stderrPiped();
+
+        StreamType stdoutStream = redirectErrorStream ? StreamType.MERGED : StreamType.STDOUT;
+        OutputSink stdoutSink = sinkFor(redirects.stdoutPiped(), options.stdoutPolicy(), stdoutStream, options);
+        List<OutputSink> stderrSinks = new ArrayList<>(processes.size());
+        List<CompletableFuture<Void>> pumps = new ArrayList<>(processes.size() + 1);
+        if (redirects.stdoutPiped()) {
+            pumps.add(streamDrainer.drain(processes.getLast().getInputStream(), stdoutSink));
+        }
+        for (Process process : processes) {
+            OutputSink stderrSink = sinkFor(drainStderr, options.stderrPolicy(), StreamType.STDERR, options);
+            stderrSinks.add(stderrSink);
+            if (drainStderr) {
+                pumps.add(streamDrainer.drain(process.getErrorStream(), stderrSink));
+            }
+        }
 
         Instant start = clock.instant();
-        shutdownExecutor.awaitCompletion(process, options.shutdownPlan(), options.destroyProcessTree());
-        int exitCode = waitForExit(process);
-        waitForPump(stdoutPump);
-        if (!redirectErrorStream) {
-            waitForPump(stderrPump);
+        List<Integer> exitCodes = new ArrayList<>(processes.size());
+        try {
+            shutdownExecutor.awaitCompletion(processes, options.shutdownPlan(), options.destroyProcessTree());
+            for (Process process : processes) {
+                exitCodes.add(waitForExit(process));
+            }
+            pumps.forEach(StandardProcessEngine::waitForPump);
+        } catch (RuntimeException ex) {
+            stdoutSink.close();
+            stdoutSink.spilledOutput().ifPresent(CapturedOutput::close);
+            for (OutputSink sink : stderrSinks) {
+                sink.close();
+                sink.spilledOutput().ifPresent(CapturedOutput::close);
+            }
+            throw ex;
         }
 
         Duration duration = Duration.between(start, clock.instant());
-        String stdout = stdoutSink.content();
-        String stderr = redirectErrorStream ? "" : stderrSink.content();
+        List<CapturedOutput> stderrOutputs = new ArrayList<>(stderrSinks.size());
+        for (OutputSink sink : stderrSinks) {
+            stderrOutputs.add(sink.capturedOutput(options.stderrPolicy().charset()));
+        }
+        return new PipelineResult(
+                exitCodes,
+                stdoutSink.capturedOutput(options.stdoutPolicy().charset()),
+                stderrOutputs,
+                Optional.of(duration));
+    }
+
+    /**
+     * Creates the sink for one stream. Streams the operating system redirected are never read, so they get a sink
+     * that stays empty.
+     */
+    private OutputSink sinkFor(boolean drained, OutputCapture policy, StreamType stream, ExecutionOptions options) {
+        return drained ? sinkFactory.create(policy, stream, options.diagnosticsListener()) : new DiscardOutputSink();
+    }
 
-        return new ProcessResult(exitCode, stdout, stderr, Optional.of(duration));
+    /**
+     * Maps a capture policy to the operating-system redirect it needs; everything except
+     * {@link OutputCapture.Redirected} is drained through a pipe.
+     */
+    private static Redirect redirectOf(OutputCapture policy) {
+        return policy instanceof OutputCapture.Redirected redirected ? redirected.target() : Redirect.PIPE;
     }
 
     @Override
@@ -168,4 +310,32 @@ public final class StandardProcessEngine implements ProcessEngine {
             throw new ProcessEngineExecutionException("Failed to drain process output", ex);
         }
     }
+
+    /**
+     * A launched command whose output is being drained.
+     */
+    private record RunningCommand(
+            Process process,
+            boolean mergedStderr,
+            OutputSink stdoutSink,
+            OutputSink stderrSink,
+            CompletableFuture<Void> stdoutPump,
+            CompletableFuture<Void> stderrPump,
+            Instant started) {
+
+        ProcessResult result(int exitCode, Duration duration, ExecutionOptions options) {
+            CapturedOutput stdoutOutput = stdoutSink.capturedOutput(options.stdoutPolicy().charset());
+            CapturedOutput stderrOutput = mergedStderr
+                    ? CapturedOutput.of("", options.stderrPolicy().charset())
+                    : stderrSink.capturedOutput(options.stderrPolicy().charset());
+            return new ProcessResult(exitCode, stdoutOutput, stderrOutput, Optional.of(duration));
+        }
+
+        void discardSpills() {
+            stdoutSink.close();
+            stderrSink.close();
+            stdoutSink.spilledOutput().ifPresent(CapturedOutput::close);
+            stderrSink.spilledOutput().ifPresent(CapturedOutput::close);
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.github.ulviar.icli.engine.runtime.internal.io;
 
+import com.github.ulviar.icli.engine.CapturedOutput;
 import com.github.ulviar.icli.engine.diagnostics.DiagnosticsEvent;
 import com.github.ulviar.icli.engine.diagnostics.DiagnosticsListener;
 import com.github.ulviar.icli.engine.diagnostics.StreamType;
@@ -50,6 +51,11 @@ public final class BoundedOutputSink implements OutputSink {
         return buffer.toString(charset);
     }
 
+    @Override
+    public CapturedOutput capturedOutput(Charset policyCharset) {
+        return CapturedOutput.wrap(buffer.toByteArray(), charset);
+    }
+
     private void emitTruncated(byte[] data, int offset, int discardedLength) {
         if (discardedLength <= 0) {
             return;
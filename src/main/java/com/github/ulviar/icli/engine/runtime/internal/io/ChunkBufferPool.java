@@ -0,0 +1,64 @@
+package com.github.ulviar.icli.engine.runtime.internal.io;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded free list of fixed-size read buffers shared by the drains of one {@link VirtualThreadStreamDrainer}. Each
+ * launched process borrows two buffers (stdout and stderr) for the lifetime of its drains and returns them at EOF, so
+ * steady-state execution allocates no read buffers at all. When the free list is empty a fresh buffer is allocated;
+ * when it is full a returned buffer is simply dropped.
+ *
+ * <p>Heap arrays are used rather than direct buffers because {@link java.io.InputStream#read(byte[])} fills arrays;
+ * a direct buffer would add a copy instead of removing one.
+ */
+final class ChunkBufferPool {
+
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+    static final int DEFAULT_CAPACITY = 64;
+
+    private final int bufferSize;
+    private final ArrayBlockingQueue<byte[]> free;
+
+    ChunkBufferPool() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_CAPACITY);
+    }
+
+    ChunkBufferPool(int bufferSize, int capacity) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Borrows a buffer. The caller owns it exclusively until it is passed to {@link #release(byte[])}.
+     *
+     * @return a buffer of the pool's size
+     */
+    byte[] acquire() {
+        byte[] buffer = free.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    /**
+     * Returns a borrowed buffer. The caller must not touch it afterwards.
+     *
+     * @param buffer buffer previously obtained from {@link #acquire()}
+     */
+    void release(byte[] buffer) {
+        if (buffer.length == bufferSize) {
+            free.offer(buffer);
+        }
+    }
+
+    /**
+     * @return number of buffers currently available for reuse
+     */
+    int available() {
+        return free.size();
+    }
+}
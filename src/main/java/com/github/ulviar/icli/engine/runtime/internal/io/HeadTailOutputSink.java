@@ -0,0 +1,147 @@
+package com.github.ulviar.icli.engine.runtime.internal.io;
+
+import com.github.ulviar.icli.engine.CapturedOutput;
+import com.github.ulviar.icli.engine.diagnostics.DiagnosticsEvent;
+import com.github.ulviar.icli.engine.diagnostics.DiagnosticsListener;
+import com.github.ulviar.icli.engine.diagnostics.StreamType;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * In-memory sink that keeps the first {@code headBytes} and the last {@code tailBytes} of process output. The tail is
+ * held in a ring buffer that grows up to {@code tailBytes} while output is short and is never reallocated once full, so
+ * runaway output costs one bounded copy per chunk and no allocation. Bytes dropped between the head and the tail are
+ * counted rather than reported individually: a single {@link DiagnosticsEvent.OutputTruncated} summary is emitted from
+ * {@link #complete()}.
+ */
+public final class HeadTailOutputSink implements OutputSink {
+
+    private static final int INITIAL_RING_SIZE = 8192;
+
+    private final byte[] head;
+    private final int tailCapacity;
+    private final Charset charset;
+    private final StreamType stream;
+    private final DiagnosticsListener diagnostics;
+    private int headSize;
+    private byte[] ring;
+    private int ringStart;
+    private int ringSize;
+    private long discarded;
+    private boolean completed;
+
+    public HeadTailOutputSink(
+            long headBytes, long tailBytes, Charset charset, StreamType stream, DiagnosticsListener diagnostics) {
+        if (headBytes < 0 || tailBytes < 0 || headBytes + tailBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("headBytes and tailBytes must be non-negative and fit in an array");
+        }
+        if (headBytes + tailBytes == 0) {
+            throw new IllegalArgumentException("headBytes + tailBytes must be positive");
+        }
+        this.head = new byte[(int) headBytes];
+        this.tailCapacity = (int) tailBytes;
+        this.ring = new byte[Math.min(tailCapacity, INITIAL_RING_SIZE)];
+        this.charset = charset;
+        this.stream = stream;
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public void append(byte[] data, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        int toHead = Math.min(length, head.length - headSize);
+        if (toHead > 0) {
+            System.arraycopy(data, offset, head, headSize, toHead);
+            headSize += toHead;
+            offset += toHead;
+            length -= toHead;
+        }
+        if (length > 0) {
+            appendTail(data, offset, length);
+        }
+    }
+
+    @Override
+    public String content() {
+        return new String(retainedBytes(), charset);
+    }
+
+    @Override
+    public CapturedOutput capturedOutput(Charset policyCharset) {
+        return CapturedOutput.wrap(retainedBytes(), charset);
+    }
+
+    /**
+     * Emits the aggregated truncation summary, if any bytes were dropped. Subsequent calls are ignored.
+     */
+    @Override
+    public void complete() {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        if (discarded > 0) {
+            diagnostics.onEvent(new DiagnosticsEvent.OutputTruncated(
+                    stream, new byte[0], charset, (long) headSize + ringSize, discarded));
+        }
+    }
+
+    /**
+     * @return number of bytes dropped between the retained head and tail so far
+     */
+    public long discardedBytes() {
+        return discarded;
+    }
+
+    /**
+     * Assembles the head, the truncation marker when bytes were dropped between head and tail, and the tail into one
+     * exact-sized array.
+     */
+    private byte[] retainedBytes() {
+        byte[] marker = headSize > 0 && discarded > 0
+                ? ("\n... [" + discarded + " bytes truncated] ...\n").getBytes(charset)
+                : new byte[0];
+        byte[] retained = Arrays.copyOf(head, headSize + marker.length + ringSize);
+        System.arraycopy(marker, 0, retained, headSize, marker.length);
+        int tailOffset = headSize + marker.length;
+        int firstPart = Math.min(ringSize, ring.length - ringStart);
+        System.arraycopy(ring, ringStart, retained, tailOffset, firstPart);
+        System.arraycopy(ring, 0, retained, tailOffset + firstPart, ringSize - firstPart);
+        return retained;
+    }
+
+    private void appendTail(byte[] data, int offset, int length) {
+        if (tailCapacity == 0) {
+            discarded += length;
+            return;
+        }
+        if (length >= tailCapacity) {
+            discarded += ringSize + (long) (length - tailCapacity);
+            if (ring.length < tailCapacity) {
+                ring = new byte[tailCapacity];
+            }
+            System.arraycopy(data, offset + length - tailCapacity, ring, 0, tailCapacity);
+            ringStart = 0;
+            ringSize = tailCapacity;
+            return;
+        }
+        int needed = ringSize + length;
+        if (needed > ring.length && ring.length < tailCapacity) {
+            // The ring has not wrapped yet (ringStart == 0), so a plain copy preserves order.
+            ring = Arrays.copyOf(ring, Math.min(tailCapacity, Math.max(needed, ring.length * 2)));
+        }
+        int overflow = Math.max(0, needed - tailCapacity);
+        if (overflow > 0) {
+            discarded += overflow;
+            ringStart = (ringStart + overflow) % ring.length;
+            ringSize -= overflow;
+        }
+        int writeAt = (ringStart + ringSize) % ring.length;
+        int firstPart = Math.min(length, ring.length - writeAt);
+        System.arraycopy(data, offset, ring, writeAt, firstPart);
+        System.arraycopy(data, offset + firstPart, ring, 0, length - firstPart);
+        ringSize += length;
+    }
+}
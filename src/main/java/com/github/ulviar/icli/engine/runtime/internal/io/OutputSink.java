@@ -1,5 +1,9 @@
 package com.github.ulviar.icli.engine.runtime.internal.io;
 
+import com.github.ulviar.icli.engine.CapturedOutput;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
 /**
  * Contract for accumulating process output emitted by the child process. Implementations can retain the bytes in memory
  * (for bounded summaries), stream them elsewhere, or discard them entirely depending on the configured capture mode.
@@ -15,8 +19,44 @@ public interface OutputSink {
      */
     void append(byte[] buffer, int offset, int length);
 
+    /**
+     * Signals that the source stream reached EOF and no further chunks will arrive. Sinks that aggregate diagnostics
+     * emit their summaries here and sinks writing to files flush and close them. The default implementation does
+     * nothing.
+     */
+    default void complete() {}
+
+    /**
+     * Releases whatever the sink still holds open when capture is abandoned before {@link #complete()}, for example
+     * because draining failed or the run was cancelled. Sinks may drop chunks appended afterwards. Calling it more than
+     * once has no effect; the default implementation does nothing.
+     */
+    default void close() {}
+
     /**
      * @return the textual representation accumulated so far, using the sink's configured charset/semantics.
      */
     String content();
+
+    /**
+     * Returns output that was moved out of memory, if any. When present, ownership passes to the caller, who must
+     * close it; {@link #content()} then no longer reflects the captured bytes.
+     *
+     * @return spilled output, or empty when everything was kept in memory
+     */
+    default Optional<CapturedOutput> spilledOutput() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the captured output as a byte-level view: the spilled output when present, otherwise the in-memory
+     * capture. Sinks that retain raw bytes override this to hand them over undecoded; the default wraps
+     * {@link #content()}.
+     *
+     * @param charset charset of the capture policy, used by sinks that only expose decoded text
+     * @return captured output; ownership of spilled output passes to the caller
+     */
+    default CapturedOutput capturedOutput(Charset charset) {
+        return spilledOutput().orElseGet(() -> CapturedOutput.of(content(), charset));
+    }
 }
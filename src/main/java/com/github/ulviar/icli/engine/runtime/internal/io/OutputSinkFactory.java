@@ -26,6 +26,16 @@ public final class OutputSinkFactory {
                 Charset charset = bounded.charset();
                 return new BoundedOutputSink(maxBytes, charset, stream, diagnostics);
             }
+            case OutputCapture.Tail tail -> {
+                return new HeadTailOutputSink(0, tail.maxBytes(), tail.charset(), stream, diagnostics);
+            }
+            case OutputCapture.HeadAndTail headAndTail -> {
+                return new HeadTailOutputSink(
+                        headAndTail.headBytes(), headAndTail.tailBytes(), headAndTail.charset(), stream, diagnostics);
+            }
+            case OutputCapture.Spilling spilling -> {
+                return new SpillingOutputSink(spilling.memoryThreshold(), spilling.directory(), spilling.charset());
+            }
             case OutputCapture.Streaming streaming -> {
                 Charset charset = streaming.charset();
                 return new StreamingOutputSink(charset, stream, diagnostics);
@@ -33,6 +43,13 @@ public final class OutputSinkFactory {
             case OutputCapture.Discard _ -> {
                 return new DiscardOutputSink();
             }
+            case OutputCapture.Redirected redirected -> {
+                // Reached only when the launcher drained the stream itself; it accepts nothing but DISCARD there.
+                if (!redirected.target().equals(ProcessBuilder.Redirect.DISCARD)) {
+                    throw new IllegalStateException("Redirect was not applied by the launcher: " + redirected.target());
+                }
+                return new DiscardOutputSink();
+            }
             default -> {}
         }
         throw new UnsupportedOperationException("Unknown output capture policy: " + policy);
@@ -0,0 +1,93 @@
+package com.github.ulviar.icli.engine.runtime.internal.io;
+
+import com.github.ulviar.icli.engine.CapturedOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link CapturedOutput} backed by the temporary file written by a {@link SpillingOutputSink}. Closing deletes the
+ * file.
+ */
+final class SpilledCapturedOutput implements CapturedOutput {
+
+    private final Path file;
+    private final long size;
+    private final Charset charset;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SpilledCapturedOutput(Path file, long size, Charset charset) {
+        this.file = file;
+        this.size = size;
+        this.charset = charset;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Charset charset() {
+        return charset;
+    }
+
+    @Override
+    public Optional<Path> file() {
+        return Optional.of(file);
+    }
+
+    @Override
+    public InputStream openStream() {
+        ensureOpen();
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open spilled output " + file, ex);
+        }
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        ensureOpen();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException(
+                    "Spilled output of " + size + " bytes is too large to map; use openStream()");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to map spilled output " + file, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // best effort cleanup; the file lives in a temporary directory
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpilledCapturedOutput[file=" + file + ", size=" + size + "]";
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("Spilled output has been closed");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.ulviar.icli.engine.runtime.internal.io;
+
+import com.github.ulviar.icli.engine.CapturedOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sink that buffers output in memory up to {@code memoryThreshold} bytes and streams everything beyond that to a
+ * temporary file through a {@link FileChannel}. Output that never crosses the threshold behaves like an unbounded
+ * in-memory capture; spilled output is surfaced through {@link #spilledOutput()} and {@link #content()} stays empty.
+ * {@link #close()} releases the file channel on failure paths that never reach {@link #complete()}.
+ *
+ * <p>Every method synchronizes on the sink. A failure path may close the sink while its drain thread is still
+ * appending, so the lock guarantees that a chunk is either fully written before {@link #close()} or dropped after it,
+ * and that no spill file is created once the sink is closed.</p>
+ */
+public final class SpillingOutputSink implements OutputSink {
+
+    private final int memoryThreshold;
+    private final Path directory;
+    private final Charset charset;
+    private final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private @Nullable Path file;
+    private @Nullable FileChannel channel;
+    private long spilledBytes;
+    private boolean closed;
+
+    public SpillingOutputSink(long memoryThreshold, Path directory, Charset charset) {
+        if (memoryThreshold < 0 || memoryThreshold > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("memoryThreshold must be between 0 and " + Integer.MAX_VALUE);
+        }
+        this.memoryThreshold = (int) memoryThreshold;
+        this.directory = directory;
+        this.charset = charset;
+    }
+
+    @Override
+    public synchronized void append(byte[] buffer, int offset, int length) {
+        if (length <= 0 || closed) {
+            return;
+        }
+        FileChannel target = channel;
+        if (target == null && memory.size() + (long) length <= memoryThreshold) {
+            memory.write(buffer, offset, length);
+            return;
+        }
+        try {
+            if (target == null) {
+                target = spill();
+            }
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, offset, length);
+            while (chunk.hasRemaining()) {
+                spilledBytes += target.write(chunk);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to spill output to " + directory, ex);
+        }
+    }
+
+    @Override
+    public synchronized void complete() {
+        FileChannel target = channel;
+        if (target != null) {
+            channel = null;
+            try {
+                target.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to close spill file " + file, ex);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        FileChannel target = channel;
+        channel = null;
+        if (target != null) {
+            try {
+                target.close();
+            } catch (IOException ignored) {
+                // the capture is being discarded, so there is nothing left to flush
+            }
+        }
+    }
+
+    @Override
+    public synchronized String content() {
+        return file == null ? memory.toString(charset) : "";
+    }
+
+    @Override
+    public synchronized Optional<CapturedOutput> spilledOutput() {
+        Path spilled = file;
+        return spilled == null
+                ? Optional.empty()
+                : Optional.of(new SpilledCapturedOutput(spilled, spilledBytes, charset));
+    }
+
+    @Override
+    public synchronized CapturedOutput capturedOutput(Charset policyCharset) {
+        return spilledOutput().orElseGet(() -> CapturedOutput.wrap(memory.toByteArray(), charset));
+    }
+
+    private FileChannel spill() throws IOException {
+        Path created = Files.createTempFile(directory, "icli-output-", ".bin");
+        FileChannel opened;
+        try {
+            opened = FileChannel.open(created, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            Files.deleteIfExists(created);
+            throw ex;
+        }
+        file = created;
+        channel = opened;
+        memory.writeTo(Channels.newOutputStream(opened));
+        spilledBytes = memory.size();
+        memory.reset();
+        return opened;
+    }
+}
@@ -1,19 +1,24 @@
 package com.github.ulviar.icli.engine.runtime.internal.io;
 
-import com.github.ulviar.icli.engine.diagnostics.DiagnosticsEvent;
 import com.github.ulviar.icli.engine.diagnostics.DiagnosticsListener;
 import com.github.ulviar.icli.engine.diagnostics.StreamType;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.util.Arrays;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Streaming sink that forwards every observed chunk to diagnostics listeners without retaining any data in memory.
+ * Chunks are handed over as read-only views of the drainer's read buffer via
+ * {@link DiagnosticsListener#onOutput(StreamType, java.nio.ByteBuffer, Charset)}; the view is rebuilt only when the
+ * drainer switches buffers, so steady-state streaming neither copies nor allocates.
  */
 public final class StreamingOutputSink implements OutputSink {
 
     private final Charset charset;
     private final StreamType stream;
     private final DiagnosticsListener diagnostics;
+    private byte @Nullable [] viewSource;
+    private @Nullable ByteBuffer view;
 
     public StreamingOutputSink(Charset charset, StreamType stream, DiagnosticsListener diagnostics) {
         this.charset = charset;
@@ -26,8 +31,18 @@ public final class StreamingOutputSink implements OutputSink {
         if (length <= 0) {
             return;
         }
-        byte[] payload = Arrays.copyOfRange(buffer, offset, offset + length);
-        diagnostics.onEvent(new DiagnosticsEvent.OutputChunk(stream, payload, charset));
+        diagnostics.onOutput(stream, viewOf(buffer, offset, length), charset);
+    }
+
+    private ByteBuffer viewOf(byte[] buffer, int offset, int length) {
+        ByteBuffer current = view;
+        if (current == null || viewSource != buffer) {
+            current = ByteBuffer.wrap(buffer).asReadOnlyBuffer();
+            view = current;
+            viewSource = buffer;
+        }
+        current.limit(offset + length).position(offset);
+        return current;
     }
 
     @Override
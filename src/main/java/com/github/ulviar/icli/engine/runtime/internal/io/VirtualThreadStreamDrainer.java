@@ -10,24 +10,38 @@ import java.util.concurrent.Executors;
 /**
  * {@link StreamDrainer} backed by virtual threads so stdout/stderr pumps never block the main execution thread or starve
  * other work. Each drain operation owns its own virtual thread and completes a
- * {@link java.util.concurrent.CompletableFuture} once EOF is observed or an I/O error occurs.
+ * {@link java.util.concurrent.CompletableFuture} once EOF is observed or an I/O error occurs. Read buffers are
+ * borrowed from a {@link ChunkBufferPool} owned by the drainer and returned when the drain finishes, so sinks must not
+ * retain the array passed to {@link OutputSink#append(byte[], int, int)} beyond the call.
  */
 public final class VirtualThreadStreamDrainer implements StreamDrainer, AutoCloseable {
 
     private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ChunkBufferPool buffers;
+
+    public VirtualThreadStreamDrainer() {
+        this(new ChunkBufferPool());
+    }
+
+    VirtualThreadStreamDrainer(ChunkBufferPool buffers) {
+        this.buffers = buffers;
+    }
 
     @Override
     public CompletableFuture<Void> drain(InputStream source, OutputSink sink) {
         return CompletableFuture.runAsync(
                 () -> {
+                    byte[] buffer = buffers.acquire();
                     try (InputStream in = source) {
-                        byte[] buffer = new byte[8192];
                         int read;
                         while ((read = in.read(buffer)) != -1) {
                             sink.append(buffer, 0, read);
                         }
+                        sink.complete();
                     } catch (IOException ex) {
                         throw new UncheckedIOException(ex);
+                    } finally {
+                        buffers.release(buffer);
                     }
                 },
                 executor);
@@ -20,14 +20,38 @@ public interface CommandLauncher {
      */
     LaunchedProcess launch(CommandDefinition spec, boolean redirectErrorStream);
 
-    record LaunchedProcess(Process process, List<String> commandLine, TerminalController terminalController) {
+    /**
+     * Launch the supplied command, asking the operating system to wire stdout/stderr to {@code redirects}. Launchers
+     * that cannot redirect start the process with pipes; {@link LaunchedProcess#redirects()} reports what was applied
+     * so callers can drain any stream that was not redirected.
+     *
+     * @param spec                fully prepared {@link CommandDefinition}
+     * @param redirectErrorStream whether stderr should be merged into stdout by the underlying process
+     * @param redirects           requested destinations for stdout and stderr
+     *
+     * @return {@link LaunchedProcess} containing the live {@link Process} and the applied redirects
+     */
+    default LaunchedProcess launch(CommandDefinition spec, boolean redirectErrorStream, OutputRedirects redirects) {
+        return launch(spec, redirectErrorStream);
+    }
+
+    record LaunchedProcess(
+            Process process,
+            List<String> commandLine,
+            TerminalController terminalController,
+            OutputRedirects redirects) {
 
         /**
          * @param process     live child process handle
          * @param commandLine effective argv used to start the process (defensively copied)
+         * @param redirects   destinations actually applied to stdout and stderr
          */
         public LaunchedProcess {
             commandLine = List.copyOf(commandLine);
         }
+
+        public LaunchedProcess(Process process, List<String> commandLine, TerminalController terminalController) {
+            this(process, commandLine, terminalController, OutputRedirects.PIPES);
+        }
     }
 }
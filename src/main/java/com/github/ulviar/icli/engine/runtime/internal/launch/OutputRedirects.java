@@ -0,0 +1,30 @@
+package com.github.ulviar.icli.engine.runtime.internal.launch;
+
+import java.lang.ProcessBuilder.Redirect;
+
+/**
+ * Destinations for a child's stdout and stderr. {@link Redirect#PIPE} means the runtime drains the stream itself;
+ * anything else is wired by the operating system so the child writes straight to the target.
+ *
+ * @param stdout destination for standard output
+ * @param stderr destination for standard error (ignored when stderr is merged into stdout)
+ */
+public record OutputRedirects(Redirect stdout, Redirect stderr) {
+
+    /** Both streams piped back to the runtime. */
+    public static final OutputRedirects PIPES = new OutputRedirects(Redirect.PIPE, Redirect.PIPE);
+
+    /**
+     * @return {@code true} when the runtime must drain stdout
+     */
+    public boolean stdoutPiped() {
+        return stdout.type() == Redirect.Type.PIPE;
+    }
+
+    /**
+     * @return {@code true} when the runtime must drain stderr
+     */
+    public boolean stderrPiped() {
+        return stderr.type() == Redirect.Type.PIPE;
+    }
+}
@@ -20,11 +20,17 @@ public final class PipeCommandLauncher implements CommandLauncher {
 
     @Override
     public LaunchedProcess launch(CommandDefinition spec, boolean redirectErrorStream) {
+        return launch(spec, redirectErrorStream, OutputRedirects.PIPES);
+    }
+
+    @Override
+    public LaunchedProcess launch(CommandDefinition spec, boolean redirectErrorStream, OutputRedirects redirects) {
         if (spec.terminalPreference() == TerminalPreference.REQUIRED) {
             throw new UnsupportedOperationException("PTY execution is not available yet.");
         }
         List<String> commandLine = CommandLineBuilder.compose(spec);
-        Process process = starter.start(commandLine, spec.workingDirectory(), spec.environment(), redirectErrorStream);
-        return new LaunchedProcess(process, commandLine, TerminalController.NO_OP);
+        Process process = starter.start(
+                commandLine, spec.workingDirectory(), spec.environment(), redirectErrorStream, redirects);
+        return new LaunchedProcess(process, commandLine, TerminalController.NO_OP, redirects);
     }
 }
@@ -0,0 +1,56 @@
+package com.github.ulviar.icli.engine.runtime.internal.launch;
+
+import com.github.ulviar.icli.engine.CommandDefinition;
+import com.github.ulviar.icli.engine.TerminalPreference;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts a chain of commands through {@link ProcessBuilder#startPipeline(List)} so each stage's stdout is connected to
+ * the next stage's stdin by the operating system. Only the first stage's stdin, the last stage's stdout, and every
+ * stage's stderr remain visible to the runtime.
+ */
+public final class PipelineLauncher {
+
+    /**
+     * Launch {@code stages} as one pipeline.
+     *
+     * @param stages              commands in pipeline order
+     * @param redirectErrorStream whether each stage's stderr is merged into its stdout
+     * @param redirects           destination of the last stage's stdout and of every stage's stderr
+     *
+     * @return live processes in stage order
+     *
+     * @throws UnsupportedOperationException when a stage requires a terminal
+     * @throws UncheckedIOException          when the pipeline cannot be started
+     */
+    public List<Process> launch(
+            List<CommandDefinition> stages, boolean redirectErrorStream, OutputRedirects redirects) {
+        List<ProcessBuilder> builders = new ArrayList<>(stages.size());
+        for (CommandDefinition stage : stages) {
+            if (stage.terminalPreference() == TerminalPreference.REQUIRED) {
+                throw new UnsupportedOperationException("Pipeline stages cannot run in a terminal: " + stage.command());
+            }
+            ProcessBuilder builder = new ProcessBuilder(CommandLineBuilder.compose(stage));
+            Path workingDirectory = stage.workingDirectory();
+            if (workingDirectory != null) {
+                builder.directory(workingDirectory.toFile());
+            }
+            builder.environment().putAll(stage.environment());
+            builder.redirectErrorStream(redirectErrorStream);
+            if (!redirectErrorStream) {
+                builder.redirectError(redirects.stderr());
+            }
+            builders.add(builder);
+        }
+        builders.getLast().redirectOutput(redirects.stdout());
+        try {
+            return ProcessBuilder.startPipeline(builders);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to start pipeline of " + stages.size() + " stages", ex);
+        }
+    }
+}
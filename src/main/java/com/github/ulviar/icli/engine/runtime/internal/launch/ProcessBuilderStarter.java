@@ -19,12 +19,26 @@ public final class ProcessBuilderStarter implements ProcessStarter {
             @Nullable Path workingDirectory,
             Map<String, String> environment,
             boolean redirectErrorStream) {
+        return start(commandLine, workingDirectory, environment, redirectErrorStream, OutputRedirects.PIPES);
+    }
+
+    @Override
+    public Process start(
+            List<String> commandLine,
+            @Nullable Path workingDirectory,
+            Map<String, String> environment,
+            boolean redirectErrorStream,
+            OutputRedirects redirects) {
         ProcessBuilder builder = new ProcessBuilder(commandLine);
         if (workingDirectory != null) {
             builder.directory(workingDirectory.toFile());
         }
         builder.environment().putAll(environment);
         builder.redirectErrorStream(redirectErrorStream);
+        builder.redirectOutput(redirects.stdout());
+        if (!redirectErrorStream) {
+            builder.redirectError(redirects.stderr());
+        }
         try {
             return builder.start();
         } catch (IOException ex) {
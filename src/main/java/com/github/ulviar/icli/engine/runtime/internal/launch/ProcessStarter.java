@@ -23,4 +23,27 @@ public interface ProcessStarter {
             @Nullable Path workingDirectory,
             Map<String, String> environment,
             boolean redirectErrorStream);
+
+    /**
+     * Start a process whose stdout/stderr are wired to {@code redirects}. Starters that cannot redirect accept only
+     * {@link OutputRedirects#PIPES}.
+     *
+     * @param commandLine         argv list (already merged with shell wrapper if required)
+     * @param workingDirectory    optional working directory
+     * @param environment         environment variables to apply on top of the system defaults
+     * @param redirectErrorStream whether stderr should be merged into stdout
+     * @param redirects           destinations for stdout and stderr
+     * @return running {@link Process}
+     */
+    default Process start(
+            List<String> commandLine,
+            @Nullable Path workingDirectory,
+            Map<String, String> environment,
+            boolean redirectErrorStream,
+            OutputRedirects redirects) {
+        if (!redirects.equals(OutputRedirects.PIPES)) {
+            throw new UnsupportedOperationException("Output redirects are not supported by " + getClass().getName());
+        }
+        return start(commandLine, workingDirectory, environment, redirectErrorStream);
+    }
 }
@@ -2,6 +2,7 @@ package com.github.ulviar.icli.engine.runtime.internal.launch;
 
 import com.github.ulviar.icli.engine.CommandDefinition;
 import com.github.ulviar.icli.engine.TerminalPreference;
+import java.lang.ProcessBuilder.Redirect;
 
 /** Chooses between pipe and PTY launchers based on {@link TerminalPreference}. */
 public final class TerminalAwareCommandLauncher implements CommandLauncher {
@@ -21,4 +22,30 @@ public final class TerminalAwareCommandLauncher implements CommandLauncher {
             case REQUIRED -> pty.launch(spec, redirectErrorStream);
         };
     }
+
+    /**
+     * Pipe launches honour {@code redirects}. A PTY has a single terminal stream, so PTY launches start without
+     * redirects and the caller drains the terminal output; only {@link Redirect#DISCARD} can be emulated that way, so
+     * other redirects are rejected before anything is launched.
+     */
+    @Override
+    public LaunchedProcess launch(CommandDefinition spec, boolean redirectErrorStream, OutputRedirects redirects) {
+        TerminalPreference preference = spec.terminalPreference();
+        return switch (preference) {
+            case DISABLED, AUTO -> pipe.launch(spec, redirectErrorStream, redirects);
+            case REQUIRED -> {
+                requireEmulable(redirects.stdout());
+                if (!redirectErrorStream) {
+                    requireEmulable(redirects.stderr());
+                }
+                yield pty.launch(spec, redirectErrorStream);
+            }
+        };
+    }
+
+    private static void requireEmulable(Redirect redirect) {
+        if (redirect.type() != Redirect.Type.PIPE && !redirect.equals(Redirect.DISCARD)) {
+            throw new UnsupportedOperationException("PTY-backed commands cannot redirect output to " + redirect);
+        }
+    }
 }
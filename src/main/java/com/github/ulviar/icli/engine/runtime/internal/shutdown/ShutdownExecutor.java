@@ -3,6 +3,10 @@ package com.github.ulviar.icli.engine.runtime.internal.shutdown;
 import com.github.ulviar.icli.engine.ShutdownPlan;
 import com.github.ulviar.icli.engine.ShutdownSignal;
 import com.github.ulviar.icli.engine.runtime.ProcessShutdownException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -15,9 +19,15 @@ import java.util.concurrent.TimeUnit;
 public final class ShutdownExecutor {
 
     private final ProcessTerminator terminator;
+    private final ScheduledExecutorService timer;
 
     public ShutdownExecutor(ProcessTerminator terminator) {
+        this(terminator, ShutdownTimer.shared());
+    }
+
+    ShutdownExecutor(ProcessTerminator terminator, ScheduledExecutorService timer) {
         this.terminator = terminator;
+        this.timer = timer;
     }
 
     public void awaitCompletion(Process process, ShutdownPlan plan, boolean destroyTree) {
@@ -34,4 +44,77 @@ public final class ShutdownExecutor {
             throw new ProcessShutdownException("Interrupted while waiting for process completion", ex);
         }
     }
+
+    /**
+     * Supervises {@code process} without blocking the caller. The soft timeout and grace period are enforced by the
+     * shared timer, which signals the process and escalates to a force kill; pending timer tasks are cancelled as soon
+     * as the process exits.
+     *
+     * @return future completed with the process once it has exited
+     */
+    public CompletableFuture<Process> supervise(Process process, ShutdownPlan plan, boolean destroyTree) {
+        CompletableFuture<Process> exit = process.onExit();
+        ScheduledFuture<?> soft = timer.schedule(
+                () -> {
+                    terminator.terminate(process, destroyTree, plan.signal() == ShutdownSignal.KILL);
+                    ScheduledFuture<?> hard = timer.schedule(
+                            () -> terminator.terminate(process, destroyTree, true),
+                            plan.gracePeriod().toNanos(),
+                            TimeUnit.NANOSECONDS);
+                    exit.whenComplete((_, _) -> hard.cancel(false));
+                },
+                plan.softTimeout().toNanos(),
+                TimeUnit.NANOSECONDS);
+        exit.whenComplete((_, _) -> soft.cancel(false));
+        return exit;
+    }
+
+    /**
+     * Force-kills {@code process}, for example when an asynchronous run is cancelled.
+     */
+    public void kill(Process process, boolean destroyTree) {
+        terminator.terminate(process, destroyTree, true);
+    }
+
+    /**
+     * Supervises a group of processes that share one {@link ShutdownPlan}, such as the stages of a pipeline. The soft
+     * timeout and grace period are measured for the group as a whole: once the soft timeout elapses every surviving
+     * process is terminated, and stragglers are force-killed after the grace period.
+     */
+    public void awaitCompletion(List<Process> processes, ShutdownPlan plan, boolean destroyTree) {
+        try {
+            int running = awaitAll(processes, 0, System.nanoTime() + plan.softTimeout().toNanos());
+            if (running < processes.size()) {
+                terminateFrom(processes, running, destroyTree, plan.signal() == ShutdownSignal.KILL);
+                running = awaitAll(processes, running, System.nanoTime() + plan.gracePeriod().toNanos());
+                if (running < processes.size()) {
+                    terminateFrom(processes, running, destroyTree, true);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            terminateFrom(processes, 0, destroyTree, true);
+            throw new ProcessShutdownException("Interrupted while waiting for pipeline completion", ex);
+        }
+    }
+
+    /**
+     * Waits for the processes starting at {@code from} until {@code deadline}.
+     *
+     * @return index of the first process still running, or {@code processes.size()} when all have exited
+     */
+    private static int awaitAll(List<Process> processes, int from, long deadline) throws InterruptedException {
+        for (int i = from; i < processes.size(); i++) {
+            if (!processes.get(i).waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return i;
+            }
+        }
+        return processes.size();
+    }
+
+    private void terminateFrom(List<Process> processes, int from, boolean destroyTree, boolean force) {
+        for (int i = from; i < processes.size(); i++) {
+            terminator.terminate(processes.get(i), destroyTree, force);
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.github.ulviar.icli.engine.runtime.internal.shutdown;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Lazily created, process-wide timer that fires soft and hard timeouts for asynchronously supervised processes. One
+ * daemon thread serves every supervised process, and it only ever sends signals, so no thread waits on a child.
+ * Timeouts cancelled because the process exited early are removed from the queue immediately.
+ */
+final class ShutdownTimer {
+
+    private ShutdownTimer() {}
+
+    static ScheduledExecutorService shared() {
+        return Holder.TIMER;
+    }
+
+    private static final class Holder {
+        private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+        private static ScheduledThreadPoolExecutor createTimer() {
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(
+                    1, Thread.ofPlatform().name("icli-shutdown-timer").daemon().factory());
+            timer.setRemoveOnCancelPolicy(true);
+            return timer;
+        }
+    }
+}
@@ -4,6 +4,7 @@ module com.github.ulviar.icli {
     requires pty4j;
 
     exports com.github.ulviar.icli.engine;
+    exports com.github.ulviar.icli.engine.cache;
     exports com.github.ulviar.icli.engine.runtime;
     exports com.github.ulviar.icli.engine.diagnostics;
     exports com.github.ulviar.icli.engine.pool.api;
@@ -0,0 +1,161 @@
+package com.github.ulviar.icli.client
+
+import com.github.ulviar.icli.engine.CommandDefinition
+import com.github.ulviar.icli.engine.ExecutionOptions
+import com.github.ulviar.icli.engine.InteractiveSession
+import com.github.ulviar.icli.engine.ProcessEngine
+import com.github.ulviar.icli.engine.ProcessResult
+import com.github.ulviar.icli.testing.ImmediateClientScheduler
+import java.util.Optional
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Consumer
+import java.util.stream.Stream
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class CommandBatchTest {
+    private val engine = AsyncEngine()
+    private val runner =
+        CommandRunner(
+            engine,
+            CommandDefinition.builder().command(listOf("tool")).build(),
+            ExecutionOptions.builder().build(),
+            ImmediateClientScheduler(),
+            LineDelimitedResponseDecoder(),
+        )
+
+    @AfterTest
+    fun tearDown() {
+        engine.close()
+    }
+
+    @Test
+    fun `never runs more than the configured number of processes`() {
+        val batch = runner.runAll(commands((1..20).map { "ok-$it" }), 3)
+
+        assertEquals(20, batch.results.size)
+        assertTrue(batch.results.all { it.success })
+        assertTrue(engine.peak.get() <= 3)
+        assertEquals(20, batch.metrics.submitted)
+        assertEquals(20, batch.metrics.succeeded)
+        assertTrue(batch.metrics.peakProcesses in 1..3)
+    }
+
+    @Test
+    fun `submission order lines results up with the input`() {
+        val inputs = listOf("ok-slow", "ok-a", "ok-b")
+
+        val batch = runner.runAll(commands(inputs), 3)
+
+        assertEquals(inputs, batch.results.map { it.value })
+    }
+
+    @Test
+    fun `completion order reports the fastest command first`() {
+        val policy = BatchPolicy.of(3).withOrder(BatchPolicy.Order.COMPLETION)
+
+        val batch = runner.runAll(commands(listOf("ok-slow", "ok-fast")), policy)
+
+        assertEquals(listOf("ok-fast", "ok-slow"), batch.results.map { it.value })
+    }
+
+    @Test
+    fun `collect all keeps running after failures`() {
+        val batch = runner.runAll(commands(listOf("fail", "ok-a", "ok-b")), 1)
+
+        assertEquals(listOf(false, true, true), batch.results.map { it.success })
+        assertTrue(batch.results.first().error is ProcessExecutionException)
+        assertEquals(1, batch.metrics.failed)
+    }
+
+    @Test
+    fun `fail fast stops drawing commands and cancels running ones`() {
+        val policy = BatchPolicy.of(2).withFailure(BatchPolicy.Failure.FAIL_FAST)
+
+        val batch = runner.runAll(commands(listOf("hang", "fail", "ok-a", "ok-b")), policy)
+
+        assertEquals(2, batch.metrics.submitted)
+        assertEquals(1, batch.metrics.failed)
+        assertEquals(1, batch.metrics.cancelled)
+        assertTrue(batch.results.first().error is CancellationException)
+        assertEquals(listOf("hang", "fail"), engine.started)
+    }
+
+    @Test
+    fun `failing customizer stream cancels running commands and rethrows`() {
+        val customizers =
+            Stream.concat(
+                commands(listOf("hang")),
+                Stream.generate<Consumer<CommandCallBuilder>> { throw IllegalStateException("broken source") }.limit(1),
+            )
+
+        val error = assertFailsWith<IllegalStateException> { runner.runAll(customizers, 2) }
+
+        assertEquals("broken source", error.message)
+        assertEquals(listOf("hang"), engine.started)
+        assertEquals(0, engine.running.get())
+    }
+
+    @Test
+    fun `rejects non-positive parallelism`() {
+        assertFailsWith<IllegalArgumentException> { BatchPolicy.of(0) }
+    }
+
+    private fun commands(names: List<String>): Stream<Consumer<CommandCallBuilder>> =
+        names.stream().map { name -> Consumer<CommandCallBuilder> { it.arg(name) } }
+
+    private class AsyncEngine : ProcessEngine {
+        private val timer = Executors.newScheduledThreadPool(4)
+        val running = AtomicInteger()
+        val peak = AtomicInteger()
+        val started: MutableList<String> = CopyOnWriteArrayList()
+
+        override fun run(
+            spec: CommandDefinition,
+            options: ExecutionOptions,
+        ): ProcessResult = throw UnsupportedOperationException("not used")
+
+        override fun runAsync(
+            spec: CommandDefinition,
+            options: ExecutionOptions,
+        ): CompletableFuture<ProcessResult> {
+            val name = spec.command().last()
+            started += name
+            peak.accumulateAndGet(running.incrementAndGet()) { a, b -> maxOf(a, b) }
+            val future = CompletableFuture<ProcessResult>()
+            future.whenComplete { _, _ -> running.decrementAndGet() }
+            val delay =
+                when (name) {
+                    "hang" -> return future
+                    "ok-slow" -> 100L
+                    else -> 5L
+                }
+            timer.schedule(
+                {
+                    val exitCode = if (name == "fail") 1 else 0
+                    future.complete(ProcessResult(exitCode, name, "", Optional.empty()))
+                },
+                delay,
+                TimeUnit.MILLISECONDS,
+            )
+            return future
+        }
+
+        override fun startSession(
+            spec: CommandDefinition,
+            options: ExecutionOptions,
+        ): InteractiveSession = throw UnsupportedOperationException("not used")
+
+        fun close() {
+            timer.shutdownNow()
+        }
+    }
+}
@@ -9,11 +9,13 @@ import com.github.ulviar.icli.engine.ProcessResult
 import com.github.ulviar.icli.engine.TerminalPreference
 import com.github.ulviar.icli.testing.ImmediateClientScheduler
 import com.github.ulviar.icli.testing.RecordingExecutionEngine
+import com.github.ulviar.icli.testing.ScriptedInteractiveSession
 import java.time.Duration
 import java.util.Optional
 import kotlin.test.BeforeTest
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
 import kotlin.test.assertFalse
 import kotlin.test.assertSame
 import kotlin.test.assertTrue
@@ -159,4 +161,33 @@ class CommandRunnerTest {
         assertEquals(listOf("python"), error.call().command().command())
         assertEquals("python", error.call().renderCommandLine())
     }
+
+    @Test
+    fun `lines streams stdout and reports the exit code once consumed`() {
+        val session = ScriptedInteractiveSession()
+        session.queueResponse("alpha")
+        session.queueResponse("beta")
+        engine.sessionHandleFactory = { session }
+
+        runner.lines().use { lines ->
+            assertFailsWith<IllegalStateException> { lines.exitCode() }
+
+            assertEquals(listOf("alpha", "beta"), lines.stream().toList())
+            assertEquals(0, lines.exitCode())
+            assertEquals("", lines.stderr())
+        }
+
+        assertTrue(session.stdinClosed)
+        assertTrue(session.closed)
+        assertEquals(Duration.ZERO, engine.lastSessionOptions?.idleTimeout())
+    }
+
+    @Test
+    fun `lines wraps start failures`() {
+        engine.sessionStartFailures.add(IllegalStateException("boom"))
+
+        val error = assertFailsWith<CommandRunnerException> { runner.lines() }
+
+        assertEquals("boom", error.cause?.message)
+    }
 }
@@ -0,0 +1,77 @@
+package com.github.ulviar.icli.client
+
+import java.io.ByteArrayInputStream
+import java.io.InputStream
+import java.nio.charset.Charset
+import java.nio.charset.StandardCharsets
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class IncrementalLineDecoderTest {
+
+    @Test
+    fun `splits lines and strips carriage returns`() {
+        assertEquals(listOf("one", "two", "", "three"), decode("one\r\ntwo\n\nthree".toByteArray()))
+    }
+
+    @Test
+    fun `trailing terminator does not produce an empty line`() {
+        assertEquals(listOf("a", "b"), decode("a\nb\n".toByteArray()))
+        assertEquals(emptyList(), decode(ByteArray(0)))
+    }
+
+    @Test
+    fun `multi-byte characters survive single-byte reads`() {
+        val text = "žluťoučký\nкот\r\n🙂\n"
+
+        assertEquals(listOf("žluťoučký", "кот", "🙂"), decode(text.toByteArray(), chunk = 1))
+    }
+
+    @Test
+    fun `lines longer than the buffer span chunks`() {
+        val long = "x".repeat(IncrementalLineDecoder.BUFFER_SIZE * 3 + 7)
+        val crossing = "y".repeat(IncrementalLineDecoder.BUFFER_SIZE - 1) + "\r"
+
+        val lines = decode("$long\n$crossing\nend".toByteArray(), chunk = 1000)
+
+        assertEquals(listOf(long, crossing.dropLast(1), "end"), lines)
+    }
+
+    @Test
+    fun `malformed input is replaced`() {
+        val bytes = byteArrayOf(0x61, 0xFF.toByte(), 0x0A, 0xC3.toByte())
+
+        assertEquals(listOf("a\uFFFD", "\uFFFD"), decode(bytes))
+    }
+
+    @Test
+    fun `decodes with the configured charset`() {
+        val bytes = "café\n".toByteArray(StandardCharsets.ISO_8859_1)
+
+        assertEquals(listOf("café"), decode(bytes, charset = StandardCharsets.ISO_8859_1))
+    }
+
+    private fun decode(
+        bytes: ByteArray,
+        chunk: Int = Int.MAX_VALUE,
+        charset: Charset = StandardCharsets.UTF_8,
+    ): List<String> {
+        val decoder = IncrementalLineDecoder(ChunkedInputStream(bytes, chunk), charset)
+        return generateSequence { decoder.readLine() }.toList()
+    }
+
+    private class ChunkedInputStream(
+        bytes: ByteArray,
+        private val chunk: Int,
+    ) : InputStream() {
+        private val delegate = ByteArrayInputStream(bytes)
+
+        override fun read(): Int = delegate.read()
+
+        override fun read(
+            b: ByteArray,
+            off: Int,
+            len: Int,
+        ): Int = delegate.read(b, off, minOf(len, chunk))
+    }
+}
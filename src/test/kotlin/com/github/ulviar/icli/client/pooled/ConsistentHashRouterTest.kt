@@ -0,0 +1,103 @@
+package com.github.ulviar.icli.client.pooled
+
+import com.github.ulviar.icli.engine.pool.api.PreferredWorker
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNotEquals
+import kotlin.test.assertTrue
+
+class ConsistentHashRouterTest {
+
+    @Test
+    fun `empty ring routes to any worker`() {
+        val router = ConsistentHashRouter(ConsistentHashRouting.of { it })
+
+        assertEquals(PreferredWorker.any(), router.route("key"))
+        assertEquals(0, router.metrics().routed)
+    }
+
+    @Test
+    fun `same key keeps routing to the same worker`() {
+        val router = routerWithWorkers(0, 1, 2, 3)
+
+        val first = router.route("alpha")
+        repeat(10) { assertEquals(first, router.route("alpha")) }
+        assertTrue(first.hasSpecificWorker())
+    }
+
+    @Test
+    fun `key function decides which inputs share a worker`() {
+        val router = routerWithWorkers(0, 1, 2, 3, keyFunction = { it.substringBefore(' ') })
+
+        assertEquals(router.route("tenant-7 first"), router.route("tenant-7 second"))
+    }
+
+    @Test
+    fun `overloaded owner spills to the next worker on the ring`() {
+        val router = routerWithWorkers(0, 1, loadFactor = 1.0)
+        val owner = router.route("alpha")
+        router.started(owner, owner.workerId())
+        router.started(owner, owner.workerId())
+
+        val spilled = router.route("alpha")
+
+        assertNotEquals(owner, spilled)
+        assertEquals(1, router.metrics().spilled)
+
+        router.finished(owner.workerId())
+        router.finished(owner.workerId())
+        assertEquals(owner, router.route("alpha"))
+    }
+
+    @Test
+    fun `retiring a worker only remaps its own keys`() {
+        val router = routerWithWorkers(0, 1, 2, 3)
+        val keys = (0 until 200).map { "key-$it" }
+        val before = keys.associateWith { router.route(it).workerId() }
+
+        router.workerRetired(2)
+        val after = keys.associateWith { router.route(it).workerId() }
+
+        keys.forEach { key ->
+            if (before.getValue(key) != 2) {
+                assertEquals(before.getValue(key), after.getValue(key), "key $key moved")
+            } else {
+                assertNotEquals(2, after.getValue(key))
+            }
+        }
+        assertEquals(3, router.metrics().workers)
+    }
+
+    @Test
+    fun `started records hits and misses against the preference`() {
+        val router = routerWithWorkers(0, 1)
+        val preference = router.route("alpha")
+
+        router.started(preference, preference.workerId())
+        router.started(preference, 1 - preference.workerId())
+        router.started(PreferredWorker.any(), 0)
+
+        val metrics = router.metrics()
+        assertEquals(1, metrics.hits)
+        assertEquals(1, metrics.misses)
+    }
+
+    @Test
+    fun `load factor below one is rejected`() {
+        assertFailsWith<IllegalArgumentException> { ConsistentHashRouting({ it }, 0.5) }
+    }
+
+    private fun routerWithWorkers(
+        vararg workerIds: Int,
+        keyFunction: (String) -> String = { it },
+        loadFactor: Double = 1.25,
+    ): ConsistentHashRouter {
+        val router = ConsistentHashRouter(ConsistentHashRouting({ keyFunction(it) }, loadFactor))
+        workerIds.forEach { id ->
+            router.started(PreferredWorker.any(), id)
+            router.finished(id)
+        }
+        return router
+    }
+}
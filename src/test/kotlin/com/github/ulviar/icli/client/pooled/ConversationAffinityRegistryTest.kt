@@ -0,0 +1,74 @@
+package com.github.ulviar.icli.client.pooled
+
+import java.time.Duration
+import java.util.OptionalInt
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class ConversationAffinityRegistryTest {
+    private val clock = AtomicLong()
+
+    @Test
+    fun `reservation consumes remembered worker and counts hits and misses`() {
+        val registry = registry()
+        registry.remember(ConversationAffinity.key("user-1"), 3)
+
+        assertEquals(OptionalInt.of(3), registry.reserve(ConversationAffinity.key("user-1")))
+        registry.recordReservation(3, 3)
+        assertEquals(OptionalInt.empty(), registry.reserve(ConversationAffinity.key("user-1")))
+
+        assertEquals(ConversationAffinityMetrics(1, 1, 0, 0, 0), registry.metrics())
+    }
+
+    @Test
+    fun `least recently remembered key is evicted beyond capacity`() {
+        val registry = registry(maxEntries = 2)
+        registry.remember(ConversationAffinity.key("a"), 1)
+        registry.remember(ConversationAffinity.key("b"), 2)
+        registry.remember(ConversationAffinity.key("c"), 3)
+
+        assertEquals(OptionalInt.empty(), registry.reserve(ConversationAffinity.key("a")))
+        assertEquals(OptionalInt.of(3), registry.reserve(ConversationAffinity.key("c")))
+        assertEquals(1, registry.metrics().evictions)
+    }
+
+    @Test
+    fun `expired entry is reported as stale`() {
+        val registry = registry(ttl = Duration.ofSeconds(1))
+        registry.remember(ConversationAffinity.key("a"), 1)
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos())
+
+        assertEquals(OptionalInt.empty(), registry.reserve(ConversationAffinity.key("a")))
+        assertEquals(1, registry.metrics().stale)
+    }
+
+    @Test
+    fun `worker retirement invalidates every key mapped to it`() {
+        val registry = registry()
+        registry.remember(ConversationAffinity.key("a"), 1)
+        registry.remember(ConversationAffinity.key("b"), 1)
+        registry.remember(ConversationAffinity.key("c"), 2)
+
+        registry.workerRetired(1)
+
+        assertEquals(OptionalInt.empty(), registry.reserve(ConversationAffinity.key("a")))
+        assertEquals(OptionalInt.empty(), registry.reserve(ConversationAffinity.key("b")))
+        assertEquals(OptionalInt.of(2), registry.reserve(ConversationAffinity.key("c")))
+    }
+
+    @Test
+    fun `reservation that lands on another worker counts as stale`() {
+        val registry = registry()
+
+        registry.recordReservation(4, 7)
+
+        assertEquals(ConversationAffinityMetrics(0, 0, 1, 0, 0), registry.metrics())
+    }
+
+    private fun registry(
+        maxEntries: Int = 16,
+        ttl: Duration = Duration.ofMinutes(1),
+    ): ConversationAffinityRegistry = ConversationAffinityRegistry.EnabledRegistry(maxEntries, ttl) { clock.get() }
+}
@@ -2,17 +2,25 @@ package com.github.ulviar.icli.client.pooled
 
 import com.github.ulviar.icli.client.ClientScheduler
 import com.github.ulviar.icli.client.CommandResult
+import com.github.ulviar.icli.engine.ExecutionOptions
 import com.github.ulviar.icli.engine.InteractiveSession
 import com.github.ulviar.icli.engine.ShutdownSignal
 import com.github.ulviar.icli.engine.pool.api.LeaseScope
+import com.github.ulviar.icli.engine.pool.api.WorkerLease
+import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest
 import java.io.IOException
 import java.io.InputStream
 import java.io.OutputStream
 import java.io.UncheckedIOException
+import java.time.Duration
+import java.time.Instant
+import java.util.UUID
 import java.util.concurrent.Callable
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
 import java.util.concurrent.LinkedBlockingQueue
 import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
 
 class InlineScheduler : ClientScheduler {
     var submissions: Int = 0
@@ -102,16 +110,66 @@ class FakeInteractiveSession(
     }
 }
 
+class StubWorkerLease(
+    responder: (String) -> String,
+) : WorkerLease {
+    private val session = FakeInteractiveSession(responder)
+    private val scope = StubLeaseScope()
+
+    val closeCount = AtomicInteger()
+    val manualResets = AtomicInteger()
+    val retirements = AtomicInteger()
+
+    override fun session(): InteractiveSession = session
+
+    override fun executionOptions(): ExecutionOptions = ExecutionOptions.builder().build()
+
+    override fun scope(): LeaseScope = scope
+
+    override fun reset(request: ResetRequest) {
+        when (request.reason()) {
+            ResetRequest.Reason.MANUAL -> manualResets.incrementAndGet()
+            ResetRequest.Reason.CLIENT_RETIRE -> retirements.incrementAndGet()
+            else -> Unit
+        }
+    }
+
+    override fun close() {
+        closeCount.incrementAndGet()
+    }
+}
+
+class StubLeaseScope : LeaseScope {
+    private val id = UUID.randomUUID()
+    private val createdAt = Instant.now()
+
+    override fun requestId(): UUID = id
+
+    override fun workerId(): Int = 1
+
+    override fun leaseStart(): Instant = createdAt
+
+    override fun workerCreatedAt(): Instant = createdAt
+
+    override fun reuseCount(): Long = 0
+}
+
 class RecordingListener : ServiceProcessorListener {
-    val startedInputs = mutableListOf<String>()
-    val completed = mutableListOf<LeaseScope>()
-    val failures = mutableListOf<Throwable>()
+    val startedInputs = CopyOnWriteArrayList<String>()
+    val completed = CopyOnWriteArrayList<LeaseScope>()
+    val failures = CopyOnWriteArrayList<Throwable>()
     var conversationOpenedCount = 0
     var conversationClosingCount = 0
     var conversationClosedCount = 0
     var conversationResetCount = 0
     val resetSignals = mutableListOf<ConversationReset>()
     val retirements = mutableListOf<ConversationRetirement>()
+    val spilledOver = CopyOnWriteArrayList<Pair<String, CommandResult<String>>>()
+    val spilloverRejections = CopyOnWriteArrayList<String>()
+    val hedgedInputs = CopyOnWriteArrayList<String>()
+    val cacheHits = CopyOnWriteArrayList<String>()
+    val cacheMisses = CopyOnWriteArrayList<String>()
+    val coalesced = CopyOnWriteArrayList<String>()
 
     override fun requestStarted(
         scope: LeaseScope,
@@ -134,6 +192,37 @@ class RecordingListener : ServiceProcessorListener {
         failures += error
     }
 
+    override fun requestSpilledOver(
+        input: String,
+        result: CommandResult<String>,
+        latency: Duration,
+    ) {
+        spilledOver += input to result
+    }
+
+    override fun spilloverRejected(input: String) {
+        spilloverRejections += input
+    }
+
+    override fun requestHedged(
+        input: String,
+        delay: Duration,
+    ) {
+        hedgedInputs += input
+    }
+
+    override fun cacheHit(input: String) {
+        cacheHits += input
+    }
+
+    override fun cacheMiss(input: String) {
+        cacheMisses += input
+    }
+
+    override fun requestCoalesced(input: String) {
+        coalesced += input
+    }
+
     override fun conversationOpened(scope: LeaseScope) {
         conversationOpenedCount += 1
     }
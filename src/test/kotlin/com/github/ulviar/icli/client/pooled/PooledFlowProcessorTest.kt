@@ -0,0 +1,151 @@
+package com.github.ulviar.icli.client.pooled
+
+import com.github.ulviar.icli.client.ClientSchedulers
+import com.github.ulviar.icli.client.CommandResult
+import com.github.ulviar.icli.client.ResponseDecoder
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Flow
+import java.util.concurrent.SubmissionPublisher
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class PooledFlowProcessorTest {
+    @Test
+    fun `ordered processor preserves input order and bounds in-flight requests`() {
+        val active = AtomicInteger()
+        val peak = AtomicInteger()
+        val processor =
+            serviceProcessor { payload ->
+                peak.accumulateAndGet(active.incrementAndGet(), ::maxOf)
+                Thread.sleep((20 - payload.toLong()) % 5)
+                active.decrementAndGet()
+                "reply:$payload"
+            }.flowProcessor(3, true)
+        val subscriber = CollectingSubscriber()
+
+        processor.subscribe(subscriber)
+        SubmissionPublisher<String>().use { publisher ->
+            publisher.subscribe(processor)
+            (0 until 20).forEach { publisher.submit("$it") }
+        }
+
+        assertTrue(subscriber.done.await(5, TimeUnit.SECONDS))
+        assertEquals((0 until 20).map { "reply:$it" }, subscriber.results.map { it.value })
+        assertTrue(peak.get() <= 3, "At most three requests may run concurrently, saw ${peak.get()}")
+    }
+
+    @Test
+    fun `upstream is requested only as downstream demand allows`() {
+        val processor = serviceProcessor { payload -> payload }.flowProcessor(8, false)
+        val upstream = RecordingSubscription()
+        val subscriber = CollectingSubscriber(initialDemand = 2)
+
+        processor.subscribe(subscriber)
+        processor.onSubscribe(upstream)
+
+        assertEquals(2L, upstream.requested.get().toLong())
+
+        processor.onNext("a")
+        processor.onNext("b")
+        subscriber.awaitResults(2)
+        assertEquals(2L, upstream.requested.get().toLong(), "No demand left downstream")
+
+        subscriber.subscription.request(1)
+        assertEquals(3L, upstream.requested.get().toLong())
+    }
+
+    @Test
+    fun `downstream cancel aborts in-flight request and retires worker`() {
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        val lease =
+            StubWorkerLease { payload ->
+                started.countDown()
+                release.await()
+                payload
+            }
+        val processor =
+            ServiceProcessor(
+                { lease },
+                ClientSchedulers.virtualThreads(),
+                ResponseDecoder.lineDelimited(),
+                ServiceProcessorListener.noOp(),
+            ).flowProcessor(1, true)
+        val upstream = RecordingSubscription()
+        val subscriber = CollectingSubscriber()
+
+        processor.subscribe(subscriber)
+        processor.onSubscribe(upstream)
+        processor.onNext("slow")
+        assertTrue(started.await(5, TimeUnit.SECONDS))
+
+        subscriber.subscription.cancel()
+        release.countDown()
+
+        assertTrue(upstream.cancelled.await(5, TimeUnit.SECONDS))
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        while (lease.retirements.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+        assertEquals(1, lease.retirements.get())
+        assertTrue(subscriber.results.isEmpty())
+    }
+
+    private fun serviceProcessor(responder: (String) -> String): ServiceProcessor =
+        ServiceProcessor(
+            { StubWorkerLease(responder) },
+            ClientSchedulers.virtualThreads(),
+            ResponseDecoder.lineDelimited(),
+            ServiceProcessorListener.noOp(),
+        )
+
+    private class CollectingSubscriber(
+        private val initialDemand: Long = Long.MAX_VALUE,
+    ) : Flow.Subscriber<CommandResult<String>> {
+        val results = CopyOnWriteArrayList<CommandResult<String>>()
+        val done = CountDownLatch(1)
+        lateinit var subscription: Flow.Subscription
+
+        override fun onSubscribe(subscription: Flow.Subscription) {
+            this.subscription = subscription
+            subscription.request(initialDemand)
+        }
+
+        override fun onNext(item: CommandResult<String>) {
+            results += item
+        }
+
+        override fun onError(throwable: Throwable) {
+            done.countDown()
+        }
+
+        override fun onComplete() {
+            done.countDown()
+        }
+
+        fun awaitResults(count: Int) {
+            val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+            while (results.size < count && System.nanoTime() < deadline) {
+                Thread.sleep(5)
+            }
+            assertEquals(count, results.size)
+        }
+    }
+
+    private class RecordingSubscription : Flow.Subscription {
+        val requested = AtomicInteger()
+        val cancelled = CountDownLatch(1)
+
+        override fun request(n: Long) {
+            requested.addAndGet(n.toInt())
+        }
+
+        override fun cancel() {
+            cancelled.countDown()
+        }
+    }
+}
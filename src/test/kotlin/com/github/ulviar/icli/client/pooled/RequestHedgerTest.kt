@@ -0,0 +1,54 @@
+package com.github.ulviar.icli.client.pooled
+
+import java.time.Duration
+import java.util.Optional
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class RequestHedgerTest {
+    @Test
+    fun `no hedge delay until enough samples are observed`() {
+        val hedger = RequestHedger(HedgingPolicy.of(0.9, 0.05))
+
+        repeat(RequestHedger.MIN_SAMPLES - 1) { hedger.recordLatency(1_000) }
+        assertEquals(Optional.empty(), hedger.admit())
+
+        hedger.recordLatency(1_000)
+        assertEquals(Optional.of(Duration.ofNanos(1_000)), hedger.admit())
+    }
+
+    @Test
+    fun `hedge delay follows configured percentile and minimum delay`() {
+        val hedger = RequestHedger(HedgingPolicy(0.9, 0.05, Duration.ofNanos(50)))
+
+        (1..RequestHedger.MIN_SAMPLES).forEach { hedger.recordLatency(it * 10L) }
+
+        assertEquals(Optional.of(Duration.ofNanos(180)), hedger.admit())
+
+        val floored = RequestHedger(HedgingPolicy(0.1, 0.05, Duration.ofNanos(50)))
+        (1..RequestHedger.MIN_SAMPLES).forEach { floored.recordLatency(it * 10L) }
+        assertEquals(Optional.of(Duration.ofNanos(50)), floored.admit())
+    }
+
+    @Test
+    fun `hedge budget bounds extra load`() {
+        val hedger = RequestHedger(HedgingPolicy.of(0.9, 0.25))
+
+        repeat(3) { hedger.admit() }
+        assertFalse(hedger.tryAcquireHedge(), "Three requests accrue less than one hedge")
+
+        hedger.admit()
+        assertTrue(hedger.tryAcquireHedge())
+        assertFalse(hedger.tryAcquireHedge())
+    }
+
+    @Test
+    fun `policy rejects out of range values`() {
+        assertFailsWith<IllegalArgumentException> { HedgingPolicy.of(1.0, 0.05) }
+        assertFailsWith<IllegalArgumentException> { HedgingPolicy.of(0.9, 0.0) }
+        assertFailsWith<IllegalArgumentException> { HedgingPolicy(0.9, 0.05, Duration.ofMillis(-1)) }
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.ulviar.icli.client.pooled
+
+import com.github.ulviar.icli.client.CommandResult
+import com.github.ulviar.icli.client.ResponseDecoder
+import com.github.ulviar.icli.engine.pool.api.ServiceUnavailableException
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class ResponseCacheTest {
+    private val decoder = ResponseDecoder.lineDelimited()
+
+    @Test
+    fun `entries expire after ttl`() {
+        val clock = AtomicLong()
+        val cache = ResponseCache(ResponseCachePolicy(1L shl 20, Duration.ofNanos(100)), clock::get)
+        val loads = AtomicInteger()
+        val loader = { CommandResult.success("v${loads.incrementAndGet()}") }
+        val listener = RecordingListener()
+
+        assertEquals("v1", cache.get(decoder, "key", RequestBudget.UNBOUNDED, listener, loader).value)
+        clock.set(99)
+        assertEquals("v1", cache.get(decoder, "key", RequestBudget.UNBOUNDED, listener, loader).value)
+        clock.set(100)
+        assertEquals("v2", cache.get(decoder, "key", RequestBudget.UNBOUNDED, listener, loader).value)
+
+        assertEquals(listOf("key", "key"), listener.cacheMisses)
+        assertEquals(listOf("key"), listener.cacheHits)
+    }
+
+    @Test
+    fun `least recently used entries are evicted by size`() {
+        val entryBytes = ResponseCache.ENTRY_OVERHEAD_BYTES + 2L * ("a".length + "value".length)
+        val cache = ResponseCache(ResponseCachePolicy(entryBytes * 2, Duration.ofMinutes(1)))
+        val listener = RecordingListener()
+        val loader = { CommandResult.success("value") }
+
+        cache.get(decoder, "a", RequestBudget.UNBOUNDED, listener, loader)
+        cache.get(decoder, "b", RequestBudget.UNBOUNDED, listener, loader)
+        cache.get(decoder, "a", RequestBudget.UNBOUNDED, listener, loader)
+        cache.get(decoder, "c", RequestBudget.UNBOUNDED, listener, loader)
+
+        assertEquals(entryBytes * 2, cache.sizeBytes())
+        cache.get(decoder, "a", RequestBudget.UNBOUNDED, listener, loader)
+        cache.get(decoder, "b", RequestBudget.UNBOUNDED, listener, loader)
+        assertEquals(listOf("a", "b", "c", "b"), listener.cacheMisses)
+    }
+
+    @Test
+    fun `failures are shared but not cached`() {
+        val cache = ResponseCache(ResponseCachePolicy(1L shl 20, Duration.ofMinutes(1)))
+        val listener = RecordingListener()
+        val failure = CommandResult.failure<String>(IllegalStateException("boom"))
+
+        assertEquals(failure, cache.get(decoder, "key", RequestBudget.UNBOUNDED, listener) { failure })
+        assertEquals(
+            "ok",
+            cache.get(decoder, "key", RequestBudget.UNBOUNDED, listener) { CommandResult.success("ok") }.value,
+        )
+        assertFailsWith<IllegalStateException> {
+            cache.get(decoder, "other", RequestBudget.UNBOUNDED, listener) {
+                throw IllegalStateException("loader boom")
+            }
+        }
+    }
+
+    @Test
+    fun `concurrent identical requests share one load`() {
+        val cache = ResponseCache(ResponseCachePolicy(1L shl 20, Duration.ofMinutes(1)))
+        val listener = RecordingListener()
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        val loads = AtomicInteger()
+        val loader = {
+            loads.incrementAndGet()
+            started.countDown()
+            release.await()
+            CommandResult.success("shared")
+        }
+
+        val leader = Thread.ofVirtual().start { cache.get(decoder, "key", RequestBudget.UNBOUNDED, listener, loader) }
+        started.await()
+        val followerResult = AtomicLong()
+        val follower =
+            Thread.ofVirtual().start {
+                if (cache.get(decoder, "key", RequestBudget.UNBOUNDED, listener, loader).value == "shared") {
+                    followerResult.set(1)
+                }
+            }
+        val deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos()
+        while (listener.coalesced.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+        release.countDown()
+        leader.join()
+        follower.join()
+
+        assertEquals(1, loads.get())
+        assertEquals(listOf("key"), listener.coalesced)
+        assertTrue(followerResult.get() == 1L)
+    }
+
+    @Test
+    fun `coalesced requests wait no longer than their own deadline`() {
+        val cache = ResponseCache(ResponseCachePolicy(1L shl 20, Duration.ofMinutes(1)))
+        val listener = RecordingListener()
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        val loader = {
+            started.countDown()
+            release.await()
+            CommandResult.success("late")
+        }
+
+        val leader = Thread.ofVirtual().start { cache.get(decoder, "key", RequestBudget.UNBOUNDED, listener, loader) }
+        started.await()
+        try {
+            assertFailsWith<ServiceUnavailableException> {
+                cache.get(decoder, "key", RequestBudget.of(Duration.ofMillis(20)), listener, loader)
+            }
+            assertEquals(listOf("key"), listener.coalesced)
+        } finally {
+            release.countDown()
+            leader.join()
+        }
+    }
+}
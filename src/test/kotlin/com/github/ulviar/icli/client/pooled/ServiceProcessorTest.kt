@@ -1,13 +1,27 @@
 package com.github.ulviar.icli.client.pooled
 
+import com.github.ulviar.icli.client.ClientSchedulers
+import com.github.ulviar.icli.client.CommandResult
+import com.github.ulviar.icli.client.LineSessionTimeoutException
 import com.github.ulviar.icli.client.ResponseDecoder
+import com.github.ulviar.icli.engine.CommandDefinition
 import com.github.ulviar.icli.engine.ExecutionOptions
 import com.github.ulviar.icli.engine.InteractiveSession
+import com.github.ulviar.icli.engine.ProcessEngine
+import com.github.ulviar.icli.engine.ProcessResult
 import com.github.ulviar.icli.engine.pool.api.LeaseScope
+import com.github.ulviar.icli.engine.pool.api.ServiceUnavailableException
 import com.github.ulviar.icli.engine.pool.api.WorkerLease
 import com.github.ulviar.icli.engine.pool.api.hooks.ResetRequest
+import java.time.Duration
 import java.time.Instant
+import java.util.Optional
 import java.util.UUID
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
 import java.util.concurrent.atomic.AtomicInteger
 import kotlin.test.Test
 import kotlin.test.assertEquals
@@ -33,6 +47,18 @@ class ServiceProcessorTest {
         assertTrue(listener.failures.isEmpty())
     }
 
+    @Test
+    fun `process reuses worker-attached client across leases`() {
+        val lease = FakeWorkerLease { payload -> "reply:$payload" }
+        val processor =
+            ServiceProcessor({ lease }, InlineScheduler(), ResponseDecoder.lineDelimited(), RecordingListener())
+
+        assertEquals("reply:one", processor.process("one").value)
+        assertEquals("reply:two", processor.process("two").value)
+
+        assertEquals(1, lease.attachmentsCreated.get())
+    }
+
     @Test
     fun `process propagates failure and resets lease`() {
         val failure = java.io.UncheckedIOException("boom", java.io.IOException("boom"))
@@ -144,6 +170,424 @@ class ServiceProcessorTest {
         assertEquals(1, lease.closeCount.get())
     }
 
+    @Test
+    fun `process spills over to one-shot execution when pool is saturated`() {
+        val engine =
+            OneShotEngine { command ->
+                ProcessResult(0, "reply:${command.command().last()}\n", "", Optional.empty())
+            }
+        val listener = RecordingListener()
+        val spillover =
+            OneShotSpillover(
+                engine,
+                WORKER_COMMAND,
+                ExecutionOptions.builder().build(),
+                SpilloverPolicy.appendingInput(1),
+            )
+        val processor =
+            ServiceProcessor(
+                { throw ServiceUnavailableException("saturated") },
+                InlineScheduler(),
+                ResponseDecoder.lineDelimited(),
+                listener,
+                ServiceProcessorPolicies(null, null, spillover, null),
+            )
+
+        val result = processor.process("ping")
+
+        assertTrue(result.success)
+        assertEquals("reply:ping", result.value)
+        assertEquals(listOf(listOf("worker", "--serve", "ping")), engine.commands.map { it.command() })
+        assertEquals(listOf("ping"), listener.spilledOver.map { it.first })
+        assertTrue(listener.startedInputs.isEmpty(), "Spillover must not fire lease-scoped callbacks")
+    }
+
+    @Test
+    fun `process rethrows unavailability when spillover cap is exhausted`() {
+        val release = CountDownLatch(1)
+        val entered = CountDownLatch(1)
+        val engine =
+            OneShotEngine {
+                entered.countDown()
+                release.await()
+                ProcessResult(0, "done\n", "", Optional.empty())
+            }
+        val listener = RecordingListener()
+        val spillover =
+            OneShotSpillover(
+                engine,
+                WORKER_COMMAND,
+                ExecutionOptions.builder().build(),
+                SpilloverPolicy.appendingInput(1),
+            )
+        val processor =
+            ServiceProcessor(
+                { throw ServiceUnavailableException("saturated") },
+                InlineScheduler(),
+                ResponseDecoder.lineDelimited(),
+                listener,
+                ServiceProcessorPolicies(null, null, spillover, null),
+            )
+
+        val inFlight = Thread.ofVirtual().start { processor.process("first") }
+        entered.await()
+
+        val thrown = kotlin.test.assertFailsWith<ServiceUnavailableException> { processor.process("second") }
+
+        release.countDown()
+        inFlight.join()
+        assertEquals("saturated", thrown.message)
+        assertEquals(listOf("second"), listener.spilloverRejections)
+        assertEquals(listOf("first"), listener.spilledOver.map { it.first })
+    }
+
+    @Test
+    fun `process without spillover propagates unavailability`() {
+        val processor =
+            ServiceProcessor(
+                { throw ServiceUnavailableException("saturated") },
+                InlineScheduler(),
+                ResponseDecoder.lineDelimited(),
+                RecordingListener(),
+            )
+
+        kotlin.test.assertFailsWith<ServiceUnavailableException> { processor.process("ping") }
+    }
+
+    @Test
+    fun `process returns an unused lease when the deadline elapses while leasing`() {
+        val lease = FakeWorkerLease { payload -> "reply:$payload" }
+        val listener = RecordingListener()
+        val processor =
+            ServiceProcessor(
+                {
+                    Thread.sleep(50)
+                    lease
+                },
+                InlineScheduler(),
+                ResponseDecoder.lineDelimited(),
+                listener,
+            )
+
+        kotlin.test.assertFailsWith<ServiceUnavailableException> { processor.process("ping", Duration.ofMillis(5)) }
+
+        assertEquals(1, lease.closeCount.get())
+        assertEquals(0, lease.retireCount.get(), "A worker that never saw the request must not be retired")
+        assertEquals(0, lease.manualResetCount.get())
+        assertFalse(lease.sessionClosed())
+        assertTrue(listener.startedInputs.isEmpty())
+    }
+
+    @Test
+    fun `process bounds spilled-over runs by the remaining deadline`() {
+        val engine = OneShotEngine { ProcessResult(0, "done\n", "", Optional.empty()) }
+        val spillover =
+            OneShotSpillover(
+                engine,
+                WORKER_COMMAND,
+                ExecutionOptions.builder().build(),
+                SpilloverPolicy.appendingInput(1),
+            )
+        val processor =
+            ServiceProcessor(
+                { throw ServiceUnavailableException("saturated") },
+                InlineScheduler(),
+                ResponseDecoder.lineDelimited(),
+                RecordingListener(),
+                ServiceProcessorPolicies(null, null, spillover, null),
+            )
+
+        assertEquals("done", processor.process("ping", Duration.ofSeconds(5)).value)
+
+        val softTimeout = engine.options.single().shutdownPlan().softTimeout()
+        assertTrue(softTimeout > Duration.ZERO && softTimeout <= Duration.ofSeconds(5), "softTimeout=$softTimeout")
+    }
+
+    @Test
+    fun `process hedges stalled request and retires losing worker`() {
+        val release = CountDownLatch(1)
+        val stalled =
+            FakeWorkerLease { payload ->
+                release.await()
+                "late:$payload"
+            }
+        val fast = FakeWorkerLease { payload -> "fast:$payload" }
+        val leases = ArrayDeque(listOf(stalled, fast))
+        val hedger = RequestHedger(HedgingPolicy.of(0.5, 1.0))
+        repeat(RequestHedger.MIN_SAMPLES) { hedger.recordLatency(Duration.ofMillis(1).toNanos()) }
+        val listener = RecordingListener()
+        val processor =
+            ServiceProcessor(
+                { synchronized(leases) { leases.removeFirst() } },
+                ClientSchedulers.virtualThreads(),
+                ResponseDecoder.lineDelimited(),
+                listener,
+                ServiceProcessorPolicies(null, hedger, null, null),
+            )
+
+        val result = processor.process("ping")
+
+        assertTrue(result.success)
+        assertEquals("fast:ping", result.value)
+        assertEquals(listOf("ping"), listener.hedgedInputs)
+        assertEquals(0, fast.retireCount.get())
+        assertTrue(stalled.sessionClosed(), "Winning attempt must abort the stalled one")
+
+        release.countDown()
+        val deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos()
+        while (stalled.closeCount.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+        assertEquals(1, stalled.closeCount.get())
+        assertEquals(1, stalled.retireCount.get(), "Losing worker must be retired")
+    }
+
+    @Test
+    fun `cancelling a hedged request aborts both attempts`() {
+        val started = CountDownLatch(2)
+        val release = CountDownLatch(1)
+        val responder = { payload: String ->
+            started.countDown()
+            release.await()
+            payload
+        }
+        val primary = FakeWorkerLease(responder)
+        val hedge = FakeWorkerLease(responder)
+        val leases = ArrayDeque(listOf(primary, hedge))
+        val hedger = RequestHedger(HedgingPolicy.of(0.5, 1.0))
+        repeat(RequestHedger.MIN_SAMPLES) { hedger.recordLatency(Duration.ofMillis(1).toNanos()) }
+        val processor =
+            ServiceProcessor(
+                { synchronized(leases) { leases.removeFirst() } },
+                ClientSchedulers.virtualThreads(),
+                ResponseDecoder.lineDelimited(),
+                RecordingListener(),
+                ServiceProcessorPolicies(null, hedger, null, null),
+            )
+        val budget = RequestBudget.cancellable()
+
+        val outcome = CompletableFuture.supplyAsync { processor.process("ping", budget) }
+        assertTrue(started.await(5, TimeUnit.SECONDS))
+        budget.cancel()
+
+        assertTrue(primary.sessionClosed(), "Primary attempt must be aborted")
+        assertTrue(hedge.sessionClosed(), "Hedged attempt must be aborted")
+        release.countDown()
+        assertFalse(outcome.get(5, TimeUnit.SECONDS).success)
+        assertEquals(1, primary.retireCount.get())
+        assertEquals(1, hedge.retireCount.get())
+    }
+
+    @Test
+    fun `process serves repeated input from response cache`() {
+        val lease = FakeWorkerLease { payload -> "reply:$payload" }
+        val listener = RecordingListener()
+        val cache = ResponseCache(ResponseCachePolicy(1L shl 20, Duration.ofMinutes(1)))
+        val processor =
+            ServiceProcessor(
+                { lease },
+                InlineScheduler(),
+                ResponseDecoder.lineDelimited(),
+                listener,
+                ServiceProcessorPolicies(cache, null, null, null),
+            )
+
+        assertEquals("reply:ping", processor.process("ping").value)
+        assertEquals("reply:ping", processor.process("ping").value)
+
+        assertEquals(listOf("ping"), listener.startedInputs, "Second request must not lease a worker")
+        assertEquals(listOf("ping"), listener.cacheMisses)
+        assertEquals(listOf("ping"), listener.cacheHits)
+    }
+
+    @Test
+    fun `deadline expiry fails request with timeout and retires worker`() {
+        val lease =
+            FakeWorkerLease { payload ->
+                Thread.sleep(300)
+                "late:$payload"
+            }
+        val listener = RecordingListener()
+        val processor = ServiceProcessor({ lease }, InlineScheduler(), ResponseDecoder.lineDelimited(), listener)
+
+        val result = processor.process("slow", Duration.ofMillis(50))
+
+        assertFalse(result.success)
+        assertTrue(result.error is LineSessionTimeoutException)
+        assertEquals(1, lease.retireCount.get())
+        assertEquals(0, lease.manualResetCount.get())
+        assertEquals(1, lease.closeCount.get())
+        assertEquals(1, listener.failures.size)
+    }
+
+    @Test
+    fun `deadline bounds lease acquisition`() {
+        val lease = FakeWorkerLease { payload -> "reply:$payload" }
+        val acquireTimeouts = CopyOnWriteArrayList<Duration>()
+        val source =
+            object : LeaseSource {
+                override fun acquire(): WorkerLease = throw AssertionError("Bounded request must use timed acquire")
+
+                override fun acquire(timeout: Duration): WorkerLease {
+                    acquireTimeouts += timeout
+                    return lease
+                }
+            }
+        val processor =
+            ServiceProcessor(source, InlineScheduler(), ResponseDecoder.lineDelimited(), RecordingListener())
+
+        val result = processor.process("ping", Duration.ofSeconds(5))
+
+        assertTrue(result.success)
+        assertEquals("reply:ping", result.value)
+        assertEquals(1, acquireTimeouts.size)
+        assertTrue(acquireTimeouts[0] <= Duration.ofSeconds(5))
+        assertEquals(0, lease.retireCount.get())
+    }
+
+    @Test
+    fun `processAll preserves input order across pipelined workers`() {
+        val leases = CopyOnWriteArrayList<FakeWorkerLease>()
+        val source = LeaseSource { FakeWorkerLease { payload -> "reply:$payload" }.also { leases += it } }
+        val processor =
+            ServiceProcessor(
+                source,
+                ClientSchedulers.virtualThreads(),
+                ResponseDecoder.lineDelimited(),
+                RecordingListener(),
+            )
+        val inputs = (0 until 50).map { "in-$it" }
+
+        val results = processor.processAll(inputs, BulkPolicy(3, 4, 2))
+
+        assertEquals(inputs.map { "reply:$it" }, results.map { it.value })
+        assertTrue(leases.size <= 3, "Workers stay leased for the whole run")
+        assertTrue(leases.all { it.closeCount.get() == 1 })
+    }
+
+    @Test
+    fun `processAll leaves inputs to leased workers when the pool is smaller than the policy`() {
+        val leases = CopyOnWriteArrayList<FakeWorkerLease>()
+        val source =
+            LeaseSource {
+                synchronized(leases) {
+                    if (leases.isNotEmpty()) throw ServiceUnavailableException("saturated")
+                    FakeWorkerLease { payload -> "reply:$payload" }.also { leases += it }
+                }
+            }
+        val processor =
+            ServiceProcessor(
+                source,
+                ClientSchedulers.virtualThreads(),
+                ResponseDecoder.lineDelimited(),
+                RecordingListener(),
+            )
+        val inputs = (0 until 20).map { "in-$it" }
+
+        val results = processor.processAll(inputs, BulkPolicy(4, 2, 1))
+
+        assertEquals(inputs.map { "reply:$it" }, results.map { it.value })
+        assertEquals(1, leases.size)
+    }
+
+    @Test
+    fun `processAll renews leases before the lease limit elapses`() {
+        val leases = CopyOnWriteArrayList<FakeWorkerLease>()
+        val source =
+            object : LeaseSource {
+                override fun acquire(): WorkerLease =
+                    FakeWorkerLease { payload -> "reply:$payload" }.also { leases += it }
+
+                override fun leaseLimit(): Optional<Duration> = Optional.of(Duration.ofNanos(2))
+            }
+        val processor =
+            ServiceProcessor(
+                source,
+                ClientSchedulers.virtualThreads(),
+                ResponseDecoder.lineDelimited(),
+                RecordingListener(),
+            )
+        val inputs = (0 until 6).map { "in-$it" }
+
+        val results = processor.processAll(inputs, BulkPolicy(1, 2, 1))
+
+        assertEquals(inputs.map { "reply:$it" }, results.map { it.value })
+        assertEquals(3, leases.size, "Each window runs on a freshly acquired lease")
+        assertTrue(leases.all { it.closeCount.get() == 1 && it.retireCount.get() == 0 })
+    }
+
+    @Test
+    fun `processAll retries inputs of a failed worker on a fresh lease`() {
+        val leases = CopyOnWriteArrayList<FakeWorkerLease>()
+        val source =
+            LeaseSource {
+                val first = leases.isEmpty()
+                FakeWorkerLease { payload ->
+                    if (first && payload == "b") throw IllegalStateException("worker crashed")
+                    "reply:$payload"
+                }.also { leases += it }
+            }
+        val processor =
+            ServiceProcessor(
+                source,
+                ClientSchedulers.virtualThreads(),
+                ResponseDecoder.lineDelimited(),
+                RecordingListener(),
+            )
+
+        val results = processor.processAll(listOf("a", "b", "c"), BulkPolicy(1, 4, 2))
+
+        assertEquals(listOf("reply:a", "reply:b", "reply:c"), results.map { it.value })
+        assertEquals(2, leases.size)
+        assertEquals(1, leases[0].retireCount.get())
+    }
+
+    @Test
+    fun `processAll retires a worker whose window failed with an unexpected exception`() {
+        val leases = CopyOnWriteArrayList<FakeWorkerLease>()
+        val source = LeaseSource { FakeWorkerLease { payload -> "reply:$payload" }.also { leases += it } }
+        val failed = AtomicBoolean()
+        val listener =
+            object : ServiceProcessorListener {
+                override fun requestCompleted(
+                    scope: LeaseScope,
+                    result: CommandResult<String>,
+                ) {
+                    if (failed.compareAndSet(false, true)) {
+                        throw IllegalStateException("listener failed")
+                    }
+                }
+            }
+        val processor =
+            ServiceProcessor(source, ClientSchedulers.virtualThreads(), ResponseDecoder.lineDelimited(), listener)
+
+        val results = processor.processAll(listOf("a", "b", "c"), BulkPolicy(1, 4, 2))
+
+        assertEquals(listOf("reply:a", "reply:b", "reply:c"), results.map { it.value })
+        assertEquals(1, leases[0].retireCount.get(), "Worker with unread replies must not return to the pool as-is")
+    }
+
+    private class OneShotEngine(
+        private val responder: (CommandDefinition) -> ProcessResult,
+    ) : ProcessEngine {
+        val commands = CopyOnWriteArrayList<CommandDefinition>()
+        val options = CopyOnWriteArrayList<ExecutionOptions>()
+
+        override fun run(
+            spec: CommandDefinition,
+            options: ExecutionOptions,
+        ): ProcessResult {
+            commands += spec
+            this.options += options
+            return responder(spec)
+        }
+
+        override fun startSession(
+            spec: CommandDefinition,
+            options: ExecutionOptions,
+        ): InteractiveSession = throw UnsupportedOperationException("Not required for tests")
+    }
+
     private class FakeWorkerLease(
         responder: (String) -> String,
     ) : WorkerLease {
@@ -152,6 +596,9 @@ class ServiceProcessorTest {
 
         val closeCount = AtomicInteger()
         val manualResetCount = AtomicInteger()
+        val retireCount = AtomicInteger()
+        val attachmentsCreated = AtomicInteger()
+        private var attachment: Any? = null
 
         override fun session(): InteractiveSession = session
 
@@ -159,15 +606,31 @@ class ServiceProcessorTest {
 
         override fun scope(): LeaseScope = scope
 
+        override fun <T> attachment(
+            type: Class<T>,
+            factory: java.util.function.Function<in InteractiveSession, out T>,
+        ): T {
+            val current = attachment
+            if (type.isInstance(current)) {
+                return type.cast(current)
+            }
+            attachmentsCreated.incrementAndGet()
+            return factory.apply(session).also { attachment = it }
+        }
+
         override fun reset(request: ResetRequest) {
-            if (request.reason() == ResetRequest.Reason.MANUAL) {
-                manualResetCount.incrementAndGet()
+            when (request.reason()) {
+                ResetRequest.Reason.MANUAL -> manualResetCount.incrementAndGet()
+                ResetRequest.Reason.CLIENT_RETIRE -> retireCount.incrementAndGet()
+                else -> Unit
             }
         }
 
         override fun close() {
             closeCount.incrementAndGet()
         }
+
+        fun sessionClosed(): Boolean = session.isClosed()
     }
 
     private class TestLeaseScope(
@@ -185,4 +648,8 @@ class ServiceProcessorTest {
 
         override fun reuseCount(): Long = 0
     }
+
+    private companion object {
+        private val WORKER_COMMAND = CommandDefinition.of(listOf("worker", "--serve"))
+    }
 }
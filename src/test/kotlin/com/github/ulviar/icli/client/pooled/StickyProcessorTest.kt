@@ -0,0 +1,130 @@
+package com.github.ulviar.icli.client.pooled
+
+import com.github.ulviar.icli.client.ResponseDecoder
+import com.github.ulviar.icli.engine.pool.api.WorkerLease
+import java.time.Duration
+import java.util.Optional
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class StickyProcessorTest {
+    @Test
+    fun `consecutive requests reuse one lease until burst limit`() {
+        val source = CountingLeaseSource { payload -> "reply:$payload" }
+        val sticky = sticky(source, StickyLeasePolicy(3, Duration.ofMinutes(1)))
+
+        repeat(5) { index -> assertEquals("reply:$index", sticky.process("$index").value) }
+
+        assertEquals(2, source.leases.size)
+        assertEquals(1, source.leases[0].closeCount.get(), "First lease returns after the burst")
+        assertEquals(0, source.leases[1].closeCount.get(), "Second lease stays held for the next request")
+
+        sticky.close()
+
+        assertEquals(1, source.leases[1].closeCount.get())
+        assertFailsWith<IllegalStateException> { sticky.process("late") }
+    }
+
+    @Test
+    fun `lease is released when another caller waits for a worker`() {
+        val source = CountingLeaseSource { payload -> payload }
+        val sticky = sticky(source, StickyLeasePolicy(100, Duration.ofMinutes(1)))
+
+        sticky.process("a")
+        source.contended.set(true)
+        sticky.process("b")
+
+        assertEquals(2, source.leases.size)
+        assertTrue(source.leases.all { it.closeCount.get() == 1 })
+        sticky.close()
+    }
+
+    @Test
+    fun `failed request resets and releases lease`() {
+        val source =
+            CountingLeaseSource { payload ->
+                if (payload == "bad") throw IllegalStateException("boom") else payload
+            }
+        val listener = RecordingListener()
+        val sticky = sticky(source, StickyLeasePolicy(100, Duration.ofMinutes(1)), listener)
+
+        assertFalse(sticky.process("bad").success)
+        assertTrue(sticky.process("good").success)
+
+        assertEquals(2, source.leases.size)
+        assertEquals(1, source.leases[0].manualResets.get())
+        assertEquals(1, source.leases[0].closeCount.get())
+        assertEquals(1, listener.failures.size)
+        sticky.close()
+    }
+
+    @Test
+    fun `idle lease returns to pool in background`() {
+        val source = CountingLeaseSource { payload -> payload }
+        val sticky = sticky(source, StickyLeasePolicy(100, Duration.ofMillis(20)))
+
+        sticky.process("a")
+
+        val deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos()
+        while (source.leases[0].closeCount.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+        assertEquals(1, source.leases[0].closeCount.get())
+
+        sticky.process("b")
+        assertEquals(2, source.leases.size)
+        sticky.close()
+    }
+
+    @Test
+    fun `lease is renewed before the pool request timeout reclaims it`() {
+        val source = CountingLeaseSource(Duration.ofNanos(2)) { payload -> payload }
+        val sticky = sticky(source, StickyLeasePolicy(100, Duration.ofMinutes(1)))
+
+        repeat(3) { index -> sticky.process("$index") }
+
+        assertEquals(3, source.leases.size)
+        assertTrue(source.leases.all { it.closeCount.get() == 1 })
+        sticky.close()
+    }
+
+    @Test
+    fun `held lease returns to pool before the request timeout even when idle gap is longer`() {
+        val source = CountingLeaseSource(Duration.ofMillis(40)) { payload -> payload }
+        val sticky = sticky(source, StickyLeasePolicy(100, Duration.ofMinutes(1)))
+
+        sticky.process("a")
+
+        val deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos()
+        while (source.leases[0].closeCount.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+        assertEquals(1, source.leases[0].closeCount.get())
+        sticky.close()
+    }
+
+    private fun sticky(
+        source: LeaseSource,
+        policy: StickyLeasePolicy,
+        listener: RecordingListener = RecordingListener(),
+    ): StickyProcessor = StickyProcessor(source, InlineScheduler(), ResponseDecoder.lineDelimited(), listener, policy)
+
+    private class CountingLeaseSource(
+        private val leaseLimit: Duration? = null,
+        private val responder: (String) -> String,
+    ) : LeaseSource {
+        val leases = CopyOnWriteArrayList<StubWorkerLease>()
+        val contended = AtomicBoolean()
+
+        override fun acquire(): WorkerLease = StubWorkerLease(responder).also { leases += it }
+
+        override fun contended(): Boolean = contended.get()
+
+        override fun leaseLimit(): Optional<Duration> = Optional.ofNullable(leaseLimit)
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.ulviar.icli.engine
+
+import java.nio.charset.StandardCharsets
+import java.util.Optional
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class ProcessResultTest {
+
+    @Test
+    fun `stdout is decoded once and cached`() {
+        val result = result("héllo".toByteArray(StandardCharsets.UTF_8))
+
+        val first = result.stdout()
+
+        assertEquals("héllo", first)
+        assertSame(first, result.stdout())
+    }
+
+    @Test
+    fun `byte accessors expose the captured bytes`() {
+        val bytes = byteArrayOf(1, 2, 3)
+        val result = result(bytes)
+
+        assertContentEquals(bytes, result.stdoutBytes())
+        val buffer = result.stdoutBuffer()
+        assertTrue(buffer.isReadOnly)
+        assertEquals(3, buffer.remaining())
+        assertEquals(0, result.stderrBytes().size)
+    }
+
+    @Test
+    fun `stdoutBytes returns a defensive copy`() {
+        val result = result("abc".toByteArray())
+
+        result.stdoutBytes()[0] = 'x'.code.toByte()
+
+        assertEquals("abc", result.stdout())
+    }
+
+    @Test
+    fun `text constructor keeps byte views consistent`() {
+        val result = ProcessResult(0, "out", "err", Optional.empty())
+
+        assertContentEquals("out".toByteArray(), result.stdoutBytes())
+        assertEquals("err", result.stderr())
+        assertEquals(result, ProcessResult(0, "out", "err", Optional.empty()))
+    }
+
+    @Test
+    fun `latin-1 output decodes without replacement`() {
+        val bytes = byteArrayOf(0x63, 0xE0.toByte(), 0xFF.toByte())
+        val result =
+            ProcessResult(
+                0,
+                CapturedOutput.wrap(bytes, StandardCharsets.ISO_8859_1),
+                CapturedOutput.of("", StandardCharsets.UTF_8),
+                Optional.empty(),
+            )
+
+        assertEquals("càÿ", result.stdout())
+    }
+
+    @Test
+    fun `buffer is read-only`() {
+        val buffer = result("abc".toByteArray()).stdoutBuffer()
+
+        assertFailsWith<java.nio.ReadOnlyBufferException> { buffer.put(0, 1) }
+    }
+
+    private fun result(stdout: ByteArray): ProcessResult =
+        ProcessResult(
+            0,
+            CapturedOutput.wrap(stdout, StandardCharsets.UTF_8),
+            CapturedOutput.wrap(ByteArray(0), StandardCharsets.UTF_8),
+            Optional.empty(),
+        )
+}
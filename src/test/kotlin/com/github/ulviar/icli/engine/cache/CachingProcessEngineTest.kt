@@ -0,0 +1,230 @@
+package com.github.ulviar.icli.engine.cache
+
+import com.github.ulviar.icli.engine.CapturedOutput
+import com.github.ulviar.icli.engine.CommandDefinition
+import com.github.ulviar.icli.engine.ExecutionOptions
+import com.github.ulviar.icli.engine.InteractiveSession
+import com.github.ulviar.icli.engine.OutputCapture
+import com.github.ulviar.icli.engine.ProcessEngine
+import com.github.ulviar.icli.engine.ProcessResult
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.time.Duration
+import java.util.Optional
+import kotlin.io.path.writeText
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class CachingProcessEngineTest {
+
+    private val directory = Files.createTempDirectory("result-cache")
+    private val delegate = CountingEngine()
+    private var now = 1_000L
+    private val spec = CommandDefinition.of(listOf("tool", "--version"))
+    private val options = ExecutionOptions.builder().build()
+
+    @AfterTest
+    fun cleanUp() {
+        directory.toFile().deleteRecursively()
+    }
+
+    @Test
+    fun `repeated run is answered from memory`() {
+        val engine = engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)))
+
+        val first = engine.run(spec, options)
+        val second = engine.run(spec, options)
+
+        assertEquals(1, delegate.runs)
+        assertEquals(first.stdout(), second.stdout())
+        assertEquals("run-1", second.stdoutOutput().text())
+        val metrics = engine.metrics()
+        assertEquals(1, metrics.memoryHits)
+        assertEquals(1, metrics.misses)
+        assertEquals(0.5, metrics.hitRatio())
+    }
+
+    @Test
+    fun `environment and options are part of the key`() {
+        val engine = engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)))
+
+        engine.run(spec, options)
+        engine.run(spec.derive().putEnvironment("LANG", "C").build(), options)
+        engine.run(spec, options.derive().stdoutPolicy(OutputCapture.tail(64)).build())
+
+        assertEquals(3, delegate.runs)
+    }
+
+    @Test
+    fun `changed input file content misses`() {
+        val engine = engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)))
+        val input = directory.resolve("input.txt")
+        input.writeText("one")
+
+        engine.run(spec, options, listOf(input))
+        engine.run(spec, options, listOf(input))
+        input.writeText("two")
+        engine.run(spec, options, listOf(input))
+
+        assertEquals(2, delegate.runs)
+    }
+
+    @Test
+    fun `expired entries are executed again`() {
+        val engine = engine(ResultCachePolicy.inMemory(1024, Duration.ofSeconds(10)))
+
+        engine.run(spec, options)
+        now += 10_000
+        engine.run(spec, options)
+
+        assertEquals(2, delegate.runs)
+    }
+
+    @Test
+    fun `disk tier survives a new engine instance`() {
+        val policy = ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)).withDiskDirectory(directory)
+        engine(policy).run(spec, options)
+
+        val restarted = engine(policy)
+        val result = restarted.run(spec, options)
+
+        assertEquals(1, delegate.runs)
+        assertEquals("run-1", result.stdout())
+        assertEquals(Optional.of(Duration.ofMillis(5)), result.duration())
+        assertEquals(1, restarted.metrics().diskHits)
+        restarted.run(spec, options)
+        assertEquals(1, restarted.metrics().memoryHits)
+    }
+
+    @Test
+    fun `hits return the original bytes from both tiers`() {
+        val raw = byteArrayOf(0x61, 0xFF.toByte(), 0xFE.toByte(), 0x62)
+        delegate.stdoutBytes = raw
+        val policy = ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)).withDiskDirectory(directory)
+        val engine = engine(policy)
+        engine.run(spec, options)
+
+        val memoryHit = engine.run(spec, options)
+        val diskHit = engine(policy).run(spec, options)
+
+        assertEquals(1, delegate.runs)
+        assertContentEquals(raw, memoryHit.stdoutBytes())
+        assertContentEquals(raw, diskHit.stdoutBytes())
+        assertEquals(StandardCharsets.UTF_8, diskHit.stdoutOutput().charset())
+    }
+
+    @Test
+    fun `corrupt disk entries are treated as misses`() {
+        val policy = ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)).withDiskDirectory(directory)
+        engine(policy).run(spec, options)
+        Files.list(directory).use { files -> files.forEach { it.writeText("garbage") } }
+
+        engine(policy).run(spec, options)
+
+        assertEquals(2, delegate.runs)
+    }
+
+    @Test
+    fun `failures are cached only when requested`() {
+        delegate.exitCode = 1
+        val engine = engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)))
+        engine.run(spec, options)
+        engine.run(spec, options)
+        assertEquals(2, delegate.runs)
+
+        val caching = engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)).withCachedFailures())
+        caching.run(spec, options)
+        caching.run(spec, options)
+        assertEquals(3, delegate.runs)
+    }
+
+    @Test
+    fun `streaming output bypasses the cache`() {
+        val engine = engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)))
+        val streaming = options.derive().stdoutPolicy(OutputCapture.streaming()).build()
+
+        engine.run(spec, streaming)
+        engine.run(spec, streaming)
+
+        assertEquals(2, delegate.runs)
+        assertEquals(2, engine.metrics().bypassed)
+    }
+
+    @Test
+    fun `invalidate drops the entry from both tiers`() {
+        val engine =
+            engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)).withDiskDirectory(directory))
+        engine.run(spec, options)
+
+        engine.invalidate(spec, options)
+        engine.run(spec, options)
+        engine.invalidateAll()
+        engine.run(spec, options)
+
+        assertEquals(3, delegate.runs)
+    }
+
+    @Test
+    fun `results larger than the memory budget are not kept`() {
+        delegate.stdout = "x".repeat(1024)
+        val engine = engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)))
+
+        engine.run(spec, options)
+        engine.run(spec, options)
+
+        assertEquals(2, delegate.runs)
+        assertEquals(0, engine.metrics().memoryEntries)
+    }
+
+    @Test
+    fun `async hits complete without running the delegate`() {
+        val engine = engine(ResultCachePolicy.inMemory(1024, Duration.ofMinutes(1)))
+
+        engine.runAsync(spec, options).join()
+        val hit = engine.runAsync(spec, options)
+
+        assertEquals(true, hit.isDone)
+        assertEquals("run-1", hit.join().stdout())
+        assertEquals(1, delegate.runs)
+    }
+
+    @Test
+    fun `policy rejects non-positive limits`() {
+        assertFailsWith<IllegalArgumentException> { ResultCachePolicy.inMemory(0, Duration.ofMinutes(1)) }
+        assertFailsWith<IllegalArgumentException> { ResultCachePolicy.inMemory(1024, Duration.ZERO) }
+    }
+
+    private fun engine(policy: ResultCachePolicy) = CachingProcessEngine(delegate, policy) { now }
+
+    private class CountingEngine : ProcessEngine {
+        var runs = 0
+        var exitCode = 0
+        var stdout: String? = null
+        var stdoutBytes: ByteArray? = null
+
+        override fun run(
+            spec: CommandDefinition,
+            options: ExecutionOptions,
+        ): ProcessResult {
+            runs++
+            val bytes = stdoutBytes
+            if (bytes != null) {
+                return ProcessResult(
+                    exitCode,
+                    CapturedOutput.wrap(bytes.clone(), StandardCharsets.UTF_8),
+                    CapturedOutput.of("", StandardCharsets.UTF_8),
+                    Optional.of(Duration.ofMillis(5)),
+                )
+            }
+            return ProcessResult(exitCode, stdout ?: "run-$runs", "", Optional.of(Duration.ofMillis(5)))
+        }
+
+        override fun startSession(
+            spec: CommandDefinition,
+            options: ExecutionOptions,
+        ): InteractiveSession = throw UnsupportedOperationException()
+    }
+}
@@ -1,8 +1,10 @@
 package com.github.ulviar.icli.engine.pool.api
 
 import com.github.ulviar.icli.engine.CommandDefinition
+import com.github.ulviar.icli.engine.ExecutionOptions
 import java.time.Duration
 import kotlin.test.Test
+import kotlin.test.assertEquals
 import kotlin.test.assertFailsWith
 import kotlin.test.assertFalse
 import kotlin.test.assertTrue
@@ -51,6 +53,63 @@ class ProcessPoolConfigBuilderTest {
         assertFalse(disabled.invariantChecksEnabled())
     }
 
+    @Test
+    fun replacementThresholdAndJitterRejectOutOfRangeFractions() {
+        val builder = ProcessPoolConfig.builder(COMMAND)
+
+        assertFailsWith<IllegalArgumentException> { builder.replacementThreshold(-0.1) }
+        assertFailsWith<IllegalArgumentException> { builder.replacementThreshold(1.0) }
+        assertFailsWith<IllegalArgumentException> { builder.retirementJitter(Double.NaN) }
+        assertFailsWith<IllegalArgumentException> { builder.retirementJitter(1.5) }
+    }
+
+    @Test
+    fun launchCircuitSettingsRejectInvalidValues() {
+        val builder = ProcessPoolConfig.builder(COMMAND)
+
+        assertFailsWith<IllegalArgumentException> { builder.launchFailureThreshold(0) }
+        assertFailsWith<IllegalArgumentException> {
+            builder.launchProbeBackoff(Duration.ZERO, Duration.ofSeconds(1))
+        }
+        assertFailsWith<IllegalArgumentException> {
+            builder.launchProbeBackoff(Duration.ofSeconds(2), Duration.ofSeconds(1))
+        }
+    }
+
+    @Test
+    fun workerTemplatesStartWithDefaultAndInheritProcessTreePolicy() {
+        val full = CommandDefinition.of(listOf("fake", "--profile=full"))
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .destroyProcessTree(false)
+                .addWorkerTemplate(WorkerTemplate(setOf("full"), full, ExecutionOptions.builder().build()))
+                .build()
+
+        val templates = config.workerTemplates()
+        assertEquals(2, templates.size)
+        assertEquals(emptySet(), templates[0].tags())
+        assertEquals(COMMAND, templates[0].command())
+        assertEquals(setOf("full"), templates[1].tags())
+        assertFalse(templates[1].options().destroyProcessTree())
+    }
+
+    @Test
+    fun rolloutSurgeRejectsNegativeValues() {
+        val builder = ProcessPoolConfig.builder(COMMAND)
+
+        assertFailsWith<IllegalArgumentException> { builder.rolloutSurge(-1) }
+    }
+
+    @Test
+    fun addWorkerTemplateRejectsUntaggedTemplate() {
+        val builder = ProcessPoolConfig.builder(COMMAND)
+
+        assertFailsWith<IllegalArgumentException> {
+            builder.addWorkerTemplate(WorkerTemplate(emptySet(), COMMAND, ExecutionOptions.builder().build()))
+        }
+    }
+
     private companion object {
         private val COMMAND = CommandDefinition.of(listOf("fake"))
     }
@@ -22,6 +22,7 @@ import java.util.UUID
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.ExecutionException
 import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicBoolean
@@ -29,6 +30,7 @@ import java.util.concurrent.atomic.AtomicInteger
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
 import kotlin.test.assertNotEquals
 import kotlin.test.assertTrue
 
@@ -74,6 +76,242 @@ class ProcessPoolTest {
         }
     }
 
+    @Test
+    fun taggedAcquisitionLaunchesMatchingTemplate() {
+        val engine = FakeProcessEngine()
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .addWorkerTemplate(WorkerTemplate(setOf("full"), FULL_COMMAND, ExecutionOptions.builder().build()))
+                .maxSize(2)
+                .build()
+        val pool = ProcessPool.create(engine, config)
+
+        try {
+            val plain = pool.acquire(Duration.ofSeconds(1))
+            plain.close()
+            val tagged = pool.acquireTagged(setOf("full"), Duration.ofSeconds(1))
+            assertNotEquals(plain.scope().workerId(), tagged.scope().workerId())
+            tagged.close()
+
+            val untagged = pool.acquire(Duration.ofSeconds(1))
+            untagged.close()
+            val again = pool.acquireTagged(setOf("full"), Duration.ofSeconds(1))
+            assertEquals(tagged.scope().workerId(), again.scope().workerId())
+            again.close()
+
+            assertEquals(listOf(COMMAND, FULL_COMMAND), engine.launchedCommands.toList())
+        } finally {
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
+    @Test
+    fun taggedAcquisitionEvictsIdleWorkerOfOtherTemplateWhenFull() {
+        val engine = FakeProcessEngine()
+        val diagnostics = TrackingDiagnostics()
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .addWorkerTemplate(WorkerTemplate(setOf("full"), FULL_COMMAND, ExecutionOptions.builder().build()))
+                .minSize(1)
+                .maxSize(1)
+                .diagnosticsListener(diagnostics)
+                .build()
+        val pool = ProcessPool.create(engine, config)
+
+        try {
+            val tagged = pool.acquireTagged(setOf("full"), Duration.ofSeconds(1))
+            tagged.close()
+
+            assertEquals(listOf(1 to WorkerRetirementReason.TEMPLATE_EVICTED), diagnostics.retiredWorkers.toList())
+            assertEquals(listOf(COMMAND, FULL_COMMAND), engine.launchedCommands.toList())
+            assertEquals(1, pool.snapshot().totalWorkers())
+        } finally {
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
+    @Test
+    fun queuedTaggedWaiterIsServedAfterMismatchedRelease() {
+        val engine = FakeProcessEngine()
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .addWorkerTemplate(WorkerTemplate(setOf("full"), FULL_COMMAND, ExecutionOptions.builder().build()))
+                .maxSize(1)
+                .build()
+        val pool = ProcessPool.create(engine, config)
+        val executor = Executors.newSingleThreadExecutor()
+
+        try {
+            val plain = pool.acquire(Duration.ofSeconds(1))
+            val waiting =
+                executor.submit<Int> {
+                    pool.acquireTagged(setOf("full"), Duration.ofSeconds(5)).use { it.scope().workerId() }
+                }
+            while (!pool.hasWaiters()) {
+                Thread.onSpinWait()
+            }
+            plain.close()
+
+            assertNotEquals(plain.scope().workerId(), waiting.get(5, TimeUnit.SECONDS))
+            assertEquals(listOf(COMMAND, FULL_COMMAND), engine.launchedCommands.toList())
+        } finally {
+            executor.shutdownNow()
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
+    @Test
+    fun rollToReplacesIdleWorkersWithNewGeneration() {
+        val engine = FakeProcessEngine()
+        val diagnostics = TrackingDiagnostics()
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .minSize(2)
+                .maxSize(2)
+                .diagnosticsListener(diagnostics)
+                .build()
+        val pool = ProcessPool.create(engine, config)
+
+        try {
+            val metrics =
+                pool
+                    .rollTo(FULL_COMMAND, ExecutionOptions.builder().build())
+                    .toCompletableFuture()
+                    .get(5, TimeUnit.SECONDS)
+
+            assertEquals(1, metrics.generation())
+            assertFalse(metrics.inProgress())
+            assertEquals(2, metrics.currentGenerationWorkers())
+            assertEquals(0, metrics.previousGenerationWorkers())
+            assertEquals(listOf(COMMAND, COMMAND, FULL_COMMAND, FULL_COMMAND), engine.launchedCommands.toList())
+            assertEquals(
+                listOf(1 to WorkerRetirementReason.SUPERSEDED, 2 to WorkerRetirementReason.SUPERSEDED),
+                diagnostics.retiredWorkers.toList(),
+            )
+            assertEquals(2, pool.snapshot().totalWorkers())
+        } finally {
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
+    @Test
+    fun rollToRetiresLeasedWorkerWhenLeaseCompletes() {
+        val engine = FakeProcessEngine()
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .maxSize(1)
+                .rolloutSurge(1)
+                .build()
+        val pool = ProcessPool.create(engine, config)
+
+        try {
+            val lease = pool.acquire(Duration.ofSeconds(1))
+            val rollout = pool.rollTo(FULL_COMMAND, ExecutionOptions.builder().build()).toCompletableFuture()
+
+            assertFalse(rollout.isDone())
+            assertFailsWith<IllegalStateException> { pool.rollTo(FULL_COMMAND, ExecutionOptions.builder().build()) }
+
+            lease.close()
+            val metrics = rollout.get(5, TimeUnit.SECONDS)
+
+            assertEquals(1, metrics.currentGenerationWorkers())
+            assertEquals(0, metrics.previousGenerationWorkers())
+            assertEquals(1, metrics.previousGenerationLeases())
+            pool.acquire(Duration.ofSeconds(1)).use { assertNotEquals(lease.scope().workerId(), it.scope().workerId()) }
+            assertEquals(listOf(COMMAND, FULL_COMMAND), engine.launchedCommands.toList())
+        } finally {
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
+    @Test
+    fun rollToWithoutSurgeReplacesWorkersOneAtATime() {
+        val engine = FakeProcessEngine()
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .minSize(2)
+                .maxSize(2)
+                .rolloutSurge(0)
+                .build()
+        val pool = ProcessPool.create(engine, config)
+
+        try {
+            val metrics =
+                pool
+                    .rollTo(FULL_COMMAND, ExecutionOptions.builder().build())
+                    .toCompletableFuture()
+                    .get(5, TimeUnit.SECONDS)
+
+            assertEquals(2, metrics.currentGenerationWorkers())
+            assertEquals(0, metrics.previousGenerationWorkers())
+            assertEquals(listOf(COMMAND, COMMAND, FULL_COMMAND, FULL_COMMAND), engine.launchedCommands.toList())
+            assertEquals(2, pool.snapshot().totalWorkers())
+        } finally {
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
+    @Test
+    fun rollToStopsWithoutRetiringWorkersWhileLaunchCircuitIsOpen() {
+        ProcessPool.setLaunchProbeSchedulerForTests { _, _ -> }
+        val engine = ToggleableFailureProcessEngine(failing = false)
+        val diagnostics = TrackingDiagnostics()
+        val pool =
+            ProcessPool.create(
+                engine,
+                ProcessPoolConfig
+                    .builder(COMMAND)
+                    .maxSize(2)
+                    .rolloutSurge(0)
+                    .launchFailureThreshold(1)
+                    .diagnosticsListener(diagnostics)
+                    .build(),
+            )
+
+        try {
+            val lease = pool.acquire(Duration.ofSeconds(1))
+            engine.failing = true
+            assertFailsWith<ServiceUnavailableException> { pool.acquire(Duration.ofSeconds(1)) }
+            lease.close()
+            assertEquals(LaunchCircuitState.OPEN, pool.snapshot().launchCircuitState())
+
+            val rollout = pool.rollTo(FULL_COMMAND, ExecutionOptions.builder().build()).toCompletableFuture()
+
+            val failure = assertFailsWith<ExecutionException> { rollout.get(5, TimeUnit.SECONDS) }
+            assertTrue(failure.cause is ServiceUnavailableException)
+            assertEquals(1, pool.snapshot().totalWorkers(), "Old-generation worker must keep serving")
+            assertTrue(diagnostics.retiredWorkers.isEmpty())
+        } finally {
+            ProcessPool.resetLaunchProbeSchedulerForTests()
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
+    @Test
+    fun taggedAcquisitionRejectsUnknownTags() {
+        val pool = ProcessPool.create(FakeProcessEngine(), ProcessPoolConfig.builder(COMMAND).maxSize(1).build())
+
+        try {
+            assertFailsWith<IllegalArgumentException> { pool.acquireTagged(setOf("gpu"), Duration.ofSeconds(1)) }
+        } finally {
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
     @Test
     fun fallsBackWhenPreferredWorkerUnavailable() {
         val engine = FakeProcessEngine()
@@ -150,10 +388,11 @@ class ProcessPoolTest {
     }
 
     @Test
-    fun prewarmBackoffAppliesAfterRepeatedFailures() {
-        val delays = mutableListOf<Duration>()
-        ProcessPool.setPrewarmSleeperForTests { duration -> delays += duration }
-        val engine = AlwaysFailProcessEngine()
+    fun launchCircuitOpensAfterRepeatedFailuresAndFailsFast() {
+        val probes = mutableListOf<Pair<Duration, Runnable>>()
+        ProcessPool.setLaunchProbeSchedulerForTests { delay, probe -> probes += delay to probe }
+        val engine = ToggleableFailureProcessEngine(failing = true)
+        val diagnostics = TrackingDiagnostics()
         var pool: ProcessPool? = null
         try {
             pool =
@@ -163,25 +402,50 @@ class ProcessPoolTest {
                         .builder(COMMAND)
                         .minSize(1)
                         .maxSize(1)
+                        .launchFailureThreshold(2)
+                        .launchProbeBackoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                        .diagnosticsListener(diagnostics)
                         .build(),
                 )
-
             val created = requireNotNull(pool)
+            assertEquals(1, engine.attempts(), "Initial prewarm should attempt a single launch")
+            assertTrue(probes.isEmpty(), "A single failure must not open the circuit")
+
+            assertFailsWith<ServiceUnavailableException> { created.acquire(Duration.ofSeconds(1)) }
+            assertEquals(LaunchCircuitState.OPEN, created.snapshot().launchCircuitState())
+            assertEquals(listOf(Duration.ofMillis(100)), probes.map { it.first })
+
+            val failFast = assertFailsWith<ServiceUnavailableException> { created.acquire(Duration.ofSeconds(1)) }
+            assertTrue(failFast.message!!.contains("launch circuit"))
+            assertEquals(2, engine.attempts(), "Open circuit must not fork new workers")
 
+            probes.removeAt(0).second.run()
+            assertEquals(3, engine.attempts())
+            assertEquals(LaunchCircuitState.OPEN, created.snapshot().launchCircuitState())
             assertEquals(
-                listOf(Duration.ofMillis(50)),
-                delays,
-                "Initial prewarm failure should schedule base backoff",
+                listOf(Duration.ofMillis(200)),
+                probes.map { it.first },
+                "Failed probe should double the delay",
             )
 
-            assertFailsWith<ServiceUnavailableException> { created.acquire(Duration.ofSeconds(1)) }
-            assertTrue(delays.size >= 2, "Subsequent failures should schedule additional backoff delays")
-            assertTrue(
-                delays.drop(1).all { it >= delays.first() },
-                "Backoff delays should be non-decreasing",
+            engine.failing = false
+            probes.removeAt(0).second.run()
+            assertEquals(LaunchCircuitState.CLOSED, created.snapshot().launchCircuitState())
+            assertTrue(probes.isEmpty())
+
+            created.acquire(Duration.ofSeconds(1)).close()
+            assertEquals(
+                listOf(
+                    LaunchCircuitState.CLOSED to LaunchCircuitState.OPEN,
+                    LaunchCircuitState.OPEN to LaunchCircuitState.HALF_OPEN,
+                    LaunchCircuitState.HALF_OPEN to LaunchCircuitState.OPEN,
+                    LaunchCircuitState.OPEN to LaunchCircuitState.HALF_OPEN,
+                    LaunchCircuitState.HALF_OPEN to LaunchCircuitState.CLOSED,
+                ),
+                diagnostics.circuitTransitions,
             )
         } finally {
-            ProcessPool.resetPrewarmSleeperForTests()
+            ProcessPool.resetLaunchProbeSchedulerForTests()
             pool?.close()
             pool?.drain(Duration.ofMillis(100))
         }
@@ -242,6 +506,39 @@ class ProcessPoolTest {
         }
     }
 
+    @Test
+    fun launchesReplacementBeforeWorkerReachesReuseCap() {
+        val engine = FakeProcessEngine()
+        val diagnostics = TrackingDiagnostics()
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .maxSize(2)
+                .maxRequestsPerWorker(4)
+                .replacementThreshold(0.5)
+                .diagnosticsListener(diagnostics)
+                .build()
+        val pool = ProcessPool.create(engine, config)
+
+        try {
+            repeat(2) { pool.acquire(Duration.ofSeconds(1)).close() }
+
+            val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1)
+            while (pool.snapshot().idleWorkers() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(5)
+            }
+            assertEquals(2, pool.snapshot().idleWorkers())
+            assertEquals(2, engine.createdCount())
+            assertEquals(listOf(1 to 2), diagnostics.replacements)
+
+            repeat(3) { pool.acquire(Duration.ofSeconds(1)).close() }
+            assertEquals(2, engine.createdCount(), "replacement must be reserved only once per worker")
+        } finally {
+            pool.close()
+            pool.drain(Duration.ofMillis(100))
+        }
+    }
+
     @Test
     fun closeRejectsNewAcquisitions() {
         val engine = FakeProcessEngine()
@@ -995,7 +1292,11 @@ class ProcessPoolTest {
         fun createdCount(): Int = successes.get()
     }
 
-    private class AlwaysFailProcessEngine : ProcessEngine {
+    private class ToggleableFailureProcessEngine(
+        @Volatile var failing: Boolean,
+    ) : ProcessEngine {
+        private val attempts = AtomicInteger()
+
         override fun run(
             spec: CommandDefinition,
             options: ExecutionOptions,
@@ -1004,11 +1305,20 @@ class ProcessPoolTest {
         override fun startSession(
             spec: CommandDefinition,
             options: ExecutionOptions,
-        ): InteractiveSession = throw RuntimeException("Simulated launch failure")
+        ): InteractiveSession {
+            val attempt = attempts.incrementAndGet()
+            if (failing) {
+                throw RuntimeException("Simulated launch failure on attempt $attempt")
+            }
+            return FakeInteractiveSession(attempt)
+        }
+
+        fun attempts(): Int = attempts.get()
     }
 
     private class FakeProcessEngine : ProcessEngine {
         private val counter = AtomicInteger()
+        val launchedCommands = CopyOnWriteArrayList<CommandDefinition>()
 
         override fun run(
             spec: CommandDefinition,
@@ -1019,6 +1329,7 @@ class ProcessPoolTest {
             spec: CommandDefinition,
             options: ExecutionOptions,
         ): InteractiveSession {
+            launchedCommands += spec
             val id = counter.incrementAndGet()
             return FakeInteractiveSession(id)
         }
@@ -1065,6 +1376,7 @@ class ProcessPoolTest {
 
     private companion object {
         private val COMMAND = CommandDefinition.of(listOf("fake"))
+        private val FULL_COMMAND = CommandDefinition.of(listOf("fake", "--profile=full"))
     }
 
     private fun assertNoConsecutiveDuplicateMetrics(snapshots: List<PoolMetrics>) {
@@ -1082,6 +1394,8 @@ class ProcessPoolTest {
 
     private class TrackingDiagnostics : PoolDiagnosticsListener {
         val workerCreatedIds = mutableListOf<Int>()
+        val replacements = CopyOnWriteArrayList<Pair<Int, Int>>()
+        val circuitTransitions = CopyOnWriteArrayList<Pair<LaunchCircuitState, LaunchCircuitState>>()
         val retiredWorkers = mutableListOf<Pair<Int, WorkerRetirementReason>>()
         val leaseAcquiredWorkers = mutableListOf<Int>()
         val leaseReleasedWorkers = mutableListOf<Int>()
@@ -1093,6 +1407,20 @@ class ProcessPoolTest {
 
         @Volatile var terminated: Boolean = false
 
+        override fun workerReplacementScheduled(
+            workerId: Int,
+            replacementWorkerId: Int,
+        ) {
+            replacements += workerId to replacementWorkerId
+        }
+
+        override fun launchCircuitStateChanged(
+            previous: LaunchCircuitState,
+            current: LaunchCircuitState,
+        ) {
+            circuitTransitions += previous to current
+        }
+
         override fun workerCreated(workerId: Int) {
             workerCreatedIds += workerId
         }
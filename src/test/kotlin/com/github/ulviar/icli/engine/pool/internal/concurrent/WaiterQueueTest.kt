@@ -98,6 +98,62 @@ class WaiterQueueTest {
         }
     }
 
+    @Test
+    fun hasQueuedWaitersTracksQueueWithoutLock() {
+        val queue = WaiterQueue(lock)
+        assertFalse(queue.hasQueuedWaiters())
+
+        lock.lock()
+        try {
+            val waiter = queue.enqueue()
+            assertTrue(queue.hasQueuedWaiters())
+            queue.cancel(waiter)
+        } finally {
+            lock.unlock()
+        }
+
+        assertFalse(queue.hasQueuedWaiters())
+    }
+
+    @Test
+    fun assignsWorkerToOldestWaiterItSatisfies() {
+        val queue = WaiterQueue(lock)
+        lock.lock()
+        try {
+            val tagged = queue.enqueue(setOf("full"))
+            val untagged = queue.enqueue()
+
+            assertTrue(queue.assignToNext(newWorker(1)))
+            assertTrue(untagged.isAssigned())
+            assertFalse(tagged.isAssigned())
+            assertFalse(queue.assignToNext(newWorker(2)))
+
+            assertTrue(queue.assignToNext(newWorker(3, setOf("full", "gpu"))))
+            assertTrue(tagged.isAssigned())
+            assertEquals(0, queue.size())
+        } finally {
+            lock.unlock()
+        }
+    }
+
+    @Test
+    fun retryNextWakesHeadWaiterWithoutAssignment() {
+        val queue = WaiterQueue(lock)
+        lock.lock()
+        try {
+            val waiter = queue.enqueue(setOf("full"))
+
+            assertTrue(queue.retryNext())
+
+            val outcome = waiter.awaitAssignment(System.nanoTime() + TimeUnit.SECONDS.toNanos(1))
+            assertTrue(outcome is WaiterQueue.AwaitOutcome.Cancelled)
+            assertEquals(0, queue.size())
+            assertFalse(queue.retryNext())
+        } finally {
+            lock.unlock()
+        }
+    }
+
     @Test
     fun timeoutRemovesWaiter() {
         val queue = WaiterQueue(lock)
@@ -386,6 +442,21 @@ class WaiterQueueTest {
             Instant.EPOCH,
         )
 
+    private fun newWorker(
+        id: Int,
+        tags: Set<String>,
+    ): PoolWorker =
+        PoolWorker(
+            id,
+            TestInteractiveSession(),
+            ExecutionOptions.builder().build(),
+            Instant.EPOCH,
+            1.0,
+            1,
+            tags,
+            0,
+        )
+
     private fun runFuzzScenario(random: SplittableRandom) {
         val scenarioLock = ReentrantLock(true)
         val queue = WaiterQueue(scenarioLock)
@@ -9,7 +9,6 @@ import java.io.InputStream
 import java.io.OutputStream
 import java.time.Duration
 import java.time.Instant
-import java.util.UUID
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.atomic.AtomicBoolean
 import kotlin.test.Test
@@ -40,11 +39,22 @@ class DefaultWorkerLeaseTest {
         lease.close()
 
         assertEquals(listOf(reset), callbacks.resets)
-        assertEquals(listOf(scope.requestId()), callbacks.releases)
+        assertEquals(listOf(scope.requestNumber()), callbacks.releases)
         assertSame(scope, callbacks.releasesScope)
         assertEquals(callbacks.workerId, callbacks.registered.first().first)
     }
 
+    @Test
+    fun scopesReceiveMonotonicRequestNumbersWithStableUuidView() {
+        val first = newLease(RecordingCallbacks()).scope()
+        val second = newLease(RecordingCallbacks()).scope()
+
+        assertTrue(second.requestNumber() > first.requestNumber())
+        assertSame(first.requestId(), first.requestId())
+        assertEquals(first.requestNumber(), first.requestId().leastSignificantBits)
+        assertTrue(first.requestId() != second.requestId())
+    }
+
     private fun newLease(callbacks: RecordingCallbacks): DefaultWorkerLease {
         val session = TestInteractiveSession()
         val options = ExecutionOptions.builder().idleTimeout(Duration.ZERO).build()
@@ -56,7 +66,7 @@ class DefaultWorkerLeaseTest {
     private class RecordingCallbacks : LeaseCallbacks {
         val registered = mutableListOf<Pair<Int, DefaultLeaseScope>>()
         val resets = mutableListOf<ResetRequest>()
-        val releases = mutableListOf<UUID>()
+        val releases = mutableListOf<Long>()
         var releasesScope: DefaultLeaseScope? = null
         var workerId: Int = -1
 
@@ -79,9 +89,8 @@ class DefaultWorkerLeaseTest {
         override fun releaseLease(
             worker: PoolWorker,
             scope: DefaultLeaseScope,
-            requestId: UUID,
         ) {
-            releases += requestId
+            releases += scope.requestNumber()
             releasesScope = scope
         }
     }
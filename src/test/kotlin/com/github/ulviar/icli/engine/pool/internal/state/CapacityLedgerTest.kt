@@ -4,6 +4,7 @@ import com.github.ulviar.icli.engine.CommandDefinition
 import com.github.ulviar.icli.engine.ExecutionOptions
 import com.github.ulviar.icli.engine.InteractiveSession
 import com.github.ulviar.icli.engine.ShutdownSignal
+import com.github.ulviar.icli.engine.pool.api.LaunchCircuitState
 import com.github.ulviar.icli.engine.pool.api.PreferredWorker
 import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig
 import com.github.ulviar.icli.engine.pool.api.WorkerRetirementReason
@@ -53,7 +54,7 @@ class CapacityLedgerTest {
 
         ledger.enqueueReturnedIdle(worker)
 
-        val metrics = ledger.snapshot(0)
+        val metrics = ledger.snapshot(0, LaunchCircuitState.CLOSED)
         assertEquals(1, metrics.idleWorkers())
         assertEquals(0, metrics.activeWorkers())
     }
@@ -99,6 +100,39 @@ class CapacityLedgerTest {
         assertEquals(firstId, fallback.id())
     }
 
+    @Test
+    fun taggedPollSkipsWorkersWithoutTagsAndEvictionFreesCapacity() {
+        val ledger = ledger(maxSize = 2)
+        val plainId = ledger.reserveLaunchWorkerId()
+        ledger.registerLaunch()
+        ledger.enqueueReturnedIdle(newWorker(plainId))
+        val taggedId = ledger.reserveLaunchWorkerId()
+        ledger.registerLaunch()
+        val tagged =
+            PoolWorker(
+                taggedId,
+                TestSession(),
+                ExecutionOptions.builder().build(),
+                Instant.EPOCH,
+                1.0,
+                1,
+                setOf("full"),
+                0,
+            )
+        ledger.enqueueReturnedIdle(tagged)
+
+        val retired = mutableListOf<RetiredWorker>()
+        val polled = ledger.pollIdle(PreferredWorker.any(), setOf("full"), retired, Instant.EPOCH).orElseThrow()
+        assertEquals(taggedId, polled.id())
+        assertTrue(ledger.pollIdle(PreferredWorker.any(), setOf("full"), retired, Instant.EPOCH).isEmpty)
+
+        assertEquals(-1, ledger.reserveLaunchWorkerId())
+        assertTrue(ledger.evictIdleWithout(setOf("full"), retired))
+        assertEquals(WorkerRetirementReason.TEMPLATE_EVICTED, retired.single().reason())
+        assertTrue(ledger.reserveLaunchWorkerId() >= 0)
+        ledger.discardLaunchReservation(false)
+    }
+
     @Test
     fun discardLaunchReservationWithoutReservationThrows() {
         val ledger = ledger(maxSize = 1)
@@ -0,0 +1,70 @@
+package com.github.ulviar.icli.engine.pool.internal.state
+
+import com.github.ulviar.icli.engine.CommandDefinition
+import com.github.ulviar.icli.engine.pool.api.LaunchCircuitState
+import com.github.ulviar.icli.engine.pool.api.ProcessPoolConfig
+import java.time.Duration
+import java.util.Optional
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class LaunchCircuitBreakerTest {
+    @Test
+    fun opensAfterThresholdConsecutiveFailures() {
+        val breaker = breaker(threshold = 3)
+
+        assertEquals(Optional.empty(), breaker.recordFailure())
+        assertEquals(Optional.empty(), breaker.recordFailure())
+        assertTrue(breaker.allowsLaunch())
+
+        assertEquals(Optional.of(Duration.ofMillis(100)), breaker.recordFailure())
+        assertEquals(LaunchCircuitState.OPEN, breaker.state())
+        assertFalse(breaker.allowsLaunch())
+    }
+
+    @Test
+    fun successResetsFailureStreak() {
+        val breaker = breaker(threshold = 2)
+
+        breaker.recordFailure()
+        breaker.recordSuccess()
+
+        assertEquals(Optional.empty(), breaker.recordFailure())
+        assertEquals(LaunchCircuitState.CLOSED, breaker.state())
+    }
+
+    @Test
+    fun failedProbesDoubleDelayUpToMaximum() {
+        val breaker = breaker(threshold = 1, max = Duration.ofMillis(300))
+
+        assertEquals(Optional.of(Duration.ofMillis(100)), breaker.recordFailure())
+
+        assertTrue(breaker.beginProbe())
+        assertEquals(LaunchCircuitState.HALF_OPEN, breaker.state())
+        assertFalse(breaker.beginProbe(), "Only one probe may run at a time")
+        assertEquals(Optional.of(Duration.ofMillis(200)), breaker.recordFailure())
+
+        assertTrue(breaker.beginProbe())
+        assertEquals(Optional.of(Duration.ofMillis(300)), breaker.recordFailure())
+
+        assertTrue(breaker.beginProbe())
+        breaker.recordSuccess()
+        assertEquals(LaunchCircuitState.CLOSED, breaker.state())
+        assertEquals(Optional.of(Duration.ofMillis(100)), breaker.recordFailure())
+    }
+
+    private fun breaker(
+        threshold: Int,
+        max: Duration = Duration.ofSeconds(10),
+    ): LaunchCircuitBreaker {
+        val config =
+            ProcessPoolConfig
+                .builder(CommandDefinition.of(listOf("fake")))
+                .launchFailureThreshold(threshold)
+                .launchProbeBackoff(Duration.ofMillis(100), max)
+                .build()
+        return LaunchCircuitBreaker(config)
+    }
+}
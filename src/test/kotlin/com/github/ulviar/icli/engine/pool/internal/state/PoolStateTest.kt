@@ -25,6 +25,7 @@ import kotlin.test.assertFailsWith
 import kotlin.test.assertFalse
 import kotlin.test.assertIs
 import kotlin.test.assertNotNull
+import kotlin.test.assertSame
 import kotlin.test.assertTrue
 import kotlin.test.fail
 
@@ -65,6 +66,25 @@ class PoolStateTest {
         assertFalse(counters.terminated)
     }
 
+    @Test
+    fun acquireWithoutRetirementsReturnsSharedEmptyList() {
+        val clock = MutableClock(Instant.parse("2025-10-29T00:15:00Z"))
+        val config =
+            configBuilder(clock)
+                .minSize(1)
+                .maxSize(1)
+                .build()
+        val state = PoolState(config, WorkerRetirementPolicy(config))
+        val worker = worker(state.reserveSingleWorkerId(), clock.instant())
+        state.onLaunchSuccess(worker)
+
+        val leased = state.acquire(0, true, PreferredWorker.any())
+
+        assertIs<AcquireResult.Leased>(leased)
+        assertSame(java.util.List.of<RetiredWorker>(), leased.retired())
+        assertEquals(leased.scope().requestNumber(), worker.activeRequestNumber())
+    }
+
     @Test
     fun reserveNextForMinimumReservesSequentialIdentifiers() {
         val clock = MutableClock(Instant.parse("2025-10-29T00:30:00Z"))
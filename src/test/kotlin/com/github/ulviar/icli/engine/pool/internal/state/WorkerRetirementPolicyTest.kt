@@ -11,17 +11,18 @@ import java.io.InputStream
 import java.io.OutputStream
 import java.time.Duration
 import java.time.Instant
-import java.util.UUID
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.atomic.AtomicBoolean
 import kotlin.test.BeforeTest
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertFalse
 import kotlin.test.assertTrue
 
 class WorkerRetirementPolicyTest {
     private lateinit var policy: WorkerRetirementPolicy
     private lateinit var now: Instant
+    private var nextRequestNumber = 1L
 
     @BeforeTest
     fun setUp() {
@@ -86,20 +87,73 @@ class WorkerRetirementPolicyTest {
         assertTrue(idleReason.isEmpty, "Expected idle reason to be empty")
     }
 
+    @Test
+    fun limitScaleShortensReuseAndLifetimeLimits() {
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .maxRequestsPerWorker(4)
+                .maxWorkerLifetime(Duration.ofMinutes(30))
+                .build()
+        val jittered = WorkerRetirementPolicy(config)
+
+        val reused = worker(createdAt = now, limitScale = 0.5)
+        markReuse(reused, now)
+        markReuse(reused, now)
+        assertEquals(WorkerRetirementReason.REUSE_LIMIT_REACHED, jittered.shouldRetire(reused, now).orElseThrow())
+
+        val aged = worker(createdAt = now.minus(Duration.ofMinutes(16)), limitScale = 0.5)
+        assertEquals(WorkerRetirementReason.LIFETIME_EXCEEDED, jittered.shouldRetire(aged, now).orElseThrow())
+    }
+
+    @Test
+    fun replacementPreparedOnceThresholdFractionReached() {
+        val config =
+            ProcessPoolConfig
+                .builder(COMMAND)
+                .maxRequestsPerWorker(10)
+                .maxWorkerLifetime(Duration.ofMinutes(30))
+                .replacementThreshold(0.8)
+                .build()
+        val proactive = WorkerRetirementPolicy(config)
+
+        val fresh = worker(createdAt = now.minus(Duration.ofMinutes(10)))
+        repeat(7) { markReuse(fresh, now) }
+        assertFalse(proactive.shouldPrepareReplacement(fresh, now))
+
+        markReuse(fresh, now)
+        assertTrue(proactive.shouldPrepareReplacement(fresh, now))
+
+        val aged = worker(createdAt = now.minus(Duration.ofMinutes(24)))
+        assertTrue(proactive.shouldPrepareReplacement(aged, now))
+    }
+
+    @Test
+    fun replacementDisabledByDefault() {
+        val aged = worker(createdAt = now.minus(Duration.ofMinutes(29)))
+        markReuse(aged, now)
+
+        assertFalse(policy.shouldPrepareReplacement(aged, now))
+    }
+
     private fun markReuse(
         worker: PoolWorker,
         timestamp: Instant,
     ) {
-        worker.markLeased(UUID.randomUUID())
+        worker.markLeased(nextRequestNumber++)
         worker.markReturned(timestamp)
     }
 
-    private fun worker(createdAt: Instant): PoolWorker =
+    private fun worker(
+        createdAt: Instant,
+        limitScale: Double = 1.0,
+    ): PoolWorker =
         PoolWorker(
             1,
             FakeInteractiveSession(),
             ExecutionOptions.builder().idleTimeout(Duration.ZERO).build(),
             createdAt,
+            limitScale,
         )
 
     private class FakeInteractiveSession : InteractiveSession {
@@ -7,7 +7,6 @@ import com.github.ulviar.icli.engine.pool.api.WorkerRetirementReason
 import java.io.InputStream
 import java.io.OutputStream
 import java.time.Instant
-import java.util.UUID
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.Executors
@@ -16,7 +15,6 @@ import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertIs
-import kotlin.test.assertNull
 import kotlin.test.assertTrue
 import kotlin.test.fail
 
@@ -25,7 +23,7 @@ class PoolWorkerTest {
     fun `markReturned updates reuse data only once`() {
         val createdAt = Instant.parse("2025-10-30T00:00:00Z")
         val worker = newWorker(createdAt)
-        val leaseId = UUID.randomUUID()
+        val leaseId = 1L
         val firstReturn = Instant.parse("2025-10-30T01:00:00Z")
         val secondReturn = Instant.parse("2025-10-30T02:00:00Z")
 
@@ -39,7 +37,7 @@ class PoolWorkerTest {
         assertTrue(firstResult)
         assertEquals(1, worker.reuseCount())
         assertEquals(firstReturn, worker.lastUsed())
-        assertNull(worker.activeRequestId())
+        assertEquals(0L, worker.activeRequestNumber())
 
         val secondResult = worker.markReturned(secondReturn)
 
@@ -49,15 +47,33 @@ class PoolWorkerTest {
     }
 
     @Test
-    fun `active request id is set on lease and cleared on return`() {
+    fun `attachment is created once and replaced when a different type is requested`() {
         val worker = newWorker()
-        val leaseId = UUID.randomUUID()
+        var created = 0
+
+        val first = worker.attachment(StringBuilder::class.java) { created++; StringBuilder("ctx") }
+        val second = worker.attachment(StringBuilder::class.java) { created++; StringBuilder("other") }
+
+        assertTrue(first === second)
+        assertEquals(1, created)
+
+        val replaced = worker.attachment(String::class.java) { "replacement" }
+        assertEquals("replacement", replaced)
+        val rebuilt = worker.attachment(StringBuilder::class.java) { created++; StringBuilder("again") }
+        assertEquals("again", rebuilt.toString())
+        assertEquals(2, created)
+    }
+
+    @Test
+    fun `active request number is set on lease and cleared on return`() {
+        val worker = newWorker()
+        val leaseId = 42L
 
         worker.markLeased(leaseId)
-        assertEquals(leaseId, worker.activeRequestId())
+        assertEquals(leaseId, worker.activeRequestNumber())
 
         worker.markReturned(Instant.parse("2025-10-30T03:00:00Z"))
-        assertNull(worker.activeRequestId())
+        assertEquals(0L, worker.activeRequestNumber())
     }
 
     @Test
@@ -107,12 +123,12 @@ class PoolWorkerTest {
     @Test
     fun `markLeased rejects duplicate leasing`() {
         val worker = newWorker()
-        val leaseId = UUID.randomUUID()
+        val leaseId = 7L
 
         worker.markLeased(leaseId)
 
         val error =
-            runCatching { worker.markLeased(UUID.randomUUID()) }
+            runCatching { worker.markLeased(8L) }
                 .exceptionOrNull()
                 ?: fail("Expected IllegalStateException when leasing an already leased worker")
 
@@ -107,6 +107,111 @@ class StandardProcessEngineTest {
         assertEquals("abc", result.stderr())
     }
 
+    @Test
+    fun `run keeps the tail of stderr and summarises truncation`() {
+        val spec = spec("--stderr", "abcdef")
+        val recorder = RecordingDiagnostics()
+        val options =
+            ExecutionOptions
+                .builder()
+                .stderrPolicy(OutputCapture.tail(3))
+                .diagnosticsListener(recorder)
+                .build()
+
+        val result = engine.run(spec, options)
+
+        assertEquals(3, result.stderr().length)
+        assertTrue("abcdef".endsWith(result.stderr().trimEnd()))
+        val truncated = recorder.events.filterIsInstance<DiagnosticsEvent.OutputTruncated>().single()
+        assertEquals(StreamType.STDERR, truncated.stream())
+    }
+
+    @Test
+    fun `run spills large stdout to a temp file removed on close`() {
+        val spec = spec("--repeat", "abc", "64")
+        val directory = Files.createTempDirectory("engine-spill")
+        val options = ExecutionOptions.builder().stdoutPolicy(OutputCapture.spilling(16, directory)).build()
+
+        val result = engine.run(spec, options)
+        val file = result.stdoutOutput().file().orElseThrow()
+
+        assertEquals("", result.stdout())
+        assertTrue(result.stdoutOutput().text().startsWith("abcabc"))
+        result.close()
+        assertTrue(Files.notExists(file))
+        Files.delete(directory)
+    }
+
+    @Test
+    fun `run redirects stdout straight to a file`() {
+        val spec = spec("--stdout", "to-file", "--stderr", "kept")
+        val target = Files.createTempFile("engine-redirect", ".log")
+        val options = ExecutionOptions.builder().stdoutPolicy(OutputCapture.redirectTo(target)).build()
+
+        val result = engine.run(spec, options)
+
+        assertEquals("", result.stdout())
+        assertEquals("to-file", Files.readString(target).trim())
+        assertEquals("kept", result.stderr().trim())
+        Files.delete(target)
+    }
+
+    @Test
+    fun `run discards output at the operating system level`() {
+        val spec = spec("--repeat", "abc", "64")
+        val options = ExecutionOptions.builder().stdoutPolicy(OutputCapture.redirectToNull()).build()
+
+        val result = engine.run(spec, options)
+
+        assertEquals(0, result.exitCode())
+        assertEquals("", result.stdout())
+    }
+
+    @Test
+    fun `runPipeline connects stages and reports per-stage results`() {
+        val producer = spec("--stdout", "alpha", "--stdout", "beta", "--stderr", "first")
+        val consumer = spec("--echo-stdin", "--stderr", "second", "--exit", "3")
+
+        engine.runPipeline(listOf(producer, consumer), ExecutionOptions.builder().build()).use { result ->
+            assertEquals(listOf(0, 3), result.exitCodes())
+            assertEquals(3, result.exitCode())
+            assertEquals(false, result.succeeded())
+            assertEquals(listOf("alpha", "beta"), result.stdout().lines().filter { it.isNotBlank() })
+            assertEquals(listOf("first", "second"), result.stderr().map { it.trim() })
+        }
+    }
+
+    @Test
+    fun `runPipeline rejects empty stage list`() {
+        assertFailsWith<IllegalArgumentException> {
+            engine.runPipeline(emptyList(), ExecutionOptions.builder().build())
+        }
+    }
+
+    @Test
+    fun `runAsync completes with captured output`() {
+        val spec = spec("--stdout", "async", "--exit", "2")
+
+        val result = engine.runAsync(spec, ExecutionOptions.builder().build()).get(10, TimeUnit.SECONDS)
+
+        assertEquals(2, result.exitCode())
+        assertEquals("async", result.stdout().trim())
+    }
+
+    @Test
+    fun `runAsync enforces the shutdown plan without a waiting thread`() {
+        val spec = spec("--sleep-ms", "10000")
+        val options =
+            ExecutionOptions
+                .builder()
+                .shutdownPlan(ShutdownPlan(Duration.ofMillis(100), Duration.ofMillis(100), ShutdownSignal.TERMINATE))
+                .build()
+
+        val result = engine.runAsync(spec, options).get(10, TimeUnit.SECONDS)
+
+        assertTrue(result.exitCode() != 0)
+    }
+
     @Test
     fun `run supports discard policy`() {
         val spec = spec("--stdout", "noise")
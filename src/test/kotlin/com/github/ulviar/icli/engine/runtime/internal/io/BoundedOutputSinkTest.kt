@@ -25,6 +25,18 @@ class BoundedOutputSinkTest {
         assertEquals(2, event.discardedBytes())
     }
 
+    @Test
+    fun `captured output hands over the retained bytes`() {
+        val sink = BoundedOutputSink(4, StandardCharsets.ISO_8859_1, StreamType.STDOUT, DiagnosticsListener.noOp())
+        sink.append(byteArrayOf(0x61, 0xE9.toByte(), 0x62), 0, 3)
+
+        val output = sink.capturedOutput(StandardCharsets.UTF_8)
+
+        assertEquals(3, output.size())
+        assertEquals(StandardCharsets.ISO_8859_1, output.charset())
+        assertEquals("a\u00e9b", output.text())
+    }
+
     @Test
     fun `rejects non-positive limits`() {
         assertFailsWith<IllegalArgumentException> {
@@ -0,0 +1,116 @@
+package com.github.ulviar.icli.engine.runtime.internal.io
+
+import com.github.ulviar.icli.engine.diagnostics.DiagnosticsEvent
+import com.github.ulviar.icli.engine.diagnostics.DiagnosticsListener
+import com.github.ulviar.icli.engine.diagnostics.StreamType
+import java.nio.charset.StandardCharsets
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class HeadTailOutputSinkTest {
+    @Test
+    fun `tail mode keeps the last bytes across chunks`() {
+        val sink = HeadTailOutputSink(0, 5, StandardCharsets.UTF_8, StreamType.STDOUT, DiagnosticsListener.noOp())
+
+        sink.append("abc".toByteArray(), 0, 3)
+        sink.append("defg".toByteArray(), 0, 4)
+        sink.append("hi".toByteArray(), 0, 2)
+
+        assertEquals("efghi", sink.content())
+        assertEquals(4, sink.discardedBytes())
+    }
+
+    @Test
+    fun `chunk larger than tail keeps its suffix`() {
+        val sink = HeadTailOutputSink(0, 3, StandardCharsets.UTF_8, StreamType.STDOUT, DiagnosticsListener.noOp())
+
+        sink.append("ab".toByteArray(), 0, 2)
+        sink.append("cdefgh".toByteArray(), 0, 6)
+
+        assertEquals("fgh", sink.content())
+        assertEquals(5, sink.discardedBytes())
+    }
+
+    @Test
+    fun `ring grows past its initial size without losing order`() {
+        val sink = HeadTailOutputSink(0, 20_000, StandardCharsets.UTF_8, StreamType.STDOUT, DiagnosticsListener.noOp())
+        val text = (0 until 3_000).joinToString("") { (it % 10).toString() }.repeat(5)
+        val bytes = text.toByteArray()
+
+        bytes.toList().chunked(4096).forEach { sink.append(it.toByteArray(), 0, it.size) }
+
+        assertEquals(text.takeLast(20_000), sink.content())
+        assertEquals((bytes.size - 20_000).toLong(), sink.discardedBytes())
+    }
+
+    @Test
+    fun `head and tail are joined with a truncation marker`() {
+        val sink = HeadTailOutputSink(3, 3, StandardCharsets.UTF_8, StreamType.STDERR, DiagnosticsListener.noOp())
+
+        sink.append("abcdefghij".toByteArray(), 0, 10)
+
+        assertEquals("abc\n... [4 bytes truncated] ...\nhij", sink.content())
+    }
+
+    @Test
+    fun `captured output matches content byte for byte`() {
+        val sink = HeadTailOutputSink(3, 3, StandardCharsets.UTF_8, StreamType.STDERR, DiagnosticsListener.noOp())
+
+        sink.append("abcdefghij".toByteArray(), 0, 10)
+
+        assertEquals(sink.content(), String(sink.capturedOutput(StandardCharsets.UTF_8).toByteArray()))
+    }
+
+    @Test
+    fun `short output is kept verbatim`() {
+        val sink = HeadTailOutputSink(3, 3, StandardCharsets.UTF_8, StreamType.STDERR, DiagnosticsListener.noOp())
+
+        sink.append("abcde".toByteArray(), 0, 5)
+
+        assertEquals("abcde", sink.content())
+    }
+
+    @Test
+    fun `truncation is reported once on completion`() {
+        val recorder = RecordingDiagnostics()
+        val sink = HeadTailOutputSink(2, 2, StandardCharsets.UTF_8, StreamType.STDOUT, recorder)
+
+        repeat(100) { sink.append("0123456789".toByteArray(), 0, 10) }
+        assertTrue(recorder.events.isEmpty())
+        sink.complete()
+        sink.complete()
+
+        val event = recorder.events.single() as DiagnosticsEvent.OutputTruncated
+        assertEquals(4, event.retainedBytes())
+        assertEquals(996, event.discardedBytes())
+        assertEquals("", event.preview(StandardCharsets.UTF_8))
+    }
+
+    @Test
+    fun `completion without truncation emits nothing`() {
+        val recorder = RecordingDiagnostics()
+        val sink = HeadTailOutputSink(0, 8, StandardCharsets.UTF_8, StreamType.STDOUT, recorder)
+
+        sink.append("short".toByteArray(), 0, 5)
+        sink.complete()
+
+        assertTrue(recorder.events.isEmpty())
+    }
+
+    @Test
+    fun `rejects empty retention`() {
+        assertFailsWith<IllegalArgumentException> {
+            HeadTailOutputSink(0, 0, StandardCharsets.UTF_8, StreamType.STDOUT, DiagnosticsListener.noOp())
+        }
+    }
+
+    private class RecordingDiagnostics : DiagnosticsListener {
+        val events: MutableList<DiagnosticsEvent> = mutableListOf()
+
+        override fun onEvent(event: DiagnosticsEvent) {
+            events += event
+        }
+    }
+}
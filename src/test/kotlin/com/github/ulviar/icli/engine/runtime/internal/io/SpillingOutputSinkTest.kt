@@ -0,0 +1,109 @@
+package com.github.ulviar.icli.engine.runtime.internal.io
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.util.concurrent.CountDownLatch
+import kotlin.io.path.deleteIfExists
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class SpillingOutputSinkTest {
+    private val directory = Files.createTempDirectory("spill-test")
+
+    @AfterTest
+    fun cleanUp() {
+        Files.list(directory).use { files -> files.forEach { it.deleteIfExists() } }
+        directory.deleteIfExists()
+    }
+
+    @Test
+    fun `output below threshold stays in memory`() {
+        val sink = SpillingOutputSink(16, directory, StandardCharsets.UTF_8)
+
+        sink.append("small".toByteArray(), 0, 5)
+        sink.complete()
+
+        assertEquals("small", sink.content())
+        assertTrue(sink.spilledOutput().isEmpty)
+        assertEquals(0, Files.list(directory).use { it.count() })
+    }
+
+    @Test
+    fun `output beyond threshold is streamed to a temp file`() {
+        val sink = SpillingOutputSink(4, directory, StandardCharsets.UTF_8)
+
+        sink.append("abc".toByteArray(), 0, 3)
+        sink.append("defgh".toByteArray(), 0, 5)
+        sink.append("ij".toByteArray(), 0, 2)
+        sink.complete()
+
+        assertEquals("", sink.content())
+        sink.spilledOutput().orElseThrow().use { output ->
+            assertEquals(10, output.size())
+            assertEquals("abcdefghij", output.text().toString())
+            assertEquals("abcdefghij", output.openStream().use { it.readAllBytes() }.toString(StandardCharsets.UTF_8))
+            assertTrue(output.asByteBuffer().isReadOnly)
+            assertTrue(Files.exists(output.file().orElseThrow()))
+        }
+    }
+
+    @Test
+    fun `closing spilled output deletes the file`() {
+        val sink = SpillingOutputSink(0, directory, StandardCharsets.UTF_8)
+        sink.append("data".toByteArray(), 0, 4)
+        sink.complete()
+        val output = sink.spilledOutput().orElseThrow()
+        val file = output.file().orElseThrow()
+
+        output.close()
+        output.close()
+
+        assertFalse(Files.exists(file))
+        assertFailsWith<IllegalStateException> { output.openStream() }
+    }
+
+    @Test
+    fun `abandoned sink releases its spill file`() {
+        val sink = SpillingOutputSink(0, directory, StandardCharsets.UTF_8)
+        sink.append("partial".toByteArray(), 0, 7)
+
+        sink.close()
+        sink.close()
+        sink.append("late".toByteArray(), 0, 4)
+        sink.complete()
+
+        val output = sink.spilledOutput().orElseThrow()
+        assertEquals(7, output.size())
+        output.close()
+        assertEquals(0, Files.list(directory).use { it.count() })
+    }
+
+    @Test
+    fun `closing while a drain thread appends never leaks a spill file`() {
+        repeat(50) {
+            val sink = SpillingOutputSink(0, directory, StandardCharsets.UTF_8)
+            val start = CountDownLatch(1)
+            val appender =
+                Thread.ofPlatform().start {
+                    start.await()
+                    repeat(100) { sink.append("chunk".toByteArray(), 0, 5) }
+                }
+
+            start.countDown()
+            sink.close()
+            appender.join()
+            sink.spilledOutput().ifPresent { it.close() }
+
+            assertEquals(0, Files.list(directory).use { it.count() })
+        }
+    }
+
+    @Test
+    fun `rejects negative threshold`() {
+        assertFailsWith<IllegalArgumentException> { SpillingOutputSink(-1, directory, StandardCharsets.UTF_8) }
+    }
+}
@@ -3,9 +3,12 @@ package com.github.ulviar.icli.engine.runtime.internal.io
 import com.github.ulviar.icli.engine.diagnostics.DiagnosticsEvent
 import com.github.ulviar.icli.engine.diagnostics.DiagnosticsListener
 import com.github.ulviar.icli.engine.diagnostics.StreamType
+import java.nio.ByteBuffer
+import java.nio.charset.Charset
 import java.nio.charset.StandardCharsets
 import kotlin.test.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertSame
 import kotlin.test.assertTrue
 
 class StreamingOutputSinkTest {
@@ -36,6 +39,53 @@ class StreamingOutputSinkTest {
         assertEquals("copy", second.toString(StandardCharsets.UTF_8))
     }
 
+    @Test
+    fun `zero-copy listeners receive read-only views over the source buffer`() {
+        val listener = ViewRecordingDiagnostics()
+        val sink = StreamingOutputSink(StandardCharsets.UTF_8, StreamType.STDERR, listener)
+        val buffer = "xxhelloworld".toByteArray()
+
+        sink.append(buffer, 2, 5)
+        sink.append(buffer, 7, 5)
+
+        assertEquals(listOf("hello", "world"), listener.texts)
+        assertTrue(listener.views.all { it.isReadOnly })
+        assertSame(listener.views[0], listener.views[1])
+        assertTrue(listener.events.isEmpty())
+    }
+
+    @Test
+    fun `composed listeners each see the full chunk`() {
+        val zeroCopy = ViewRecordingDiagnostics()
+        val legacy = RecordingDiagnostics()
+        val sink = StreamingOutputSink(StandardCharsets.UTF_8, StreamType.STDOUT, zeroCopy.andThen(legacy))
+
+        sink.append("both".toByteArray(), 0, 4)
+
+        assertEquals(listOf("both"), zeroCopy.texts)
+        val event = legacy.events.single() as DiagnosticsEvent.OutputChunk
+        assertEquals("both", event.text(StandardCharsets.UTF_8))
+    }
+
+    private class ViewRecordingDiagnostics : DiagnosticsListener {
+        val events: MutableList<DiagnosticsEvent> = mutableListOf()
+        val views: MutableList<ByteBuffer> = mutableListOf()
+        val texts: MutableList<String> = mutableListOf()
+
+        override fun onEvent(event: DiagnosticsEvent) {
+            events += event
+        }
+
+        override fun onOutput(
+            stream: StreamType,
+            chunk: ByteBuffer,
+            charset: Charset,
+        ) {
+            views += chunk
+            texts += charset.decode(chunk).toString()
+        }
+    }
+
     private class RecordingDiagnostics : DiagnosticsListener {
         val events: MutableList<DiagnosticsEvent> = mutableListOf()
 
@@ -2,10 +2,13 @@ package com.github.ulviar.icli.engine.runtime.internal.io
 
 import java.io.ByteArrayInputStream
 import java.io.IOException
+import java.util.Collections
+import java.util.IdentityHashMap
 import java.util.concurrent.RejectedExecutionException
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFailsWith
+import kotlin.test.assertSame
 import kotlin.test.assertTrue
 
 class VirtualThreadStreamDrainerTest {
@@ -45,6 +48,33 @@ class VirtualThreadStreamDrainerTest {
         drainer.close()
     }
 
+    @Test
+    fun `reuses pooled read buffers across drains`() {
+        val buffers = ChunkBufferPool(16, 4)
+        val drainer = VirtualThreadStreamDrainer(buffers)
+        val first = IdentitySink()
+        val second = IdentitySink()
+
+        drainer.drain(ByteArrayInputStream("one".toByteArray()), first).join()
+        assertEquals(1, buffers.available())
+        drainer.drain(ByteArrayInputStream("two".toByteArray()), second).join()
+
+        assertSame(first.buffers.single(), second.buffers.single())
+        assertEquals(1, buffers.available())
+        drainer.close()
+    }
+
+    @Test
+    fun `returns buffer to pool when drain fails`() {
+        val buffers = ChunkBufferPool(16, 4)
+        val drainer = VirtualThreadStreamDrainer(buffers)
+
+        runCatching { drainer.drain(FailingInputStream(), InMemorySink()).join() }
+
+        assertEquals(1, buffers.available())
+        drainer.close()
+    }
+
     @Test
     fun `rejects submissions after close`() {
         val drainer = VirtualThreadStreamDrainer()
@@ -72,6 +102,20 @@ class VirtualThreadStreamDrainerTest {
         override fun content(): String = builder.toString()
     }
 
+    private class IdentitySink : OutputSink {
+        val buffers: MutableSet<ByteArray> = Collections.newSetFromMap(IdentityHashMap())
+
+        override fun append(
+            buffer: ByteArray,
+            offset: Int,
+            length: Int,
+        ) {
+            buffers += buffer
+        }
+
+        override fun content(): String = ""
+    }
+
     private class FailingInputStream : ByteArrayInputStream(ByteArray(0)) {
         override fun read(
             buffer: ByteArray,
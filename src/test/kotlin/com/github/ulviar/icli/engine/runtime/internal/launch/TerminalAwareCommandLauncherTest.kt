@@ -3,6 +3,8 @@ package com.github.ulviar.icli.engine.runtime.internal.launch
 import com.github.ulviar.icli.engine.CommandDefinition
 import com.github.ulviar.icli.engine.TerminalPreference
 import com.github.ulviar.icli.engine.runtime.internal.terminal.TerminalController
+import java.io.File
+import java.lang.ProcessBuilder.Redirect
 import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertFailsWith
@@ -82,6 +84,27 @@ class TerminalAwareCommandLauncherTest {
         assertEquals(1, pty.invocations)
     }
 
+    @Test
+    fun `PTY launch accepts discard redirects and rejects file redirects`() {
+        val pipe = RecordingLauncher()
+        val pty = RecordingLauncher()
+        val launcher = TerminalAwareCommandLauncher(pipe, pty)
+        val spec =
+            CommandDefinition
+                .builder()
+                .command(listOf("echo", "hi"))
+                .terminalPreference(TerminalPreference.REQUIRED)
+                .build()
+
+        val launched = launcher.launch(spec, false, OutputRedirects(Redirect.DISCARD, Redirect.PIPE))
+        assertEquals(OutputRedirects.PIPES, launched.redirects())
+
+        assertFailsWith<UnsupportedOperationException> {
+            launcher.launch(spec, false, OutputRedirects(Redirect.to(File("out.log")), Redirect.PIPE))
+        }
+        assertEquals(1, pty.invocations)
+    }
+
     private class RecordingLauncher(
         private val failure: RuntimeException? = null,
     ) : CommandLauncher {
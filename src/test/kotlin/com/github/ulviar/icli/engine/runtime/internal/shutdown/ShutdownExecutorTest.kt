@@ -6,9 +6,13 @@ import com.github.ulviar.icli.engine.runtime.ProcessShutdownException
 import java.io.InputStream
 import java.io.OutputStream
 import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
 import kotlin.test.Test
 import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
 import kotlin.test.assertTrue
 
 class ShutdownExecutorTest {
@@ -65,6 +69,89 @@ class ShutdownExecutorTest {
         assertTrue(terminator.destroyCalls.any { it.force })
     }
 
+    @Test
+    fun `group shutdown terminates only stages still running`() {
+        val finished = ImmediateProcess()
+        val stuck = NeverEndingProcess()
+        val terminator = RecordingProcessTerminator()
+        val executor = ShutdownExecutor(terminator)
+        val plan = ShutdownPlan(Duration.ofMillis(10), Duration.ofMillis(5), ShutdownSignal.TERMINATE)
+
+        executor.awaitCompletion(listOf(finished, stuck), plan, false)
+
+        assertTrue(terminator.destroyCalls.isNotEmpty())
+        assertTrue(terminator.destroyCalls.all { it.process === stuck })
+        assertTrue(terminator.destroyCalls.any { it.force })
+    }
+
+    @Test
+    fun `group shutdown leaves finished pipeline alone`() {
+        val terminator = RecordingProcessTerminator()
+        val executor = ShutdownExecutor(terminator)
+        val plan = ShutdownPlan(Duration.ofSeconds(1), Duration.ofMillis(100), ShutdownSignal.TERMINATE)
+
+        executor.awaitCompletion(listOf(ImmediateProcess(), ImmediateProcess()), plan, false)
+
+        assertTrue(terminator.destroyCalls.isEmpty())
+    }
+
+    @Test
+    fun `supervise escalates from a timer without blocking the caller`() {
+        val exit = CompletableFuture<Process>()
+        val process = FutureExitProcess(exit)
+        val terminator = RecordingProcessTerminator()
+        val timer = Executors.newSingleThreadScheduledExecutor()
+        val executor = ShutdownExecutor(terminator, timer)
+        val plan = ShutdownPlan(Duration.ofMillis(10), Duration.ofMillis(10), ShutdownSignal.INTERRUPT)
+
+        val supervised = executor.supervise(process, plan, true)
+
+        assertFalse(supervised.isDone)
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        while (terminator.destroyCalls.none { it.force } && System.nanoTime() < deadline) {
+            Thread.sleep(5)
+        }
+        assertTrue(terminator.destroyCalls.any { it.force.not() })
+        assertTrue(terminator.destroyCalls.any { it.force })
+        timer.shutdownNow()
+    }
+
+    @Test
+    fun `supervise cancels pending timeouts once the process exits`() {
+        val exit = CompletableFuture<Process>()
+        val process = FutureExitProcess(exit)
+        val terminator = RecordingProcessTerminator()
+        val timer = Executors.newSingleThreadScheduledExecutor()
+        val executor = ShutdownExecutor(terminator, timer)
+        val plan = ShutdownPlan(Duration.ofMillis(50), Duration.ofMillis(10), ShutdownSignal.TERMINATE)
+
+        val supervised = executor.supervise(process, plan, false)
+        exit.complete(process)
+        Thread.sleep(100)
+
+        assertTrue(supervised.isDone)
+        assertTrue(terminator.destroyCalls.isEmpty())
+        timer.shutdownNow()
+    }
+
+    private class FutureExitProcess(
+        private val exit: CompletableFuture<Process>,
+    ) : Process() {
+        override fun destroy() {}
+
+        override fun exitValue(): Int = 0
+
+        override fun getErrorStream(): InputStream = throw UnsupportedOperationException()
+
+        override fun getInputStream(): InputStream = throw UnsupportedOperationException()
+
+        override fun getOutputStream(): OutputStream = throw UnsupportedOperationException()
+
+        override fun waitFor(): Int = 0
+
+        override fun onExit(): CompletableFuture<Process> = exit
+    }
+
     private class NeverEndingProcess : Process() {
         override fun destroy() {}
 
@@ -130,18 +217,19 @@ class ShutdownExecutorTest {
 
     private class RecordingProcessTerminator : ProcessTerminator {
         data class Call(
+            val process: Process,
             val destroyTree: Boolean,
             val force: Boolean,
         )
 
-        val destroyCalls = mutableListOf<Call>()
+        val destroyCalls: MutableList<Call> = CopyOnWriteArrayList()
 
         override fun terminate(
             process: Process,
             destroyTree: Boolean,
             force: Boolean,
         ) {
-            destroyCalls += Call(destroyTree, force)
+            destroyCalls += Call(process, destroyTree, force)
         }
     }
 }